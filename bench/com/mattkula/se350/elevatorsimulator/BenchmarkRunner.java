@@ -0,0 +1,35 @@
+package com.mattkula.se350.elevatorsimulator;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks of the simulation's hot paths with the GC profiler
+ * turned on, so every result also shows the bytes allocated per operation.
+ * 
+ * Takes an optional regular expression that limits which benchmarks run, for example
+ * "DecisionDelegateBenchmark". Without one every benchmark is run.
+ * 
+ * @author Matt
+ *
+ */
+public class BenchmarkRunner {
+
+	/**
+	 * Runs the benchmarks.
+	 * @param args - An optional regular expression of the benchmarks to run
+	 * @throws RunnerException if JMH fails to run a benchmark
+	 */
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder()
+				.include(args.length > 0 ? args[0] : "com.mattkula.se350.elevatorsimulator.*Benchmark")
+				.addProfiler(GCProfiler.class)
+				.build();
+		
+		new Runner(options).run();
+	}
+
+}
@@ -0,0 +1,125 @@
+package com.mattkula.se350.elevatorsimulator.building;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mattkula.se350.elevatorsimulator.elevator.Elevator;
+import com.mattkula.se350.elevatorsimulator.elevator.ElevatorFactory;
+import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+import com.mattkula.se350.elevatorsimulator.logging.EventLog;
+import com.mattkula.se350.elevatorsimulator.person.Person;
+import com.mattkula.se350.elevatorsimulator.person.PersonGenerator;
+import com.mattkula.se350.elevatorsimulator.simulation.DiscreteEventEngine;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
+import com.mattkula.se350.elevatorsimulator.simulation.VirtualClock;
+
+/**
+ * Benchmarks SimpleFloorImpl.addPeopleToElevator with a long queue of people waiting
+ * on the floor, as happens on the lobby during a busy morning.
+ * 
+ * An elevator going up stops at the middle floor, where one person in ten wants to
+ * go up, so the whole queue is looked at before the elevator is full.
+ * 
+ * @author Matt
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FloorBoardingBenchmark {
+
+	/**
+	 * The number of floors in the building.
+	 */
+	private static final int FLOORS = 50;
+
+	/**
+	 * The floor people are waiting on.
+	 */
+	private static final int STORY = FLOORS / 2;
+
+	/**
+	 * The number of people waiting on the floor.
+	 */
+	@Param({"100", "1000", "10000"})
+	public int queueLength;
+
+	/**
+	 * The simulation the floor and elevator belong to.
+	 */
+	private SimulationContext context;
+
+	/**
+	 * The people waiting, in the order they arrived.
+	 */
+	private Person[] people;
+
+	/**
+	 * The floor being boarded from.
+	 */
+	private SimpleFloorImpl floor;
+
+	/**
+	 * The elevator being boarded.
+	 */
+	private Elevator elevator;
+
+	/**
+	 * Builds the simulation and the people waiting on the floor.
+	 * @throws InvalidArgumentException if a person is invalid
+	 */
+	@Setup(Level.Trial)
+	public void setupTrial() throws InvalidArgumentException{
+		context = new SimulationContext();
+		context.setLog(EventLog.disabled());
+		context.setClock(new VirtualClock());
+		FloorManager.initialize(context, FLOORS);
+		
+		people = new Person[queueLength];
+		for(int i = 0; i < queueLength; i++){
+			int dest = (i % 10 == 0) ? FLOORS : 1;
+			people[i] = PersonGenerator.build(context, i + 1, STORY, dest);
+		}
+	}
+
+	/**
+	 * Puts everybody back on the floor and brings an empty elevator going up to it.
+	 * @throws InvalidArgumentException if the floor or elevator is invalid
+	 */
+	@Setup(Level.Invocation)
+	public void setupInvocation() throws InvalidArgumentException{
+		floor = new SimpleFloorImpl(context, STORY);
+		for(Person p : people){
+			floor.addPerson(p);
+		}
+		
+		elevator = ElevatorFactory.build(context, 1, STORY, 1000, 2000);
+		elevator.scheduleOn(new DiscreteEventEngine());
+		elevator.addDestination(FLOORS);
+	}
+
+	/**
+	 * Boards as many people going up as fit in the elevator.
+	 * @throws InvalidArgumentException if a destination is invalid
+	 */
+	@Benchmark
+	public void addPeopleToElevator() throws InvalidArgumentException{
+		floor.addPeopleToElevator(elevator);
+	}
+
+}
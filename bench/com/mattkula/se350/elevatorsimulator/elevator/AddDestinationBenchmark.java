@@ -0,0 +1,101 @@
+package com.mattkula.se350.elevatorsimulator.elevator;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mattkula.se350.elevatorsimulator.building.FloorManager;
+import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+import com.mattkula.se350.elevatorsimulator.logging.EventLog;
+import com.mattkula.se350.elevatorsimulator.simulation.DiscreteEventEngine;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
+
+/**
+ * Benchmarks SimpleElevatorImpl.addDestination, called for every request sent to an
+ * elevator and for every person that gets on.
+ * 
+ * An elevator waiting on the first floor is given the floors above it in random order,
+ * with repeats, the way the requests of a busy elevator arrive.
+ * 
+ * @author Matt
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AddDestinationBenchmark {
+
+	/**
+	 * The number of floors in the building.
+	 */
+	@Param({"15", "50", "200"})
+	public int floors;
+
+	/**
+	 * The simulation the elevator belongs to.
+	 */
+	private SimulationContext context;
+
+	/**
+	 * The destinations added each invocation, twice as many as there are floors above the first.
+	 */
+	private int[] destinations;
+
+	/**
+	 * The elevator being given destinations.
+	 */
+	private Elevator elevator;
+
+	/**
+	 * Builds the simulation and the destinations from a fixed seed.
+	 */
+	@Setup(Level.Trial)
+	public void setupTrial(){
+		context = new SimulationContext();
+		context.setLog(EventLog.disabled());
+		FloorManager.initialize(context, floors);
+		
+		Random r = new Random(42);
+		destinations = new int[2 * (floors - 1)];
+		for(int i = 0; i < destinations.length; i++){
+			destinations[i] = r.nextInt(floors - 1) + 2;
+		}
+	}
+
+	/**
+	 * Brings a new elevator with no destinations to the first floor.
+	 * @throws InvalidArgumentException if the elevator is invalid
+	 */
+	@Setup(Level.Invocation)
+	public void setupInvocation() throws InvalidArgumentException{
+		elevator = ElevatorFactory.build(context, 1, 1, 1000, 2000);
+		elevator.scheduleOn(new DiscreteEventEngine());
+	}
+
+	/**
+	 * Adds every destination to the elevator.
+	 * @throws InvalidArgumentException if a destination is invalid
+	 */
+	@Benchmark
+	public void addDestination() throws InvalidArgumentException{
+		for(int i = 0; i < destinations.length; i++){
+			elevator.addDestination(destinations[i]);
+		}
+	}
+
+}
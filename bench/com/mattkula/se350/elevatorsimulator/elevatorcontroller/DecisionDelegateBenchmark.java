@@ -0,0 +1,158 @@
+package com.mattkula.se350.elevatorsimulator.elevatorcontroller;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mattkula.se350.elevatorsimulator.elevator.Elevator;
+import com.mattkula.se350.elevatorsimulator.elevator.ElevatorDTO;
+import com.mattkula.se350.elevatorsimulator.elevator.ElevatorSnapshot;
+import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+import com.mattkula.se350.elevatorsimulator.logging.EventLog;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
+
+/**
+ * Benchmarks getBestElevator of each decision delegate, which is called for every
+ * request and again for every pending request each second of the simulation.
+ * 
+ * The elevators are spread randomly over the building, most of them moving, so
+ * requests are a mix of ones answered early and ones that scan every elevator.
+ * 
+ * @author Matt
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecisionDelegateBenchmark {
+
+	/**
+	 * The number of floors in the building.
+	 */
+	private static final int FLOORS = 50;
+	
+	/**
+	 * The number of requests cycled through, a power of two.
+	 */
+	private static final int REQUESTS = 1024;
+
+	/**
+	 * The time to travel a floor given to the estimated time of arrival delegate.
+	 */
+	private static final int MS_PER_FLOOR = 1000;
+
+	/**
+	 * The time to exchange people given to the estimated time of arrival delegate.
+	 */
+	private static final int MS_DOOR_OPERATION = 3000;
+
+	/**
+	 * The delegate to benchmark, as defined in ElevatorController.
+	 */
+	@Param({"1", "2", "3"})
+	public int delegate;
+
+	/**
+	 * The number of elevators the delegate chooses between.
+	 */
+	@Param({"4", "16", "64", "512"})
+	public int elevators;
+
+	/**
+	 * The delegate being benchmarked.
+	 */
+	private ElevatorDecisionDelegate decisionDelegate;
+
+	/**
+	 * The state of every elevator.
+	 */
+	private ElevatorDTO[] data;
+
+	/**
+	 * The same state as data, as the snapshot the ElevatorController gives the delegate.
+	 */
+	private ElevatorSnapshot snapshot;
+
+	/**
+	 * The direction of each request.
+	 */
+	private int[] directions;
+
+	/**
+	 * The story of each request.
+	 */
+	private int[] stories;
+
+	/**
+	 * The request to send next.
+	 */
+	private int next;
+
+	/**
+	 * Builds the delegate, the elevators and the requests from a fixed seed.
+	 * @throws InvalidArgumentException if the delegate does not exist
+	 */
+	@Setup
+	public void setup() throws InvalidArgumentException{
+		SimulationContext context = new SimulationContext();
+		context.setLog(EventLog.disabled());
+		if(delegate == ElevatorController.ETA_DECISION_DELEGATE)
+			decisionDelegate = new EtaElevatorDecisionDelegate(context, MS_PER_FLOOR, MS_DOOR_OPERATION);
+		else
+			decisionDelegate = ElevatorDecisionDelegateFactory.build(context, delegate);
+		
+		Random r = new Random(42);
+		Elevator.Status[] statuses = Elevator.Status.values();
+		data = new ElevatorDTO[elevators];
+		for(int i = 0; i < elevators; i++){
+			data[i] = new ElevatorDTO();
+			data[i].currentFloor = r.nextInt(FLOORS) + 1;
+			data[i].status = statuses[r.nextInt(statuses.length)];
+			data[i].remainingDestinations = "[]";
+		}
+		
+		snapshot = ElevatorSnapshot.of(data);
+		
+		directions = new int[REQUESTS];
+		stories = new int[REQUESTS];
+		for(int i = 0; i < REQUESTS; i++){
+			directions[i] = r.nextBoolean() ? ElevatorController.UP : ElevatorController.DOWN;
+			stories[i] = r.nextInt(FLOORS) + 1;
+		}
+	}
+
+	/**
+	 * Chooses the best elevator for the next request from ElevatorDTOs.
+	 * @return The chosen elevator
+	 */
+	@Benchmark
+	public int getBestElevator(){
+		int i = next++ & (REQUESTS - 1);
+		return decisionDelegate.getBestElevator(directions[i], stories[i], data);
+	}
+
+	/**
+	 * Chooses the best elevator for the next request from a snapshot.
+	 * @return The chosen elevator
+	 */
+	@Benchmark
+	public int getBestElevatorFromSnapshot(){
+		int i = next++ & (REQUESTS - 1);
+		return decisionDelegate.getBestElevator(directions[i], stories[i], snapshot);
+	}
+
+}
@@ -0,0 +1,106 @@
+package com.mattkula.se350.elevatorsimulator.elevatorcontroller;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mattkula.se350.elevatorsimulator.building.BuildingStatsDTO;
+import com.mattkula.se350.elevatorsimulator.building.FloorManager;
+import com.mattkula.se350.elevatorsimulator.elevator.ElevatorDTO;
+import com.mattkula.se350.elevatorsimulator.elevator.ElevatorSnapshot;
+import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+import com.mattkula.se350.elevatorsimulator.logging.EventLog;
+import com.mattkula.se350.elevatorsimulator.simulation.DiscreteEventEngine;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
+
+/**
+ * Benchmarks ElevatorController.getElevatorData() against getElevatorSnapshot(), the
+ * snapshot of every elevator taken before each call to the decision delegate.
+ * 
+ * Every elevator is given destinations spread over the building so the snapshot
+ * includes the cost of describing their remaining destinations.
+ * 
+ * @author Matt
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ElevatorDataBenchmark {
+
+	/**
+	 * The number of floors in the building.
+	 */
+	private static final int FLOORS = 50;
+
+	/**
+	 * The number of elevators in the building.
+	 */
+	@Param({"4", "16", "64", "512"})
+	public int elevators;
+
+	/**
+	 * The controller whose elevators are described.
+	 */
+	private ElevatorController controller;
+
+	/**
+	 * Builds a controller whose elevators run on an event engine that is never run,
+	 * so they keep the destinations they are given.
+	 * @throws InvalidArgumentException if the building is invalid
+	 */
+	@Setup
+	public void setup() throws InvalidArgumentException{
+		SimulationContext context = new SimulationContext();
+		context.setLog(EventLog.disabled());
+		
+		int[] defaultFloors = new int[elevators];
+		Arrays.fill(defaultFloors, 1);
+		int[] floorPercentages = new int[FLOORS];
+		floorPercentages[0] = 100;
+		BuildingStatsDTO stats = new BuildingStatsDTO(60, 1, FLOORS, elevators, 10, 1000, 2000, defaultFloors, 10, floorPercentages);
+		
+		FloorManager.initialize(context, FLOORS);
+		ElevatorController.initialize(context, stats, ElevatorController.DEFAULT_DECISION_DELEGATE, new DiscreteEventEngine());
+		controller = context.getElevatorController();
+		
+		for(int i = 1; i <= elevators; i++){
+			for(int story = 2 + i % 5; story <= FLOORS; story += 5){
+				controller.sendRequestToElevator(i, story);
+			}
+		}
+	}
+
+	/**
+	 * Takes a snapshot of every elevator.
+	 * @return The snapshot
+	 */
+	@Benchmark
+	public ElevatorDTO[] getElevatorData(){
+		return controller.getElevatorData();
+	}
+
+	/**
+	 * Refreshes the controller's reusable snapshot of every elevator.
+	 * @return The snapshot
+	 */
+	@Benchmark
+	public ElevatorSnapshot getElevatorSnapshot(){
+		return controller.getElevatorSnapshot();
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.mattkula.se350.elevatorsimulator.person;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mattkula.se350.elevatorsimulator.building.BuildingStatsDTO;
+import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
+
+/**
+ * Benchmarks PersonGenerator.getDestFloor, which picks the destination of every
+ * person generated.
+ * 
+ * Half of the people start in the lobby and the rest of the building shares the other
+ * half, as in the simulation data files.
+ * 
+ * @author Matt
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DestFloorBenchmark {
+
+	/**
+	 * The number of floors in the building, at most 51 so every floor gets at least one percent.
+	 */
+	@Param({"10", "25", "50"})
+	public int floors;
+
+	/**
+	 * The generator picking destinations.
+	 */
+	private PersonGenerator generator;
+
+	/**
+	 * The floor the next person starts on.
+	 */
+	private int source;
+
+	/**
+	 * Builds a generator from a fixed seed.
+	 * @throws InvalidArgumentException if the building is invalid
+	 */
+	@Setup
+	public void setup() throws InvalidArgumentException{
+		int[] floorPercentages = new int[floors];
+		Arrays.fill(floorPercentages, 50 / (floors - 1));
+		floorPercentages[0] = 100 - (floors - 1) * (50 / (floors - 1));
+		BuildingStatsDTO stats = new BuildingStatsDTO(60, 1, floors, 1, 10, 1000, 2000, new int[]{1}, 10, floorPercentages);
+		
+		SimulationContext context = new SimulationContext();
+		PersonGenerator.initialize(context, stats, 42);
+		generator = context.getPersonGenerator();
+		source = 1;
+	}
+
+	/**
+	 * Picks a destination for a person, cycling through every starting floor.
+	 * @return The destination
+	 */
+	@Benchmark
+	public int getDestFloor(){
+		source = source % floors + 1;
+		return generator.getDestFloor(source);
+	}
+
+}
@@ -1,22 +1,31 @@
 package com.mattkula.se350.elevatorsimulator;
 
-import java.io.FileNotFoundException;
+import java.io.IOException;
 
 import com.mattkula.se350.elevatorsimulator.building.Building;
 import com.mattkula.se350.elevatorsimulator.elevatorcontroller.ElevatorController;
 import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+import com.mattkula.se350.elevatorsimulator.logging.EventLog;
+import com.mattkula.se350.elevatorsimulator.logging.EventLogFactory;
+import com.mattkula.se350.elevatorsimulator.person.ArrivalProfile;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
+import com.mattkula.se350.elevatorsimulator.statistics.MetricsRegistry;
+import com.mattkula.se350.elevatorsimulator.trace.TraceWriter;
+import com.mattkula.se350.elevatorsimulator.utilities.DataInputUtility;
 
 /**
  * ElevatorSimulation contains a main method that is the driver
  * for the current simulation. It starts the simulation then does
- * nothing else.
+ * nothing else. Run it with the argument "fast" to fast-forward:
+ * every delay is virtual and nothing is logged, so the simulation
+ * finishes as fast as it can and only the report is printed.
  * 
  * @author Matt
  *
  */
 public class ElevatorSimulation {
 
-	public static void main(String[] args) throws InvalidArgumentException, FileNotFoundException{
+	public static void main(String[] args) throws InvalidArgumentException, IOException{
 		
 		/* 
 		   ****************************************************
@@ -26,8 +35,36 @@ public class ElevatorSimulation {
 		   ****************************************************
 		*/
 		
-		Building building = new Building("simulation_data.txt", ElevatorController.DEFAULT_DECISION_DELEGATE);			//Default algorithm
-//		Building building = new Building("simulation_data.txt", ElevatorController.IMPROVED_DECISION_DELEGATE);			//My algorithm
-			
+		boolean fastForward = (args.length > 0 && args[0].equalsIgnoreCase("fast"));
+		int simulationMode = (fastForward ? Building.FAST_SIMULATION : Building.REAL_TIME_SIMULATION);
+		
+		SimulationContext context = SimulationContext.current();
+		if(fastForward)
+			context.setLog(EventLog.disabled());																	//Headless, just the report
+		else
+			context.setLog(EventLogFactory.build(context, EventLog.CONSOLE_OUTPUT, EventLog.DEBUG, null));			//Log everything to the console
+//		context.setLog(EventLogFactory.build(context, EventLog.FILE_OUTPUT, EventLog.INFO, "simulation_log.txt"));	//Log main events to a file
+//		context.setLog(EventLog.disabled());																		//No log, just the report
+//		context.setTrace(new TraceWriter("simulation_trace.bin"));													//Binary trace for TraceReader
+//		context.setMetrics(new MetricsRegistry("simulation_metrics.csv", 10));										//Elevator and floor metrics every 10 seconds
+		
+//		context.setDispatchMode(ElevatorController.DESTINATION_DISPATCH);											//Destinations entered at the hall panel
+//		context.setDispatchMode(ElevatorController.BATCHED_DISPATCH);												//Calls of each second assigned together
+//		context.setArrivalProfile(ArrivalProfile.officeDay(1000, 10));												//Poisson arrivals over an office day
+//		context.setPassengerLog("passenger_log.csv");																//Replay recorded time, origin, destination trips
+		
+		Building building = new Building("simulation_data.txt", ElevatorController.DEFAULT_DECISION_DELEGATE, simulationMode);			//Default algorithm
+//		Building building = new Building("simulation_data.txt", ElevatorController.IMPROVED_DECISION_DELEGATE, simulationMode);			//My algorithm
+//		Building building = new Building("simulation_data.txt", ElevatorController.ETA_DECISION_DELEGATE, simulationMode);				//Shortest estimated time of arrival
+//		Building building = new Building(context, DataInputUtility.getBuildingInfoFromFile("simulation_data.txt", "simulation_od_matrix.txt"), 
+//				ElevatorController.DEFAULT_DECISION_DELEGATE, simulationMode, System.nanoTime());					//Trips from the origin-destination matrix
+		
+		context.getLog().close();
+		if(context.getTrace() != null)
+			context.getTrace().close();
+		if(context.getMetrics() != null){
+			context.getMetrics().printSnapshot(context.getOut());
+			context.getMetrics().close();
+		}
 	}
 }
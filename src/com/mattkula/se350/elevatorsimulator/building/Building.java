@@ -1,11 +1,19 @@
 package com.mattkula.se350.elevatorsimulator.building;
 
 import java.io.FileNotFoundException;
+import java.io.PrintStream;
 
 import com.mattkula.se350.elevatorsimulator.elevatorcontroller.ElevatorController;
 import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
 import com.mattkula.se350.elevatorsimulator.person.PersonGenerator;
+import com.mattkula.se350.elevatorsimulator.simulation.DiscreteEventEngine;
+import com.mattkula.se350.elevatorsimulator.simulation.ScaledClock;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationClock;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationEvent;
+import com.mattkula.se350.elevatorsimulator.statistics.MetricsRegistry;
 import com.mattkula.se350.elevatorsimulator.statistics.ReportGenerator;
+import com.mattkula.se350.elevatorsimulator.trace.TraceWriter;
 import com.mattkula.se350.elevatorsimulator.utilities.DataInputUtility;
 
 /**
@@ -18,15 +26,21 @@ import com.mattkula.se350.elevatorsimulator.utilities.DataInputUtility;
 public class Building {
 	
 	/**
-	 * Building data compiled from data text file. Contains all the data
-	 * neccessary to create a customizable simulation. 
+	 * Constant for running the simulation in real time, slowed down by the time scale.
 	 */
-	private BuildingStatsDTO buildingStats;
+	public static final int REAL_TIME_SIMULATION = 1;
 	
 	/**
-	 * Integer used for keeping track of the simulation time. 
+	 * Constant for running the simulation on a discrete event engine as fast as possible,
+	 * ignoring the time scale.
 	 */
-	private static int currentTime;
+	public static final int FAST_SIMULATION = 2;
+	
+	/**
+	 * Building data compiled from data text file. Contains all the data
+	 * neccessary to create a customizable simulation. 
+	 */
+	private BuildingStatsDTO buildingStats;
 	
 	/**
 	 * Duration of the simulation in minutes, must be multiplied by 60 
@@ -35,38 +49,72 @@ public class Building {
 	private int durationInMinutes;
 	
 	/**
-	 * The ratio of time to make faster simulations possible. 
-	 * Ex. If timeScale==5, every five seconds of simulation time
-	 * is one second of real time. In other words, there is a 5:1 ratio. 
+	 * The context holding this building's simulation. The clock, time scale and whether the 
+	 * simulation is running are kept there so every part of the simulation can reach them.
 	 */
-	private static int timeScale;
+	private SimulationContext context;
 	
 	/**
-	 * Boolean that keeps track of if the simulation is still running. 
-	 * Starts true then becomes false after currentTime >= durationInMintues * 60
+	 * Creates a Building instance which creates/holds all of the elevators, initializes 
+	 * the FloorManager, and then begins the simulation by starting a thread for each elevator.
+	 * @param inputFile - The input file to get the data from.
+	 * @throws InvalidArgumentException when floors < 2 or number of elevators < 1
+	 * @throws FileNotFoundException if the specified file is not valid
 	 */
-	private static boolean isRunning;
+	public Building(String inputFile, int decisionDelegate) throws IllegalStateException, InvalidArgumentException, FileNotFoundException{
+		this(inputFile, decisionDelegate, REAL_TIME_SIMULATION);
+	}
 	
 	/**
 	 * Creates a Building instance which creates/holds all of the elevators, initializes 
-	 * the FloorManager, and then begins the simulation by starting a thread for each elevator.
+	 * the FloorManager, and then begins the simulation in the given mode.
 	 * @param inputFile - The input file to get the data from.
+	 * @param decisionDelegate - The delegate the ElevatorController uses to choose elevators
+	 * @param simulationMode - REAL_TIME_SIMULATION or FAST_SIMULATION
 	 * @throws InvalidArgumentException when floors < 2 or number of elevators < 1
 	 * @throws FileNotFoundException if the specified file is not valid
 	 */
-	public Building(String inputFile, int decisionDelegate) throws IllegalStateException, InvalidArgumentException, FileNotFoundException{
-		isRunning = true;
-		currentTime = 0;
-		buildingStats = DataInputUtility.getBuildingInfoFromFile(inputFile);
+	public Building(String inputFile, int decisionDelegate, int simulationMode) throws IllegalStateException, InvalidArgumentException, FileNotFoundException{
+		this(DataInputUtility.getBuildingInfoFromFile(inputFile), decisionDelegate, simulationMode, System.nanoTime());
+	}
+	
+	/**
+	 * Creates a Building instance from already loaded building data, then begins the simulation
+	 * in the given mode on the current thread's SimulationContext.
+	 * @param buildingStats - The data describing the building and simulation
+	 * @param decisionDelegate - The delegate the ElevatorController uses to choose elevators
+	 * @param simulationMode - REAL_TIME_SIMULATION or FAST_SIMULATION
+	 * @param seed - The seed for the random generation of people
+	 * @throws InvalidArgumentException when floors < 2 or number of elevators < 1
+	 */
+	public Building(BuildingStatsDTO buildingStats, int decisionDelegate, int simulationMode, long seed) throws IllegalStateException, InvalidArgumentException{
+		this(SimulationContext.current(), buildingStats, decisionDelegate, simulationMode, seed);
+	}
+	
+	/**
+	 * Creates a Building instance from already loaded building data, then begins the simulation
+	 * in the given mode on the given SimulationContext. Nothing in the simulation touches any other
+	 * context, so any number of buildings can be simulated at once on separate contexts.
+	 * @param context - The empty context to run the simulation on
+	 * @param buildingStats - The data describing the building and simulation
+	 * @param decisionDelegate - The delegate the ElevatorController uses to choose elevators
+	 * @param simulationMode - REAL_TIME_SIMULATION or FAST_SIMULATION
+	 * @param seed - The seed for the random generation of people
+	 * @throws InvalidArgumentException when floors < 2 or number of elevators < 1
+	 */
+	public Building(SimulationContext context, BuildingStatsDTO buildingStats, int decisionDelegate, int simulationMode, long seed) throws IllegalStateException, InvalidArgumentException{
+		DiscreteEventEngine eventEngine = (simulationMode == FAST_SIMULATION ? new DiscreteEventEngine() : null);
+		setup(context, buildingStats, eventEngine);
 		
-		durationInMinutes = buildingStats.getSimulationTime();
-		timeScale = buildingStats.getTimeScaleFactor();
+		FloorManager.initialize(context, buildingStats.getNumOfFloors());
+		PersonGenerator.initialize(context, buildingStats, seed);
+		ElevatorController.initialize(context, buildingStats, decisionDelegate, eventEngine);	//Starts the elevator threads or events
+		ReportGenerator.initialize(context, buildingStats.getNumOfFloors());
 		
-		FloorManager.initialize(buildingStats.getNumOfFloors());
-		PersonGenerator.initialize(buildingStats);
-		ElevatorController.initialize(buildingStats, decisionDelegate);	//Starts the elevator threads
-		ReportGenerator.initialize(buildingStats.getNumOfFloors());
-		simulate();
+		if(eventEngine == null)
+			simulate();
+		else
+			simulateFast();
 	}
 	
 	/**
@@ -74,16 +122,13 @@ public class Building {
 	 * waits for input from test cases.
 	 */
 	public Building(String inputFile, int decisionDelegate, boolean isTesting) throws IllegalStateException, InvalidArgumentException, FileNotFoundException{
-		isRunning = true;
-		currentTime = 0;
-		buildingStats = DataInputUtility.getBuildingInfoFromFile(inputFile);;
+		BuildingStatsDTO stats = DataInputUtility.getBuildingInfoFromFile(inputFile);;
 		
-		if(buildingStats == null){
+		if(stats == null){
 			throw new IllegalStateException("simulation_data.txt not found");
 		}
 		
-		durationInMinutes = buildingStats.getSimulationTime();
-		timeScale = buildingStats.getTimeScaleFactor();
+		setup(SimulationContext.current(), stats, null);
 		
 		FloorManager.initialize(buildingStats.getNumOfFloors());
 		PersonGenerator.initialize(buildingStats);
@@ -93,6 +138,38 @@ public class Building {
 			simulate();
 	}
 	
+	/**
+	 * Stores the building data and prepares the SimulationContext to run it.
+	 * @param context - The context to run the simulation on
+	 * @param stats - The data describing the building and simulation
+	 * @param eventEngine - The engine to run on, or null to run in real time
+	 * @throws InvalidArgumentException if the time scale is not valid
+	 */
+	private void setup(SimulationContext context, BuildingStatsDTO stats, DiscreteEventEngine eventEngine) throws InvalidArgumentException{
+		buildingStats = stats;
+		durationInMinutes = buildingStats.getSimulationTime();
+		
+		this.context = context;
+		context.setRunning(true);
+		context.setEventEngine(eventEngine);
+		context.setTimeScale(buildingStats.getTimeScaleFactor());
+		context.setClock(eventEngine != null ? eventEngine.getClock() : new ScaledClock(buildingStats.getTimeScaleFactor()));
+		
+		trace(TraceWriter.SIMULATION_STARTED, buildingStats.getNumOfElevators(), buildingStats.getNumOfFloors());
+	}
+	
+	/**
+	 * Adds a record about the whole simulation to its trace, if it has one.
+	 * @param type - The type of event, one of the constants of TraceWriter
+	 * @param elevator - The elevator number to record
+	 * @param floor - The floor number to record
+	 */
+	private void trace(int type, int elevator, int floor){
+		TraceWriter trace = context.getTrace();
+		if(trace != null)
+			trace.record(context.getClock().currentTimeMillis(), type, elevator, floor, 0);
+	}
+	
 	/**
 	 * The main loop for the main thread that keeps the simulation running for (durationInMinutes*60) seconds.
 	 * Also makes a call to possibly generate a person every second.
@@ -101,36 +178,89 @@ public class Building {
 	private void simulate() throws InvalidArgumentException{
 		try {
 			
-			while(currentTime < durationInMinutes*60){
-				currentTime++;
-				Thread.sleep(1000 / Building.getTimeScale());
-				PersonGenerator.getInstance().generateAndAddPerson();
-				ElevatorController.getInstance().checkIfPendingNowValid();
+			for(int second = 1; second <= durationInMinutes*60; second++){
+				context.getClock().sleepUntil(second * 1000L);
+				context.getPersonGenerator().generateAndAddPerson();
+				context.getElevatorController().checkIfPendingNowValid();
+				sampleMetrics(false);
 			}
 			
-			isRunning = false;
-			
-			Thread.sleep(2000); 	// Wait for other threads to finish
+			context.setRunning(false);
+			context.getPersonGenerator().close();
+			trace(TraceWriter.SIMULATION_ENDED, 0, 0);
 			
-			System.out.println("Ending simulation. Generating report...");
+			context.getElevatorController().stopElevators(); 	// Wait for elevators to finish their trips
+			sampleMetrics(true);
 			
-			ReportGenerator.getInstance().printFinalReport();
+			if(context.getTrace() != null)
+				context.getTrace().flush();
+			context.getLog().flush();		// Don't let the report get mixed into the log
+			context.getOut().println("Ending simulation. Generating report...");
 			
-			System.exit(0);
+			context.getReportGenerator().printFinalReport();
 		
 		} catch (InterruptedException e) {
 			e.printStackTrace();
 		}
 	}
 	
+	/**
+	 * Runs the simulation on the discrete event engine as fast as possible. A person arrival
+	 * event fires every simulated second in place of the main loop, then once the duration is 
+	 * over the elevators finish their current trips before the report is printed.
+	 * @throws InvalidArgumentException if data in the input file is invalid, as specified by the message
+	 */
+	private void simulateFast() throws InvalidArgumentException{
+		final DiscreteEventEngine eventEngine = context.getEventEngine();
+		
+		eventEngine.schedule(new SimulationEvent(SimulationEvent.Type.PERSON_ARRIVAL){
+			public void fire() throws InvalidArgumentException{
+				context.getPersonGenerator().generateAndAddPerson();
+				context.getElevatorController().checkIfPendingNowValid();
+				sampleMetrics(false);
+				
+				if(eventEngine.getCurrentTime() < durationInMinutes*60*1000L)
+					eventEngine.schedule(this, 1000);
+				else{
+					context.setRunning(false);
+					context.getPersonGenerator().close();
+					trace(TraceWriter.SIMULATION_ENDED, 0, 0);
+				}
+			}
+		}, 1000);
+		
+		eventEngine.run();		// Returns once every elevator has finished
+		sampleMetrics(true);
+		
+		if(context.getTrace() != null)
+			context.getTrace().flush();
+		context.getLog().flush();		// Don't let the report get mixed into the log
+		context.getOut().println("Ending simulation. Generating report...");
+		
+		context.getReportGenerator().printFinalReport();
+	}
+	
+	/**
+	 * Gives the simulation's metrics, if it collects them, the chance to write a row of their values.
+	 * @param finished - true once the elevators have finished, to write the last row whether or not one is due
+	 */
+	private void sampleMetrics(boolean finished){
+		MetricsRegistry metrics = context.getMetrics();
+		if(metrics == null)
+			return;
+		
+		if(finished)
+			metrics.writeRow(context.getClock().currentTimeMillis());
+		else
+			metrics.sample(context.getClock().currentTimeMillis());
+	}
+	
 	/**
 	 * Keeps track of simulation time, useful for logging.
 	 * @return A String formatting of the current hour, minute and second in hh:mm:ss format
 	 */
 	public static String getTimeString(){
-		
-		return String.format("%02d:%02d:%02d", currentTime / 3600, (currentTime / 60) % 60, currentTime % 60);
-		
+		return SimulationContext.current().getTimeString();
 	}
 	
 	/**
@@ -139,7 +269,7 @@ public class Building {
 	 * @return The number of simulated seconds that correspond to actual seconds. 
 	 */
 	public static int getTimeScale(){
-		return timeScale;
+		return SimulationContext.current().getTimeScale();
 	}
 	
 	/**
@@ -147,7 +277,7 @@ public class Building {
 	 * @return True if the simulation is running, false if it is over
 	 */
 	public static boolean isRunning(){
-		return isRunning;
+		return SimulationContext.current().isRunning();
 	}
 	
 	/**
@@ -155,7 +285,24 @@ public class Building {
 	 * @return The number of simulated seconds gone by since it began
 	 */
 	public static int getCurrentTime(){
-		return currentTime;
+		return SimulationContext.current().getCurrentTime();
+	}
+	
+	/**
+	 * Get the clock of the current simulation, which everything should read the time from
+	 * and sleep against instead of using real time.
+	 * @return The clock of the current simulation
+	 */
+	public static SimulationClock getClock(){
+		return SimulationContext.current().getClock();
+	}
+	
+	/**
+	 * Get where the current simulation writes its console output.
+	 * @return The PrintStream of the current simulation
+	 */
+	public static PrintStream getOut(){
+		return SimulationContext.current().getOut();
 	}
 	
 }
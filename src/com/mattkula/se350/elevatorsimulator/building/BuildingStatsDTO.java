@@ -61,9 +61,20 @@ public class BuildingStatsDTO {
 	private int personsPerMinute;
 	
 	/**
-	 * Percentages of person being generated at/with destination of each floor.
+	 * Weights of person being generated at/with destination of each floor, in any units.
 	 */
-	private int[] floorStatsPercentages;
+	private double[] floorWeights;
+	
+	/**
+	 * The sum of floorWeights.
+	 */
+	private double totalFloorWeight;
+	
+	/**
+	 * The weight of the trips between each pair of floors, null to use floorWeights for both ends of every trip.
+	 * @see #setOriginDestinationMatrix(OriginDestinationMatrix)
+	 */
+	private OriginDestinationMatrix originDestinationMatrix;
 	
 	
 	/**
@@ -81,6 +92,26 @@ public class BuildingStatsDTO {
 	 */
 	public BuildingStatsDTO(int simulationTimeIn, int timeScaleFactorIn, int numOfFloorsIn, int numOfElevatorsIn, int maxPersonsPerElevatorIn, int msPerFloorIn,
 							int msDoorOperationIn, int defaultFloorIn[], int personsPerMinuteIn, int[] floorStatsPercentagesIn) throws InvalidArgumentException{
+		this(simulationTimeIn, timeScaleFactorIn, numOfFloorsIn, numOfElevatorsIn, maxPersonsPerElevatorIn, msPerFloorIn,
+				msDoorOperationIn, defaultFloorIn, personsPerMinuteIn, toWeights(floorStatsPercentagesIn));
+	}
+	
+	/**
+	 * Constructor that creates the data holder object with floor weights that do not have
+	 * to be whole percentages. Only the proportions between the weights matter.
+	 * @param simulationTimeIn - Simulation time
+	 * @param timeScaleFactorIn - Number of simulated seconds per real second
+	 * @param numOfFloorsIn - Number of floors in the building
+	 * @param numOfElevatorsIn - number of elevators in the building
+	 * @param maxPersonsPerElevatorIn - Max capacity of the elevators
+	 * @param msPerFloorIn - Time for elevators to travel a floor
+	 * @param msDoorOperationIn - Time for elevators to exchange at a floor
+	 * @param defaultFloorIn - Default floor for the elevators
+	 * @param personsPerMinuteIn - Number of people generated per minute
+	 * @param floorWeightsIn - Weight of each floor of the building
+	 */
+	public BuildingStatsDTO(int simulationTimeIn, int timeScaleFactorIn, int numOfFloorsIn, int numOfElevatorsIn, int maxPersonsPerElevatorIn, int msPerFloorIn,
+							int msDoorOperationIn, int defaultFloorIn[], int personsPerMinuteIn, double[] floorWeightsIn) throws InvalidArgumentException{
 		
 		setSimulationTime(simulationTimeIn);
 		setTimeScaleFactor(timeScaleFactorIn);
@@ -91,7 +122,21 @@ public class BuildingStatsDTO {
 		setMsDoorOperation(msDoorOperationIn);
 		setDefaultFloor(defaultFloorIn);
 		setPersonsPerMinute(personsPerMinuteIn);
-		setFloorStatsPercentages(floorStatsPercentagesIn);
+		setFloorWeights(floorWeightsIn);
+	}
+	
+	/**
+	 * Converts whole percentages to weights.
+	 * @param percentages - The percentages of each floor
+	 * @return The same numbers as weights
+	 */
+	private static double[] toWeights(int[] percentages){
+		double[] weights = new double[percentages.length];
+		for(int i = 0; i < percentages.length; i++){
+			weights[i] = percentages[i];
+		}
+		
+		return weights;
 	}
 
 	/**
@@ -263,20 +308,64 @@ public class BuildingStatsDTO {
 	}
 
 	/**
-	 * @return Array of the floor statistics used by PersonGenerator
+	 * @param floor - The story of the floor
+	 * @return The weight of the floor used by PersonGenerator
 	 */
-	public int getFloorPercentage(int floor) {
-		return floorStatsPercentages[floor-1];
+	public double getFloorWeight(int floor) {
+		return floorWeights[floor-1];
+	}
+	
+	/**
+	 * @param floor - The story of the floor
+	 * @return The floor's share of all the floor weights, as a percentage
+	 */
+	public double getFloorPercentage(int floor) {
+		return 100 * floorWeights[floor-1] / totalFloorWeight;
 	}
 
 	/**
 	 * The statistics of the floor generation.
-	 * @param floorStatsPercentages - Array of percentages per floor to generate Person instances.
+	 * @param floorWeights - Array of weights per floor to generate Person instances.
 	 */
-	private void setFloorStatsPercentages(int[] floorStatsPercentages) throws InvalidArgumentException{
-		if(floorStatsPercentages.length != getNumOfFloors())
+	private void setFloorWeights(double[] floorWeights) throws InvalidArgumentException{
+		if(floorWeights.length != getNumOfFloors())
 			throw new InvalidArgumentException("Your floor stats do not equal the number of floors");
-		this.floorStatsPercentages = floorStatsPercentages;
+		
+		double total = 0;
+		for(double weight : floorWeights){
+			if(!(weight >= 0) || Double.isInfinite(weight))
+				throw new InvalidArgumentException("Floor weight " + weight + " cannot be negative");
+			total += weight;
+		}
+		
+		if(!(total > 0) || Double.isInfinite(total))
+			throw new InvalidArgumentException("At least one floor must have a weight");
+		
+		this.floorWeights = floorWeights;
+		this.totalFloorWeight = total;
+	}
+	
+	/**
+	 * @return The weight of the trips between each pair of floors, null if the floor weights are used instead
+	 */
+	public OriginDestinationMatrix getOriginDestinationMatrix() {
+		return originDestinationMatrix;
+	}
+	
+	/**
+	 * Sets the weight of the trips between each pair of floors, which PersonGenerator uses
+	 * instead of the floor weights.
+	 * @param matrix - The trips between floors, null to go back to the floor weights
+	 * @throws InvalidArgumentException if the matrix is for a different number of floors or has a window with no trips
+	 */
+	public void setOriginDestinationMatrix(OriginDestinationMatrix matrix) throws InvalidArgumentException{
+		if(matrix != null){
+			if(matrix.getNumOfFloors() != getNumOfFloors())
+				throw new InvalidArgumentException("Your origin-destination matrix does not equal the number of floors");
+			matrix.validate();
+		}
+		
+		this.originDestinationMatrix = matrix;
 	}
 	
 	/**
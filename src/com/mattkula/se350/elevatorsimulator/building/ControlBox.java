@@ -2,11 +2,14 @@ package com.mattkula.se350.elevatorsimulator.building;
 
 import com.mattkula.se350.elevatorsimulator.elevatorcontroller.ElevatorController;
 import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+import com.mattkula.se350.elevatorsimulator.person.Person;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
 
 /**
  * Class that represents the ControlBox on each Floor of the building. A User
  * presses the ControlBox, either up or down, sending the ElevatorController a
- * request that it must delegate and assign to an Elevator. 
+ * request that it must delegate and assign to an Elevator. In destination dispatch
+ * mode the User enters where they are going instead and is told which Elevator to take.
  * @author Matt
  *
  */
@@ -19,11 +22,26 @@ public class ControlBox {
 	 */
 	int story;
 	
+	/**
+	 * The simulation whose ElevatorController receives the requests.
+	 */
+	private SimulationContext context;
+	
 	/**
 	 * Simple Constructor that sets the story of this ControlBox
 	 * @param story - The story of the Control Box
 	 */
 	public ControlBox(int story) throws InvalidArgumentException{
+		this(SimulationContext.current(), story);
+	}
+	
+	/**
+	 * Constructor that sets the story of this ControlBox and the simulation it belongs to
+	 * @param context - The simulation whose ElevatorController receives the requests
+	 * @param story - The story of the Control Box
+	 */
+	public ControlBox(SimulationContext context, int story) throws InvalidArgumentException{
+		this.context = context;
 		setStory(story);
 	}
 	
@@ -34,7 +52,7 @@ public class ControlBox {
 	 * @throws InvalidArgumentException - if the story is not a valid Floor
 	 */
 	public void pressUp() throws InvalidArgumentException{
-		ElevatorController.getInstance().sendRequest(ElevatorController.UP, story);
+		getElevatorController().sendRequest(ElevatorController.UP, story);
 	}
 	
 	/**
@@ -44,7 +62,31 @@ public class ControlBox {
 	 * @throws InvalidArgumentException - if the story is not a valid Floor
 	 */
 	public void pressDown() throws InvalidArgumentException{
-		ElevatorController.getInstance().sendRequest(ElevatorController.DOWN, story);
+		getElevatorController().sendRequest(ElevatorController.DOWN, story);
+	}
+	
+	/**
+	 * Simulates the Person entering their destination on the ControlBox in destination
+	 * dispatch mode. The ElevatorController tells the Person which Elevator to take.
+	 * @param person - The Person entering their destination
+	 * @return The number of the Elevator the Person was assigned, 0 if they may take any
+	 * @throws InvalidArgumentException - if the story or destination is not a valid Floor
+	 */
+	public int enterDestination(Person person) throws InvalidArgumentException{
+		return getElevatorController().sendDestinationRequest(person, story);
+	}
+	
+	/**
+	 * Gets the ElevatorController of the simulation the ControlBox belongs to.
+	 * @return The simulation's ElevatorController
+	 * @throws IllegalStateException if the ElevatorController has not been initialized
+	 */
+	private ElevatorController getElevatorController(){
+		ElevatorController controller = context.getElevatorController();
+		if(controller == null)
+			throw new IllegalStateException("Must initialize ElevatorController before using it");
+		
+		return controller;
 	}
 	
 	/**
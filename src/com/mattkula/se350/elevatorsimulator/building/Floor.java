@@ -28,6 +28,15 @@ public interface Floor {
 	 */
 	public void addPeopleToElevator(Elevator e) throws InvalidArgumentException;
 	
+	/**
+	 * Called when an elevator closes its doors at the floor. The hall call the elevator
+	 * answered was cleared when it was sent, so anybody left waiting, such as people going
+	 * the other way or who did not fit, presses the ControlBox again.
+	 * @param e - The elevator leaving the floor
+	 * @throws InvalidArgumentException if input data is invalid - specified by error message
+	 */
+	public void doorsClosed(Elevator e) throws InvalidArgumentException;
+	
 	/**
 	 * Get the height/id of the floor. The story of the building which it represents.
 	 * @return The story fo the building which the Floor represents.
@@ -41,5 +50,13 @@ public interface Floor {
 	 * @throws InvalidArgumentException if input data is invalid - specified by error message
 	 */
 	public void pressControlBox(int direction) throws InvalidArgumentException;
+	
+	/**
+	 * Method that simulates a Person entering their destination on the ControlBox of the Floor
+	 * they are on, in destination dispatch mode. The Person is told which Elevator to take.
+	 * @param person - The Person, already waiting on the Floor
+	 * @throws InvalidArgumentException if input data is invalid - specified by error message
+	 */
+	public void enterDestination(Person person) throws InvalidArgumentException;
 
 }
@@ -1,6 +1,7 @@
 package com.mattkula.se350.elevatorsimulator.building;
 
 import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
 
 /**
  * A Factory class that builds appropriate Floors for the desired situations.
@@ -16,7 +17,17 @@ public class FloorFactory {
 	 * @return A Floor implementation that best meets the requirements
 	 */
 	public static Floor build(int story) throws InvalidArgumentException{
-		return new SimpleFloorImpl(story);
+		return build(SimulationContext.current(), story);
+	}
+	
+	/**
+	 * Builds the required Floor implementations for the given simulation
+	 * @param context - The simulation the Floor belongs to
+	 * @param story - The story of the building to be built
+	 * @return A Floor implementation that best meets the requirements
+	 */
+	public static Floor build(SimulationContext context, int story) throws InvalidArgumentException{
+		return new SimpleFloorImpl(context, story);
 	}
 
 }
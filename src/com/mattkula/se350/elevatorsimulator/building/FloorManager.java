@@ -5,13 +5,14 @@ import java.util.ArrayList;
 import com.mattkula.se350.elevatorsimulator.elevator.Elevator;
 import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
 import com.mattkula.se350.elevatorsimulator.person.Person;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
 
 /**
  * A Singleton facade that handles everything to do with Floors, including adding people and
  * removing people from them and getting their size. 
  * 
  * This class is a singleton, but must be initialized using the initialize(int numOfFloors)
- * method. This can only be called once. 
+ * method. This can only be called once per SimulationContext. 
  * 
  * @author Matt
  *
@@ -19,28 +20,24 @@ import com.mattkula.se350.elevatorsimulator.person.Person;
 
 public class FloorManager {
 	
-	/**
-	 * Keeps the instance cached to use as a Singleton.
-	 */
-	private static FloorManager floorManager;
-	
 	/**
 	 * Contains all of the Floor instances in the building.
 	 */
-	private static ArrayList<Floor> floors;
+	private ArrayList<Floor> floors;
 	
 	/**
 	 * Private constructor that creates the one and only instance of FloorManager. This creates
 	 * as many Floor instances as building stories and holds them in an ArrayList.
+	 * @param context - The simulation the floors belong to
 	 * @param numOfFloors - The number of floors in the building
 	 */
-	private FloorManager(int numOfFloors){
+	private FloorManager(SimulationContext context, int numOfFloors){
 		floors = new ArrayList<Floor>();
 		
 		try{
 		
 			for(int i=1; i <= numOfFloors; i++){
-				floors.add(FloorFactory.build(i));
+				floors.add(FloorFactory.build(context, i));
 			}
 		
 		}catch(InvalidArgumentException e){
@@ -55,18 +52,31 @@ public class FloorManager {
 	 * @throws IllegalStateException if this method has already been called once elsewhere
 	 * @param numOfFloors is the number of floors the building has.
 	 */
-	public synchronized static void initialize(int numOfFloors){
-		if(floorManager != null)
-			throw new IllegalStateException("Floor Manager already initialized");
-		
-		floorManager = new FloorManager(numOfFloors);
+	public static void initialize(int numOfFloors){
+		initialize(SimulationContext.current(), numOfFloors);
+	}
+	
+	/**
+	 * Creates the floor manager of the given simulation, can only be called once per simulation. 
+	 * 
+	 * @throws IllegalStateException if this method has already been called once for the simulation
+	 * @param context - The simulation to create the floor manager for
+	 * @param numOfFloors is the number of floors the building has.
+	 */
+	public static void initialize(SimulationContext context, int numOfFloors){
+		synchronized(context){
+			if(context.getFloorManager() != null)
+				throw new IllegalStateException("Floor Manager already initialized");
+			
+			context.setFloorManager(new FloorManager(context, numOfFloors));
+		}
 	}
 	
 	/**
 	 * Used for testing building creation.
 	 */
 	public static void destroy(){
-		floorManager = null;
+		SimulationContext.current().setFloorManager(null);
 	}
 	
 	/**
@@ -75,6 +85,7 @@ public class FloorManager {
 	 * @throws IllegalStateException if initialize is not called once before invoking getInstance()
 	 */
 	public static FloorManager getInstance(){
+		FloorManager floorManager = SimulationContext.current().getFloorManager();
 		if(floorManager == null)
 			throw new IllegalStateException("Must initialize FloorManager before using it");
 		
@@ -87,12 +98,10 @@ public class FloorManager {
 	 * @param person - The person you are adding to the floor
 	 */
 	public void addPersonToFloor(int story, Person person) throws InvalidArgumentException{
-		if(story < 1 || story > getInstance().getNumberOfFloors())
+		if(story < 1 || story > getNumberOfFloors())
 			throw new InvalidArgumentException("Person being added out of floor range.");
 		
-		synchronized(floors.get(story - 1)){
-			floors.get(story - 1).addPerson(person);
-		}
+		floors.get(story - 1).addPerson(person);		// Lock-free, so generating never waits for boarding
 	}
 	
 	/**
@@ -105,6 +114,16 @@ public class FloorManager {
 		floors.get(story - 1).addPeopleToElevator(e);
 	}
 	
+	/**
+	 * Called when an elevator closes its doors at a floor, so people left waiting call another one.
+	 * @param story - The story the elevator is leaving
+	 * @param e - The elevator leaving the floor
+	 * @throws InvalidArgumentException - if the story is not a valid story
+	 */
+	public void doorsClosedAt(int story, Elevator e) throws InvalidArgumentException{
+		floors.get(story - 1).doorsClosed(e);
+	}
+	
 	/**
 	 * Called when a Control Box is pressed
 	 * @param story - The story the Control Box is pressed
@@ -115,6 +134,16 @@ public class FloorManager {
 		floors.get(story - 1).pressControlBox(direction);
 	}
 	
+	/**
+	 * Called when a Person enters their destination on a Control Box, in destination dispatch mode
+	 * @param story - The story the Control Box is on
+	 * @param person - The person entering their destination
+	 * @throws InvalidArgumentException - if the story is not a valid story
+	 */
+	public void enterDestinationAt(int story, Person person) throws InvalidArgumentException{
+		floors.get(story - 1).enterDestination(person);
+	}
+	
 	/**
 	 * Method to find out how many floors are in a building
 	 * @return The number of floors in a building
@@ -0,0 +1,164 @@
+package com.mattkula.se350.elevatorsimulator.building;
+
+import java.util.Arrays;
+
+import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+
+/**
+ * How much traffic goes from each floor to each other floor, so trips do not have to be
+ * symmetric the way they are with one percentage per floor. The day can be split into
+ * windows, each with its own matrix, starting at a simulated minute.
+ *
+ * Every matrix is kept in one flat array, window by window, then origin by origin, then
+ * destination by destination. The weights are in any units, only the proportions within
+ * a window matter. Trips from a floor to itself are ignored.
+ *
+ * @author Matt
+ *
+ */
+public class OriginDestinationMatrix {
+
+	/**
+	 * The number of floors in the building.
+	 * @see #getNumOfFloors()
+	 */
+	private int numOfFloors;
+
+	/**
+	 * The weight of every trip, indexed by ((window * numOfFloors) + origin - 1) * numOfFloors + destination - 1.
+	 */
+	private double[] weights;
+
+	/**
+	 * The simulation millisecond each window starts at, in increasing order. The first is always 0.
+	 */
+	private long[] starts;
+
+	/**
+	 * The number of windows.
+	 * @see #size()
+	 */
+	private int size;
+
+	/**
+	 * Creates a matrix with a single window for the whole day, with no trips yet.
+	 * @param numOfFloors - The number of floors in the building
+	 */
+	public OriginDestinationMatrix(int numOfFloors){
+		this.numOfFloors = numOfFloors;
+		weights = new double[numOfFloors * numOfFloors];
+		starts = new long[1];
+		size = 1;
+	}
+
+	/**
+	 * Starts a new window with no trips, lasting until the next one starts or the end of the simulation.
+	 * @param startMinute - The simulated minute the window starts, after the start of the last window
+	 * @return The index of the new window
+	 * @throws InvalidArgumentException if the window does not start after the last one
+	 */
+	public int addWindow(double startMinute) throws InvalidArgumentException{
+		long start = (long)(startMinute * 60000);
+		if(start <= starts[size - 1])
+			throw new InvalidArgumentException("Origin-destination windows must be added in order");
+
+		int cells = numOfFloors * numOfFloors;
+		starts = Arrays.copyOf(starts, size + 1);
+		weights = Arrays.copyOf(weights, (size + 1) * cells);
+		starts[size] = start;
+		return size++;
+	}
+
+	/**
+	 * Sets how much traffic goes from one floor to another during a window.
+	 * @param window - The index of the window
+	 * @param origin - The story the trips start on
+	 * @param destination - The story the trips end on
+	 * @param weight - The weight of the trips, 0 if nobody makes them
+	 * @throws InvalidArgumentException if a story is not a floor or the weight is negative
+	 */
+	public void setTrips(int window, int origin, int destination, double weight) throws InvalidArgumentException{
+		if(origin < 1 || origin > numOfFloors || destination < 1 || destination > numOfFloors)
+			throw new InvalidArgumentException("Trip from " + origin + " to " + destination + " outside of building constraints.");
+
+		if(!(weight >= 0) || Double.isInfinite(weight))
+			throw new InvalidArgumentException("Trip weight " + weight + " cannot be negative");
+
+		weights[index(window, origin, destination)] = (origin == destination ? 0 : weight);
+	}
+
+	/**
+	 * @param window - The index of the window
+	 * @param origin - The story the trips start on
+	 * @param destination - The story the trips end on
+	 * @return The weight of the trips
+	 */
+	public double getTrips(int window, int origin, int destination){
+		return weights[index(window, origin, destination)];
+	}
+
+	/**
+	 * Copies the weights of a window's trips, in the order of the flat array.
+	 * @param window - The index of the window
+	 * @return The weight of the trip from each origin to each destination
+	 */
+	public double[] getWindow(int window){
+		int cells = numOfFloors * numOfFloors;
+		return Arrays.copyOfRange(weights, window * cells, (window + 1) * cells);
+	}
+
+	/**
+	 * Makes sure every window has at least one trip.
+	 * @throws InvalidArgumentException if a window has no trips
+	 */
+	public void validate() throws InvalidArgumentException{
+		int cells = numOfFloors * numOfFloors;
+		for(int window = 0; window < size; window++){
+			double total = 0;
+			for(int i = window * cells; i < (window + 1) * cells; i++){
+				total += weights[i];
+			}
+
+			if(!(total > 0) || Double.isInfinite(total))
+				throw new InvalidArgumentException("Origin-destination window " + window + " has no trips");
+		}
+	}
+
+	/**
+	 * Finds the window a moment of the simulation falls in.
+	 * @param millis - The simulation time in milliseconds
+	 * @return The index of the window
+	 */
+	public int windowAt(long millis){
+		int window = 0;
+		while(window + 1 < size && starts[window + 1] <= millis)
+			window++;
+
+		return window;
+	}
+
+	/**
+	 * @return The number of floors in the building
+	 */
+	public int getNumOfFloors(){
+		return numOfFloors;
+	}
+
+	/**
+	 * @return The number of windows
+	 */
+	public int size(){
+		return size;
+	}
+
+	/**
+	 * @param window - The index of the window
+	 * @param origin - The story the trips start on
+	 * @param destination - The story the trips end on
+	 * @return The position of the trips in the flat array
+	 */
+	private int index(int window, int origin, int destination){
+		return ((window * numOfFloors) + origin - 1) * numOfFloors + destination - 1;
+	}
+
+}
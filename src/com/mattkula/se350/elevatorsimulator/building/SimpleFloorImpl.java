@@ -1,15 +1,28 @@
 package com.mattkula.se350.elevatorsimulator.building;
 
-import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.mattkula.se350.elevatorsimulator.elevator.Elevator;
 import com.mattkula.se350.elevatorsimulator.elevatorcontroller.ElevatorController;
 import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
 import com.mattkula.se350.elevatorsimulator.person.Person;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
+import com.mattkula.se350.elevatorsimulator.statistics.Gauge;
+import com.mattkula.se350.elevatorsimulator.statistics.MetricsRegistry;
+import com.mattkula.se350.elevatorsimulator.trace.TraceWriter;
 
 /**
  * A simple implementation of the Floor interface. 
  * 
+ * Each direction has its own WaitingQueue, which is also the lock for that direction, so
+ * people boarding up and down at the same floor do not wait for each other. People arrive
+ * without taking either lock, and no lock is held while calling into an Elevator, so a
+ * floor lock is never held at the same time as an elevator's or the other direction's.
+ * 
+ * If the simulation collects metrics, the floor registers how many people have arrived,
+ * how many are waiting and how long the longest of them has waited. The queues are only
+ * locked to read them when the metrics are sampled.
+ * 
  * @author Matt
  */
 public class SimpleFloorImpl implements Floor{
@@ -22,34 +35,138 @@ public class SimpleFloorImpl implements Floor{
 	int story;
 	
 	/**
-	 * A collection of all the Person implementations contained on this floor
+	 * The people on this floor waiting to go up, in the order they arrived. Locked while
+	 * reading or boarding from it.
+	 * @see #addPerson(Person)
+	 */
+	WaitingQueue upQueue;
+	
+	/**
+	 * The people on this floor waiting to go down, in the order they arrived. Locked while
+	 * reading or boarding from it.
 	 * @see #addPerson(Person)
 	 */
-	ArrayList<Person> people;
+	WaitingQueue downQueue;
+	
+	/**
+	 * The number of people who have started waiting on this floor, used to tell which
+	 * of the two queues has the person who has waited the longest.
+	 */
+	private AtomicLong arrivals;
 	
 	/**
 	 * Control box on the floor that people press when
 	 */
 	ControlBox controlBox;
 	
+	/**
+	 * The simulation the floor belongs to.
+	 */
+	private SimulationContext context;
+	
 	/**
 	 * Constructor for a Simple Floor. 
 	 * @param story - The story that this floor will simulate
 	 */
 	public SimpleFloorImpl(int story) throws InvalidArgumentException{
+		this(SimulationContext.current(), story);
+	}
+	
+	/**
+	 * Constructor for a Simple Floor belonging to the given simulation.
+	 * @param context - The simulation the floor belongs to
+	 * @param story - The story that this floor will simulate
+	 */
+	public SimpleFloorImpl(SimulationContext context, int story) throws InvalidArgumentException{
+		this.context = context;
 		setStory(story);
-		people = new ArrayList<Person>();
-		controlBox = new ControlBox(getStory());
+		upQueue = new WaitingQueue();
+		downQueue = new WaitingQueue();
+		arrivals = new AtomicLong();
+		controlBox = new ControlBox(context, getStory());
+		
+		if(context.getMetrics() != null)
+			registerMetrics(context.getMetrics());
+	}
+	
+	/**
+	 * Registers the floor's metrics, named after its story.
+	 * @param metrics - The registry of the simulation
+	 */
+	private void registerMetrics(MetricsRegistry metrics){
+		String prefix = "floor." + story + ".";
+		metrics.gauge(prefix + "arrivals", new Gauge(){
+			public double getValue(){
+				return arrivals.get();
+			}
+		});
+		metrics.gauge(prefix + "queueDepth", new Gauge(){
+			public double getValue(){
+				return getNumberWaiting();
+			}
+		});
+		metrics.gauge(prefix + "oldestWaitMillis", new Gauge(){
+			public double getValue(){
+				long created = getOldestCreatedTime();
+				if(created == Long.MAX_VALUE)
+					return 0;
+				
+				return Math.max(context.getClock().currentTimeMillis() - created, 0);
+			}
+		});
+	}
+	
+	/**
+	 * Counts the people waiting on the floor in both directions.
+	 * @return The number of people waiting for an elevator
+	 */
+	int getNumberWaiting(){
+		int waiting = 0;
+		synchronized(upQueue){
+			upQueue.drain();
+			waiting += upQueue.size();
+		}
+		
+		synchronized(downQueue){
+			downQueue.drain();
+			waiting += downQueue.size();
+		}
+		
+		return waiting;
+	}
+	
+	/**
+	 * Finds when the person who has waited the longest on the floor was created.
+	 * @return The simulation time in milliseconds, Long.MAX_VALUE if nobody is waiting
+	 */
+	long getOldestCreatedTime(){
+		return Math.min(oldestCreatedTime(upQueue), oldestCreatedTime(downQueue));
+	}
+	
+	/**
+	 * Finds when the person at the front of a queue was created.
+	 * @param queue - The people waiting to go in one direction
+	 * @return The simulation time in milliseconds, Long.MAX_VALUE if nobody is waiting
+	 */
+	private long oldestCreatedTime(WaitingQueue queue){
+		synchronized(queue){
+			queue.drain();
+			Person person = queue.peek();
+			return (person == null ? Long.MAX_VALUE : person.getCreatedTime());
+		}
 	}
 	
 	/**
-	 * Adds a Person to this Floor
+	 * Adds a Person to this Floor, at the back of the queue for the direction they want
+	 * to go. A Person whose destination is this floor has arrived and is not waiting for
+	 * an elevator, so they are not queued. Never waits for people boarding.
 	 * @param person - Person implementation to add
 	 */
 	public void addPerson(Person person){
-		synchronized(this){
-			people.add(person);
-		}
+		if(person.getDestination() > story)
+			upQueue.offer(person, arrivals.getAndIncrement());
+		else if(person.getDestination() < story)
+			downQueue.offer(person, arrivals.getAndIncrement());
 	}
 
 	/**
@@ -57,71 +174,148 @@ public class SimpleFloorImpl implements Floor{
 	 * @param id - Id of the person to remove
 	 */
 	public void removePerson(int id) {
-		synchronized(this){
-			for(int i = 0; i < people.size(); i++){
-				if(people.get(i).getId() == id){
-					people.remove(i);
-				}
-			}
+		synchronized(upQueue){
+			upQueue.drain();
+			if(upQueue.remove(id))
+				return;
+		}
+		
+		synchronized(downQueue){
+			downQueue.drain();
+			downQueue.remove(id);
 		}
 	}
 	
 	/**
 	 * Method to add people from this floor to an elevator that is going
 	 * in the people's desired direction. Only adds them if the elevator is 
-	 * not at full capacity yet.
+	 * not at full capacity yet. An elevator that is waiting takes whoever
+	 * has waited the longest, then everyone going the same way. People who
+	 * were told to take a different elevator stay on the floor.
 	 * @param e - The elevator instance to add the people to.
 	 */
 	@Override
 	public void addPeopleToElevator(Elevator e) throws InvalidArgumentException {
-		synchronized(this){
-			ArrayList<Person> peopleToRemove = new ArrayList<Person>();
-			
-			for(int i = 0; i < people.size(); i++){
-				
-				if(e.getStatus() == Elevator.Status.MOVING_UP){
-					
-					if(people.get(i).getDestination() > this.story){
-						if(e.addPerson(people.get(i))){
-							peopleToRemove.add(people.get(i));
-						}else{
-							break;	//Not enough room
-						}
-					}
-					
-				}else if(e.getStatus() == Elevator.Status.MOVING_DOWN){
-					
-					if(people.get(i).getDestination() < this.story){
-						if(e.addPerson(people.get(i))){
-							peopleToRemove.add(people.get(i));
-						}else{
-							break;	//Not enough room
-						}
-					}
-					
-				}else{
-					
-					if(people.get(i).getDestination() != this.story){
-						if(e.addPerson(people.get(i))){
-							peopleToRemove.add(people.get(i));
-						}else{
-							break;	//Not enough room
-						}
-					}
-					
-				}
+		if(e.getStatus() == Elevator.Status.MOVING_UP){
+			board(e, upQueue);
+		}else if(e.getStatus() == Elevator.Status.MOVING_DOWN){
+			board(e, downQueue);
+		}else{
+			long upArrival = firstArrivalFor(upQueue, e.getElevatorNumber());
+			long downArrival = firstArrivalFor(downQueue, e.getElevatorNumber());
+			if(upArrival != Long.MAX_VALUE || downArrival != Long.MAX_VALUE)
+				board(e, upArrival < downArrival ? upQueue : downQueue);
+		}
+	}
+	
+	/**
+	 * Presses the ControlBox again for each direction that still has somebody waiting who may
+	 * take any elevator. Without it, people the elevator left behind would wait until someone
+	 * new arrived and pressed the button. Anybody still told to take the leaving elevator was
+	 * not boarded, such as somebody going the other way, and it is not coming back for them, so
+	 * they may take any elevator first. A call that is still pending is not registered twice.
+	 * @param e - The elevator leaving the floor
+	 */
+	@Override
+	public void doorsClosed(Elevator e) throws InvalidArgumentException{
+		if(leftBehind(upQueue, e.getElevatorNumber()))
+			pressControlBox(ElevatorController.UP);
+		if(leftBehind(downQueue, e.getElevatorNumber()))
+			pressControlBox(ElevatorController.DOWN);
+	}
+	
+	/**
+	 * Lets the people in a queue who were told to take a leaving elevator take any elevator,
+	 * then checks whether anybody in the queue may take any elevator.
+	 * @param queue - The people waiting to go in one direction
+	 * @param elevatorNumber - The number of the elevator leaving the floor
+	 * @return true if somebody in the queue is not waiting for a particular elevator
+	 */
+	private boolean leftBehind(WaitingQueue queue, int elevatorNumber){
+		synchronized(queue){
+			queue.drain();
+			releaseAssigned(queue, elevatorNumber);
+			return queue.indexFor(0, 0) >= 0;
+		}
+	}
+	
+	/**
+	 * Finds when the first person in a queue who may take an elevator arrived.
+	 * @param queue - The people waiting to go in one direction
+	 * @param elevatorNumber - The number of the elevator
+	 * @return The order the person arrived at the floor, Long.MAX_VALUE if nobody may take the elevator
+	 */
+	private long firstArrivalFor(WaitingQueue queue, int elevatorNumber){
+		synchronized(queue){
+			queue.drain();
+			int i = queue.indexFor(elevatorNumber, 0);
+			return (i < 0 ? Long.MAX_VALUE : queue.arrivalAt(i));
+		}
+	}
+	
+	/**
+	 * Moves people from a queue onto an elevator, in the order they arrived, until nobody
+	 * else in the queue may take the elevator or the elevator is full. If the elevator fills
+	 * up, the people still waiting for it may take any elevator instead.
+	 * 
+	 * Each person is taken off the queue under its lock, then put on the elevator after
+	 * letting go of it. Somebody who does not fit is put back where they were. Everyone
+	 * ahead of the last person to board was told to take another elevator, so each search
+	 * carries on from where the last one stopped instead of from the front of the queue.
+	 * That is found by arrival order, since the lock is let go of in between.
+	 * @param e - The elevator the people get on
+	 * @param queue - The people waiting to go in the elevator's direction
+	 * @throws InvalidArgumentException if a person's destination is not a valid floor
+	 */
+	private void board(Elevator e, WaitingQueue queue) throws InvalidArgumentException{
+		TraceWriter trace = context.getTrace();
+		int elevatorNumber = e.getElevatorNumber();
+		long boarded = -1;		// The arrival of the last person to board
+		while(true){
+			Person person;
+			long arrival;
+			synchronized(queue){
+				queue.drain();
+				int i = queue.indexFor(elevatorNumber, queue.indexAfter(boarded));
+				if(i < 0)
+					return;
 				
+				arrival = queue.arrivalAt(i);
+				person = queue.removeAt(i);
 			}
 			
-			for(int i = 0; i < peopleToRemove.size(); i++){
-				peopleToRemove.get(i).setAddedToElevatorTime();
+			if(!e.addPerson(person)){	//Not enough room
+				synchronized(queue){
+					queue.insert(person, arrival);
+					releaseAssigned(queue, elevatorNumber);
+				}
+				return;
 			}
 			
-			people.removeAll(peopleToRemove);
+			boarded = arrival;
+			if(person.getAssignedElevator() != 0)
+				context.getElevatorController().releaseAssignment(elevatorNumber, person.getDestination());
+			person.setAddedToElevatorTime();
+			if(trace != null)
+				trace.record(context.getClock().currentTimeMillis(), TraceWriter.PERSON_BOARDED, elevatorNumber, story, person.getId());
 		}
 	}
-
 	
+	/**
+	 * Lets the people in a queue who were told to take a full or leaving elevator take any
+	 * elevator instead. Must be called holding the queue's lock.
+	 * @param queue - The people waiting to go in one direction
+	 * @param elevatorNumber - The number of the elevator
+	 */
+	private void releaseAssigned(WaitingQueue queue, int elevatorNumber){
+		for(int i = 0; i < queue.size(); i++){
+			Person person = queue.get(i);
+			if(person.getAssignedElevator() == elevatorNumber){
+				person.setAssignedElevator(0);
+				context.getElevatorController().releaseAssignment(elevatorNumber, person.getDestination());
+			}
+		}
+	}
 
 	/**
 	 * Sets the story of the floor
@@ -150,5 +344,15 @@ public class SimpleFloorImpl implements Floor{
 		else
 			controlBox.pressDown();
 	}
+	
+	/**
+	 * Called when a Person is generated in destination dispatch mode. The Person enters their 
+	 * destination on this floor's ControlBox and is told which elevator to take.
+	 * @param person - The new Person, already waiting on this floor
+	 */
+	@Override
+	public void enterDestination(Person person) throws InvalidArgumentException{
+		controlBox.enterDestination(person);
+	}
 
 }
@@ -0,0 +1,327 @@
+package com.mattkula.se350.elevatorsimulator.building;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.mattkula.se350.elevatorsimulator.person.Person;
+
+/**
+ * The people waiting on a floor to go in one direction, first come first served. Kept in a
+ * growable circular array, so people are added and boarded without shifting anyone else,
+ * along with the order each person arrived at the floor so the queues of both directions
+ * can be compared.
+ *
+ * People arriving from any thread are offered to a lock-free inbox, a linked list that
+ * many threads can push onto but only one drains, so arriving never waits for boarding.
+ * Everything else is not synchronized: the Floor that owns the queue locks on it, and
+ * drains the inbox into the array while holding the lock, so whoever holds the lock is
+ * the single consumer.
+ *
+ * @author Matt
+ *
+ */
+class WaitingQueue {
+
+	/**
+	 * The people waiting, starting at head and wrapping around the end of the array.
+	 * The length is always a power of two.
+	 */
+	private Person[] people;
+
+	/**
+	 * The order in which each person in people arrived at the floor.
+	 */
+	private long[] arrivals;
+
+	/**
+	 * The index of the person who has waited the longest.
+	 */
+	private int head;
+
+	/**
+	 * The number of people waiting.
+	 * @see #size()
+	 */
+	private int size;
+
+	/**
+	 * The last person drained from the inbox, or an empty node before anyone is. The people
+	 * still to be drained follow it.
+	 */
+	private Node inboxHead;
+
+	/**
+	 * The last person offered to the inbox, swapped in by each new arrival.
+	 */
+	private AtomicReference<Node> inboxTail;
+
+	/**
+	 * Creates an empty queue.
+	 */
+	WaitingQueue(){
+		people = new Person[16];
+		arrivals = new long[16];
+		inboxHead = new Node(null, 0);
+		inboxTail = new AtomicReference<Node>(inboxHead);
+	}
+
+	/**
+	 * Offers a person to the inbox without taking any lock. Safe to call from any thread, the
+	 * person joins the queue the next time it is drained.
+	 * @param person - The person who arrived
+	 * @param arrival - The order the person arrived at the floor
+	 */
+	void offer(Person person, long arrival){
+		Node node = new Node(person, arrival);
+		Node last = inboxTail.getAndSet(node);
+		last.next = node;		// Until this is set the node and any after it wait for the next drain
+	}
+
+	/**
+	 * Moves everybody offered to the inbox into the queue, in the order they arrived. Must only
+	 * be called by one thread at a time, the one holding the queue's lock.
+	 */
+	void drain(){
+		Node next;
+		while((next = inboxHead.next) != null){
+			insert(next.person, next.arrival);
+			next.person = null;		// The node stays behind as the new head
+			inboxHead = next;
+		}
+	}
+
+	/**
+	 * Adds a person to the back of the queue.
+	 * @param person - The person who arrived
+	 * @param arrival - The order the person arrived at the floor, larger than everyone already in the queue
+	 */
+	void add(Person person, long arrival){
+		if(size == people.length)
+			grow();
+
+		int tail = (head + size) & (people.length - 1);
+		people[tail] = person;
+		arrivals[tail] = arrival;
+		size++;
+	}
+
+	/**
+	 * Adds a person to the queue in the order they arrived, which is the back of the queue
+	 * unless somebody who arrived later was added first.
+	 * @param person - The person who arrived
+	 * @param arrival - The order the person arrived at the floor
+	 */
+	void insert(Person person, long arrival){
+		int i = size;
+		while(i > 0 && arrivalAt(i - 1) > arrival)
+			i--;
+
+		if(i == size){
+			add(person, arrival);
+			return;
+		}
+
+		if(size == people.length)
+			grow();
+
+		int mask = people.length - 1;
+		if(i == 0){
+			head = (head - 1) & mask;
+		}else{
+			for(int j = size; j > i; j--){
+				people[(head + j) & mask] = people[(head + j - 1) & mask];
+				arrivals[(head + j) & mask] = arrivals[(head + j - 1) & mask];
+			}
+		}
+		people[(head + i) & mask] = person;
+		arrivals[(head + i) & mask] = arrival;
+		size++;
+	}
+
+	/**
+	 * @return The person who has waited the longest, null if nobody is waiting
+	 */
+	Person peek(){
+		if(size == 0)
+			return null;
+
+		return people[head];
+	}
+
+	/**
+	 * @return The order in which the person at the front of the queue arrived, Long.MAX_VALUE if nobody is waiting
+	 */
+	long peekArrival(){
+		if(size == 0)
+			return Long.MAX_VALUE;
+
+		return arrivals[head];
+	}
+
+	/**
+	 * Removes the person who has waited the longest.
+	 * @return The person removed, null if nobody is waiting
+	 */
+	Person poll(){
+		if(size == 0)
+			return null;
+
+		Person person = people[head];
+		people[head] = null;
+		head = (head + 1) & (people.length - 1);
+		size--;
+		return person;
+	}
+
+	/**
+	 * Removes a person from anywhere in the queue, keeping everyone else in order.
+	 * @param id - The id of the person to remove
+	 * @return true if the person was waiting in this queue
+	 */
+	boolean remove(int id){
+		int mask = people.length - 1;
+		for(int i = 0; i < size; i++){
+			if(people[(head + i) & mask].getId() == id){
+				removeAt(i);
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * @param i - The position in the queue, 0 for the person who has waited the longest
+	 * @return The person at the position
+	 */
+	Person get(int i){
+		return people[(head + i) & (people.length - 1)];
+	}
+
+	/**
+	 * @param i - The position in the queue, 0 for the person who has waited the longest
+	 * @return The order in which the person at the position arrived at the floor
+	 */
+	long arrivalAt(int i){
+		return arrivals[(head + i) & (people.length - 1)];
+	}
+
+	/**
+	 * Removes the person at a position in the queue, keeping everyone else in order.
+	 * Removing the front of the queue is the same as poll().
+	 * @param i - The position in the queue, 0 for the person who has waited the longest
+	 * @return The person removed
+	 */
+	Person removeAt(int i){
+		if(i == 0)
+			return poll();
+
+		int mask = people.length - 1;
+		Person person = people[(head + i) & mask];
+		for(int j = i; j < size - 1; j++){
+			people[(head + j) & mask] = people[(head + j + 1) & mask];
+			arrivals[(head + j) & mask] = arrivals[(head + j + 1) & mask];
+		}
+		people[(head + size - 1) & mask] = null;
+		size--;
+		return person;
+	}
+
+	/**
+	 * Finds where the people who arrived after someone start, by binary search since
+	 * the queue is kept in the order people arrived.
+	 * @param arrival - The order someone arrived at the floor, -1 for the front of the queue
+	 * @return The position of the first person who arrived after them, size() if nobody did
+	 */
+	int indexAfter(long arrival){
+		int low = 0;
+		int high = size;
+		while(low < high){
+			int middle = (low + high) >>> 1;
+			if(arrivalAt(middle) <= arrival)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+
+		return low;
+	}
+
+	/**
+	 * Finds the next person who may get on an elevator, meaning anyone who was not
+	 * told to take a different elevator.
+	 * @param elevatorNumber - The number of the elevator
+	 * @param from - The position in the queue to start looking from
+	 * @return The position of the person, -1 if nobody from that position on may get on
+	 */
+	int indexFor(int elevatorNumber, int from){
+		for(int i = from; i < size; i++){
+			int assigned = get(i).getAssignedElevator();
+			if(assigned == 0 || assigned == elevatorNumber)
+				return i;
+		}
+
+		return -1;
+	}
+
+	/**
+	 * @return true if nobody is waiting
+	 */
+	boolean isEmpty(){
+		return size == 0;
+	}
+
+	/**
+	 * @return The number of people waiting
+	 */
+	int size(){
+		return size;
+	}
+
+	/**
+	 * Doubles the size of the arrays, moving the front of the queue to index 0.
+	 */
+	private void grow(){
+		Person[] newPeople = new Person[people.length * 2];
+		long[] newArrivals = new long[people.length * 2];
+		for(int i = 0; i < size; i++){
+			newPeople[i] = people[(head + i) & (people.length - 1)];
+			newArrivals[i] = arrivals[(head + i) & (people.length - 1)];
+		}
+
+		people = newPeople;
+		arrivals = newArrivals;
+		head = 0;
+	}
+
+	/**
+	 * A person waiting in the inbox to be drained into the queue.
+	 */
+	private static class Node {
+
+		/**
+		 * The person who arrived, cleared once drained.
+		 */
+		Person person;
+
+		/**
+		 * The order the person arrived at the floor.
+		 */
+		final long arrival;
+
+		/**
+		 * The person offered after this one, null until they are linked in.
+		 */
+		volatile Node next;
+
+		/**
+		 * @param person - The person who arrived
+		 * @param arrival - The order the person arrived at the floor
+		 */
+		Node(Person person, long arrival){
+			this.person = person;
+			this.arrival = arrival;
+		}
+
+	}
+
+}
@@ -0,0 +1,229 @@
+package com.mattkula.se350.elevatorsimulator.elevator;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationClock;
+import com.mattkula.se350.elevatorsimulator.statistics.Histogram;
+
+/**
+ * The commands sent to one elevator, each a story to go to, waiting for the elevator's own
+ * thread to take them. Any thread can post without locking or waiting, and the elevator
+ * parks on the mailbox while it has nothing to do, so sending a request never blocks on
+ * an elevator and an elevator never misses one.
+ *
+ * Commands are kept in a ring of slots. A poster claims the next slot by incrementing the
+ * tail, fills it in, then publishes it by setting the slot's sequence number, and only the
+ * elevator moves the head. A story that is already waiting in the mailbox is not posted
+ * again, so there are never more commands waiting than floors and the ring, at least as
+ * big as the building, can never overflow.
+ *
+ * The time between posting a command and the elevator taking it is recorded for each command.
+ *
+ * @author Matt
+ *
+ */
+class CommandMailbox {
+
+	/**
+	 * The story of the command in each slot.
+	 */
+	private int[] stories;
+
+	/**
+	 * The simulation time each slot's command was posted at.
+	 */
+	private long[] postedAt;
+
+	/**
+	 * The ticket of the command published in each slot plus one, so the elevator can tell
+	 * a slot that has been filled in from one still being written or left from the last lap.
+	 */
+	private AtomicLongArray sequence;
+
+	/**
+	 * The ticket of the next slot to claim. Also the number of commands ever posted.
+	 */
+	private AtomicLong tail;
+
+	/**
+	 * The ticket of the next command to take, only moved by the elevator.
+	 */
+	private volatile long head;
+
+	/**
+	 * 1 for each story with a command waiting in the mailbox, indexed by story.
+	 */
+	private AtomicIntegerArray waiting;
+
+	/**
+	 * The elevator's thread while it is parked on the mailbox, otherwise null.
+	 */
+	private volatile Thread parked;
+
+	/**
+	 * Set once the elevator is stopped, after which it never parks on the mailbox again.
+	 * @see #close()
+	 */
+	private volatile boolean closed;
+
+	/**
+	 * The simulated milliseconds each command waited in the mailbox.
+	 * @see #getLatencies()
+	 */
+	private Histogram latencies;
+
+	/**
+	 * The story of the last command taken.
+	 * @see #peek()
+	 */
+	private int story;
+
+	/**
+	 * Creates an empty mailbox for a building.
+	 * @param numOfFloors - The number of floors in the building
+	 */
+	CommandMailbox(int numOfFloors){
+		int capacity = Integer.highestOneBit(Math.max(numOfFloors, 1) * 2 - 1);	// Smallest power of two holding every floor
+		stories = new int[capacity];
+		postedAt = new long[capacity];
+		sequence = new AtomicLongArray(capacity);
+		tail = new AtomicLong();
+		waiting = new AtomicIntegerArray(numOfFloors + 1);
+		latencies = new Histogram();
+	}
+
+	/**
+	 * Posts a command for the elevator and wakes it up if it is parked. Never blocks, and
+	 * does nothing if the story is already waiting in the mailbox.
+	 * @param floorNum - The story to go to, already checked to be a floor
+	 * @param time - The simulation time the command is posted at
+	 */
+	void post(int floorNum, long time){
+		if(!waiting.compareAndSet(floorNum, 0, 1))
+			return;
+
+		long ticket = tail.getAndIncrement();
+		int slot = (int)ticket & (stories.length - 1);
+		stories[slot] = floorNum;
+		postedAt[slot] = time;
+		sequence.set(slot, ticket + 1);		// Publishes the slot
+
+		Thread thread = parked;
+		if(thread != null)
+			LockSupport.unpark(thread);
+	}
+
+	/**
+	 * Looks at the oldest command, if it has been published, without taking it. Must only be
+	 * called by the elevator, which acts on the command before taking it so that the command
+	 * is never out of the mailbox without the elevator's state showing it.
+	 * @return true if there is a command, its story is then given by getStory()
+	 * @see #take(long)
+	 */
+	boolean peek(){
+		int slot = (int)head & (stories.length - 1);
+		if(sequence.get(slot) != head + 1)
+			return false;
+
+		story = stories[slot];
+		return true;
+	}
+
+	/**
+	 * Takes the command last looked at by peek(). Must only be called by the elevator.
+	 * @param time - The simulation time the command is taken at, used to record its latency
+	 */
+	void take(long time){
+		int slot = (int)head & (stories.length - 1);
+		latencies.recordValue(Math.max(time - postedAt[slot], 0));
+		head++;
+		waiting.set(story, 0);		// Posting the story again now adds a new command
+	}
+
+	/**
+	 * @return The story of the command last taken
+	 */
+	int getStory(){
+		return story;
+	}
+
+	/**
+	 * @return true if nothing has been posted since the last command was taken
+	 */
+	boolean isEmpty(){
+		return tail.get() == head;
+	}
+
+	/**
+	 * Parks the elevator's thread until a command is posted, the mailbox is closed, the thread is
+	 * interrupted or the timeout passes. It may also return for no reason, so the caller checks
+	 * again what it was waiting for.
+	 * @param clock - The clock of the simulation
+	 * @param millis - The most simulated milliseconds to park for, 0 for no limit
+	 */
+	void park(SimulationClock clock, long millis){
+		parked = Thread.currentThread();
+		if(isEmpty() && !closed){		// Checked after setting parked, so a post or close in between always unparks
+			if(millis > 0)
+				clock.park(this, millis);
+			else
+				LockSupport.park(this);
+		}
+		parked = null;
+	}
+
+	/**
+	 * Wakes up the elevator if it is parked on the mailbox, and keeps it from parking again.
+	 * Commands can still be posted and taken.
+	 */
+	void close(){
+		closed = true;
+		Thread thread = parked;
+		if(thread != null)
+			LockSupport.unpark(thread);
+	}
+
+	/**
+	 * Copies the stories waiting in the mailbox in the order they were posted, so the controller
+	 * can see where the elevator has been sent before the elevator takes the commands. Safe to
+	 * call from any thread. A command taken while copying ends the copy, since the elevator's
+	 * state then already shows it.
+	 * @param into - Where to copy the stories, at least as long as the number of floors
+	 * @return The number of stories copied
+	 */
+	int copyPending(int[] into){
+		int count = 0;
+		for(long ticket = head; ticket < tail.get() && count < into.length; ticket++){
+			int slot = (int)ticket & (stories.length - 1);
+			if(sequence.get(slot) != ticket + 1)
+				break;		// Still being written
+
+			int pending = stories[slot];
+			if(head > ticket)
+				break;		// Taken, the slot may have been written again
+			into[count++] = pending;
+		}
+
+		return count;
+	}
+
+	/**
+	 * @return The number of commands ever posted
+	 */
+	long getPostCount(){
+		return tail.get();
+	}
+
+	/**
+	 * Gets the simulated milliseconds each command waited in the mailbox. Only safe to read
+	 * once the elevator has stopped.
+	 * @return The latencies of every command taken
+	 */
+	Histogram getLatencies(){
+		return latencies;
+	}
+
+}
@@ -0,0 +1,177 @@
+package com.mattkula.se350.elevatorsimulator.elevator;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The stories an elevator still has to stop at, kept as one bit per floor so adding,
+ * removing and finding the next stop in either direction never boxes a story or sorts
+ * a list. Bit n is story n.
+ *
+ * The bits are held in an AtomicLongArray sized for every floor up front, which never
+ * grows or shrinks. The elevator changes one word at a time, and a controller reading
+ * the set from another thread reads it word by word, so it sees stale stops at worst,
+ * never an exception.
+ *
+ * @author Matt
+ *
+ */
+class DestinationSet {
+
+	/**
+	 * The stories to stop at, 64 to a word.
+	 */
+	private AtomicLongArray words;
+
+	/**
+	 * Creates an empty set for a building.
+	 * @param numOfFloors - The number of floors in the building
+	 */
+	DestinationSet(int numOfFloors){
+		words = new AtomicLongArray((numOfFloors + 64) / 64);	// Stories 0 to numOfFloors
+	}
+
+	/**
+	 * Adds a story to stop at.
+	 * @param story - The story to add
+	 */
+	void add(int story){
+		int word = story >>> 6;
+		long old;
+		do{
+			old = words.get(word);
+		}while(!words.compareAndSet(word, old, old | (1L << story)));
+	}
+
+	/**
+	 * Removes a story, once the elevator has stopped there.
+	 * @param story - The story to remove
+	 */
+	void remove(int story){
+		int word = story >>> 6;
+		long old;
+		do{
+			old = words.get(word);
+		}while(!words.compareAndSet(word, old, old & ~(1L << story)));
+	}
+
+	/**
+	 * @param story - The story to check
+	 * @return true if the elevator is going to stop at the story
+	 */
+	boolean contains(int story){
+		return (words.get(story >>> 6) & (1L << story)) != 0;
+	}
+
+	/**
+	 * @return true if there are no stories left to stop at
+	 */
+	boolean isEmpty(){
+		for(int i = 0; i < words.length(); i++){
+			if(words.get(i) != 0)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return The number of stories left to stop at
+	 */
+	int size(){
+		int size = 0;
+		for(int i = 0; i < words.length(); i++){
+			size += Long.bitCount(words.get(i));
+		}
+		return size;
+	}
+
+	/**
+	 * @return The lowest story to stop at, -1 if there are none
+	 */
+	int lowest(){
+		return nextAbove(0);
+	}
+
+	/**
+	 * @return The highest story to stop at, -1 if there are none
+	 */
+	int highest(){
+		return nextBelow(words.length() * 64 - 1);
+	}
+
+	/**
+	 * Finds the next stop going up.
+	 * @param story - The story to start looking from, included
+	 * @return The lowest story to stop at that is at or above the given one, -1 if there are none
+	 */
+	int nextAbove(int story){
+		int word = story >>> 6;
+		if(word >= words.length())
+			return -1;
+
+		long bits = words.get(word) & (-1L << story);		// Only the stories from this one up
+		while(bits == 0){
+			if(++word == words.length())
+				return -1;
+			bits = words.get(word);
+		}
+		return word * 64 + Long.numberOfTrailingZeros(bits);
+	}
+
+	/**
+	 * Finds the next stop going down.
+	 * @param story - The story to start looking from, included
+	 * @return The highest story to stop at that is at or below the given one, -1 if there are none
+	 */
+	int nextBelow(int story){
+		if(story < 0)
+			return -1;
+
+		int word = Math.min(story >>> 6, words.length() - 1);
+		long bits = words.get(word);
+		if(word == story >>> 6)
+			bits &= (-1L >>> (63 - (story & 63)));			// Only the stories from this one down
+		while(bits == 0){
+			if(--word < 0)
+				return -1;
+			bits = words.get(word);
+		}
+		return word * 64 + 63 - Long.numberOfLeadingZeros(bits);
+	}
+
+	/**
+	 * Writes every story into an elevator's destinations in a snapshot, replacing what was there.
+	 * @param snapshot - The snapshot to write to
+	 * @param index - The index of the elevator in the snapshot
+	 */
+	void writeTo(ElevatorSnapshot snapshot, int index){
+		snapshot.clearDestinations(index);
+		for(int story = nextAbove(1); story >= 0; story = nextAbove(story + 1)){
+			snapshot.addDestination(index, story);
+		}
+	}
+
+	/**
+	 * Lists the stories in the order they will be stopped at.
+	 * @param up - true to list them lowest first, false for highest first
+	 * @return The stories, such as "[3, 7, 12]"
+	 */
+	String toString(boolean up){
+		StringBuilder s = new StringBuilder("[");
+		if(up){
+			for(int story = lowest(); story >= 0; story = nextAbove(story + 1)){
+				if(s.length() > 1)
+					s.append(", ");
+				s.append(story);
+			}
+		}else{
+			for(int story = highest(); story >= 0; story = nextBelow(story - 1)){
+				if(s.length() > 1)
+					s.append(", ");
+				s.append(story);
+			}
+		}
+
+		return s.append(']').toString();
+	}
+
+}
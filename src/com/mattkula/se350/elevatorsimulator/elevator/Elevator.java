@@ -2,6 +2,8 @@ package com.mattkula.se350.elevatorsimulator.elevator;
 
 import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
 import com.mattkula.se350.elevatorsimulator.person.Person;
+import com.mattkula.se350.elevatorsimulator.simulation.DiscreteEventEngine;
+import com.mattkula.se350.elevatorsimulator.statistics.Histogram;
 
 /**
  * An Elevator interface that defines behavior for every elevator implementation.
@@ -24,18 +26,41 @@ public interface Elevator extends Runnable{
 	}
 	
 	/**
-	 * Adds a destination to the Elevator implementation.
+	 * Adds a destination to the Elevator implementation. Only called by the elevator itself,
+	 * or while nothing else is running it, other threads send a command instead.
 	 * @param floorNum - the floor the elevator should stop at. 
 	 * @throws InvalidArgumentException if the floor is not in the building
+	 * @see #sendCommand(int)
 	 */
 	public void addDestination(int floorNum) throws InvalidArgumentException;
 	
+	/**
+	 * Sends the elevator to a floor from any thread without waiting for the elevator. The
+	 * floor is added as a destination once the elevator takes the command.
+	 * @param floorNum - the floor the elevator should stop at. 
+	 * @throws InvalidArgumentException if the floor is not in the building
+	 */
+	public void sendCommand(int floorNum) throws InvalidArgumentException;
+	
+	/**
+	 * Gets how long the commands sent to the elevator waited before it took them. Only
+	 * complete once the elevator has stopped.
+	 * @return The simulated milliseconds between sending and taking each command
+	 */
+	public Histogram getCommandLatencies();
+	
     /**
      * Indicates the current floor that the elevator is stopped at or passing.
      * @return The current floor that the elevator is stopped at or passing.
      */
 	public int getCurrentFloor();
 	
+	/**
+	 * Get the number of the elevator in the building.
+	 * @return The elevator's number, starting at 1
+	 */
+	public int getElevatorNumber();
+	
 	/**
 	 * Adds a Person implementation to the elevator.
 	 * @param p - The person implementation to add
@@ -50,10 +75,31 @@ public interface Elevator extends Runnable{
      */
 	public String getRemainingDestinations();
 	
+	/**
+	 * Writes the elevator's current floor, status, load and destinations into a snapshot.
+	 * @param snapshot - The snapshot to write to
+	 * @param index - Where in the snapshot to write, the elevator's number minus one
+	 */
+	public void writeTo(ElevatorSnapshot snapshot, int index);
+	
 	/**
      * Gets the Status of an elevator as defined in Elevator.Status
      * @return The status of the elevator as defined in Elevator.Status
      */
 	public Elevator.Status getStatus();
 	
+	/**
+	 * Runs the elevator on a discrete event engine instead of on its own thread. Every
+	 * floor passed, door operation and idle timeout becomes an event on the engine.
+	 * @param engine - The engine to schedule the elevator's events on
+	 * @throws InvalidArgumentException if the elevator's data is invalid
+	 */
+	public void scheduleOn(DiscreteEventEngine engine) throws InvalidArgumentException;
+	
+	/**
+	 * Asks the elevator to stop running once it finishes its current trip, waking it
+	 * up if it is idle.
+	 */
+	public void stop();
+	
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.mattkula.se350.elevatorsimulator.elevator;
 
 import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
 
 /**
  * Factory that creates Elevator implementations that best fit the parameters. 
@@ -17,7 +18,18 @@ public class ElevatorFactory {
 	 * @throws InvalidArgumentException if the elevatorNum < 1
 	 */
 	public static Elevator build(int elevatorNum, int defaultFloor, int msPerFloor, int msDoorOperation) throws InvalidArgumentException{
-		return new SimpleElevatorImpl(elevatorNum, defaultFloor, msPerFloor, msDoorOperation);
+		return build(SimulationContext.current(), elevatorNum, defaultFloor, msPerFloor, msDoorOperation);
+	}
+	
+	/**
+	 * Creates Elevator implementations that best fit the parameters, belonging to the given simulation.
+	 * @param context - The simulation the elevator belongs to
+	 * @param elevatorNum - Number/id of the elevator
+	 * @return Best fit implementation of an Elevator
+	 * @throws InvalidArgumentException if the elevatorNum < 1
+	 */
+	public static Elevator build(SimulationContext context, int elevatorNum, int defaultFloor, int msPerFloor, int msDoorOperation) throws InvalidArgumentException{
+		return new SimpleElevatorImpl(context, elevatorNum, defaultFloor, msPerFloor, msDoorOperation);
 	}
 
 }
@@ -0,0 +1,364 @@
+package com.mattkula.se350.elevatorsimulator.elevator;
+
+import java.util.Arrays;
+
+/**
+ * The state of every Elevator in the building, kept in parallel arrays of primitives so the
+ * ElevatorController can refresh it in place before every decision instead of building a new
+ * ElevatorDTO for each elevator. Elevators are indexed from 0, so the elevator at index i is
+ * elevator number i+1.
+ *
+ * The destinations of each elevator are a bitmask over the floors, one bit per story, so the
+ * delegates can check for a stop with hasDestination(int, int) instead of parsing a string.
+ *
+ * @author Matt
+ *
+ */
+public class ElevatorSnapshot {
+
+	/**
+	 * Every Status, indexed by ordinal, so reading a status does not copy Status.values().
+	 */
+	private static final Elevator.Status[] STATUSES = Elevator.Status.values();
+
+	/**
+	 * The number of elevators in the snapshot.
+	 * @see #size()
+	 */
+	private int size;
+
+	/**
+	 * The highest story that can be a destination.
+	 */
+	private int numOfFloors;
+
+	/**
+	 * The number of longs making up the destinations of a single elevator.
+	 */
+	private int wordsPerElevator;
+
+	/**
+	 * The current floor of each elevator.
+	 */
+	private int[] currentFloor;
+
+	/**
+	 * The ordinal of the Status of each elevator.
+	 */
+	private int[] status;
+
+	/**
+	 * The number of people in each elevator.
+	 */
+	private int[] load;
+
+	/**
+	 * The most people each elevator can hold.
+	 */
+	private int[] capacity;
+
+	/**
+	 * The destinations of every elevator, wordsPerElevator longs each, with bit story-1 set for
+	 * every story the elevator is going to stop at.
+	 */
+	private long[] destinations;
+
+	/**
+	 * The state version of each elevator when it last wrote to the snapshot, -1 if it never has.
+	 * @see #needsWrite(int, int)
+	 */
+	private int[] written;
+
+	/**
+	 * Incremented whenever anything in the snapshot is changed.
+	 * @see #getVersion()
+	 */
+	private long version;
+
+	/**
+	 * Creates a snapshot of elevators that are all waiting on the first floor with no destinations.
+	 * @param numOfElevators - The number of elevators in the building
+	 * @param numOfFloors - The number of floors in the building
+	 */
+	public ElevatorSnapshot(int numOfElevators, int numOfFloors){
+		size = numOfElevators;
+		this.numOfFloors = numOfFloors;
+		wordsPerElevator = (numOfFloors + 63) / 64;
+		currentFloor = new int[numOfElevators];
+		status = new int[numOfElevators];
+		load = new int[numOfElevators];
+		capacity = new int[numOfElevators];
+		destinations = new long[numOfElevators * wordsPerElevator];
+		written = new int[numOfElevators];
+
+		Arrays.fill(currentFloor, 1);
+		Arrays.fill(status, Elevator.Status.WAITING_DEFAULT.ordinal());
+		Arrays.fill(capacity, Integer.MAX_VALUE);
+		Arrays.fill(written, -1);
+	}
+
+	/**
+	 * Creates a snapshot holding the same information as an array of ElevatorDTOs, for
+	 * delegates that are still given ElevatorDTOs. A destination that is not a number is ignored.
+	 * @param data - The information about each elevator
+	 * @return A new snapshot of the elevators
+	 */
+	public static ElevatorSnapshot of(ElevatorDTO[] data){
+		int[][] parsed = new int[data.length][];
+		int floors = 1;
+
+		for(int i = 0; i < data.length; i++){
+			parsed[i] = parseDestinations(data[i].remainingDestinations);
+			floors = Math.max(floors, data[i].currentFloor);
+			for(int dest : parsed[i]){
+				floors = Math.max(floors, dest);
+			}
+		}
+
+		ElevatorSnapshot snapshot = new ElevatorSnapshot(data.length, floors);
+		for(int i = 0; i < data.length; i++){
+			snapshot.set(i, data[i].currentFloor, data[i].status, 0);
+			for(int dest : parsed[i]){
+				if(dest > 0)
+					snapshot.addDestination(i, dest);
+			}
+		}
+
+		return snapshot;
+	}
+
+	/**
+	 * Reads the destinations out of a string like "[3, 7, 12]".
+	 * @param destinations - The destinations as written by Elevator.getRemainingDestinations(), may be null
+	 * @return The destinations, 0 for any that are not numbers
+	 */
+	private static int[] parseDestinations(String destinations){
+		if(destinations == null)
+			return new int[0];
+
+		String inside = destinations.replace("[", "").replace("]", "").trim();
+		if(inside.length() == 0)
+			return new int[0];
+
+		String[] parts = inside.split(",");
+		int[] floors = new int[parts.length];
+		for(int i = 0; i < parts.length; i++){
+			try{
+				floors[i] = Integer.parseInt(parts[i].trim());
+			}catch(NumberFormatException e){
+				floors[i] = 0;
+			}
+		}
+
+		return floors;
+	}
+
+	/**
+	 * Checks whether an elevator has changed since it last wrote to the snapshot, and records
+	 * its new state version if it has. An elevator that has not changed has nothing to write.
+	 * @param index - The index of the elevator, its number minus one
+	 * @param stateVersion - A number the elevator changes whenever its state does
+	 * @return true if the elevator should write its state
+	 */
+	public boolean needsWrite(int index, int stateVersion){
+		if(written[index] == stateVersion)
+			return false;
+
+		written[index] = stateVersion;
+		return true;
+	}
+
+	/**
+	 * Sets the position, status and load of an elevator, leaving its destinations alone.
+	 * @param index - The index of the elevator, its number minus one
+	 * @param floor - The floor the elevator is on or passing
+	 * @param newStatus - The status of the elevator
+	 * @param people - The number of people in the elevator
+	 */
+	public void set(int index, int floor, Elevator.Status newStatus, int people){
+		currentFloor[index] = floor;
+		status[index] = newStatus.ordinal();
+		load[index] = people;
+		version++;
+	}
+
+	/**
+	 * Sets how many people an elevator can hold, unlimited until it is set.
+	 * @param index - The index of the elevator, its number minus one
+	 * @param maxCapacity - The most people the elevator can hold
+	 */
+	public void setCapacity(int index, int maxCapacity){
+		capacity[index] = maxCapacity;
+		version++;
+	}
+
+	/**
+	 * Removes every destination of an elevator.
+	 * @param index - The index of the elevator, its number minus one
+	 */
+	public void clearDestinations(int index){
+		int start = index * wordsPerElevator;
+		for(int w = start; w < start + wordsPerElevator; w++){
+			destinations[w] = 0;
+		}
+		version++;
+	}
+
+	/**
+	 * Marks a story as a destination of an elevator.
+	 * @param index - The index of the elevator, its number minus one
+	 * @param story - The story the elevator will stop at, from 1 to the number of floors
+	 */
+	public void addDestination(int index, int story){
+		destinations[index * wordsPerElevator + ((story - 1) >>> 6)] |= 1L << (story - 1);
+		version++;
+	}
+
+	/**
+	 * Records a command sent to an elevator the way the elevator will take it. A waiting
+	 * elevator starts moving towards the story, and a story behind a moving elevator is
+	 * ignored, as it is by SimpleElevatorImpl.addDestination(int).
+	 * @param index - The index of the elevator, its number minus one
+	 * @param story - The story the elevator was sent to, from 1 to the number of floors
+	 * @return true if the story was added to the elevator's destinations, false if it will be ignored
+	 */
+	public boolean addCommand(int index, int story){
+		int floor = currentFloor[index];
+		if(isWaiting(index)){
+			if(story > floor)
+				status[index] = Elevator.Status.MOVING_UP.ordinal();
+			else if(story < floor)
+				status[index] = Elevator.Status.MOVING_DOWN.ordinal();
+		}else if((status[index] == Elevator.Status.MOVING_UP.ordinal() && story < floor) ||
+				(status[index] == Elevator.Status.MOVING_DOWN.ordinal() && story > floor)){
+			return false;
+		}
+
+		addDestination(index, story);
+		return true;
+	}
+
+	/**
+	 * @return A number that changes whenever anything in the snapshot does, so a decision made
+	 * from the snapshot only needs to be made again once the version has changed
+	 */
+	public long getVersion(){
+		return version;
+	}
+
+	/**
+	 * @return The number of elevators in the snapshot
+	 */
+	public int size(){
+		return size;
+	}
+
+	/**
+	 * @return The number of floors destinations can be on
+	 */
+	public int getNumberOfFloors(){
+		return numOfFloors;
+	}
+
+	/**
+	 * @param index - The index of the elevator, its number minus one
+	 * @return The floor the elevator is on or passing
+	 */
+	public int getCurrentFloor(int index){
+		return currentFloor[index];
+	}
+
+	/**
+	 * @param index - The index of the elevator, its number minus one
+	 * @return The status of the elevator
+	 */
+	public Elevator.Status getStatus(int index){
+		return STATUSES[status[index]];
+	}
+
+	/**
+	 * @param index - The index of the elevator, its number minus one
+	 * @return true if the elevator is WAITING or WAITING_DEFAULT
+	 */
+	public boolean isWaiting(int index){
+		return status[index] == Elevator.Status.WAITING.ordinal() || status[index] == Elevator.Status.WAITING_DEFAULT.ordinal();
+	}
+
+	/**
+	 * @param index - The index of the elevator, its number minus one
+	 * @return The number of people in the elevator
+	 */
+	public int getLoad(int index){
+		return load[index];
+	}
+
+	/**
+	 * @param index - The index of the elevator, its number minus one
+	 * @return The most people the elevator can hold
+	 */
+	public int getCapacity(int index){
+		return capacity[index];
+	}
+
+	/**
+	 * @param index - The index of the elevator, its number minus one
+	 * @return true if nobody else can get on the elevator
+	 */
+	public boolean isFull(int index){
+		return load[index] >= capacity[index];
+	}
+
+	/**
+	 * @param index - The index of the elevator, its number minus one
+	 * @param story - The story to check
+	 * @return true if the elevator is going to stop at the story
+	 */
+	public boolean hasDestination(int index, int story){
+		if(story < 1 || story > numOfFloors)
+			return false;
+
+		return (destinations[index * wordsPerElevator + ((story - 1) >>> 6)] & (1L << (story - 1))) != 0;
+	}
+
+	/**
+	 * Counts the stops of an elevator between two stories.
+	 * @param index - The index of the elevator, its number minus one
+	 * @param from - The lower story, included
+	 * @param to - The higher story, included
+	 * @return The number of stories from one to the other that the elevator is going to stop at
+	 */
+	public int getDestinationCount(int index, int from, int to){
+		int first = Math.max(from, 1) - 1;
+		int last = Math.min(to, numOfFloors) - 1;
+		if(first > last)
+			return 0;
+
+		int start = index * wordsPerElevator;
+		int count = 0;
+		for(int w = first >>> 6; w <= last >>> 6; w++){
+			long word = destinations[start + w];
+			if(w == first >>> 6)
+				word &= -1L << first;
+			if(w == last >>> 6)
+				word &= -1L >>> (63 - (last & 63));
+			count += Long.bitCount(word);
+		}
+
+		return count;
+	}
+
+	/**
+	 * @param index - The index of the elevator, its number minus one
+	 * @return The number of stories the elevator is going to stop at
+	 */
+	public int getDestinationCount(int index){
+		int count = 0;
+		int start = index * wordsPerElevator;
+		for(int w = start; w < start + wordsPerElevator; w++){
+			count += Long.bitCount(destinations[w]);
+		}
+
+		return count;
+	}
+
+}
@@ -1,12 +1,19 @@
 package com.mattkula.se350.elevatorsimulator.elevator;
 
 import java.util.ArrayList;
-import java.util.Collections;
 
-import com.mattkula.se350.elevatorsimulator.building.Building;
 import com.mattkula.se350.elevatorsimulator.building.FloorManager;
 import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+import com.mattkula.se350.elevatorsimulator.logging.EventLog;
 import com.mattkula.se350.elevatorsimulator.person.Person;
+import com.mattkula.se350.elevatorsimulator.simulation.DiscreteEventEngine;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationEvent;
+import com.mattkula.se350.elevatorsimulator.statistics.Gauge;
+import com.mattkula.se350.elevatorsimulator.statistics.Histogram;
+import com.mattkula.se350.elevatorsimulator.statistics.MetricsRegistry;
+import com.mattkula.se350.elevatorsimulator.statistics.StripedCounter;
+import com.mattkula.se350.elevatorsimulator.trace.TraceWriter;
 
 /**
  * An implementation of the Elevator interface that creates a simple elevator.
@@ -17,6 +24,14 @@ import com.mattkula.se350.elevatorsimulator.person.Person;
  * If it spends too much time without a destination, it times out and returns to
  * whatever floor it considers the "default" floor.
  * 
+ * Requests from the controller arrive as commands in the elevator's CommandMailbox.
+ * The elevator takes them between floors, and parks on the mailbox while it has
+ * nothing to do, so the controller never waits for or locks an elevator.
+ * 
+ * The elevator always counts its trips, floors travelled and door cycles, and how long it
+ * has been idle. They are registered with the simulation's MetricsRegistry, if it has one,
+ * along with how full the elevator is.
+ * 
  * @author Matt
  * @since Version 1.0
  */
@@ -51,11 +66,24 @@ public class SimpleElevatorImpl implements Elevator{
 	private int elevatorNumber;
 	
 	/**
-	 * The ArrayList<Integer> "destinationList" contains the pending requests that this elevator
-	 * still has to perform. Each integer is a floor number.
+	 * The stories of the pending requests that this elevator still has to perform. The next
+	 * one is the lowest while moving up and the highest otherwise.
+	 * @see #getNextDestination()
 	 * @see #getRemainingDestinations()
 	 */
-	private ArrayList<Integer> destinationList;
+	private DestinationSet destinations;
+	
+	/**
+	 * The commands sent to the elevator that it has not taken yet.
+	 * @see #sendCommand(int)
+	 */
+	private CommandMailbox mailbox;
+	
+	/**
+	 * The stories waiting in the mailbox, copied into while writing to a snapshot.
+	 * @see #writeTo(ElevatorSnapshot, int)
+	 */
+	private int[] pending;
 	
 	/**
 	 * The ArrayList<Integer> "peopleInElevator" contains zero to "maxCapacity" number of Person 
@@ -99,6 +127,83 @@ public class SimpleElevatorImpl implements Elevator{
 	 */
 	private FloorManager floorManager;
 	
+	/**
+	 * The simulation this elevator belongs to, which it reads the time from and logs to.
+	 */
+	private SimulationContext context;
+	
+	/**
+	 * The log of the simulation, where the elevator reports everything it does.
+	 */
+	private EventLog log;
+	
+	/**
+	 * The engine this elevator schedules its events on, null when the elevator
+	 * runs on its own thread instead.
+	 * @see #scheduleOn(DiscreteEventEngine)
+	 */
+	private DiscreteEventEngine eventEngine;
+	
+	/**
+	 * True while a floor passed or doors closed event is scheduled on the engine,
+	 * meaning the elevator is busy and does not need to be woken up by new requests.
+	 */
+	private boolean eventPending;
+	
+	/**
+	 * Incremented every time the elevator starts idling or gets a new request, so that
+	 * an idle timeout scheduled before the request knows it is out of date.
+	 */
+	private int idleGeneration;
+	
+	/**
+	 * Incremented whenever the elevator's floor, status, destinations or people change,
+	 * so writeTo(ElevatorSnapshot, int) can skip elevators that have not changed.
+	 * @see #stateChanged()
+	 */
+	private volatile int stateVersion;
+	
+	/**
+	 * Set to false when the elevator is asked to stop, ending the main loop in run().
+	 * @see #stop()
+	 */
+	private volatile boolean running;
+	
+	/**
+	 * The number of times the elevator has set off from waiting to serve a request.
+	 * @see #setStatus(com.mattkula.se350.elevatorsimulator.elevator.Elevator.Status)
+	 */
+	private StripedCounter trips;
+	
+	/**
+	 * The number of floors the elevator has moved.
+	 * @see #passFloor()
+	 */
+	private StripedCounter floorsTravelled;
+	
+	/**
+	 * The number of times the elevator has opened and closed its doors at a destination.
+	 * @see #closeDoors()
+	 */
+	private StripedCounter doorCycles;
+	
+	/**
+	 * The number of people in the elevator each time it closes its doors. Locked while recording.
+	 * @see #closeDoors()
+	 */
+	private Histogram loadAtDeparture;
+	
+	/**
+	 * The simulated milliseconds the elevator spent waiting before it last set off.
+	 * @see #getIdleMillis()
+	 */
+	private volatile long idleMillis;
+	
+	/**
+	 * The simulation time the elevator started waiting at, -1 while it is moving.
+	 */
+	private volatile long idleSince;
+	
 	/**
 	 * Constructor that creates a new SimpleElevatorImplementation
 	 * @param elevatorNum - The id/number of the elevator
@@ -108,14 +213,39 @@ public class SimpleElevatorImpl implements Elevator{
 	 * @throws InvalidArgumentException if elevatorNum < 1 or defaultFloor is not a floor number
 	 */
 	public SimpleElevatorImpl(int elevatorNum, int defaultFloor, int msPerFloor, int msDoorOperation) throws InvalidArgumentException{
-		floorManager = FloorManager.getInstance();
+		this(SimulationContext.current(), elevatorNum, defaultFloor, msPerFloor, msDoorOperation);
+	}
+	
+	/**
+	 * Constructor that creates a new SimpleElevatorImplementation belonging to the given simulation
+	 * @param context - The simulation the elevator belongs to, whose FloorManager must be initialized
+	 * @param elevatorNum - The id/number of the elevator
+	 * @param defaultFloor - The default floor of the elevator
+	 * @param msPerFloor - The time it takes to travel one floor
+	 * @param msDoorOperation - The time it takes for the elevator to exchange people at a floor
+	 * @throws InvalidArgumentException if elevatorNum < 1 or defaultFloor is not a floor number
+	 */
+	public SimpleElevatorImpl(SimulationContext context, int elevatorNum, int defaultFloor, int msPerFloor, int msDoorOperation) throws InvalidArgumentException{
+		this.context = context;
+		this.log = context.getLog();
+		floorManager = context.getFloorManager();
+		if(floorManager == null)
+			throw new IllegalStateException("Must initialize FloorManager before using it");
 		
 		if(defaultFloor < 1 || defaultFloor > floorManager.getNumberOfFloors())
 			throw new InvalidArgumentException("Default floor out of range.");
 		
-		destinationList = new ArrayList<Integer>();
+		destinations = new DestinationSet(floorManager.getNumberOfFloors());
+		mailbox = new CommandMailbox(floorManager.getNumberOfFloors());
+		pending = new int[floorManager.getNumberOfFloors()];
 		peopleInElevator = new ArrayList<Person>();
+		trips = new StripedCounter();
+		floorsTravelled = new StripedCounter();
+		doorCycles = new StripedCounter();
+		loadAtDeparture = new Histogram();
+		idleSince = -1;
 		
+		running = true;
 		setElevatorNum(elevatorNum);
 		setMaxCapacity(10);
 		setCurrentFloor(defaultFloor);
@@ -123,30 +253,55 @@ public class SimpleElevatorImpl implements Elevator{
 		setStatus(Elevator.Status.WAITING_DEFAULT);
 		setMsDoorOperations(msDoorOperation);
 		setMsPerFloor(msPerFloor);
+		
+		if(context.getMetrics() != null)
+			registerMetrics(context.getMetrics());
+	}
+	
+	/**
+	 * Registers the elevator's metrics, named after the elevator's number.
+	 * @param metrics - The registry of the simulation
+	 */
+	private void registerMetrics(MetricsRegistry metrics){
+		String prefix = "elevator." + elevatorNumber + ".";
+		metrics.counter(prefix + "trips", trips);
+		metrics.counter(prefix + "floorsTravelled", floorsTravelled);
+		metrics.counter(prefix + "doorCycles", doorCycles);
+		metrics.gauge(prefix + "loadFactor", new Gauge(){
+			public double getValue(){
+				return (double)peopleInElevator.size() / maxCapacity;
+			}
+		});
+		metrics.gauge(prefix + "idleMillis", new Gauge(){
+			public double getValue(){
+				return getIdleMillis();
+			}
+		});
+		metrics.histogram(prefix + "loadAtDeparture", loadAtDeparture);
 	}
 
 	/**
 	 * Add a destination to the Elevator's pending requests. If the elevator is going up, only requests
 	 * from levels above it's current position will be accepted. If the elevator is going down, only requests
-	 * from levels below it will be accepted. Keeps all pending destinations sorted according to direction.
+	 * from levels below it will be accepted.
 	 * @param floorNum - The story that is to be added to the elevator's pending destination list
 	 * @throws InvalidArgumentException 
 	 */
 	@Override
 	public void addDestination(int floorNum) throws InvalidArgumentException{
 		
-		if(floorNum < 1 || floorNum > FloorManager.getInstance().getNumberOfFloors())
+		if(floorNum < 1 || floorNum > floorManager.getNumberOfFloors())
 			throw new InvalidArgumentException("Elevator being sent out of floor range.");
 		
 		if(getStatus() == Elevator.Status.MOVING_UP && floorNum < getCurrentFloor()){
-			System.out.printf("%s Elevator %d request for %d not in direction of travel - ignoring\n", 
-					Building.getTimeString(), getElevatorNumber(), floorNum);
+			if(log.isEnabled(EventLog.DEBUG))
+				log.log(EventLog.DEBUG, "Elevator %d request for %d not in direction of travel - ignoring", getElevatorNumber(), floorNum);
 			return;
 		}
 		
 		if(getStatus() == Elevator.Status.MOVING_DOWN && floorNum > getCurrentFloor()){
-			System.out.printf("%s Elevator %d request for %d not in direction of travel - ignoring\n", 
-					Building.getTimeString(), getElevatorNumber(), floorNum);
+			if(log.isEnabled(EventLog.DEBUG))
+				log.log(EventLog.DEBUG, "Elevator %d request for %d not in direction of travel - ignoring", getElevatorNumber(), floorNum);
 			return;
 		}
 		
@@ -157,14 +312,46 @@ public class SimpleElevatorImpl implements Elevator{
 				setStatus(Elevator.Status.MOVING_DOWN);
 		}
 		
-		if(!destinationList.contains(floorNum))
-			destinationList.add(floorNum);
-		if(status == Elevator.Status.MOVING_UP)
-			Collections.sort(destinationList);
-		else{
-			Collections.sort(destinationList);
-			Collections.reverse(destinationList);
+		destinations.add(floorNum);
+		stateChanged();
+		
+		if(eventEngine != null && !eventPending){	// Wake up an idle elevator on the event engine
+			idleGeneration++;
+			continueToNextDest();
+		}
+	}
+	
+	/**
+	 * Posts a command for the elevator to go to a floor, without waiting for it. An elevator
+	 * on its own thread takes the command when it next passes a floor or wakes up, one on
+	 * an event engine takes it right away.
+	 * @param floorNum - The story that is to be added to the elevator's pending destination list
+	 * @throws InvalidArgumentException if the story is not a floor in the building
+	 */
+	@Override
+	public void sendCommand(int floorNum) throws InvalidArgumentException{
+		if(floorNum < 1 || floorNum > floorManager.getNumberOfFloors())
+			throw new InvalidArgumentException("Elevator being sent out of floor range.");
+		
+		mailbox.post(floorNum, context.getClock().currentTimeMillis());
+		if(eventEngine != null)
+			takeCommands();
+	}
+	
+	/**
+	 * Adds the floor of every command in the mailbox to the destinations.
+	 * @throws InvalidArgumentException if a story is not a floor in the building
+	 */
+	private void takeCommands() throws InvalidArgumentException{
+		if(mailbox.isEmpty())
+			return;
+		
+		long now = context.getClock().currentTimeMillis();
+		while(mailbox.peek()){
+			addDestination(mailbox.getStory());
+			mailbox.take(now);
 		}
+		stateChanged();		// The stories are no longer in the mailbox, even if they were ignored
 	}
 	
 	/**
@@ -180,50 +367,81 @@ public class SimpleElevatorImpl implements Elevator{
 	 */
 	private void moveToNextDest() throws InterruptedException, InvalidArgumentException{
 		
-		while(getCurrentFloor() != destinationList.get(0)){ // While we are not at our next destination
-			if(destinationList.get(0) > getCurrentFloor()){
-				setStatus(Elevator.Status.MOVING_UP);
-				
-				System.out.printf("%s Elevator %d passing %d on way UP to Floor %d.\n", 
-						Building.getTimeString(), elevatorNumber, currentFloor, destinationList.get(0));
-				System.out.printf("          Elevator %d contains: %s \n", getElevatorNumber(), this.getPeopleInElevator());
-				System.out.printf("          Elevator %d destinations: %s \n", getElevatorNumber(), this.getRemainingDestinations());
-				currentFloor++;
-				
-				Thread.sleep(getMsPerFloor() / Building.getTimeScale());		// Simulate delay in moving up a floor
-				
-			}else if(destinationList.get(0) < getCurrentFloor()){
-				setStatus(Elevator.Status.MOVING_DOWN);
-				
-				System.out.printf("%s Elevator %d passing %d on way DOWN to Floor %d.\n", 
-						Building.getTimeString(), elevatorNumber, currentFloor, destinationList.get(0));
-				System.out.printf("          Elevator %d contains: %s \n", getElevatorNumber(), this.getPeopleInElevator());
-				System.out.printf("          Elevator %d destinations: %s \n", getElevatorNumber(), this.getRemainingDestinations());
-				currentFloor--;
-				
-				Thread.sleep(getMsPerFloor() / Building.getTimeScale());		// Simulate delay in moving up a floor
-			}
+		takeCommands();
+		while(passFloor()){ // While we are not at our next destination
+			context.getClock().sleep(getMsPerFloor());		// Simulate delay in moving a floor
+			takeCommands();
 		}
 		
 		arriveAtDestination();		// Start exchange at destination
+		
+		context.getClock().sleep(getMsDoorOperations());		// Simulates exchange time
+		
+		closeDoors();
+	}
+	
+	/**
+	 * Moves the elevator one story towards its next destination, setting the status
+	 * depending on the direction it is moving.
+	 * @return true if the elevator moved a floor, false if it is already at its next destination
+	 */
+	private boolean passFloor(){
+		int next = getNextDestination();
+		if(next > getCurrentFloor()){
+			setStatus(Elevator.Status.MOVING_UP);
+			
+			logPassingFloor("UP");
+			trace(TraceWriter.ELEVATOR_PASSED, 0);
+			currentFloor++;
+			floorsTravelled.increment();
+			stateChanged();
+			return true;
+			
+		}else if(next < getCurrentFloor()){
+			setStatus(Elevator.Status.MOVING_DOWN);
+			
+			logPassingFloor("DOWN");
+			trace(TraceWriter.ELEVATOR_PASSED, 0);
+			currentFloor--;
+			floorsTravelled.increment();
+			stateChanged();
+			return true;
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Logs the elevator passing its current floor, along with who is inside and where it is going.
+	 * @param direction - UP or DOWN
+	 */
+	private void logPassingFloor(String direction){
+		if(!log.isEnabled(EventLog.DEBUG))
+			return;
+		
+		log.log(EventLog.DEBUG, "Elevator %d passing %d on way %s to Floor %d.\n          Elevator %d contains: %s \n          Elevator %d destinations: %s ", 
+				elevatorNumber, currentFloor, direction, getNextDestination(), elevatorNumber, getPeopleInElevator(), elevatorNumber, getRemainingDestinations());
 	}
 	
 	/**
 	 * Method that takes care of all that should happen when an elevator arrives at its next destination.
-	 * First it removes the floor from the destinationList, then opens the doors, let's people leave,
-	 * let's those who were waiting inside, then closes the doors.
+	 * First it removes the floor from the pending destinations, then opens the doors, let's people leave,
+	 * and let's those who were waiting inside. The doors are closed once the exchange time has passed.
 	 * 
-	 * @see #openDoors() 
-	 * @see #letPeopleOut(int)
-	 * @see #letPeopleIn(int)
+	 * @see #doFloorExchange()
 	 * @see #closeDoors()
 	 * @throws InvalidArgumentException 
 	 */
 	private void arriveAtDestination() throws InvalidArgumentException{
-		System.out.printf("%s Elevator %d arrived at Floor %d.\n", Building.getTimeString(), elevatorNumber, currentFloor);
-		destinationList.remove(0);
-		if(destinationList.size() == 0){
-			System.out.printf("%s Elevator %d is now WAITING. \n", Building.getTimeString(), elevatorNumber);
+		if(log.isEnabled(EventLog.INFO))
+			log.log(EventLog.INFO, "Elevator %d arrived at Floor %d.", elevatorNumber, currentFloor);
+		trace(TraceWriter.ELEVATOR_ARRIVED, 0);
+		destinations.remove(getNextDestination());
+		stateChanged();
+		if(destinations.isEmpty()){
+			if(log.isEnabled(EventLog.INFO))
+				log.log(EventLog.INFO, "Elevator %d is now WAITING. ", elevatorNumber);
+			trace(TraceWriter.ELEVATOR_IDLE, 0);
 			setStatus(Elevator.Status.WAITING);
 		}
 		doFloorExchange();
@@ -231,30 +449,127 @@ public class SimpleElevatorImpl implements Elevator{
 	
 	/**
 	 * Called whenever an elevator arrives at a destination on its destination list. 
-	 * Simulates the opening of doors, allows people to come in and out, then closes the doors.
-	 * It sleeps for a specified number of seconds to simulate the time it takes for all of that
-	 * to take place. 
+	 * Simulates the opening of doors and allows people to come in and out.
 	 * @throws InvalidArgumentException - for invalid data specified by the error message
 	 */
 	private void doFloorExchange() throws InvalidArgumentException{
-		try{
-			//Open the Doors
-			System.out.printf("%s Elevator %d opening doors at Floor %d...\n", Building.getTimeString(), elevatorNumber, currentFloor);
-			
-			//Exchange of people
-			letPeopleOut();
-			letPeopleIn();
-			
-			System.out.printf("%s Elevator %d letting people exchange at Floor %d. People Left: %s\n", Building.getTimeString(), elevatorNumber, 
+		//Open the Doors
+		if(log.isEnabled(EventLog.INFO))
+			log.log(EventLog.INFO, "Elevator %d opening doors at Floor %d...", elevatorNumber, currentFloor);
+		
+		//Exchange of people
+		letPeopleOut();
+		letPeopleIn();
+		
+		if(log.isEnabled(EventLog.INFO))
+			log.log(EventLog.INFO, "Elevator %d letting people exchange at Floor %d. People Left: %s", elevatorNumber, 
 					currentFloor, getPeopleInElevator());
-			//Simulates exchange time
-			Thread.sleep(getMsDoorOperations() / Building.getTimeScale());
+	}
+	
+	/**
+	 * Called once the exchange time at a floor has passed to close the doors. Anybody left
+	 * waiting on the floor then calls another elevator.
+	 * @throws InvalidArgumentException if the current floor is not a valid floor
+	 */
+	private void closeDoors() throws InvalidArgumentException{
+		if(log.isEnabled(EventLog.INFO))
+			log.log(EventLog.INFO, "Elevator %d closing doors at Floor %d. Remaining destinations are %s", 
+					elevatorNumber, currentFloor, getRemainingDestinations());
+		trace(TraceWriter.DOORS_CLOSED, 0);
+		
+		doorCycles.increment();
+		synchronized(loadAtDeparture){
+			loadAtDeparture.recordValue(peopleInElevator.size());
+		}
+		floorManager.doorsClosedAt(currentFloor, this);
+	}
+	
+	/**
+	 * Adds a record about this elevator at its current floor to the simulation's trace, if it has one.
+	 * @param type - The type of event, one of the constants of TraceWriter
+	 * @param person - The id of the person involved, 0 if none
+	 */
+	private void trace(int type, int person){
+		TraceWriter trace = context.getTrace();
+		if(trace != null)
+			trace.record(context.getClock().currentTimeMillis(), type, elevatorNumber, currentFloor, person);
+	}
+	
+	/**
+	 * Runs the elevator on a discrete event engine instead of on its own thread. The elevator
+	 * starts out idle and is woken up by new destinations.
+	 * @param engine - The engine to schedule the elevator's events on
+	 * @throws InvalidArgumentException if the elevator's data is invalid
+	 */
+	@Override
+	public void scheduleOn(DiscreteEventEngine engine) throws InvalidArgumentException{
+		eventEngine = engine;
+		chooseNextAction();
+	}
+	
+	/**
+	 * Event engine version of moveToNextDest(). Passes a single floor and schedules itself
+	 * again after the travel time, or once at the destination, does the exchange and schedules
+	 * the doors to close after the door operation time.
+	 * @throws InvalidArgumentException if the destination is not a valid floor
+	 */
+	private void continueToNextDest() throws InvalidArgumentException{
+		eventPending = true;
+		
+		if(passFloor()){
+			eventEngine.schedule(new SimulationEvent(SimulationEvent.Type.FLOOR_PASSED){
+				public void fire() throws InvalidArgumentException{
+					continueToNextDest();
+				}
+			}, getMsPerFloor());
+		}else{
+			arriveAtDestination();
+			eventEngine.schedule(new SimulationEvent(SimulationEvent.Type.DOORS_CLOSED){
+				public void fire() throws InvalidArgumentException{
+					closeDoors();
+					chooseNextAction();
+				}
+			}, getMsDoorOperations());
+		}
+	}
+	
+	/**
+	 * Event engine version of the main loop in run(). Starts moving to the next destination
+	 * if there is one, otherwise idles and schedules a timeout if the elevator is not on its
+	 * default floor.
+	 * @throws InvalidArgumentException if the destination is not a valid floor
+	 */
+	private void chooseNextAction() throws InvalidArgumentException{
+		eventPending = false;
+		
+		if(!context.isRunning() || !running)
+			return;
+		
+		if(!destinations.isEmpty()){
+			continueToNextDest();
+			return;
+		}
+		
+		if(getCurrentFloor() != getDefaultFloor()){ // If the elevator is not on it's default floor
+			if(log.isEnabled(EventLog.DEBUG))
+				log.log(EventLog.DEBUG, "Elevator %d waiting for timeout.", getElevatorNumber());
+			setStatus(Elevator.Status.WAITING);
 			
-			//Close the doors
-			System.out.printf("%s Elevator %d closing doors at Floor %d. Remaining destinations are %s\n", 
-					Building.getTimeString(), elevatorNumber, currentFloor, getRemainingDestinations());
-		}catch(InterruptedException e){
-			e.printStackTrace();
+			final int generation = ++idleGeneration;
+			eventEngine.schedule(new SimulationEvent(SimulationEvent.Type.IDLE_TIMEOUT){
+				public void fire() throws InvalidArgumentException{
+					if(generation != idleGeneration || eventPending || !destinations.isEmpty())
+						return;	// A new request came in before the timeout
+					
+					if(log.isEnabled(EventLog.INFO))
+						log.log(EventLog.INFO, "Elevator %d timed out, returning to default floor.", getElevatorNumber());
+					addDestination(getDefaultFloor());	// Return to the default floor
+				}
+			}, msBeforeTimeout);
+		}else{
+			if(log.isEnabled(EventLog.DEBUG))
+				log.log(EventLog.DEBUG, "Elevator %d waiting for instructions.", getElevatorNumber());
+			setStatus(Elevator.Status.WAITING_DEFAULT);
 		}
 	}
 	
@@ -279,9 +594,11 @@ public class SimpleElevatorImpl implements Elevator{
 			for(int i = 0; i < peopleToRemove.size(); i++){
 				Person p = peopleToRemove.get(i);
 				p.setFinishedTime();
+				trace(TraceWriter.PERSON_ARRIVED, p.getId());
 			}
 			
 			peopleInElevator.removeAll(peopleToRemove);
+			stateChanged();
 			
 		}catch(InvalidArgumentException e){
 			e.printStackTrace();
@@ -294,7 +611,7 @@ public class SimpleElevatorImpl implements Elevator{
 	 * @throws InvalidArgumentException 
 	 */
 	private void letPeopleIn() throws InvalidArgumentException{
-		FloorManager.getInstance().addPeopleToElevator(getCurrentFloor(), this);
+		floorManager.addPeopleToElevator(getCurrentFloor(), this);
 	}
 	
 	/**
@@ -305,6 +622,7 @@ public class SimpleElevatorImpl implements Elevator{
 		
 		if(peopleInElevator.size() < getMaxCapacity()){
 			peopleInElevator.add(p);
+			stateChanged();
 			addDestination(p.getDestination());
 			return true;
 		}
@@ -314,38 +632,36 @@ public class SimpleElevatorImpl implements Elevator{
 
 	/**
 	 * Contains the main logic loop of the elevator. Constantly runs
-	 * checking if it has any destinations in the queue. If not, it waits
-	 * until it is notified. After a certain amount of idle time, it will
+	 * checking if it has any destinations in the queue. If not, it parks
+	 * until a command is sent. After a certain amount of idle time, it will
 	 * go back down to its default floor. 
 	 */
 	@Override
 	public void run() {
 		try{
 			
-		while(Building.isRunning()){
-				if(destinationList.size() == 0){	// If there are no more pending requests
+		while(context.isRunning() && running){
+				takeCommands();
+				if(destinations.isEmpty()){	// If there are no more pending requests
 					
 					if(getCurrentFloor() != getDefaultFloor()){ // If the elevator is not on it's default floor
-						synchronized(this){
-							
-							System.out.printf("%s Elevator %d waiting for timeout.\n", Building.getTimeString(), getElevatorNumber());
-							setStatus(Elevator.Status.WAITING);
-							this.wait(msBeforeTimeout);	// Wait for timeout or new request
-							
-							if(destinationList.size() != 0) // If no new requests were added
-								continue;						// restart the loop
-							
-							System.out.printf("%s Elevator %d timed out, returning to default floor.\n", Building.getTimeString(), getElevatorNumber());
-							this.addDestination(getDefaultFloor());	// Return to the default floor
-						}
+						if(log.isEnabled(EventLog.DEBUG))
+							log.log(EventLog.DEBUG, "Elevator %d waiting for timeout.", getElevatorNumber());
+						setStatus(Elevator.Status.WAITING);
+						
+						if(!awaitCommand(context.getClock().currentTimeMillis() + msBeforeTimeout) || !running)
+							continue;	// A command came in or we were stopped, restart the loop
+						
+						if(log.isEnabled(EventLog.INFO))
+							log.log(EventLog.INFO, "Elevator %d timed out, returning to default floor.", getElevatorNumber());
+						this.addDestination(getDefaultFloor());	// Return to the default floor
 					}
 					
 					if(getCurrentFloor() == getDefaultFloor()){ // If we are at the default floor
-						System.out.printf("%s Elevator %d waiting for instructions.\n", Building.getTimeString(), getElevatorNumber());
+						if(log.isEnabled(EventLog.DEBUG))
+							log.log(EventLog.DEBUG, "Elevator %d waiting for instructions.", getElevatorNumber());
 						setStatus(Elevator.Status.WAITING_DEFAULT);
-						synchronized(this){
-							this.wait();	// Wait for a new request
-						}
+						awaitCommand(0);	// Wait for a new command or to be stopped
 					}
 					
 				}				// If there are more pending requests
@@ -355,11 +671,46 @@ public class SimpleElevatorImpl implements Elevator{
 			
 		}
 		
-		}catch(InterruptedException | InvalidArgumentException e){
+		}catch(InterruptedException e){
+			Thread.currentThread().interrupt();		// Cancelled, stop right away
+		}catch(InvalidArgumentException e){
 			e.printStackTrace();
 		}
 	}
 	
+	/**
+	 * Parks the elevator until a command is sent, it is stopped, or the simulation reaches a time.
+	 * @param timeout - The simulated millisecond to stop waiting at, 0 to wait as long as it takes
+	 * @return true if the time was reached without a command and the elevator is still running
+	 * @throws InterruptedException if the elevator's thread is interrupted
+	 */
+	private boolean awaitCommand(long timeout) throws InterruptedException{
+		while(running && mailbox.isEmpty()){
+			long millisLeft = 0;
+			if(timeout > 0){
+				millisLeft = timeout - context.getClock().currentTimeMillis();
+				if(millisLeft <= 0)
+					return true;
+			}
+			
+			mailbox.park(context.getClock(), millisLeft);
+			if(Thread.interrupted())
+				throw new InterruptedException();
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Asks the elevator to stop once it finishes its current trip. Wakes it up
+	 * if it is waiting for a command or a timeout.
+	 */
+	@Override
+	public void stop(){
+		running = false;
+		mailbox.close();
+	}
+	
 	/**
 	 * Gets the story that the elevator is currently on whether stopped or passing.
 	 * @return The elevator's current story
@@ -371,20 +722,56 @@ public class SimpleElevatorImpl implements Elevator{
 	/**
 	 * A method that displays all of the pending destinations on the elevator.
 	 * 
-	 * @return A string containing all of the destinations still pending, useful for console output. 
-	 * @see #destinationList
+	 * @return A string containing all of the destinations still pending, in the order they will be stopped at, useful for console output. 
+	 * @see #destinations
 	 */
 	public String getRemainingDestinations(){
-		String s = "[";
-		int destsLeft = destinationList.size();
-		for(int i = 0; i < destsLeft - 1; i++){
-			s += destinationList.get(i) + ", ";
-		}
+		return destinations.toString(status == Elevator.Status.MOVING_UP);
+	}
+	
+	/**
+	 * Gets the next story the elevator will stop at, the lowest destination while moving up
+	 * and the highest otherwise.
+	 * @return The next destination, -1 if there are none
+	 */
+	private int getNextDestination(){
+		if(status == Elevator.Status.MOVING_UP)
+			return destinations.lowest();
 		
-		if(destsLeft > 0){
-			s += destinationList.get(destsLeft - 1);
+		return destinations.highest();
+	}
+	
+	/**
+	 * Writes the elevator's current floor, status, load and destinations into a snapshot
+	 * without creating any objects. Commands the elevator has not taken yet are written as
+	 * it will take them, so a waiting elevator is shown moving towards the first one and
+	 * stories it will ignore for being behind it are left out. Nothing is written if the
+	 * elevator has not changed since it last wrote to the snapshot.
+	 * @param snapshot - The snapshot to write to
+	 * @param index - Where in the snapshot to write, the elevator's number minus one
+	 */
+	@Override
+	public void writeTo(ElevatorSnapshot snapshot, int index){
+		if(!snapshot.needsWrite(index, stateVersion + (int)mailbox.getPostCount()))
+			return;
+		
+		// Copied before reading the state, since the elevator acts on a command before taking it
+		int numPending = mailbox.copyPending(pending);
+		snapshot.set(index, currentFloor, status, peopleInElevator.size());
+		snapshot.setCapacity(index, maxCapacity);
+		destinations.writeTo(snapshot, index);
+		for(int i = 0; i < numPending; i++){
+			snapshot.addCommand(index, pending[i]);
 		}
-		return s + "]";
+	}
+	
+	/**
+	 * Gets how long the commands sent to the elevator waited in its mailbox before it took them.
+	 * @return The simulated milliseconds between sending and taking each command
+	 */
+	@Override
+	public Histogram getCommandLatencies(){
+		return mailbox.getLatencies();
 	}
 	
 	/**
@@ -392,16 +779,16 @@ public class SimpleElevatorImpl implements Elevator{
 	 * @return A string containing the ids of the Person objects in the elevator.
 	 */
 	public String getPeopleInElevator(){
-		String s = "[";
+		StringBuilder s = new StringBuilder("[");
 		int peopleLeft = peopleInElevator.size();
 		for(int i = 0; i < peopleLeft - 1; i++){
-			s += "Person-" + peopleInElevator.get(i).getId() + ", ";
+			s.append("Person-").append(peopleInElevator.get(i).getId()).append(", ");
 		}
 		
 		if(peopleLeft > 0){
-			s += "Person-" + peopleInElevator.get(peopleLeft - 1).getId();
+			s.append("Person-").append(peopleInElevator.get(peopleLeft - 1).getId());
 		}
-		return s + "]";
+		return s.append(']').toString();
 	}
 	
 	public int getElevatorNumber(){
@@ -461,11 +848,45 @@ public class SimpleElevatorImpl implements Elevator{
 	}
 	
 	/**
-	 * Set the status of the elevator instance.
+	 * Set the status of the elevator instance, keeping track of how long it waits
+	 * and counting a trip each time it sets off from waiting.
 	 * @param newStatus - The status of the elevator
 	 */
 	private void setStatus(Elevator.Status newStatus){
-		this.status = newStatus;
+		if(status != newStatus){
+			boolean wasWaiting = (idleSince >= 0);
+			boolean waiting = (newStatus == Elevator.Status.WAITING || newStatus == Elevator.Status.WAITING_DEFAULT);
+			if(waiting && !wasWaiting){
+				idleSince = context.getClock().currentTimeMillis();
+			}else if(!waiting && wasWaiting){
+				idleMillis += context.getClock().currentTimeMillis() - idleSince;
+				idleSince = -1;
+				trips.increment();
+			}
+			
+			this.status = newStatus;
+			stateChanged();
+		}
+	}
+	
+	/**
+	 * Gets how long the elevator has spent waiting, including the time it has been waiting now.
+	 * @return The simulated milliseconds the elevator has been idle
+	 */
+	private long getIdleMillis(){
+		long idle = idleMillis;
+		long since = idleSince;		// Read second, so a period that just ended is never counted twice
+		if(since >= 0)
+			idle += Math.max(context.getClock().currentTimeMillis() - since, 0);
+		
+		return idle;
+	}
+	
+	/**
+	 * Records that the elevator's floor, status, destinations or people have changed.
+	 */
+	private void stateChanged(){
+		stateVersion++;
 	}
 	
 	/**
@@ -502,6 +923,7 @@ public class SimpleElevatorImpl implements Elevator{
 			throw new InvalidArgumentException("Elevator's current floor outside of building constraints.");
 		
 		this.currentFloor = floorNum;
+		stateChanged();
 	}
 	
 	/**
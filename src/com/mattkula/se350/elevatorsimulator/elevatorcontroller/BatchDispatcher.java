@@ -0,0 +1,225 @@
+package com.mattkula.se350.elevatorsimulator.elevatorcontroller;
+
+import java.util.Arrays;
+
+import com.mattkula.se350.elevatorsimulator.elevator.ElevatorSnapshot;
+import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+
+/**
+ * Assigns all of the pending hall calls of a tick to elevators at once instead of one at
+ * a time as they arrive. The estimated time of arrival of every elevator at every call is
+ * put in a matrix and the calls are matched to elevators so the total is as small as
+ * possible, each elevator taking at most one call per round. The calls sent are added to
+ * the snapshot the way the elevators will take them, and the calls that are left are
+ * matched against it in another round, until every call is sent or no elevator can take
+ * any of the rest. The snapshot is only read from the elevators once per tick, since an
+ * elevator on its own thread may not have taken the commands of the last round yet. That way a burst of calls is spread
+ * across the elevators instead of all going to whichever one each call likes best.
+ *
+ * Each tick has a time budget. Once it is spent, the calls that are left are decided one
+ * at a time by the ElevatorController's delegate like they are without batching.
+ *
+ * Not synchronized, the ElevatorController locks around it.
+ *
+ * @author Matt
+ *
+ */
+public class BatchDispatcher {
+
+	/**
+	 * The cost of sending an elevator that cannot take a call. Large enough that it is never
+	 * chosen over a real estimate, small enough that adding up a few of them cannot overflow.
+	 */
+	static final long NO_FIT = Long.MAX_VALUE / 1024;
+
+	/**
+	 * Estimates how long each elevator would take to arrive at each call.
+	 */
+	private EtaElevatorDecisionDelegate eta;
+
+	/**
+	 * The real nanoseconds each tick may spend matching calls to elevators.
+	 */
+	private long budgetNanos;
+
+	/**
+	 * The direction of each call of the current round, reused between ticks.
+	 */
+	private int[] directions;
+
+	/**
+	 * The story of each call of the current round, reused between ticks.
+	 */
+	private int[] stories;
+
+	/**
+	 * Creates a dispatcher.
+	 * @param eta - Estimates how long each elevator would take to arrive at a call
+	 * @param budgetMicros - The real microseconds each tick may spend matching calls to elevators
+	 */
+	public BatchDispatcher(EtaElevatorDecisionDelegate eta, long budgetMicros){
+		this.eta = eta;
+		this.budgetNanos = budgetMicros * 1000;
+		directions = new int[16];
+		stories = new int[16];
+	}
+
+	/**
+	 * Sends elevators to the pending calls in rounds of minimum total estimated time of arrival.
+	 * Calls that were sent are cleared from the table, the rest stay pending.
+	 * @param controller - The controller that sends the elevators and reads the snapshot
+	 * @param hallCalls - The pending calls
+	 * @return true if the budget ran out before every call that could be sent was
+	 * @throws InvalidArgumentException if a call is not a valid floor
+	 */
+	boolean dispatch(ElevatorController controller, HallCallTable hallCalls) throws InvalidArgumentException{
+		long deadline = System.nanoTime() + budgetNanos;
+		ElevatorSnapshot snapshot = controller.getElevatorSnapshot();
+
+		while(!hallCalls.isEmpty()){
+			if(System.nanoTime() - deadline > 0)
+				return true;
+
+			int calls = collect(hallCalls);
+			long[][] cost = new long[calls][snapshot.size()];
+			for(int c = 0; c < calls; c++){
+				for(int i = 0; i < snapshot.size(); i++){
+					long estimate = eta.getEta(directions[c], stories[c], snapshot, i);
+					cost[c][i] = (estimate == Long.MAX_VALUE ? NO_FIT : estimate);
+				}
+			}
+
+			int[] match = match(cost);
+			boolean sent = false;
+			for(int c = 0; c < calls; c++){
+				if(match[c] < 0 || cost[c][match[c]] == NO_FIT)
+					continue;
+
+				controller.sendRequestToElevator(match[c] + 1, stories[c]);
+				snapshot.addCommand(match[c], stories[c]);	// Seen by the next round
+				hallCalls.clear(directions[c], stories[c]);
+				sent = true;
+			}
+
+			if(!sent)
+				return false;	// No elevator can take any of the calls that are left
+		}
+
+		return false;
+	}
+
+	/**
+	 * Copies the pending calls into directions and stories, oldest first in each direction.
+	 * @param hallCalls - The pending calls
+	 * @return The number of calls
+	 */
+	private int collect(HallCallTable hallCalls){
+		int calls = hallCalls.size(ElevatorController.UP) + hallCalls.size(ElevatorController.DOWN);
+		if(calls > stories.length){
+			directions = new int[Math.max(calls, stories.length * 2)];
+			stories = new int[directions.length];
+		}
+
+		int c = 0;
+		for(int direction = ElevatorController.UP; direction <= ElevatorController.DOWN; direction++){
+			for(int story = hallCalls.getOldest(direction); story != 0; story = hallCalls.getNext(direction, story)){
+				directions[c] = direction;
+				stories[c] = story;
+				c++;
+			}
+		}
+
+		return c;
+	}
+
+	/**
+	 * Matches rows to columns so the total cost is as small as possible, each row and each
+	 * column being used at most once, with the Hungarian algorithm. When there are more rows
+	 * than columns, some rows are left without a column.
+	 * @param cost - The cost of matching each row to each column, all rows the same length
+	 * @return The column matched to each row, -1 for rows left without one
+	 */
+	static int[] match(long[][] cost){
+		int rows = cost.length;
+		int columns = (rows == 0 ? 0 : cost[0].length);
+		int[] result = new int[rows];
+		Arrays.fill(result, -1);
+		if(rows == 0 || columns == 0)
+			return result;
+
+		if(rows > columns){	// The algorithm needs at least as many columns as rows
+			long[][] transposed = new long[columns][rows];
+			for(int r = 0; r < rows; r++){
+				for(int c = 0; c < columns; c++){
+					transposed[c][r] = cost[r][c];
+				}
+			}
+
+			int[] byColumn = match(transposed);
+			for(int c = 0; c < columns; c++){
+				result[byColumn[c]] = c;
+			}
+			return result;
+		}
+
+		// Potentials and matching are 1 based, column 0 holds the row being added
+		long[] u = new long[rows + 1];
+		long[] v = new long[columns + 1];
+		int[] rowOf = new int[columns + 1];
+		int[] way = new int[columns + 1];
+		long[] minSlack = new long[columns + 1];
+		boolean[] used = new boolean[columns + 1];
+
+		for(int r = 1; r <= rows; r++){
+			rowOf[0] = r;
+			int column = 0;
+			Arrays.fill(minSlack, Long.MAX_VALUE);
+			Arrays.fill(used, false);
+
+			do{
+				used[column] = true;
+				int row = rowOf[column];
+				long delta = Long.MAX_VALUE;
+				int nextColumn = 0;
+				for(int c = 1; c <= columns; c++){
+					if(used[c])
+						continue;
+
+					long slack = cost[row - 1][c - 1] - u[row] - v[c];
+					if(slack < minSlack[c]){
+						minSlack[c] = slack;
+						way[c] = column;
+					}
+					if(minSlack[c] < delta){
+						delta = minSlack[c];
+						nextColumn = c;
+					}
+				}
+
+				for(int c = 0; c <= columns; c++){
+					if(used[c]){
+						u[rowOf[c]] += delta;
+						v[c] -= delta;
+					}else{
+						minSlack[c] -= delta;
+					}
+				}
+				column = nextColumn;
+			}while(rowOf[column] != 0);
+
+			do{		// Flip the matching along the path that was found
+				int previous = way[column];
+				rowOf[column] = rowOf[previous];
+				column = previous;
+			}while(column != 0);
+		}
+
+		for(int c = 1; c <= columns; c++){
+			if(rowOf[c] != 0)
+				result[rowOf[c] - 1] = c - 1;
+		}
+
+		return result;
+	}
+
+}
@@ -1,13 +1,22 @@
 package com.mattkula.se350.elevatorsimulator.elevatorcontroller;
 
 import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 import com.mattkula.se350.elevatorsimulator.building.BuildingStatsDTO;
-import com.mattkula.se350.elevatorsimulator.building.FloorManager;
 import com.mattkula.se350.elevatorsimulator.elevator.Elevator;
 import com.mattkula.se350.elevatorsimulator.elevator.ElevatorDTO;
 import com.mattkula.se350.elevatorsimulator.elevator.ElevatorFactory;
+import com.mattkula.se350.elevatorsimulator.elevator.ElevatorSnapshot;
 import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+import com.mattkula.se350.elevatorsimulator.person.Person;
+import com.mattkula.se350.elevatorsimulator.simulation.DiscreteEventEngine;
+import com.mattkula.se350.elevatorsimulator.simulation.ElevatorRuntime;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
+import com.mattkula.se350.elevatorsimulator.statistics.Gauge;
+import com.mattkula.se350.elevatorsimulator.statistics.Histogram;
+import com.mattkula.se350.elevatorsimulator.statistics.MetricsRegistry;
+import com.mattkula.se350.elevatorsimulator.statistics.StripedCounter;
 
 /**
  * Class responsible for making decisions of which elevators to send to 
@@ -29,6 +38,26 @@ public class ElevatorController {
 	 */
 	public static final int IMPROVED_DECISION_DELEGATE = 2;
 	
+	/**
+	 * Constant for choosing the EtaElevatorDecisionDelegate in the simulation
+	 */
+	public static final int ETA_DECISION_DELEGATE = 3;
+	
+	/**
+	 * Dispatch mode - people press up or down and say where they are going once they board
+	 */
+	public static final int HALL_CALL_DISPATCH = 1;
+	
+	/**
+	 * Dispatch mode - people enter their destination at the hall panel and are told which elevator to take
+	 */
+	public static final int DESTINATION_DISPATCH = 2;
+	
+	/**
+	 * Dispatch mode - people press up or down and the calls of each tick are assigned to elevators together
+	 */
+	public static final int BATCHED_DISPATCH = 3;
+	
 	/**
 	 * Elevator State - is not moving
 	 */
@@ -45,29 +74,76 @@ public class ElevatorController {
 	public static final int DOWN = 2;
 	
 	/**
-	 * Makes the class a singleton
+	 * Collection of all the Elevator implementations in the ubilding.
 	 */
-	private static ElevatorController controller;
+	private ArrayList<Elevator> elevators;
 	
 	/**
-	 * Collection of all the Elevator implementations in the ubilding.
+	 * Contains the floor requests in each direction that have not been resolved yet.
+	 * @see #getHallCalls()
 	 */
-	private static ArrayList<Elevator> elevators;
+	private HallCallTable hallCalls;
 	
 	/**
-	 * Contains floors requests going up that have not been resolved yet.
+	 * The version of the snapshot every pending request was last checked against, -1 if
+	 * they need to be checked again.
+	 * @see #checkIfPendingNowValid()
 	 */
-	private static ArrayList<Integer> pendingUpRequests;
-
+	private long checkedVersion;
+	
 	/**
-	 * Contains floors requests going down that have not been resolved yet.
+	 * The state of every elevator, refreshed in place before each decision.
+	 * @see #getElevatorSnapshot()
 	 */
-	static ArrayList<Integer> pendingDownRequests;
+	private ElevatorSnapshot snapshot;
 	
 	/**
 	 * Decides the best elevator to respond to a request.
 	 */
-	private static ElevatorDecisionDelegate decisionDelegate;
+	private ElevatorDecisionDelegate decisionDelegate;
+	
+	/**
+	 * Assigns the calls of each tick together in batched dispatch mode, null in the other modes.
+	 */
+	private BatchDispatcher batchDispatcher;
+	
+	/**
+	 * The dispatch mode of this controller, taken from its simulation when it was initialized.
+	 * @see #isDestinationDispatch()
+	 */
+	private int mode;
+	
+	/**
+	 * In destination dispatch mode, the number of people each elevator was assigned who have
+	 * not boarded yet, by destination. Elevator n's counts start at n * (floors + 1), with the
+	 * elevator's total in the slot for story 0. Kept apart from the snapshot's lock since the
+	 * floors update it while boarding.
+	 * @see #releaseAssignment(int, int)
+	 */
+	private AtomicIntegerArray assigned;
+	
+	/**
+	 * Runs the elevator threads, null when the elevators are on an event engine.
+	 */
+	private ElevatorRuntime runtime;
+	
+	/**
+	 * Real milliseconds to wait for the elevators to finish their trips when stopping them.
+	 * Long enough for an elevator to cross the whole building and do an exchange.
+	 * @see #stopElevators()
+	 */
+	private long stopTimeout;
+	
+	/**
+	 * The number of commands sent to the elevators, counted from whichever thread sends them.
+	 * @see #sendRequestToElevator(int, int)
+	 */
+	private StripedCounter commandsSent;
+	
+	/**
+	 * The simulation this controller belongs to.
+	 */
+	private SimulationContext context;
 	
 	/**
 	 * Private constructor allowing for a singleton.
@@ -81,25 +157,89 @@ public class ElevatorController {
 	 * @param whichDecisionDelegate - The delegate to use for getting the best elevator. 
 	 * @throws InvalidArgumentException - If data passed into the new elevators is invalid
 	 */
-	public static synchronized void initialize(BuildingStatsDTO buildingStats, int whichDecisionDelegate) throws InvalidArgumentException{
-		controller = new ElevatorController();
-		elevators = new ArrayList<Elevator>();
-		pendingUpRequests = new ArrayList<Integer>();
-		pendingDownRequests = new ArrayList<Integer>();
-		decisionDelegate = ElevatorDecisionDelegateFactory.build(whichDecisionDelegate);
+	public static void initialize(BuildingStatsDTO buildingStats, int whichDecisionDelegate) throws InvalidArgumentException{
+		initialize(buildingStats, whichDecisionDelegate, null);
+	}
+	
+	/**
+	 * Initializes the Elevator controller to be used. MUST be called before
+	 * any calls to getInstance or any other public method.
+	 * @param buildingStats - The data block that holds neccessary information about the elevators
+	 * @param whichDecisionDelegate - The delegate to use for getting the best elevator. 
+	 * @param eventEngine - The engine to run the elevators on, or null to give each elevator its own thread
+	 * @throws InvalidArgumentException - If data passed into the new elevators is invalid
+	 */
+	public static void initialize(BuildingStatsDTO buildingStats, int whichDecisionDelegate, DiscreteEventEngine eventEngine) throws InvalidArgumentException{
+		initialize(SimulationContext.current(), buildingStats, whichDecisionDelegate, eventEngine);
+	}
+	
+	/**
+	 * Initializes the Elevator controller of the given simulation, whose FloorManager must
+	 * already be initialized.
+	 * @param context - The simulation to create the controller for
+	 * @param buildingStats - The data block that holds neccessary information about the elevators
+	 * @param whichDecisionDelegate - The delegate to use for getting the best elevator. 
+	 * @param eventEngine - The engine to run the elevators on, or null to give each elevator its own thread
+	 * @throws InvalidArgumentException - If data passed into the new elevators is invalid
+	 */
+	public static void initialize(SimulationContext context, BuildingStatsDTO buildingStats, int whichDecisionDelegate, DiscreteEventEngine eventEngine) throws InvalidArgumentException{
+		synchronized(context){
+			ElevatorController previous = context.getElevatorController();
+			if(previous != null && previous.runtime != null)
+				previous.runtime.cancel();		// Don't leave the elevators of an earlier initialization running
 		
-		for(int i=1; i <= buildingStats.getNumOfElevators(); i++){
-			elevators.add(ElevatorFactory.build(i, buildingStats.getDefaultFloor(i), buildingStats.getMsPerFloor(), buildingStats.getMsDoorOperation()));
-		}
+			ElevatorController controller = new ElevatorController();
+			controller.context = context;
+			controller.elevators = new ArrayList<Elevator>();
+			controller.hallCalls = new HallCallTable(buildingStats.getNumOfFloors());
+			controller.checkedVersion = -1;
+			controller.mode = context.getDispatchMode();
+			controller.commandsSent = new StripedCounter();
+			controller.assigned = new AtomicIntegerArray((buildingStats.getNumOfElevators() + 1) * (buildingStats.getNumOfFloors() + 1));
+			controller.decisionDelegate = ElevatorDecisionDelegateFactory.build(context, whichDecisionDelegate, buildingStats);
+			if(controller.mode == BATCHED_DISPATCH)
+				controller.batchDispatcher = new BatchDispatcher(
+						new EtaElevatorDecisionDelegate(context, buildingStats.getMsPerFloor(), buildingStats.getMsDoorOperation()), context.getBatchTimeBudget());
+			controller.snapshot = new ElevatorSnapshot(buildingStats.getNumOfElevators(), buildingStats.getNumOfFloors());
+			controller.stopTimeout = ((long)buildingStats.getNumOfFloors() * buildingStats.getMsPerFloor() + buildingStats.getMsDoorOperation()) 
+					/ buildingStats.getTimeScaleFactor() + 1000;
+		
+			for(int i=1; i <= buildingStats.getNumOfElevators(); i++){
+				controller.elevators.add(ElevatorFactory.build(context, i, buildingStats.getDefaultFloor(i), buildingStats.getMsPerFloor(), buildingStats.getMsDoorOperation()));
+			}
 		
-		startElevators();
+			context.setElevatorController(controller);
+			if(context.getMetrics() != null)
+				controller.registerMetrics(context.getMetrics());
+		
+			if(eventEngine == null)
+				controller.startElevators();
+			else
+				controller.scheduleElevators(eventEngine);
+		}
 	}
 	
 	/**
 	 * Used for testing building creation.
 	 */
 	public static void destroy(){
-		controller = null;
+		SimulationContext.current().setElevatorController(null);
+	}
+	
+	/**
+	 * Registers the number of commands sent to the elevators and the number of requests
+	 * no elevator has been sent to yet.
+	 * @param metrics - The registry of the simulation
+	 */
+	private void registerMetrics(MetricsRegistry metrics){
+		metrics.counter("controller.commandsSent", commandsSent);
+		metrics.gauge("controller.pendingCalls", new Gauge(){
+			public double getValue(){
+				synchronized(snapshot){
+					return hallCalls.size(UP) + hallCalls.size(DOWN);
+				}
+			}
+		});
 	}
 	
 	/**
@@ -107,51 +247,184 @@ public class ElevatorController {
 	 * @return The single instance of ElevatorController
 	 */
 	public static ElevatorController getInstance(){
+		ElevatorController controller = SimulationContext.current().getElevatorController();
 		if(controller == null)
 			throw new IllegalStateException("Must initialize ElevatorController before using it");
 		
 		return controller;
 	}
 	
+	/**
+	 * @return true if people enter their destination at the hall panel instead of pressing up or down
+	 */
+	public boolean isDestinationDispatch(){
+		return mode == DESTINATION_DISPATCH;
+	}
+	
 	/**
 	 * Private method that starts all of the Elevator threads
 	 */
-	private static void startElevators(){
+	private void startElevators(){
+		runtime = new ElevatorRuntime(context.getElevatorThreads());
+		runtime.start(elevators);
+	}
+	
+	/**
+	 * Stops all of the Elevator threads, letting each finish its current trip first.
+	 * Elevators that take longer than it takes to cross the building are cancelled.
+	 * @return true if every elevator finished on its own, false if some had to be cancelled
+	 * @throws InterruptedException if the calling thread is interrupted while waiting
+	 */
+	public boolean stopElevators() throws InterruptedException{
+		if(runtime == null)
+			return true;
+		
+		return runtime.stop(stopTimeout);
+	}
+	
+	/**
+	 * Private method that puts all of the Elevators on the event engine instead of threads
+	 * @param eventEngine - The engine to run the elevators on
+	 * @throws InvalidArgumentException - If data in the elevators is invalid
+	 */
+	private void scheduleElevators(DiscreteEventEngine eventEngine) throws InvalidArgumentException{
 		for(Elevator e : elevators){
-			Thread t = new Thread(e);
-			t.start();
+			e.scheduleOn(eventEngine);
 		}
 	}
 	
 	/**
 	 * Public method that is called by ElevatorControlBox that creates a new pending
-	 * request in the Elevator Controller. 
+	 * request in the Elevator Controller. In batched dispatch mode the request waits
+	 * for the next tick to be assigned along with the others.
 	 * @param direction - Up or down, depending on what the Person needs
 	 * @param story - The story that needs to be added to requests. 
+	 * @return 1 if an elevator was sent, 0 if the request is pending
 	 */
 	public int sendRequest(int direction, int story) throws InvalidArgumentException{
-		int bestElevator = decisionDelegate.getBestElevator(direction, story, getElevatorData());
+		if(batchDispatcher != null){
+			synchronized(snapshot){
+				if(hallCalls.register(direction, story, context.getClock().currentTimeMillis()))
+					checkedVersion = -1;	// A new call has to be matched even if no elevator changed
+			}
+			return 0;
+		}
 		
-		if(bestElevator != 0){
-			sendRequestToElevator(bestElevator, story);
-			return 1;
-		}else{
+		return assignRequest(direction, story);
+	}
+	
+	/**
+	 * Asks the delegate for the best elevator for a request and sends it, or adds the request
+	 * to the pending ones if no elevator can take it yet.
+	 * @param direction - Up or down, depending on what the Person needs
+	 * @param story - The story that needs to be added to requests. 
+	 * @return 1 if an elevator was sent, 0 if the request is pending
+	 */
+	private int assignRequest(int direction, int story) throws InvalidArgumentException{
+		synchronized(snapshot){
+			int bestElevator = decisionDelegate.getBestElevator(direction, story, getElevatorSnapshot());
 			
-			switch(direction){
-			case ElevatorController.UP:
-				if(!pendingUpRequests.contains(story))
-					pendingUpRequests.add(story);
-				break;
-			case ElevatorController.DOWN:
-				if(!pendingDownRequests.contains(story))
-					pendingDownRequests.add(story);
-				break;
+			if(bestElevator != 0){
+				sendRequestToElevator(bestElevator, story);
+				return 1;
 			}
 			
+			hallCalls.register(direction, story, context.getClock().currentTimeMillis());
 		}
 		return 0;
 	}
 	
+	/**
+	 * Called by a ControlBox in destination dispatch mode when a Person enters where they are
+	 * going. Assigns the Person to the elevator that needs the fewest extra stops to take them,
+	 * so people going to the same floor share a car, and sends that elevator to pick them up.
+	 * Elevators that are full, or would be once everyone already assigned to them gets on, 
+	 * are skipped. If no elevator can take the Person on its way, they may take any elevator 
+	 * and a regular request is made in their direction.
+	 * @param person - The Person who entered their destination, already waiting on the floor
+	 * @param story - The story of the ControlBox
+	 * @return The number of the elevator the Person was told to take, 0 if they may take any
+	 * @throws InvalidArgumentException if the story or destination is not a valid floor
+	 */
+	public int sendDestinationRequest(Person person, int story) throws InvalidArgumentException{
+		int destination = person.getDestination();
+		int direction = (destination > story ? UP : DOWN);
+		
+		synchronized(snapshot){
+			ElevatorSnapshot elevatorData = getElevatorSnapshot();
+			int row = elevatorData.getNumberOfFloors() + 1;
+			
+			int bestElevator = 0;
+			int bestCost = Integer.MAX_VALUE;
+			for(int i = 0; i < elevatorData.size(); i++){
+				int number = i + 1;
+				if(!canPickUp(elevatorData, i, direction, story))
+					continue;
+				
+				if(elevatorData.getLoad(i) + assigned.get(number * row) >= elevatorData.getCapacity(i))
+					continue;	// No room left for another group member
+				
+				int stops = 0;
+				if(!elevatorData.hasDestination(i, story))
+					stops++;
+				if(!elevatorData.hasDestination(i, destination) && assigned.get(number * row + destination) == 0)
+					stops++;
+				
+				// Extra stops count for more than any distance so groups are kept together
+				int cost = stops * row + Math.abs(elevatorData.getCurrentFloor(i) - story);
+				if(cost < bestCost){
+					bestCost = cost;
+					bestElevator = number;
+				}
+			}
+			
+			if(bestElevator == 0){
+				person.setAssignedElevator(0);
+				sendRequest(direction, story);
+				return 0;
+			}
+			
+			assigned.incrementAndGet(bestElevator * row);
+			assigned.incrementAndGet(bestElevator * row + destination);
+			person.setAssignedElevator(bestElevator);
+			sendRequestToElevator(bestElevator, story);
+			return bestElevator;
+		}
+	}
+	
+	/**
+	 * Tells whether an elevator can stop at a story to pick up somebody going in a direction
+	 * without turning around first.
+	 * @param elevatorData - The current state of the elevators
+	 * @param index - The elevator's number minus one
+	 * @param direction - UP or DOWN
+	 * @param story - The story the person is waiting on
+	 * @return true if the elevator is waiting or still on its way to the story in that direction
+	 */
+	private boolean canPickUp(ElevatorSnapshot elevatorData, int index, int direction, int story){
+		if(elevatorData.isWaiting(index))
+			return true;
+		
+		Elevator.Status status = elevatorData.getStatus(index);
+		int floor = elevatorData.getCurrentFloor(index);
+		if(direction == UP)
+			return status == Elevator.Status.MOVING_UP && floor < story;
+		
+		return status == Elevator.Status.MOVING_DOWN && floor > story;
+	}
+	
+	/**
+	 * Called by a Floor when somebody assigned to an elevator in destination dispatch mode
+	 * either boards it or is released to take any elevator, freeing their place in the group.
+	 * @param elevatorNumber - The elevator the person was assigned to
+	 * @param destination - Where the person is going
+	 */
+	public void releaseAssignment(int elevatorNumber, int destination){
+		int row = snapshot.getNumberOfFloors() + 1;
+		assigned.decrementAndGet(elevatorNumber * row);
+		assigned.decrementAndGet(elevatorNumber * row + destination);
+	}
+	
 	/**
 	 * Utility method that allows the simulation "driver" to send requests to the elevators.
 	 * 
@@ -164,42 +437,91 @@ public class ElevatorController {
 		if(elevatorId < 1 || elevatorId > elevators.size())
 			throw new InvalidArgumentException("Must call send request to valid elevator, elevatorId" + elevatorId + " outside of range");
 		
-		if(story < 1 || story > FloorManager.getInstance().getNumberOfFloors())
+		if(story < 1 || story > context.getFloorManager().getNumberOfFloors())
 			throw new InvalidArgumentException("Elevator being sent out of floor range.");
 		
-		Elevator e = elevators.get(elevatorId - 1);
-		synchronized(e){
-			e.notify();
-			e.addDestination(story);
-		}
+		elevators.get(elevatorId - 1).sendCommand(story);		// Never waits for the elevator
+		commandsSent.increment();
 	}
 	
 	/**
 	 * Checks the pending requests every second to see if they are
-	 * now able to be executed. 
+	 * now able to be executed, oldest first. The delegate's decision only depends on
+	 * the state of the elevators, so nothing is checked again until an elevator has
+	 * changed since the last check. In batched dispatch mode the requests are matched
+	 * to the elevators together, and any left once the time budget is spent are
+	 * checked one at a time.
 	 * 
 	 * @throws InvalidArgumentException if the requests to the elevator are not valid floors.
 	 */
 	public void checkIfPendingNowValid() throws InvalidArgumentException{
-		ArrayList<Integer> toRemove = new ArrayList<Integer>();
-		
-		for(int i = 0; i < pendingUpRequests.size(); i++){
-			if(sendRequest(ElevatorController.UP, pendingUpRequests.get(i)) == 1){
-				toRemove.add(pendingUpRequests.get(i));
+		synchronized(snapshot){
+			if(hallCalls.isEmpty())
+				return;
+			
+			long version = getElevatorSnapshot().getVersion();
+			if(version == checkedVersion)
+				return;		// Nothing has changed, every request would still fail
+			
+			if(batchDispatcher == null || batchDispatcher.dispatch(this, hallCalls)){
+				checkPending(ElevatorController.UP);
+				checkPending(ElevatorController.DOWN);
 			}
+			
+			// Requests checked before an elevator was sent somewhere saw an older state
+			checkedVersion = (snapshot.getVersion() == version) ? version : -1;
+		}
+	}
+	
+	/**
+	 * Sends the pending requests in one direction that an elevator can now take, in the
+	 * order they were made.
+	 * @param direction - UP or DOWN
+	 * @throws InvalidArgumentException if the requests to the elevator are not valid floors.
+	 */
+	private void checkPending(int direction) throws InvalidArgumentException{
+		int story = hallCalls.getOldest(direction);
+		while(story != 0){
+			int next = hallCalls.getNext(direction, story);
+			if(assignRequest(direction, story) == 1)
+				hallCalls.clear(direction, story);
+			story = next;
+		}
+	}
+	
+	/**
+	 * Gets the requests no elevator has been sent to yet, along with when each was made.
+	 * @return The pending hall calls
+	 */
+	public HallCallTable getHallCalls(){
+		return hallCalls;
+	}
+	
+	/**
+	 * Refreshes the controller's snapshot of the elevators in place and returns it. The same
+	 * snapshot is returned every time, so it is only valid until the next call.
+	 * @return The current state of every Elevator instance
+	 */
+	public ElevatorSnapshot getElevatorSnapshot(){
+		for(int i = 0; i < elevators.size(); i++){
+			elevators.get(i).writeTo(snapshot, i);
 		}
 		
-		pendingUpRequests.removeAll(toRemove);
-		
-		toRemove = new ArrayList<Integer>();
-		
-		for(int i = 0; i < pendingDownRequests.size(); i++){
-			if(sendRequest(ElevatorController.DOWN, pendingDownRequests.get(i)) == 1){
-				toRemove.add(pendingDownRequests.get(i));
-			}
+		return snapshot;
+	}
+	
+	/**
+	 * Gets how long the commands sent to each elevator waited before the elevator took them.
+	 * Only complete once the elevators have stopped.
+	 * @return The latencies in simulated milliseconds, indexed by elevator number minus one
+	 */
+	public Histogram[] getCommandLatencies(){
+		Histogram[] latencies = new Histogram[elevators.size()];
+		for(int i = 0; i < elevators.size(); i++){
+			latencies[i] = elevators.get(i).getCommandLatencies();
 		}
 		
-		pendingDownRequests.removeAll(toRemove);
+		return latencies;
 	}
 	
 	/**
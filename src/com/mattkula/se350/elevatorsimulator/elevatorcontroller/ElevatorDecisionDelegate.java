@@ -1,6 +1,7 @@
 package com.mattkula.se350.elevatorsimulator.elevatorcontroller;
 
 import com.mattkula.se350.elevatorsimulator.elevator.ElevatorDTO;
+import com.mattkula.se350.elevatorsimulator.elevator.ElevatorSnapshot;
 
 /**
  * Interface that defines an delegate for the ElevatorController class. Each
@@ -17,5 +18,12 @@ public interface ElevatorDecisionDelegate {
 	 * @return The number of the elevator that should be sent. 
 	 */
 	public int getBestElevator(int direction, int story, ElevatorDTO[] data);
+	
+	/**
+	 * Gets the best elevator to send for a request, reading the elevators from a snapshot
+	 * that the ElevatorController reuses for every request.
+	 * @return The number of the elevator that should be sent. 
+	 */
+	public int getBestElevator(int direction, int story, ElevatorSnapshot snapshot);
 
 }
@@ -1,6 +1,7 @@
 package com.mattkula.se350.elevatorsimulator.elevatorcontroller;
 
-
+import com.mattkula.se350.elevatorsimulator.building.BuildingStatsDTO;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
 
 /**
  * A Factory class that builds DecisionDelegates for the Elevator Controller
@@ -12,19 +13,45 @@ public class ElevatorDecisionDelegateFactory {
 	
 	/**
 	 * Builds the required ElevatorDecisionDelegate
-	 * @param which - Which delegate which be created (1 for simple, 2 for improved)
+	 * @param which - Which delegate which be created (1 for simple, 2 for improved, 3 for estimated time of arrival)
 	 * @return An ElevatorDecisionDelegate that matches the parameters
 	 */
 	public static ElevatorDecisionDelegate build(int which){
+		return build(SimulationContext.current(), which);
+	}
+	
+	/**
+	 * Builds the required ElevatorDecisionDelegate for the given simulation
+	 * @param context - The simulation the delegate belongs to
+	 * @param which - Which delegate which be created (1 for simple, 2 for improved, 3 for estimated time of arrival)
+	 * @return An ElevatorDecisionDelegate that matches the parameters
+	 */
+	public static ElevatorDecisionDelegate build(SimulationContext context, int which){
+		return build(context, which, null);
+	}
+	
+	/**
+	 * Builds the required ElevatorDecisionDelegate for the given simulation and building
+	 * @param context - The simulation the delegate belongs to
+	 * @param which - Which delegate which be created (1 for simple, 2 for improved, 3 for estimated time of arrival)
+	 * @param buildingStats - The building the delegate chooses elevators for, needed by the estimated time of arrival delegate
+	 * @return An ElevatorDecisionDelegate that matches the parameters
+	 * @throws IllegalStateException - If the delegate needs the building and none was given
+	 */
+	public static ElevatorDecisionDelegate build(SimulationContext context, int which, BuildingStatsDTO buildingStats){
 		
 		switch(which){
 		case ElevatorController.DEFAULT_DECISION_DELEGATE:
-			return new SimpleElevatorDecisionDelegate();
+			return new SimpleElevatorDecisionDelegate(context);
 		case ElevatorController.IMPROVED_DECISION_DELEGATE:
-			return new ImprovedElevatorDecisionDelegate();
+			return new ImprovedElevatorDecisionDelegate(context);
+		case ElevatorController.ETA_DECISION_DELEGATE:
+			if(buildingStats == null)
+				throw new IllegalStateException("The estimated time of arrival delegate needs the building stats");
+			return new EtaElevatorDecisionDelegate(context, buildingStats.getMsPerFloor(), buildingStats.getMsDoorOperation());
 		}
 		
-		return new SimpleElevatorDecisionDelegate();
+		return new SimpleElevatorDecisionDelegate(context);
 	}
 
 }
@@ -0,0 +1,135 @@
+package com.mattkula.se350.elevatorsimulator.elevatorcontroller;
+
+import com.mattkula.se350.elevatorsimulator.elevator.Elevator;
+import com.mattkula.se350.elevatorsimulator.elevator.ElevatorDTO;
+import com.mattkula.se350.elevatorsimulator.elevator.ElevatorSnapshot;
+import com.mattkula.se350.elevatorsimulator.logging.EventLog;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
+
+/**
+ * Implementation of the ElevatorDecisionDelegate interface that estimates how long
+ * each elevator would take to arrive at the request and chooses the one that would
+ * arrive first. The estimate is the time to travel the floors between the elevator
+ * and the story, plus a door operation for every stop the elevator already has on
+ * the way, plus a share of a door operation for how full the elevator is, since a
+ * fuller elevator exchanges more people at each stop.
+ *
+ * Only elevators that are waiting, or that are moving towards the story in the
+ * direction of the request, can be sent, because an elevator moving the other way
+ * ignores the destination. Full elevators are never sent.
+ *
+ * @author Matt
+ *
+ */
+public class EtaElevatorDecisionDelegate implements ElevatorDecisionDelegate{
+
+	/**
+	 * The log of the simulation the delegate logs its decisions to.
+	 */
+	private EventLog log;
+
+	/**
+	 * The number of milliseconds it takes an elevator to travel one floor.
+	 */
+	private int msPerFloor;
+
+	/**
+	 * The number of milliseconds it takes an elevator to exchange people at a floor.
+	 */
+	private int msDoorOperation;
+
+	/**
+	 * Creates the delegate for the simulation of the current thread.
+	 * @param msPerFloor - The time it takes an elevator to travel one floor
+	 * @param msDoorOperation - The time it takes an elevator to exchange people at a floor
+	 */
+	public EtaElevatorDecisionDelegate(int msPerFloor, int msDoorOperation){
+		this(SimulationContext.current(), msPerFloor, msDoorOperation);
+	}
+
+	/**
+	 * Creates the delegate for the given simulation.
+	 * @param context - The simulation the delegate logs its decisions to
+	 * @param msPerFloor - The time it takes an elevator to travel one floor
+	 * @param msDoorOperation - The time it takes an elevator to exchange people at a floor
+	 */
+	public EtaElevatorDecisionDelegate(SimulationContext context, int msPerFloor, int msDoorOperation){
+		this.log = context.getLog();
+		this.msPerFloor = msPerFloor;
+		this.msDoorOperation = msDoorOperation;
+	}
+
+	/**
+	 * Chooses the elevator that would arrive at the story first, based on the direction of
+	 * the request and the position, direction, stops and load of all of the elevators.
+	 * @return The number of the best elevator to send to the story, 0 if no elevator can be sent yet.
+	 */
+	public int getBestElevator(int direction, int story, ElevatorDTO[] data) {
+		return getBestElevator(direction, story, ElevatorSnapshot.of(data));
+	}
+
+	/**
+	 * Chooses the elevator that would arrive at the story first, reading the elevators from a snapshot.
+	 * @return The number of the best elevator to send to the story, 0 if no elevator can be sent yet.
+	 */
+	public int getBestElevator(int direction, int story, ElevatorSnapshot snapshot) {
+		int bestElevator = 0;
+		long bestEta = Long.MAX_VALUE;
+
+		for(int i = 1; i <= snapshot.size(); i++){
+			long eta = getEta(direction, story, snapshot, i-1);
+			if(eta < bestEta){
+				bestEta = eta;
+				bestElevator = i;
+			}
+		}
+
+		if(bestElevator != 0){
+			if(log.isEnabled(EventLog.DEBUG))
+				log.log(EventLog.DEBUG, "Sending Elevator %d to Floor %d, arriving in %d ms", bestElevator, story, bestEta);
+			return bestElevator;
+		}
+
+		//No good fit
+		if(log.isEnabled(EventLog.DEBUG))
+			log.log(EventLog.DEBUG, "No good fit for %d", story);
+		return 0;
+	}
+
+	/**
+	 * Estimates how long an elevator would take to arrive at a story.
+	 * @param direction - The direction of the request
+	 * @param story - The story of the request
+	 * @param snapshot - The state of the elevators
+	 * @param index - The index of the elevator, its number minus one
+	 * @return The estimated time in milliseconds, Long.MAX_VALUE if the elevator cannot be sent
+	 */
+	long getEta(int direction, int story, ElevatorSnapshot snapshot, int index){
+		if(snapshot.isFull(index))
+			return Long.MAX_VALUE;
+
+		int currentFloor = snapshot.getCurrentFloor(index);
+		int stops;
+
+		if(snapshot.isWaiting(index)){
+			stops = currentFloor < story ? snapshot.getDestinationCount(index, currentFloor + 1, story - 1)
+					: snapshot.getDestinationCount(index, story + 1, currentFloor - 1);
+		}else if(direction == ElevatorController.UP && snapshot.getStatus(index) == Elevator.Status.MOVING_UP
+				&& currentFloor < story){
+			stops = snapshot.getDestinationCount(index, currentFloor + 1, story - 1);
+		}else if(direction == ElevatorController.DOWN && snapshot.getStatus(index) == Elevator.Status.MOVING_DOWN
+				&& currentFloor > story){
+			stops = snapshot.getDestinationCount(index, story + 1, currentFloor - 1);
+		}else{
+			return Long.MAX_VALUE;
+		}
+
+		long eta = (long)Math.abs(currentFloor - story) * msPerFloor + (long)stops * msDoorOperation;
+		int capacity = snapshot.getCapacity(index);
+		if(capacity != Integer.MAX_VALUE && capacity > 0)
+			eta += (long)snapshot.getLoad(index) * msDoorOperation / capacity;
+
+		return eta;
+	}
+
+}
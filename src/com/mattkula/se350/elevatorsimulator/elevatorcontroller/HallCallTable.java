@@ -0,0 +1,189 @@
+package com.mattkula.se350.elevatorsimulator.elevatorcontroller;
+
+import java.util.Arrays;
+
+/**
+ * The hall calls that no elevator has been sent to yet, indexed by floor and direction.
+ * Each pending call remembers when it was registered, so its waiting age is known, and
+ * the calls of each direction are linked in the order they were registered so they are
+ * reconsidered first come first served. Registering, clearing and checking a call are
+ * all constant time.
+ *
+ * Not synchronized, the ElevatorController locks around it.
+ *
+ * @author Matt
+ *
+ */
+public class HallCallTable {
+
+	/**
+	 * The time each call was registered, indexed by direction then story, -1 if there is no call.
+	 */
+	private long[][] registeredAt;
+
+	/**
+	 * The story of the next call registered in the same direction, indexed by direction then story, 0 if none.
+	 */
+	private int[][] next;
+
+	/**
+	 * The story of the previous call registered in the same direction, indexed by direction then story, 0 if none.
+	 */
+	private int[][] previous;
+
+	/**
+	 * The story of the oldest call in each direction, 0 if none.
+	 */
+	private int[] oldest;
+
+	/**
+	 * The story of the newest call in each direction, 0 if none.
+	 */
+	private int[] newest;
+
+	/**
+	 * The number of calls in each direction.
+	 */
+	private int[] count;
+
+	/**
+	 * Creates an empty table.
+	 * @param numOfFloors - The number of floors in the building
+	 */
+	public HallCallTable(int numOfFloors){
+		registeredAt = new long[2][numOfFloors + 1];
+		next = new int[2][numOfFloors + 1];
+		previous = new int[2][numOfFloors + 1];
+		oldest = new int[2];
+		newest = new int[2];
+		count = new int[2];
+
+		Arrays.fill(registeredAt[0], -1);
+		Arrays.fill(registeredAt[1], -1);
+	}
+
+	/**
+	 * Registers a call, unless there already is one for the story and direction.
+	 * @param direction - ElevatorController.UP or ElevatorController.DOWN
+	 * @param story - The story the call was made from
+	 * @param time - The simulation time in milliseconds the call was made
+	 * @return true if the call is new, false if it was already pending
+	 */
+	public boolean register(int direction, int story, long time){
+		int d = index(direction);
+		if(registeredAt[d][story] >= 0)
+			return false;
+
+		registeredAt[d][story] = time;
+		previous[d][story] = newest[d];
+		next[d][story] = 0;
+		if(newest[d] == 0)
+			oldest[d] = story;
+		else
+			next[d][newest[d]] = story;
+		newest[d] = story;
+		count[d]++;
+		return true;
+	}
+
+	/**
+	 * Clears a call, once an elevator has been sent to it.
+	 * @param direction - ElevatorController.UP or ElevatorController.DOWN
+	 * @param story - The story the call was made from
+	 * @return true if there was a call to clear
+	 */
+	public boolean clear(int direction, int story){
+		int d = index(direction);
+		if(registeredAt[d][story] < 0)
+			return false;
+
+		int before = previous[d][story];
+		int after = next[d][story];
+		if(before == 0)
+			oldest[d] = after;
+		else
+			next[d][before] = after;
+		if(after == 0)
+			newest[d] = before;
+		else
+			previous[d][after] = before;
+
+		registeredAt[d][story] = -1;
+		count[d]--;
+		return true;
+	}
+
+	/**
+	 * @param direction - ElevatorController.UP or ElevatorController.DOWN
+	 * @param story - The story to check
+	 * @return true if there is a call pending for the story and direction
+	 */
+	public boolean isPending(int direction, int story){
+		return registeredAt[index(direction)][story] >= 0;
+	}
+
+	/**
+	 * @param direction - ElevatorController.UP or ElevatorController.DOWN
+	 * @param story - The story to check
+	 * @return The simulation time in milliseconds the call was registered, -1 if there is no call
+	 */
+	public long getRegisteredAt(int direction, int story){
+		return registeredAt[index(direction)][story];
+	}
+
+	/**
+	 * @param direction - ElevatorController.UP or ElevatorController.DOWN
+	 * @param story - The story to check
+	 * @param now - The current simulation time in milliseconds
+	 * @return How long the call has been waiting in milliseconds, -1 if there is no call
+	 */
+	public long getAge(int direction, int story, long now){
+		long time = getRegisteredAt(direction, story);
+		if(time < 0)
+			return -1;
+
+		return now - time;
+	}
+
+	/**
+	 * @param direction - ElevatorController.UP or ElevatorController.DOWN
+	 * @return The story of the oldest call in the direction, 0 if there are none
+	 */
+	public int getOldest(int direction){
+		return oldest[index(direction)];
+	}
+
+	/**
+	 * @param direction - ElevatorController.UP or ElevatorController.DOWN
+	 * @param story - The story of a pending call
+	 * @return The story of the call registered after it in the same direction, 0 if it is the newest
+	 */
+	public int getNext(int direction, int story){
+		return next[index(direction)][story];
+	}
+
+	/**
+	 * @param direction - ElevatorController.UP or ElevatorController.DOWN
+	 * @return The number of calls pending in the direction
+	 */
+	public int size(int direction){
+		return count[index(direction)];
+	}
+
+	/**
+	 * @return true if no calls are pending in either direction
+	 */
+	public boolean isEmpty(){
+		return count[0] == 0 && count[1] == 0;
+	}
+
+	/**
+	 * Gets the row of the arrays for a direction.
+	 * @param direction - ElevatorController.UP or ElevatorController.DOWN
+	 * @return 0 for up, 1 for down
+	 */
+	private static int index(int direction){
+		return direction == ElevatorController.UP ? 0 : 1;
+	}
+
+}
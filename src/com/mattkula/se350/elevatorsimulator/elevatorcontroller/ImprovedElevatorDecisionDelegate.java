@@ -1,8 +1,10 @@
 package com.mattkula.se350.elevatorsimulator.elevatorcontroller;
 
-import com.mattkula.se350.elevatorsimulator.building.Building;
 import com.mattkula.se350.elevatorsimulator.elevator.Elevator;
 import com.mattkula.se350.elevatorsimulator.elevator.ElevatorDTO;
+import com.mattkula.se350.elevatorsimulator.elevator.ElevatorSnapshot;
+import com.mattkula.se350.elevatorsimulator.logging.EventLog;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
 
 /**
  * Implementation of the ElevatorDecisionDelegate interface that improves upon
@@ -12,6 +14,26 @@ import com.mattkula.se350.elevatorsimulator.elevator.ElevatorDTO;
  *
  */
 public class ImprovedElevatorDecisionDelegate implements ElevatorDecisionDelegate{
+	
+	/**
+	 * The log of the simulation the delegate logs its decisions to.
+	 */
+	private EventLog log;
+	
+	/**
+	 * Creates the delegate for the simulation of the current thread.
+	 */
+	public ImprovedElevatorDecisionDelegate(){
+		this(SimulationContext.current());
+	}
+	
+	/**
+	 * Creates the delegate for the given simulation.
+	 * @param context - The simulation the delegate logs its decisions to
+	 */
+	public ImprovedElevatorDecisionDelegate(SimulationContext context){
+		this.log = context.getLog();
+	}
 
 	/**
 	 * Chooses the best elevator to send a destination to based on the direction of the request,
@@ -19,20 +41,31 @@ public class ImprovedElevatorDecisionDelegate implements ElevatorDecisionDelegat
 	 * elevators. 
 	 */
 	public int getBestElevator(int direction, int story, ElevatorDTO[] data) {
+		return getBestElevator(direction, story, ElevatorSnapshot.of(data));
+	}
+	
+	/**
+	 * Chooses the best elevator to send a destination to, reading the position and direction
+	 * of the elevators from a snapshot.
+	 */
+	public int getBestElevator(int direction, int story, ElevatorSnapshot snapshot) {
 		
 		// checks if a waiting elevator is on that floor then checks if the new request is in the moving path of an elevator.
-		for(int i = 1; i <= data.length; i++){
-			ElevatorDTO elevator = data[i-1];
+		for(int i = 1; i <= snapshot.size(); i++){
+			Elevator.Status status = snapshot.getStatus(i-1);
+			int currentFloor = snapshot.getCurrentFloor(i-1);
 			
-			if((elevator.status == Elevator.Status.WAITING || elevator.status == Elevator.Status.WAITING_DEFAULT)
-					&& elevator.currentFloor == story){
-					System.out.println(String.format("%s Sending Elevator %d to Floor %d", Building.getTimeString(), i, story));
+			if((status == Elevator.Status.WAITING || status == Elevator.Status.WAITING_DEFAULT)
+					&& currentFloor == story){
+					if(log.isEnabled(EventLog.DEBUG))
+						log.log(EventLog.DEBUG, "Sending Elevator %d to Floor %d", i, story);
 					return i;
 			}
 			
-			if((elevator.status == Elevator.Status.MOVING_UP && elevator.currentFloor < story && direction == ElevatorController.UP) ||
-					(elevator.status == Elevator.Status.MOVING_DOWN && elevator.currentFloor > story && direction == ElevatorController.DOWN)){
-				System.out.println(String.format("%s Sending Elevator %d to Floor %d", Building.getTimeString(), i, story));
+			if((status == Elevator.Status.MOVING_UP && currentFloor < story && direction == ElevatorController.UP) ||
+					(status == Elevator.Status.MOVING_DOWN && currentFloor > story && direction == ElevatorController.DOWN)){
+				if(log.isEnabled(EventLog.DEBUG))
+					log.log(EventLog.DEBUG, "Sending Elevator %d to Floor %d", i, story);
 				return i;
 			}
 		}
@@ -42,11 +75,12 @@ public class ImprovedElevatorDecisionDelegate implements ElevatorDecisionDelegat
 		int closestElevator = 0;
 		int closestDistance = 16;
 		
-		for(int i = data.length; i > 0; i--){
-			ElevatorDTO elevator = data[i-1];
+		for(int i = snapshot.size(); i > 0; i--){
+			Elevator.Status status = snapshot.getStatus(i-1);
+			int currentFloor = snapshot.getCurrentFloor(i-1);
 			
-			if(elevator.status == Elevator.Status.WAITING_DEFAULT || elevator.status == Elevator.Status.WAITING){
-				int distance = getDistance(elevator.currentFloor, story);
+			if(status == Elevator.Status.WAITING_DEFAULT || status == Elevator.Status.WAITING){
+				int distance = getDistance(currentFloor, story);
 				
 				if(distance <= closestDistance){
 					closestDistance = distance;
@@ -57,14 +91,16 @@ public class ImprovedElevatorDecisionDelegate implements ElevatorDecisionDelegat
 		}
 		
 		if(closestElevator != 0){
-			System.out.println(String.format("%s Sending Elevator %d to Floor %d", Building.getTimeString(), closestElevator, story));
+			if(log.isEnabled(EventLog.DEBUG))
+				log.log(EventLog.DEBUG, "Sending Elevator %d to Floor %d", closestElevator, story);
 			return closestElevator;
 		}
 		//end pass
 		
 		
 		//No good fit
-		System.out.println(String.format("%s No good fit for %d", Building.getTimeString(), story));
+		if(log.isEnabled(EventLog.DEBUG))
+			log.log(EventLog.DEBUG, "No good fit for %d", story);
 		return 0;
 	}
 	
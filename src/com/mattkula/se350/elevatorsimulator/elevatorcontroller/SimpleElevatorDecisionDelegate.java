@@ -1,8 +1,10 @@
 package com.mattkula.se350.elevatorsimulator.elevatorcontroller;
 
-import com.mattkula.se350.elevatorsimulator.building.Building;
 import com.mattkula.se350.elevatorsimulator.elevator.Elevator;
 import com.mattkula.se350.elevatorsimulator.elevator.ElevatorDTO;
+import com.mattkula.se350.elevatorsimulator.elevator.ElevatorSnapshot;
+import com.mattkula.se350.elevatorsimulator.logging.EventLog;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
 
 /**
  * Delegate class that is given the task of choosing the best option of Elevator
@@ -13,6 +15,26 @@ import com.mattkula.se350.elevatorsimulator.elevator.ElevatorDTO;
  */
 public class SimpleElevatorDecisionDelegate implements ElevatorDecisionDelegate{
 	
+	/**
+	 * The log of the simulation the delegate logs its decisions to.
+	 */
+	private EventLog log;
+	
+	/**
+	 * Creates the delegate for the simulation of the current thread.
+	 */
+	public SimpleElevatorDecisionDelegate(){
+		this(SimulationContext.current());
+	}
+	
+	/**
+	 * Creates the delegate for the given simulation.
+	 * @param context - The simulation the delegate logs its decisions to
+	 */
+	public SimpleElevatorDecisionDelegate(SimulationContext context){
+		this.log = context.getLog();
+	}
+	
 	/**
 	 * Chooses the best elevator to send a destination to based on the direction of the request,
 	 * the story that needs to be stopped at, and the current position/direction of all of the 
@@ -20,41 +42,56 @@ public class SimpleElevatorDecisionDelegate implements ElevatorDecisionDelegate{
 	 * @return The number of the best elevator to send to the story, 0 if no elevator is good for the resquest yet.
 	 */
 	public int getBestElevator(int direction, int story, ElevatorDTO[] data) {
+		return getBestElevator(direction, story, ElevatorSnapshot.of(data));
+	}
+	
+	/**
+	 * Chooses the best elevator to send a destination to, reading the position and direction
+	 * of the elevators from a snapshot.
+	 * @return The number of the best elevator to send to the story, 0 if no elevator is good for the resquest yet.
+	 */
+	public int getBestElevator(int direction, int story, ElevatorSnapshot snapshot) {
 		
 		
-		for(int i = 1; i <= data.length; i++){
-			ElevatorDTO elevator = data[i-1];
-			if((elevator.status == Elevator.Status.MOVING_UP && elevator.currentFloor < story && direction == ElevatorController.UP) ||
-					(elevator.status == Elevator.Status.MOVING_DOWN && elevator.currentFloor > story && direction == ElevatorController.DOWN)){
-				System.out.println(String.format("%s Sending Elevator %d to Floor %d", Building.getTimeString(), i, story));
+		for(int i = 1; i <= snapshot.size(); i++){
+			Elevator.Status status = snapshot.getStatus(i-1);
+			int currentFloor = snapshot.getCurrentFloor(i-1);
+			if((status == Elevator.Status.MOVING_UP && currentFloor < story && direction == ElevatorController.UP) ||
+					(status == Elevator.Status.MOVING_DOWN && currentFloor > story && direction == ElevatorController.DOWN)){
+				if(log.isEnabled(EventLog.DEBUG))
+					log.log(EventLog.DEBUG, "Sending Elevator %d to Floor %d", i, story);
 				return i;
 			}
 			
-			if((elevator.status == Elevator.Status.WAITING || elevator.status == Elevator.Status.WAITING_DEFAULT)
-					&& elevator.currentFloor == story){
-				System.out.println(String.format("%s Sending Elevator %d to Floor %d", Building.getTimeString(), i, story));
+			if((status == Elevator.Status.WAITING || status == Elevator.Status.WAITING_DEFAULT)
+					&& currentFloor == story){
+				if(log.isEnabled(EventLog.DEBUG))
+					log.log(EventLog.DEBUG, "Sending Elevator %d to Floor %d", i, story);
 				return i;
 			}
 		}
 		
-		for(int i = 1; i <= data.length; i++){
-			ElevatorDTO elevator = data[i-1];
-			if(elevator.status == Elevator.Status.WAITING_DEFAULT){
-				System.out.println(String.format("%s Sending Elevator %d to Floor %d", Building.getTimeString(), i, story));
+		for(int i = 1; i <= snapshot.size(); i++){
+			Elevator.Status status = snapshot.getStatus(i-1);
+			if(status == Elevator.Status.WAITING_DEFAULT){
+				if(log.isEnabled(EventLog.DEBUG))
+					log.log(EventLog.DEBUG, "Sending Elevator %d to Floor %d", i, story);
 				return i;
 			}
 		}
 		
-		for(int i = 1; i <= data.length; i++){
-			ElevatorDTO elevator = data[i-1];
-			if(elevator.status == Elevator.Status.WAITING){
-				System.out.println(String.format("%s Sending Elevator %d to Floor %d", Building.getTimeString(), i, story));
+		for(int i = 1; i <= snapshot.size(); i++){
+			Elevator.Status status = snapshot.getStatus(i-1);
+			if(status == Elevator.Status.WAITING){
+				if(log.isEnabled(EventLog.DEBUG))
+					log.log(EventLog.DEBUG, "Sending Elevator %d to Floor %d", i, story);
 				return i;
 			}
 		}
 		
 		
-		System.out.println(String.format("%s No good fit for %d", Building.getTimeString(), story));
+		if(log.isEnabled(EventLog.DEBUG))
+			log.log(EventLog.DEBUG, "No good fit for %d", story);
 		return 0;
 	}
 
@@ -0,0 +1,185 @@
+package com.mattkula.se350.elevatorsimulator.logging;
+
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * LogWriter that hands messages to a background thread through a fixed size ring buffer,
+ * so the elevator threads never format a message or wait on the console. If the buffer
+ * fills up, writing waits for room rather than dropping messages.
+ * 
+ * @author Matt
+ *
+ */
+public class AsyncLogWriter implements LogWriter {
+	
+	/**
+	 * The number of messages the buffer holds if no size is given.
+	 * Value: {@value}
+	 */
+	public static final int DEFAULT_CAPACITY = 8192;
+	
+	/**
+	 * The most messages the background thread takes from the buffer at once.
+	 */
+	private static final int BATCH_SIZE = 256;
+	
+	/**
+	 * The ring buffer of messages waiting to be written.
+	 */
+	private ArrayBlockingQueue<LogRecord> buffer;
+	
+	/**
+	 * The writer the background thread writes the messages with.
+	 */
+	private LogWriter target;
+	
+	/**
+	 * The background thread writing the messages.
+	 */
+	private Thread thread;
+	
+	/**
+	 * Set once the writer is closed, after which messages are ignored.
+	 */
+	private volatile boolean closed;
+	
+	/**
+	 * Record put in the buffer to find out when everything before it has been written.
+	 */
+	private static class Marker extends LogRecord {
+		
+		/**
+		 * Counted down once everything before the marker has been written.
+		 */
+		CountDownLatch written = new CountDownLatch(1);
+		
+		/**
+		 * True if the background thread should stop after the marker.
+		 */
+		boolean last;
+		
+		/**
+		 * Creates a marker.
+		 * @param last - True if the background thread should stop after the marker
+		 */
+		Marker(boolean last){
+			super(0, "", null);
+			this.last = last;
+		}
+	}
+	
+	/**
+	 * Creates an asynchronous writer with the default buffer size.
+	 * @param target - The writer to write the messages with on the background thread
+	 */
+	public AsyncLogWriter(LogWriter target){
+		this(target, DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * Creates an asynchronous writer and starts its background thread.
+	 * @param target - The writer to write the messages with on the background thread
+	 * @param capacity - The number of messages the buffer holds
+	 */
+	public AsyncLogWriter(LogWriter target, int capacity){
+		this.target = target;
+		this.buffer = new ArrayBlockingQueue<LogRecord>(capacity);
+		this.thread = new Thread(new Runnable(){
+			public void run(){
+				drain();
+			}
+		}, "EventLog-Writer");
+		thread.setDaemon(true);
+		thread.start();
+	}
+	
+	/**
+	 * Adds a message to the buffer, waiting for room if it is full.
+	 * @param record - The message to write
+	 */
+	@Override
+	public void write(LogRecord record){
+		if(closed)
+			return;
+		
+		try{
+			buffer.put(record);
+		}catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * Waits until the background thread has written every message added so far.
+	 */
+	@Override
+	public void flush(){
+		await(new Marker(false));
+	}
+	
+	/**
+	 * Writes out every message added so far, stops the background thread and closes the target.
+	 */
+	@Override
+	public void close(){
+		if(closed)
+			return;
+		
+		closed = true;
+		await(new Marker(true));
+	}
+	
+	/**
+	 * Puts a marker in the buffer and waits for the background thread to reach it.
+	 * @param marker - The marker to wait for
+	 */
+	private void await(Marker marker){
+		if(!thread.isAlive())
+			return;
+		
+		try{
+			buffer.put(marker);
+			marker.written.await();
+		}catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * Main loop of the background thread. Takes messages from the buffer in batches
+	 * and writes them until a last marker is reached.
+	 */
+	private void drain(){
+		ArrayList<LogRecord> batch = new ArrayList<LogRecord>(BATCH_SIZE);
+		
+		try{
+			while(true){
+				batch.add(buffer.take());
+				buffer.drainTo(batch, BATCH_SIZE - 1);
+				
+				for(LogRecord record : batch){
+					if(record instanceof Marker){
+						Marker marker = (Marker)record;
+						if(marker.last)
+							target.close();
+						else
+							target.flush();
+						marker.written.countDown();
+						
+						if(marker.last)
+							return;
+					}else{
+						target.write(record);
+					}
+				}
+				
+				batch.clear();
+			}
+		}catch(InterruptedException e){
+			target.flush();
+		}
+	}
+
+}
@@ -0,0 +1,133 @@
+package com.mattkula.se350.elevatorsimulator.logging;
+
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
+
+/**
+ * The log of everything that happens in a simulation: people arriving, elevators moving and
+ * the decisions made about them. Each message has a level, and messages above the log's level
+ * are dropped before anything is formatted. Messages that are kept are handed to a LogWriter 
+ * as a LogRecord holding the simulation time, the format and its arguments, and are only turned
+ * into a String by the writer, which may do so on another thread.
+ * 
+ * Callers building expensive arguments should check isEnabled first, so a log with no output
+ * costs nothing but the check.
+ * 
+ * @author Matt
+ *
+ */
+public class EventLog {
+	
+	/**
+	 * Level that logs nothing.
+	 */
+	public static final int NONE = 0;
+	
+	/**
+	 * Level for the main events: people arriving, elevators stopping, doors opening and closing.
+	 */
+	public static final int INFO = 1;
+	
+	/**
+	 * Level for everything, including every floor passed and every decision made.
+	 */
+	public static final int DEBUG = 2;
+	
+	/**
+	 * Constant for sending the log nowhere.
+	 */
+	public static final int NO_OUTPUT = 0;
+	
+	/**
+	 * Constant for sending the log to the simulation's console output.
+	 */
+	public static final int CONSOLE_OUTPUT = 1;
+	
+	/**
+	 * Constant for sending the log to a file.
+	 */
+	public static final int FILE_OUTPUT = 2;
+	
+	/**
+	 * The simulation whose clock stamps the messages, null for a log with no output.
+	 */
+	private SimulationContext context;
+	
+	/**
+	 * The highest level of message that is logged.
+	 * @see #isEnabled(int)
+	 */
+	private int level;
+	
+	/**
+	 * Where the messages that are kept go, null for a log with no output.
+	 */
+	private LogWriter writer;
+	
+	/**
+	 * Creates a log for a simulation.
+	 * @param context - The simulation whose clock stamps the messages
+	 * @param level - The highest level of message to log, NONE, INFO or DEBUG
+	 * @param writer - Where the messages go
+	 */
+	public EventLog(SimulationContext context, int level, LogWriter writer){
+		this.context = context;
+		this.level = (writer == null ? NONE : level);
+		this.writer = writer;
+	}
+	
+	/**
+	 * Creates a log that drops every message.
+	 * @return A log with no output
+	 */
+	public static EventLog disabled(){
+		return new EventLog(null, NONE, null);
+	}
+	
+	/**
+	 * Checks if messages of a level are logged.
+	 * @param messageLevel - INFO or DEBUG
+	 * @return true if messages of that level are logged
+	 */
+	public boolean isEnabled(int messageLevel){
+		return messageLevel <= level;
+	}
+	
+	/**
+	 * Logs a message, stamped with the current simulation time. Nothing is formatted
+	 * if the level is not enabled.
+	 * @param messageLevel - INFO or DEBUG
+	 * @param format - The message, as a String.format format
+	 * @param args - The arguments of the format, which must not change after being logged
+	 */
+	public void log(int messageLevel, String format, Object... args){
+		if(!isEnabled(messageLevel))
+			return;
+		
+		writer.write(new LogRecord(context.getClock().currentTimeMillis(), format, args));
+	}
+	
+	/**
+	 * Waits until every message logged so far has been written.
+	 */
+	public void flush(){
+		if(writer != null)
+			writer.flush();
+	}
+	
+	/**
+	 * Writes every message logged so far and releases the writer. Nothing can be logged afterwards.
+	 */
+	public void close(){
+		if(writer != null)
+			writer.close();
+		level = NONE;
+	}
+	
+	/**
+	 * @return The highest level of message that is logged
+	 */
+	public int getLevel(){
+		return level;
+	}
+
+}
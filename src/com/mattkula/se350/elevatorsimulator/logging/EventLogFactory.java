@@ -0,0 +1,41 @@
+package com.mattkula.se350.elevatorsimulator.logging;
+
+import java.io.BufferedOutputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
+
+/**
+ * A Factory class that builds EventLogs writing to the desired output. Console and file
+ * logs are written asynchronously by an AsyncLogWriter.
+ * 
+ * @author Matt
+ *
+ */
+public class EventLogFactory {
+	
+	/**
+	 * Builds an EventLog for a simulation.
+	 * @param context - The simulation to log
+	 * @param output - EventLog.NO_OUTPUT, EventLog.CONSOLE_OUTPUT or EventLog.FILE_OUTPUT
+	 * @param level - The highest level of message to log, EventLog.NONE, EventLog.INFO or EventLog.DEBUG
+	 * @param fileName - The file to log to when using EventLog.FILE_OUTPUT, ignored otherwise
+	 * @return An EventLog that matches the parameters
+	 * @throws FileNotFoundException if the log file cannot be created
+	 */
+	public static EventLog build(SimulationContext context, int output, int level, String fileName) throws FileNotFoundException{
+		
+		switch(output){
+		case EventLog.CONSOLE_OUTPUT:
+			return new EventLog(context, level, new AsyncLogWriter(new PrintStreamLogWriter(context.getOut(), false)));
+		case EventLog.FILE_OUTPUT:
+			PrintStream file = new PrintStream(new BufferedOutputStream(new FileOutputStream(fileName), 1 << 16));
+			return new EventLog(context, level, new AsyncLogWriter(new PrintStreamLogWriter(file, true)));
+		}
+		
+		return EventLog.disabled();
+	}
+
+}
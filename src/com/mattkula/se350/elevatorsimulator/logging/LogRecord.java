@@ -0,0 +1,55 @@
+package com.mattkula.se350.elevatorsimulator.logging;
+
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
+
+/**
+ * A single message in an EventLog, kept unformatted until it is written.
+ * 
+ * @author Matt
+ *
+ */
+public class LogRecord {
+	
+	/**
+	 * The simulation time the message was logged at, in milliseconds.
+	 */
+	private long time;
+	
+	/**
+	 * The message, as a String.format format.
+	 */
+	private String format;
+	
+	/**
+	 * The arguments of the format.
+	 */
+	private Object[] args;
+	
+	/**
+	 * Creates a record of a message.
+	 * @param time - The simulation time the message was logged at, in milliseconds
+	 * @param format - The message, as a String.format format
+	 * @param args - The arguments of the format
+	 */
+	public LogRecord(long time, String format, Object[] args){
+		this.time = time;
+		this.format = format;
+		this.args = args;
+	}
+	
+	/**
+	 * @return The simulation time the message was logged at, in milliseconds
+	 */
+	public long getTime(){
+		return time;
+	}
+	
+	/**
+	 * Formats the message the way the simulation has always printed it, starting with the time.
+	 * @return The message, preceded by the simulation time in hh:mm:ss format
+	 */
+	public String format(){
+		return SimulationContext.formatTime((int)(time / 1000)) + " " + String.format(format, args);
+	}
+
+}
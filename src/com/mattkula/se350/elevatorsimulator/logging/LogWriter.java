@@ -0,0 +1,27 @@
+package com.mattkula.se350.elevatorsimulator.logging;
+
+/**
+ * Interface for the places an EventLog can send its messages.
+ * 
+ * @author Matt
+ *
+ */
+public interface LogWriter {
+	
+	/**
+	 * Writes a message, possibly later.
+	 * @param record - The message to write
+	 */
+	public void write(LogRecord record);
+	
+	/**
+	 * Waits until every message passed to write has been written out.
+	 */
+	public void flush();
+	
+	/**
+	 * Writes out every message and releases anything the writer holds.
+	 */
+	public void close();
+
+}
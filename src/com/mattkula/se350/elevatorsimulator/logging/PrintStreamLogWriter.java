@@ -0,0 +1,63 @@
+package com.mattkula.se350.elevatorsimulator.logging;
+
+import java.io.PrintStream;
+
+/**
+ * LogWriter that formats and prints each message as soon as it is written, on the
+ * calling thread. Used for the console and for log files, either directly or behind
+ * an AsyncLogWriter.
+ * 
+ * @author Matt
+ *
+ */
+public class PrintStreamLogWriter implements LogWriter {
+	
+	/**
+	 * The stream the messages are printed to.
+	 */
+	private PrintStream out;
+	
+	/**
+	 * Whether closing the writer also closes the stream, false for the console.
+	 */
+	private boolean closeStream;
+	
+	/**
+	 * Creates a writer that prints to a stream.
+	 * @param out - The stream to print to
+	 * @param closeStream - Whether closing the writer should also close the stream
+	 */
+	public PrintStreamLogWriter(PrintStream out, boolean closeStream){
+		this.out = out;
+		this.closeStream = closeStream;
+	}
+	
+	/**
+	 * Formats and prints a message.
+	 * @param record - The message to print
+	 */
+	@Override
+	public void write(LogRecord record){
+		out.println(record.format());
+	}
+	
+	/**
+	 * Flushes the stream.
+	 */
+	@Override
+	public void flush(){
+		out.flush();
+	}
+	
+	/**
+	 * Flushes the stream, and closes it if the writer owns it.
+	 */
+	@Override
+	public void close(){
+		if(closeStream)
+			out.close();
+		else
+			out.flush();
+	}
+
+}
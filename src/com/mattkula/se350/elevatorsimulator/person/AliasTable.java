@@ -0,0 +1,114 @@
+package com.mattkula.se350.elevatorsimulator.person;
+
+import java.util.Random;
+
+/**
+ * Draws floors, or any other numbered choices, at random in proportion to their weights
+ * in constant time, using Vose's version of Walker's alias method. The table is split
+ * into one slot per floor with a weight, each the same size. A draw picks a slot, then
+ * either the slot's own floor or the floor it shares the slot with, its alias, so it
+ * takes one random slot and one random coin no matter how many floors there are.
+ *
+ * Floors with no weight get no slot, so they are never drawn.
+ *
+ * @author Matt
+ *
+ */
+class AliasTable {
+
+	/**
+	 * The floor each slot belongs to.
+	 */
+	private int[] floors;
+
+	/**
+	 * The chance a draw landing in each slot keeps the slot's own floor.
+	 */
+	private double[] keep;
+
+	/**
+	 * The floor a draw landing in each slot gets when it does not keep the slot's own floor.
+	 */
+	private int[] alias;
+
+	/**
+	 * Builds the table.
+	 * @param weights - The weight of each floor, indexed by story minus one, none negative and at least one positive
+	 */
+	AliasTable(double[] weights){
+		int slots = 0;
+		double total = 0;
+		for(double weight : weights){
+			if(weight > 0){
+				slots++;
+				total += weight;
+			}
+		}
+
+		floors = new int[slots];
+		keep = new double[slots];
+		alias = new int[slots];
+
+		// Scale each weight so the average slot holds exactly 1
+		double[] scaled = new double[slots];
+		int slot = 0;
+		for(int i = 0; i < weights.length; i++){
+			if(weights[i] > 0){
+				floors[slot] = i + 1;
+				scaled[slot] = weights[i] * slots / total;
+				slot++;
+			}
+		}
+
+		// Slots holding less than 1 are topped up from slots holding more
+		int[] small = new int[slots];
+		int[] large = new int[slots];
+		int smallCount = 0, largeCount = 0;
+		for(int i = 0; i < slots; i++){
+			if(scaled[i] < 1)
+				small[smallCount++] = i;
+			else
+				large[largeCount++] = i;
+		}
+
+		while(smallCount > 0 && largeCount > 0){
+			int less = small[--smallCount];
+			int more = large[--largeCount];
+
+			keep[less] = scaled[less];
+			alias[less] = floors[more];
+
+			scaled[more] -= 1 - scaled[less];
+			if(scaled[more] < 1)
+				small[smallCount++] = more;
+			else
+				large[largeCount++] = more;
+		}
+
+		// Whatever is left holds 1 apart from rounding errors
+		while(largeCount > 0){
+			int full = large[--largeCount];
+			keep[full] = 1;
+			alias[full] = floors[full];
+		}
+		while(smallCount > 0){
+			int full = small[--smallCount];
+			keep[full] = 1;
+			alias[full] = floors[full];
+		}
+	}
+
+	/**
+	 * Draws a floor.
+	 * @param r - The random number generator to draw with
+	 * @return The story drawn
+	 */
+	int draw(Random r){
+		int slot = r.nextInt(floors.length);
+		if(r.nextDouble() < keep[slot])
+			return floors[slot];
+
+		return alias[slot];
+	}
+
+}
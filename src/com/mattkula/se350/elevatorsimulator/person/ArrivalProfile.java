@@ -0,0 +1,185 @@
+package com.mattkula.se350.elevatorsimulator.person;
+
+import java.util.Arrays;
+
+import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+
+/**
+ * Describes how fast people arrive at the building over the course of a simulation and
+ * where they are going, as a list of periods. During each period people arrive as a
+ * Poisson process at a constant rate, so any number of them can arrive in the same
+ * second, and each period has a traffic pattern deciding their source and destination.
+ *
+ * The lobby is the first floor.
+ *
+ * @author Matt
+ *
+ */
+public class ArrivalProfile {
+
+	/**
+	 * Traffic pattern - sources and destinations both follow the floor percentages of the input file
+	 */
+	public static final int MIXED_TRAFFIC = 0;
+
+	/**
+	 * Traffic pattern - everybody arrives in the lobby and goes up
+	 */
+	public static final int UP_PEAK = 1;
+
+	/**
+	 * Traffic pattern - everybody leaves from an upper floor for the lobby
+	 */
+	public static final int DOWN_PEAK = 2;
+
+	/**
+	 * Traffic pattern - half of the people go down to the lobby and half come back up from it
+	 */
+	public static final int LUNCH = 3;
+
+	/**
+	 * The simulation millisecond each period starts at, in increasing order. The first is always 0.
+	 */
+	private long[] starts;
+
+	/**
+	 * The number of people arriving per simulated minute during each period.
+	 */
+	private double[] rates;
+
+	/**
+	 * The traffic pattern of each period.
+	 */
+	private int[] patterns;
+
+	/**
+	 * The number of periods.
+	 * @see #size()
+	 */
+	private int size;
+
+	/**
+	 * Creates a profile with a single period of mixed traffic covering the whole simulation.
+	 * @param personsPerMinute - The average number of people arriving per simulated minute
+	 * @throws InvalidArgumentException if the rate is negative
+	 */
+	public ArrivalProfile(double personsPerMinute) throws InvalidArgumentException{
+		starts = new long[4];
+		rates = new double[4];
+		patterns = new int[4];
+		size = 1;
+		rates[0] = checkRate(personsPerMinute);
+		patterns[0] = MIXED_TRAFFIC;
+	}
+
+	/**
+	 * Builds the profile of an office day squeezed into the length of the simulation: a morning
+	 * up-peak, mixed traffic, a lunch peak, mixed traffic again and an evening down-peak.
+	 * @param peakPersonsPerMinute - The rate during the morning and evening peaks, the rest of the day is slower
+	 * @param durationMinutes - The length of the simulation
+	 * @return The profile
+	 * @throws InvalidArgumentException if the rate is negative or the simulation does not last at least a minute
+	 */
+	public static ArrivalProfile officeDay(double peakPersonsPerMinute, int durationMinutes) throws InvalidArgumentException{
+		if(durationMinutes <= 0)
+			throw new InvalidArgumentException("The simulation must last at least one minute");
+
+		ArrivalProfile profile = new ArrivalProfile(peakPersonsPerMinute);
+		profile.patterns[0] = UP_PEAK;
+		profile.addPeriod(durationMinutes * 0.15, peakPersonsPerMinute * 0.3, MIXED_TRAFFIC);
+		profile.addPeriod(durationMinutes * 0.45, peakPersonsPerMinute * 0.6, LUNCH);
+		profile.addPeriod(durationMinutes * 0.55, peakPersonsPerMinute * 0.3, MIXED_TRAFFIC);
+		profile.addPeriod(durationMinutes * 0.85, peakPersonsPerMinute, DOWN_PEAK);
+		return profile;
+	}
+
+	/**
+	 * Adds a period that lasts until the next one starts, or until the end of the simulation.
+	 * @param startMinute - The simulated minute the period starts, after the start of the last period
+	 * @param personsPerMinute - The average number of people arriving per simulated minute
+	 * @param pattern - MIXED_TRAFFIC, UP_PEAK, DOWN_PEAK or LUNCH
+	 * @return This profile, so periods can be chained
+	 * @throws InvalidArgumentException if the period does not start after the last one, the rate is negative or the pattern is unknown
+	 */
+	public ArrivalProfile addPeriod(double startMinute, double personsPerMinute, int pattern) throws InvalidArgumentException{
+		long start = (long)(startMinute * 60000);
+		if(start <= starts[size - 1])
+			throw new InvalidArgumentException("Arrival periods must be added in order");
+
+		if(pattern < MIXED_TRAFFIC || pattern > LUNCH)
+			throw new InvalidArgumentException("Unknown traffic pattern " + pattern);
+
+		if(size == starts.length){
+			starts = Arrays.copyOf(starts, size * 2);
+			rates = Arrays.copyOf(rates, size * 2);
+			patterns = Arrays.copyOf(patterns, size * 2);
+		}
+
+		starts[size] = start;
+		rates[size] = checkRate(personsPerMinute);
+		patterns[size] = pattern;
+		size++;
+		return this;
+	}
+
+	/**
+	 * Makes sure a rate is a usable number of people per minute.
+	 * @param personsPerMinute - The rate
+	 * @return The rate
+	 * @throws InvalidArgumentException if the rate is negative or not a number
+	 */
+	private static double checkRate(double personsPerMinute) throws InvalidArgumentException{
+		if(!(personsPerMinute >= 0) || Double.isInfinite(personsPerMinute))
+			throw new InvalidArgumentException("Arrival rate " + personsPerMinute + " cannot be negative");
+
+		return personsPerMinute;
+	}
+
+	/**
+	 * Finds the period a moment of the simulation falls in.
+	 * @param millis - The simulation time in milliseconds
+	 * @return The index of the period
+	 */
+	public int periodAt(double millis){
+		int period = 0;
+		while(period + 1 < size && starts[period + 1] <= millis)
+			period++;
+
+		return period;
+	}
+
+	/**
+	 * @param period - The index of the period
+	 * @return The simulation millisecond the period ends at, Double.POSITIVE_INFINITY for the last one
+	 */
+	public double getEnd(int period){
+		if(period + 1 >= size)
+			return Double.POSITIVE_INFINITY;
+
+		return starts[period + 1];
+	}
+
+	/**
+	 * @param period - The index of the period
+	 * @return The average number of people arriving per simulated minute during the period
+	 */
+	public double getPersonsPerMinute(int period){
+		return rates[period];
+	}
+
+	/**
+	 * @param period - The index of the period
+	 * @return The traffic pattern of the period
+	 */
+	public int getPattern(int period){
+		return patterns[period];
+	}
+
+	/**
+	 * @return The number of periods
+	 */
+	public int size(){
+		return size;
+	}
+
+}
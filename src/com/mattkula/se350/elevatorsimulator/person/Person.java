@@ -42,6 +42,25 @@ public interface Person {
 	 */
 	public int getId();
 	
+	/**
+	 * Gets the elevator the Person was told to take when they entered their destination
+	 * at the hall panel, in destination dispatch mode.
+	 * @return The number of the assigned elevator, 0 if the Person may take any elevator
+	 */
+	public int getAssignedElevator();
+	
+	/**
+	 * Sets the elevator the Person was told to take.
+	 * @param elevatorNumber - The number of the elevator, 0 to let the Person take any elevator
+	 */
+	public void setAssignedElevator(int elevatorNumber);
+	
+	/**
+	 * Gets when the Person was created, which is when they started waiting.
+	 * @return The millisecond of the simulation the Person was created
+	 */
+	public long getCreatedTime();
+	
 	/**
 	 * Called when the Person is added to the Elevator to measure their wait time.
 	 */
@@ -1,12 +1,17 @@
 package com.mattkula.se350.elevatorsimulator.person;
 
+import java.io.IOException;
 import java.util.Random;
 
-import com.mattkula.se350.elevatorsimulator.building.Building;
 import com.mattkula.se350.elevatorsimulator.building.BuildingStatsDTO;
 import com.mattkula.se350.elevatorsimulator.building.FloorManager;
+import com.mattkula.se350.elevatorsimulator.building.OriginDestinationMatrix;
 import com.mattkula.se350.elevatorsimulator.elevatorcontroller.ElevatorController;
 import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+import com.mattkula.se350.elevatorsimulator.logging.EventLog;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
+import com.mattkula.se350.elevatorsimulator.trace.PassengerLogReader;
+import com.mattkula.se350.elevatorsimulator.trace.TraceWriter;
 
 /**
  * Singleton that is responsible for generating random people and giving
@@ -14,48 +19,91 @@ import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
  * to work as a Factory. Creating another factory class would be too bulky,
  * so it was implemented into this class.
  * 
+ * By default one person is generated every 60 / personsPerMinute seconds. When the
+ * simulation has an ArrivalProfile, people arrive as a Poisson process following the profile
+ * instead, any number of them in the same second. When it has a passenger log, the
+ * recorded trips are replayed at the times they were made instead of generating any.
+ * 
  * @author Matt
  *
  */
 public class PersonGenerator {
 	
 	/**
-	 * Variable to make this a singleton
+	 * Keeps track of the number of people generated so each personhas a unique id
 	 */
-	private static PersonGenerator generator;
+	private int currentId = 0;
 	
 	/**
-	 * Keeps track of the number of people generated so each personhas a unique id
+	 * Statistic of how many people to generate per simulated minute. Gathered from input text file.
 	 */
-	private static int currentId = 0;
+	private int personsPerMinute;
 	
 	/**
-	 * Statistic of how many people to generate per simulated minute. Gathered from input text file.
+	 * The simulated milliseconds in between each generated person, 60000 / personsPerMinute.
+	 * Kept as a fraction so rates that do not divide a minute, or of more than one person a
+	 * second, are generated exactly.
+	 */
+	private double msBetween;
+	
+	/**
+	 * Draws the floor each Person starts on, weighted by the floor statistics of the input file.
 	 */
-	private static int personsPerMinute;
+	private AliasTable sourceTable;
 	
 	/**
-	 * The number of seconds in between each generated person, determined by 60 / personsPerMinute 
+	 * Draws the destination of a Person, one table per starting floor indexed by story-1. The
+	 * starting floor's weight is spread evenly over the other floors so it is never drawn.
 	 */
-	private static int secondsBetween;
+	private AliasTable[] destTables;
 	
 	/**
-	 * Used to generate People every 'secondsBetween' seconds. When it reaches zero, it generates a 
-	 * new Person, then gets reset to secondsBetween.
+	 * The trips between floors from the input, null if people follow the floor statistics instead.
 	 */
-	private static int timer;
+	private OriginDestinationMatrix originDestinationMatrix;
 	
 	/**
-	 * Percentages that somebody will be generated at each floor or their destination will be that floor.
-	 * Each story refers to index-1
+	 * Draws a whole trip at once, one table per window of the origin-destination matrix. Trip
+	 * number n goes from floor (n-1) / floors + 1 to floor (n-1) % floors + 1.
 	 */
-	private static int[] floorStats;
+	private AliasTable[] tripTables;
 	
 	/**
 	 * A random number generator useful for putting Persons on random floors and giving them 
 	 * random destinations.
 	 */
-	private static Random r;
+	private Random r;
+	
+	/**
+	 * The simulation the generated people are added to.
+	 */
+	private SimulationContext context;
+	
+	/**
+	 * How fast and where people arrive, null to generate one every msBetween milliseconds.
+	 */
+	private ArrivalProfile profile;
+	
+	/**
+	 * The simulation millisecond the next person arrives at, Double.POSITIVE_INFINITY if nobody else does.
+	 */
+	private double nextArrival;
+	
+	/**
+	 * The recorded trips being replayed, null if people are generated or every trip has been replayed.
+	 * The log is always moved to the next trip that has not been made yet.
+	 */
+	private PassengerLogReader passengerLog;
+	
+	/**
+	 * true if people come from the passenger log rather than being generated, even once it is used up.
+	 */
+	private boolean replaying;
+	
+	/**
+	 * The time of the first trip of the passenger log, replayed at the start of the simulation.
+	 */
+	private long replayStart;
 
 	/**
 	 * Private method to use as a singleton.
@@ -68,6 +116,7 @@ public class PersonGenerator {
 	 * @return The single instance of PersonGenerator
 	 */
 	public static PersonGenerator getInstance(){
+		PersonGenerator generator = SimulationContext.current().getPersonGenerator();
 		if(generator == null)
 			throw new IllegalStateException("Person Generator must be initialized first.");
 		
@@ -80,117 +129,293 @@ public class PersonGenerator {
 	 * @param buildingStats - Holds all of the data neccessary for creating the PersonGenerator
 	 */
 	public static void initialize(BuildingStatsDTO buildingStats){
-		generator = new PersonGenerator();
-		personsPerMinute = buildingStats.getPersonsPerMinute();
-		floorStats = new int[buildingStats.getNumOfFloors()];
+		initialize(buildingStats, System.nanoTime());
+	}
+	
+	/**
+	 * Initializes the PersonGenerator with data that affects how
+	 * and when people will be created, using a fixed seed so the same
+	 * people are generated every time.
+	 * @param buildingStats - Holds all of the data neccessary for creating the PersonGenerator
+	 * @param seed - The seed for the random number generator
+	 */
+	public static void initialize(BuildingStatsDTO buildingStats, long seed){
+		initialize(SimulationContext.current(), buildingStats, seed);
+	}
+	
+	/**
+	 * Initializes the PersonGenerator of the given simulation with data that affects how
+	 * and when people will be created, using a fixed seed so the same people are generated
+	 * every time.
+	 * @param context - The simulation the people will be added to
+	 * @param buildingStats - Holds all of the data neccessary for creating the PersonGenerator
+	 * @param seed - The seed for the random number generator
+	 */
+	public static void initialize(SimulationContext context, BuildingStatsDTO buildingStats, long seed){
+		PersonGenerator generator = new PersonGenerator();
+		generator.context = context;
+		generator.personsPerMinute = buildingStats.getPersonsPerMinute();
+		
+		generator.r = new Random(seed);
+		if(context.getPassengerLog() != null)
+			generator.openPassengerLog(context.getPassengerLog());
+		
+		generator.profile = context.getArrivalProfile();
+		if(generator.profile != null){
+			generator.nextArrival = generator.drawArrivalAfter(context.getClock().currentTimeMillis());
+		}else if(generator.personsPerMinute > 0){
+			generator.msBetween = 60000.0 / generator.personsPerMinute;
+			generator.nextArrival = context.getClock().currentTimeMillis();	// The first person arrives right away
+		}else{
+			generator.nextArrival = Double.POSITIVE_INFINITY;
+		}
 		
-		if(personsPerMinute == 0)
-			secondsBetween = 0;
-		else
-			secondsBetween = 60 / personsPerMinute;
+		int floors = buildingStats.getNumOfFloors();
+		double[] weights = new double[floors];
+		for(int i = 1; i <= floors; i++){
+			weights[i-1] = buildingStats.getFloorWeight(i);
+		}
 		
-		timer = 0;
+		generator.sourceTable = new AliasTable(weights);
+		generator.destTables = new AliasTable[floors];
+		for(int source = 1; source <= floors; source++){
+			double[] adjusted = new double[floors];
+			double toSpread = weights[source-1] / (floors - 1);
+			for(int i = 0; i < floors; i++){
+				adjusted[i] = (i == source-1 ? 0 : weights[i] + toSpread);
+			}
+			generator.destTables[source-1] = new AliasTable(adjusted);
+		}
 		
-		r = new Random();
+		generator.originDestinationMatrix = buildingStats.getOriginDestinationMatrix();
+		if(generator.originDestinationMatrix != null){
+			generator.tripTables = new AliasTable[generator.originDestinationMatrix.size()];
+			for(int window = 0; window < generator.tripTables.length; window++){
+				generator.tripTables[window] = new AliasTable(generator.originDestinationMatrix.getWindow(window));
+			}
+		}
 		
-		int counterTo100 = 0;
-		for(int i = 1; i <= floorStats.length; i++){
-			floorStats[i-1] = buildingStats.getFloorPercentage(i);
-			counterTo100 += buildingStats.getFloorPercentage(i);
+		context.setPersonGenerator(generator);
+	}
+	
+	/**
+	 * Opens the passenger log and reads its first trip, which sets the time the replay starts from.
+	 * @param fileName - The log of recorded trips
+	 * @throws IllegalStateException if the log cannot be read
+	 */
+	private void openPassengerLog(String fileName){
+		replaying = true;
+		try{
+			passengerLog = new PassengerLogReader(fileName);
+			if(passengerLog.next())
+				replayStart = passengerLog.getTime();
+			else
+				close();
+		}catch(IOException e){
+			throw new IllegalStateException("Could not read passenger log " + fileName + ": " + e.getMessage());
 		}
+	}
+	
+	/**
+	 * Stops replaying the passenger log, if there is one, and closes it.
+	 */
+	public void close(){
+		if(passengerLog == null)
+			return;
 		
-		if(counterTo100 != 100)
-			throw new IllegalStateException("Floor statistics do not add up to 100");
+		try{
+			passengerLog.close();
+		}catch(IOException e){
+			e.printStackTrace();
+		}
+		passengerLog = null;
 	}
 	
 	/**
 	 * Method to create people and add them to floors. Called every second, 
 	 * but only creates people based on the number of peoplePerMinute specified by
-	 * the text file input. They are created every 'secondsBetween' seconds.
-	 * @return 0 if nothing was generated or the new person's destination if somebody was
+	 * the text file input. They arrive every 60 / personsPerMinute seconds, or
+	 * following an arrival profile or the passenger log, and everybody who arrived
+	 * since the last call is created.
+	 * @return 0 if nothing was generated or the starting floor of the last person generated
 	 * @throws InvalidArgumentException if Person creation data is invalid
 	 */
 	public int generateAndAddPerson() throws InvalidArgumentException{
 		
-		if(timer == 0){
-			timer = secondsBetween;
+		if(replaying)
+			return replayTrips();
 		
-			currentId++;
-			
-			int source = getSourceFloor();
-			int dest = getDestFloor(source);
-			
-			Person p = PersonGenerator.build(currentId, source, dest);
-			FloorManager.getInstance().addPersonToFloor(source, p);
-			
-			System.out.println(String.format("%s Person %d added at %d pressed %s to go to %d", Building.getTimeString(), currentId, source, (dest > source ? "UP" : "DOWN"), dest));
-			
-			FloorManager.getInstance().pressControlBoxAt(source, (dest > source ? ElevatorController.UP : ElevatorController.DOWN));
-			
-			
-			return source;
-		}else{
-			timer--;
+		if(profile != null)
+			return generateArrivals();
+		
+		long now = context.getClock().currentTimeMillis();
+		int source = 0;
+		while(nextArrival <= now){
+			source = addRandomTrip();
+			nextArrival += msBetween;
 		}
 		
-		return 0;
+		return source;
 	}
 	
 	/**
-	 * Generates starting floor by statistics provided by the input file.
-	 * @return The floor that the new Person instance should start on.
+	 * Creates everybody in the passenger log whose trip started, relative to the first
+	 * trip of the log, by the current simulation time. Trips from a floor to itself are
+	 * skipped, as nobody would call an elevator for them.
+	 * @return 0 if nobody arrived or the starting floor of the last person who did
+	 * @throws InvalidArgumentException if the log cannot be read or a trip is outside the building
 	 */
-	private int getSourceFloor(){
-
-		int randInt = r.nextInt(100) + 1;		//Number from 1-100
+	private int replayTrips() throws InvalidArgumentException{
+		if(passengerLog == null)
+			return 0;
 		
-		int i = 0, counter = 0;
+		long now = context.getClock().currentTimeMillis();
+		int source = 0;
 		
-		while( counter < randInt ){
-			counter += floorStats[i];
-			i++;
+		try{
+			while(passengerLog.getTime() - replayStart <= now){
+				if(passengerLog.getOrigin() != passengerLog.getDestination()){
+					source = passengerLog.getOrigin();
+					addPerson(source, passengerLog.getDestination());
+				}
+				
+				if(!passengerLog.next()){
+					close();
+					break;
+				}
+			}
+		}catch(IOException e){
+			close();
+			throw new InvalidArgumentException("Could not read passenger log: " + e.getMessage());
 		}
 		
-		return i;
+		return source;
 	}
 	
-
 	/**
-	 * Generates random destination floor for the new Person instance
-	 * @param sourceFloor - The floor the person begins on, cannot return this floor.
-	 * @return The destination of the new Person instance.
+	 * Creates everybody whose arrival time has passed, following the arrival profile.
+	 * @return 0 if nobody arrived or the starting floor of the last person who did
+	 * @throws InvalidArgumentException if Person creation data is invalid
 	 */
-	private int getDestFloor(int sourceFloor){
-		
-		int[] adjustedPcts = new int[floorStats.length];
+	private int generateArrivals() throws InvalidArgumentException{
+		long now = context.getClock().currentTimeMillis();
+		int source = 0;
 		
-		for(int i = 0; i < floorStats.length; i++){
-			adjustedPcts[i] = floorStats[i];
+		while(nextArrival <= now){
+			int pattern = profile.getPattern(profile.periodAt(nextArrival));
+			if(pattern == ArrivalProfile.LUNCH)
+				pattern = (r.nextBoolean() ? ArrivalProfile.UP_PEAK : ArrivalProfile.DOWN_PEAK);
+			
+			if(pattern == ArrivalProfile.UP_PEAK){
+				source = 1;
+				addPerson(source, getDestFloor(source));
+			}else if(pattern == ArrivalProfile.DOWN_PEAK){
+				source = getDestFloor(1);		// Anywhere but the lobby, weighted like a destination from it
+				addPerson(source, 1);
+			}else{
+				source = addRandomTrip();
+			}
+			
+			nextArrival = drawArrivalAfter(nextArrival);
 		}
 		
-		Integer toSpread = adjustedPcts[sourceFloor - 1];
-		adjustedPcts[sourceFloor - 1] = 0;
-		
-		int newTotalSum = 100 - toSpread;
-		
-		for(int i = 0; toSpread > 0; i = (i+1) % adjustedPcts.length, toSpread--){
-			if(i != (sourceFloor - 1)){
-				adjustedPcts[i]++;
+		return source;
+	}
+	
+	/**
+	 * Draws the time of the next arrival of the Poisson process described by the arrival
+	 * profile. The time between arrivals is exponentially distributed, and since it has no
+	 * memory, a draw that crosses into the next period starts over from the start of that 
+	 * period with its rate.
+	 * @param millis - The simulation time of the last arrival
+	 * @return The simulation time of the next arrival, Double.POSITIVE_INFINITY if nobody else arrives
+	 */
+	private double drawArrivalAfter(double millis){
+		int period = profile.periodAt(millis);
+		while(true){
+			double end = profile.getEnd(period);
+			double perMilli = profile.getPersonsPerMinute(period) / 60000;
+			if(perMilli > 0){
+				double next = millis - Math.log(1 - r.nextDouble()) / perMilli;
+				if(next < end)
+					return next;
 			}
+			
+			if(end == Double.POSITIVE_INFINITY)
+				return end;
+			
+			millis = end;
+			period++;
 		}
-
-		int randInt = r.nextInt(newTotalSum) + 1;		//Number from 1-100
+	}
+	
+	/**
+	 * Creates a Person, adds them to their starting floor and has them call an elevator.
+	 * @param source - The floor the Person starts on
+	 * @param dest - The floor the Person wants to get to
+	 * @throws InvalidArgumentException if Person creation data is invalid
+	 */
+	private void addPerson(int source, int dest) throws InvalidArgumentException{
+		currentId++;
 		
-		int i = 0, counter = 0;
+		Person p = PersonGenerator.build(context, currentId, source, dest);
+		FloorManager floorManager = context.getFloorManager();
+		TraceWriter trace = context.getTrace();
+		if(trace != null)
+			trace.record(context.getClock().currentTimeMillis(), TraceWriter.PERSON_CREATED, 0, source, currentId);
+		floorManager.addPersonToFloor(source, p);
 		
-		while( counter < randInt ){
-			counter += adjustedPcts[i];
-			i++;
+		EventLog log = context.getLog();
+		if(context.getElevatorController().isDestinationDispatch()){
+			floorManager.enterDestinationAt(source, p);
+			
+			if(log.isEnabled(EventLog.INFO))
+				log.log(EventLog.INFO, "Person %d added at %d entered %d and was told to take elevator %d", currentId, source, dest, p.getAssignedElevator());
+		}else{
+			if(log.isEnabled(EventLog.INFO))
+				log.log(EventLog.INFO, "Person %d added at %d pressed %s to go to %d", currentId, source, (dest > source ? "UP" : "DOWN"), dest);
+			
+			floorManager.pressControlBoxAt(source, (dest > source ? ElevatorController.UP : ElevatorController.DOWN));
+		}
+	}
+	
+	/**
+	 * Adds a Person whose trip follows the origin-destination matrix of the current part
+	 * of the day, or the floor statistics if there is no matrix.
+	 * @return The floor the Person starts on
+	 * @throws InvalidArgumentException if Person creation data is invalid
+	 */
+	private int addRandomTrip() throws InvalidArgumentException{
+		if(tripTables == null){
+			int source = getSourceFloor();
+			addPerson(source, getDestFloor(source));
+			return source;
 		}
 		
-		return i;
+		int window = originDestinationMatrix.windowAt(context.getClock().currentTimeMillis());
+		int trip = tripTables[window].draw(r) - 1;
+		int floors = originDestinationMatrix.getNumOfFloors();
+		int source = trip / floors + 1;
+		addPerson(source, trip % floors + 1);
+		return source;
 	}
 	
+	/**
+	 * Generates starting floor by statistics provided by the input file.
+	 * @return The floor that the new Person instance should start on.
+	 */
+	private int getSourceFloor(){
+		return sourceTable.draw(r);
+	}
+	
+	/**
+	 * Generates random destination floor for the new Person instance
+	 * @param sourceFloor - The floor the person begins on, cannot return this floor.
+	 * @return The destination of the new Person instance.
+	 */
+	int getDestFloor(int sourceFloor){
+		return destTables[sourceFloor - 1].draw(r);
+	}
 	
 	/**
 	 * Creates Person implementations that best fit the parameters in
@@ -202,7 +427,21 @@ public class PersonGenerator {
 	 * @throws InvalidArgumentException if the destination is not a valid floor
 	 */
 	public static Person build(int id, int source, int dest) throws InvalidArgumentException{
-		return new SimplePersonImpl(id, source, dest);
+		return build(SimulationContext.current(), id, source, dest);
+	}
+	
+	/**
+	 * Creates Person implementations that best fit the parameters in
+	 * a Factory Pattern type of way, living in the given simulation.
+	 * @param context - The simulation the new Person lives in
+	 * @param id - Unique id of the Person instance to be generated
+	 * @param source - The starting floor of the new Person implementation
+	 * @param dest - The destination of the new Person implementation
+	 * @return Best fit implementation of an Person
+	 * @throws InvalidArgumentException if the destination is not a valid floor
+	 */
+	public static Person build(SimulationContext context, int id, int source, int dest) throws InvalidArgumentException{
+		return new SimplePersonImpl(context, id, source, dest);
 	}
 
 }
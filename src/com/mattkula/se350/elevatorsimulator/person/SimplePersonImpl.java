@@ -1,8 +1,8 @@
 package com.mattkula.se350.elevatorsimulator.person;
 
-import com.mattkula.se350.elevatorsimulator.building.Building;
 import com.mattkula.se350.elevatorsimulator.building.FloorManager;
 import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
 import com.mattkula.se350.elevatorsimulator.statistics.ReportGenerator;
 
 /**
@@ -38,19 +38,31 @@ public class SimplePersonImpl implements Person{
 	private Person.Status status;
 	
 	/**
-	 * The second of the simulation that the person was created, useful for creating statistics. 
+	 * The elevator the Person was told to take, 0 if they may take any elevator.
+	 * Written by the ElevatorController and read by the Floor the Person waits on.
+	 * @see #getAssignedElevator()
 	 */
-	private int createdTime;
+	private volatile int assignedElevator;
 	
 	/**
-	 * The second of the simulation that the person moved from the floor to an elevator.
+	 * The millisecond of the simulation that the person was created, useful for creating statistics. 
 	 */
-	private int addedToElevatorTime;
+	private long createdTime;
 	
 	/**
-	 * The second of the simulation that the person arrived at their destination.
+	 * The millisecond of the simulation that the person moved from the floor to an elevator.
 	 */
-	private int finishedTime;
+	private long addedToElevatorTime;
+	
+	/**
+	 * The millisecond of the simulation that the person arrived at their destination.
+	 */
+	private long finishedTime;
+	
+	/**
+	 * The simulation the Person lives in, used for its clock, floors and reports.
+	 */
+	private SimulationContext context;
 	
 	/**
 	 * Constructor to create a simple Person object
@@ -59,11 +71,24 @@ public class SimplePersonImpl implements Person{
 	 * @throws InvalidArgumentException if the destination is outside the number of floors.
 	 */
 	public SimplePersonImpl(int id, int source, int dest) throws InvalidArgumentException{
+		this(SimulationContext.current(), id, source, dest);
+	}
+	
+	/**
+	 * Constructor to create a simple Person object in the given simulation
+	 * @param context - The simulation the Person lives in
+	 * @param id - The unique id for a Simple Person
+	 * @param source - The floor that the Person starts on
+	 * @param dest - The floor that the Person wants to get to
+	 * @throws InvalidArgumentException if the source or destination is outside the number of floors.
+	 */
+	public SimplePersonImpl(SimulationContext context, int id, int source, int dest) throws InvalidArgumentException{
+		this.context = context;
 		setId(id);
 		setSource(source);
 		setDestination(dest);
 		setStatus(Person.Status.WAITING_FOR_ELEVATOR);
-		createdTime = Building.getCurrentTime();
+		createdTime = context.getClock().currentTimeMillis();
 	}
 		
 	/**
@@ -72,12 +97,25 @@ public class SimplePersonImpl implements Person{
 	 * @throws InvalidArgumentException - if the destination is outside the number of floors. 
 	 */
 	private void setDestination(int dest) throws InvalidArgumentException{
-		if(dest < 0 || dest > FloorManager.getInstance().getNumberOfFloors())
+		if(dest < 0 || dest > getNumberOfFloors())
 			throw new InvalidArgumentException("Person's destination " + dest + " outside of building constraints.");
 		
 		this.destination = dest;
 	}
 
+	/**
+	 * Gets the number of floors in the Person's building.
+	 * @return The number of floors in the simulation's FloorManager
+	 * @throws IllegalStateException if the FloorManager has not been initialized
+	 */
+	private int getNumberOfFloors(){
+		FloorManager floorManager = context.getFloorManager();
+		if(floorManager == null)
+			throw new IllegalStateException("Must initialize FloorManager before using it");
+		
+		return floorManager.getNumberOfFloors();
+	}
+
 	/**
 	 * Get the destination of the Person object, defined by the Person interface.
 	 * @return the floor the Person is trying to get to.
@@ -88,7 +126,7 @@ public class SimplePersonImpl implements Person{
 	}
 	
 	private void setSource(int source) throws InvalidArgumentException{
-		if(source < 0 || source > FloorManager.getInstance().getNumberOfFloors())
+		if(source < 0 || source > getNumberOfFloors())
 			throw new InvalidArgumentException("Person's source " + source + " outside of building constraints.");
 		
 		this.source = source;
@@ -139,11 +177,35 @@ public class SimplePersonImpl implements Person{
 		status = newStatus;
 	}
 	
+	/**
+	 * Gets the elevator the Person was told to take.
+	 * @return The number of the assigned elevator, 0 if the Person may take any elevator
+	 */
+	public int getAssignedElevator(){
+		return assignedElevator;
+	}
+	
+	/**
+	 * Sets the elevator the Person was told to take.
+	 * @param elevatorNumber - The number of the elevator, 0 to let the Person take any elevator
+	 */
+	public void setAssignedElevator(int elevatorNumber){
+		assignedElevator = elevatorNumber;
+	}
+	
+	/**
+	 * Gets when the Person was created, which is when they started waiting.
+	 * @return The millisecond of the simulation the Person was created
+	 */
+	public long getCreatedTime(){
+		return createdTime;
+	}
+	
 	/**
 	 * Called when the Person is added to the Elevator to measure their wait time.
 	 */
 	public void setAddedToElevatorTime() {
-		this.addedToElevatorTime = Building.getCurrentTime();
+		this.addedToElevatorTime = context.getClock().currentTimeMillis();
 	}
 
 	/**
@@ -151,7 +213,7 @@ public class SimplePersonImpl implements Person{
 	 * Also reports the data to the Report Generator.
 	 */
 	public void setFinishedTime() {
-		this.finishedTime = Building.getCurrentTime();
+		this.finishedTime = context.getClock().currentTimeMillis();
 		
 		setStatus(Person.Status.REACHED_DESTINATION);
 		
@@ -161,7 +223,12 @@ public class SimplePersonImpl implements Person{
 		result.endingFloor = getDestination();
 		result.waitTime = getWaitTime();
 		result.rideTime = getRideTime();
-		ReportGenerator.getInstance().addReport(result);
+		
+		ReportGenerator reportGenerator = context.getReportGenerator();
+		if(reportGenerator == null)
+			throw new IllegalStateException("ReportGenerator must be initialized first");
+		
+		reportGenerator.addReport(result);
 	}
 	
 	/**
@@ -169,7 +236,7 @@ public class SimplePersonImpl implements Person{
 	 * @return The number of seconds that a person waited for an elevator
 	 */
 	public int getWaitTime() {
-		return this.addedToElevatorTime - this.createdTime;
+		return toSeconds(this.addedToElevatorTime - this.createdTime);
 	}
 
 	/**
@@ -177,7 +244,17 @@ public class SimplePersonImpl implements Person{
 	 * @return The number of seconds that a person rode on an elevator
 	 */
 	public int getRideTime() {
-		return this.finishedTime - this.addedToElevatorTime;
+		return toSeconds(this.finishedTime - this.addedToElevatorTime);
+	}
+	
+	/**
+	 * Rounds a duration in simulated milliseconds to the nearest second, the way every
+	 * wait and ride time is reported.
+	 * @param millis - The duration in milliseconds
+	 * @return The duration in whole seconds
+	 */
+	public static int toSeconds(long millis){
+		return (int)((millis + 500) / 1000);
 	}
 
 	/**
@@ -0,0 +1,107 @@
+package com.mattkula.se350.elevatorsimulator.simulation;
+
+import java.util.PriorityQueue;
+
+import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+
+/**
+ * A discrete event engine that runs a simulation as fast as possible. Instead of
+ * sleeping in real time, pending events are kept in a priority queue ordered by their
+ * simulated time and the clock jumps straight from one event to the next.
+ * 
+ * The engine is not thread safe, everything that schedules events is expected to
+ * run on the thread that called run().
+ * 
+ * @author Matt
+ *
+ */
+public class DiscreteEventEngine {
+	
+	/**
+	 * All of the events that have been scheduled but not fired yet.
+	 */
+	private PriorityQueue<SimulationEvent> events;
+	
+	/**
+	 * The clock that holds the current simulated time, moved forward to each event as it fires.
+	 * @see #getClock()
+	 */
+	private VirtualClock clock;
+	
+	/**
+	 * Counter handed out to each scheduled event to keep firing order stable.
+	 */
+	private long nextSequence;
+	
+	/**
+	 * Creates an engine with an empty event queue and the clock at zero.
+	 */
+	public DiscreteEventEngine(){
+		events = new PriorityQueue<SimulationEvent>();
+		clock = new VirtualClock();
+		nextSequence = 0;
+	}
+	
+	/**
+	 * Schedules an event to fire a number of simulated milliseconds from now.
+	 * @param event - The event to schedule
+	 * @param delay - Milliseconds from the current time the event should fire
+	 * @throws InvalidArgumentException if the delay is negative
+	 */
+	public void schedule(SimulationEvent event, long delay) throws InvalidArgumentException{
+		if(delay < 0)
+			throw new InvalidArgumentException("Events cannot be scheduled in the past");
+		
+		event.time = clock.currentTimeMillis() + delay;
+		event.sequence = nextSequence++;
+		events.add(event);
+	}
+	
+	/**
+	 * Fires events in time order until there are none left or the next one is
+	 * after the given end time. The clock is left at the time of the last fired event.
+	 * @param endTime - The last simulated millisecond that events may fire at
+	 * @throws InvalidArgumentException if an event fails, as specified by the message
+	 */
+	public void runUntil(long endTime) throws InvalidArgumentException{
+		while(!events.isEmpty() && events.peek().time <= endTime){
+			SimulationEvent event = events.poll();
+			clock.advanceTo(event.time);
+			event.fire();
+		}
+	}
+	
+	/**
+	 * Fires events in time order until there are none left.
+	 * @throws InvalidArgumentException if an event fails, as specified by the message
+	 */
+	public void run() throws InvalidArgumentException{
+		runUntil(Long.MAX_VALUE);
+	}
+	
+	/**
+	 * Get the current simulated time.
+	 * @return The number of simulated milliseconds gone by since the engine began
+	 */
+	public long getCurrentTime(){
+		return clock.currentTimeMillis();
+	}
+	
+	/**
+	 * Get the clock that the engine moves forward as events fire, for components
+	 * that read the time without knowing about the engine.
+	 * @return The engine's virtual clock
+	 */
+	public SimulationClock getClock(){
+		return clock;
+	}
+	
+	/**
+	 * Get the number of events waiting to be fired.
+	 * @return The number of pending events
+	 */
+	public int getPendingEvents(){
+		return events.size();
+	}
+
+}
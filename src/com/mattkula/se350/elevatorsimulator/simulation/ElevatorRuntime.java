@@ -0,0 +1,165 @@
+package com.mattkula.se350.elevatorsimulator.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.mattkula.se350.elevatorsimulator.elevator.Elevator;
+
+/**
+ * Runs each Elevator of a simulation as a task on an executor and keeps track of them
+ * so they can be joined or cancelled when the simulation ends. Elevators run on virtual
+ * threads when the JVM supports them, so hundreds of shafts do not need hundreds of 
+ * platform threads. A platform thread pool is used otherwise, or when asked for.
+ * 
+ * @author Matt
+ *
+ */
+public class ElevatorRuntime {
+	
+	/**
+	 * Constant for running elevators on virtual threads, falling back to platform threads
+	 * on JVMs that do not have them.
+	 */
+	public static final int VIRTUAL_THREADS = 1;
+	
+	/**
+	 * Constant for running elevators on a pool of platform threads.
+	 */
+	public static final int PLATFORM_THREADS = 2;
+	
+	/**
+	 * The kind of threads that were asked for, VIRTUAL_THREADS or PLATFORM_THREADS.
+	 */
+	private int threadType;
+	
+	/**
+	 * The executor running the elevators, null until start() is called.
+	 */
+	private ExecutorService executor;
+	
+	/**
+	 * True if the executor turned out to use virtual threads.
+	 * @see #isVirtual()
+	 */
+	private boolean virtual;
+	
+	/**
+	 * The elevators that were started on this runtime.
+	 */
+	private List<Elevator> elevators;
+	
+	/**
+	 * Creates a runtime that will use the given kind of threads.
+	 * @param threadType - VIRTUAL_THREADS or PLATFORM_THREADS
+	 */
+	public ElevatorRuntime(int threadType){
+		this.threadType = threadType;
+		this.elevators = new ArrayList<Elevator>();
+	}
+	
+	/**
+	 * Starts every elevator on its own thread of the runtime's executor.
+	 * @param elevatorsToStart - The elevators to run
+	 * @throws IllegalStateException if the runtime was already started
+	 */
+	public synchronized void start(List<Elevator> elevatorsToStart){
+		if(executor != null)
+			throw new IllegalStateException("Elevator runtime already started");
+		
+		executor = createExecutor(elevatorsToStart.size());
+		
+		for(Elevator e : elevatorsToStart){
+			elevators.add(e);
+			executor.execute(e);
+		}
+	}
+	
+	/**
+	 * Asks every elevator to stop once it finishes its current trip, then waits for them to do so.
+	 * Any elevator still running after the timeout is cancelled.
+	 * @param timeoutMillis - Real milliseconds to wait for the elevators to finish
+	 * @return true if every elevator finished on its own, false if some had to be cancelled
+	 * @throws InterruptedException if the calling thread is interrupted while waiting
+	 */
+	public synchronized boolean stop(long timeoutMillis) throws InterruptedException{
+		if(executor == null)
+			return true;
+		
+		for(Elevator e : elevators){
+			e.stop();
+		}
+		
+		executor.shutdown();
+		if(executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS))
+			return true;
+		
+		cancel();
+		return false;
+	}
+	
+	/**
+	 * Stops every elevator right away by interrupting its thread, without waiting for it
+	 * to finish its current trip.
+	 */
+	public synchronized void cancel(){
+		if(executor == null)
+			return;
+		
+		for(Elevator e : elevators){
+			e.stop();
+		}
+		
+		executor.shutdownNow();
+	}
+	
+	/**
+	 * Find out if the elevators are running on virtual threads.
+	 * @return true if the executor uses virtual threads, false for platform threads
+	 */
+	public boolean isVirtual(){
+		return virtual;
+	}
+	
+	/**
+	 * Creates the executor to run the elevators on.
+	 * @param numOfElevators - The number of elevators that will be run
+	 * @return A virtual thread executor if asked for and supported, otherwise a fixed pool of platform threads
+	 */
+	private ExecutorService createExecutor(int numOfElevators){
+		if(threadType == VIRTUAL_THREADS){
+			ExecutorService virtualExecutor = createVirtualThreadExecutor();
+			if(virtualExecutor != null){
+				virtual = true;
+				return virtualExecutor;
+			}
+		}
+		
+		return Executors.newFixedThreadPool(Math.max(numOfElevators, 1), new ThreadFactory(){
+			private int count = 0;
+			
+			public synchronized Thread newThread(Runnable r){
+				Thread t = new Thread(r, "Elevator-" + (++count));
+				t.setDaemon(true);
+				return t;
+			}
+		});
+	}
+	
+	/**
+	 * Creates a virtual thread per task executor on JVMs that support them (Java 21 and up).
+	 * Looked up reflectively so the simulation still runs on older JVMs.
+	 * @return The virtual thread executor, or null if the JVM does not have virtual threads
+	 */
+	private static ExecutorService createVirtualThreadExecutor(){
+		try{
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		}catch(ReflectiveOperationException e){
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,59 @@
+package com.mattkula.se350.elevatorsimulator.simulation;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A SimulationClock where one simulated millisecond is one real millisecond.
+ * 
+ * @author Matt
+ *
+ */
+public class RealTimeClock implements SimulationClock{
+	
+	/**
+	 * The real time in nanoseconds that the clock was started at.
+	 */
+	private long startNanos;
+	
+	/**
+	 * Creates a clock that starts at zero and runs at the speed of real time.
+	 */
+	public RealTimeClock(){
+		startNanos = System.nanoTime();
+	}
+
+	/**
+	 * Get the real time in milliseconds passed since the clock started.
+	 */
+	@Override
+	public long currentTimeMillis() {
+		return (System.nanoTime() - startNanos) / 1000000;
+	}
+
+	/**
+	 * Sleeps for the given number of real milliseconds.
+	 */
+	@Override
+	public void sleep(long millis) throws InterruptedException {
+		if(millis > 0)
+			Thread.sleep(millis);
+	}
+
+	/**
+	 * Sleeps for the real time left until the clock reaches the given time.
+	 */
+	@Override
+	public void sleepUntil(long time) throws InterruptedException {
+		sleep(time - currentTimeMillis());
+	}
+
+	/**
+	 * Parks the calling thread for the given number of real milliseconds.
+	 */
+	@Override
+	public void park(Object blocker, long millis) {
+		if(millis > 0)
+			LockSupport.parkNanos(blocker, millis * 1000000);
+	}
+
+}
@@ -0,0 +1,195 @@
+package com.mattkula.se350.elevatorsimulator.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.mattkula.se350.elevatorsimulator.building.Building;
+import com.mattkula.se350.elevatorsimulator.building.BuildingStatsDTO;
+import com.mattkula.se350.elevatorsimulator.elevatorcontroller.ElevatorController;
+import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+import com.mattkula.se350.elevatorsimulator.logging.EventLog;
+import com.mattkula.se350.elevatorsimulator.person.ArrivalProfile;
+import com.mattkula.se350.elevatorsimulator.statistics.Histogram;
+import com.mattkula.se350.elevatorsimulator.statistics.ReplicationSummary;
+import com.mattkula.se350.elevatorsimulator.statistics.ReportGenerator;
+
+/**
+ * Runs many independent replications of the same simulation in parallel and combines
+ * their results. Each replication runs in FAST_SIMULATION mode on its own SimulationContext
+ * with its own seed, so replications share nothing and a sweep over parameters can use
+ * every core of the machine.
+ * 
+ * @author Matt
+ *
+ */
+public class ReplicationRunner {
+	
+	/**
+	 * The building and simulation data every replication runs with.
+	 */
+	private BuildingStatsDTO buildingStats;
+	
+	/**
+	 * The delegate the ElevatorController of each replication uses.
+	 */
+	private int decisionDelegate;
+	
+	/**
+	 * The number of replications to run.
+	 */
+	private int replications;
+	
+	/**
+	 * The seed that the seeds of every replication are drawn from, so a whole sweep can be repeated.
+	 */
+	private long baseSeed;
+	
+	/**
+	 * The number of replications to run at the same time.
+	 * @see #setThreads(int)
+	 */
+	private int threads;
+	
+	/**
+	 * How people call elevators in every replication, as defined in ElevatorController.
+	 * @see #setDispatchMode(int)
+	 */
+	private int dispatchMode;
+	
+	/**
+	 * How fast and where people arrive in every replication, null to generate them at a fixed interval.
+	 * @see #setArrivalProfile(ArrivalProfile)
+	 */
+	private ArrivalProfile arrivalProfile;
+	
+	/**
+	 * Creates a runner that uses one thread per available processor.
+	 * @param buildingStats - The building and simulation data every replication runs with
+	 * @param decisionDelegate - The delegate the ElevatorController should use
+	 * @param replications - The number of replications to run
+	 * @param baseSeed - The seed the seed of each replication is drawn from
+	 * @throws InvalidArgumentException if there is not at least one replication
+	 */
+	public ReplicationRunner(BuildingStatsDTO buildingStats, int decisionDelegate, int replications, long baseSeed) throws InvalidArgumentException{
+		if(replications < 1)
+			throw new InvalidArgumentException("Must run at least one replication");
+		
+		this.buildingStats = buildingStats;
+		this.decisionDelegate = decisionDelegate;
+		this.replications = replications;
+		this.baseSeed = baseSeed;
+		this.threads = Runtime.getRuntime().availableProcessors();
+		this.dispatchMode = ElevatorController.HALL_CALL_DISPATCH;
+	}
+	
+	/**
+	 * Sets the number of replications that run at the same time.
+	 * @param threads - The number of worker threads
+	 * @throws InvalidArgumentException if there is not at least one thread
+	 */
+	public void setThreads(int threads) throws InvalidArgumentException{
+		if(threads < 1)
+			throw new InvalidArgumentException("Must run replications on at least one thread");
+		
+		this.threads = threads;
+	}
+	
+	/**
+	 * Sets how people call elevators in every replication.
+	 * @param dispatchMode - ElevatorController.HALL_CALL_DISPATCH, DESTINATION_DISPATCH or BATCHED_DISPATCH
+	 */
+	public void setDispatchMode(int dispatchMode){
+		this.dispatchMode = dispatchMode;
+	}
+	
+	/**
+	 * Sets how fast and where people arrive in every replication. The profile is shared by the
+	 * replications, so it must not be changed while they run.
+	 * @param arrivalProfile - The arrival profile, null to generate people at a fixed interval
+	 */
+	public void setArrivalProfile(ArrivalProfile arrivalProfile){
+		this.arrivalProfile = arrivalProfile;
+	}
+	
+	/**
+	 * Runs every replication and combines their results. Blocks until all of them are done.
+	 * @return The statistics across all of the replications
+	 * @throws InvalidArgumentException if a replication fails because of invalid data
+	 * @throws InterruptedException if the calling thread is interrupted while waiting
+	 */
+	public ReplicationSummary run() throws InvalidArgumentException, InterruptedException{
+		Random seeds = new Random(baseSeed);
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, replications));
+		List<Future<ReportGenerator>> results = new ArrayList<Future<ReportGenerator>>();
+		
+		try{
+			for(int i = 0; i < replications; i++){
+				results.add(executor.submit(createReplication(seeds.nextLong())));
+			}
+			
+			double[] waitTimes = new double[replications];
+			double[] rideTimes = new double[replications];
+			int moved = 0;
+			long totalPeople = 0;
+			Histogram allWaitTimes = new Histogram();
+			Histogram allRideTimes = new Histogram();
+			
+			for(Future<ReportGenerator> result : results){
+				ReportGenerator report = result.get();
+				
+				if(report.getNumberOfReports() > 0){ // Replications where nobody arrived have no averages
+					waitTimes[moved] = report.getOverallAverageWaitTime();
+					rideTimes[moved] = report.getOverallAverageRideTime();
+					moved++;
+				}
+				totalPeople += report.getNumberOfReports();
+				allWaitTimes.add(report.getAllWaitTimes());
+				allRideTimes.add(report.getAllRideTimes());
+			}
+			
+			double[] movedWaitTimes = new double[moved];
+			double[] movedRideTimes = new double[moved];
+			System.arraycopy(waitTimes, 0, movedWaitTimes, 0, moved);
+			System.arraycopy(rideTimes, 0, movedRideTimes, 0, moved);
+			
+			return new ReplicationSummary(movedWaitTimes, movedRideTimes, replications, totalPeople, allWaitTimes, allRideTimes);
+			
+		}catch(ExecutionException e){
+			if(e.getCause() instanceof InvalidArgumentException)
+				throw (InvalidArgumentException)e.getCause();
+			throw new IllegalStateException("Replication failed", e.getCause());
+		}finally{
+			executor.shutdownNow();
+		}
+	}
+	
+	/**
+	 * Creates the task for a single replication. It runs the simulation on a fresh
+	 * SimulationContext, with no event log and with console output and each person's own 
+	 * report thrown away, using the runner's dispatch mode and arrival profile.
+	 * @param seed - The seed for the replication's PersonGenerator
+	 * @return A task returning the replication's ReportGenerator
+	 */
+	private Callable<ReportGenerator> createReplication(final long seed){
+		return new Callable<ReportGenerator>(){
+			public ReportGenerator call() throws InvalidArgumentException{
+				SimulationContext context = new SimulationContext();
+				context.setOut(SimulationContext.discardingStream());
+				context.setKeepPersonReports(false);
+				context.setLog(EventLog.disabled());
+				context.setDispatchMode(dispatchMode);
+				context.setArrivalProfile(arrivalProfile);
+				
+				new Building(context, buildingStats, decisionDelegate, Building.FAST_SIMULATION, seed);
+				return context.getReportGenerator();
+			}
+		};
+	}
+
+}
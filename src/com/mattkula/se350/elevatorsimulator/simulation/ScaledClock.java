@@ -0,0 +1,96 @@
+package com.mattkula.se350.elevatorsimulator.simulation;
+
+import java.util.concurrent.locks.LockSupport;
+
+import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+
+/**
+ * A SimulationClock that runs a fixed number of times faster than real time. Time is
+ * kept in nanoseconds internally, so large scales still sleep for the right amount of
+ * time instead of rounding down to zero milliseconds.
+ * 
+ * @author Matt
+ *
+ */
+public class ScaledClock implements SimulationClock{
+	
+	/**
+	 * The number of simulated seconds that pass for every real second.
+	 * @see #getTimeScale()
+	 */
+	private double timeScale;
+	
+	/**
+	 * The real time in nanoseconds that the clock was started at.
+	 */
+	private long startNanos;
+	
+	/**
+	 * Creates a clock that starts at zero and runs timeScale times faster than real time.
+	 * @param timeScale - The number of simulated seconds for every real second
+	 * @throws InvalidArgumentException if the time scale is not positive
+	 */
+	public ScaledClock(double timeScale) throws InvalidArgumentException{
+		if(timeScale <= 0)
+			throw new InvalidArgumentException("Clock time scale must be greater than 0");
+		
+		this.timeScale = timeScale;
+		this.startNanos = System.nanoTime();
+	}
+
+	/**
+	 * Get the current time in the simulation, based on the real time passed since the clock started.
+	 */
+	@Override
+	public long currentTimeMillis() {
+		return (long)((System.nanoTime() - startNanos) * timeScale / 1000000);
+	}
+
+	/**
+	 * Sleeps for the real time equivalent of the simulated milliseconds.
+	 */
+	@Override
+	public void sleep(long millis) throws InterruptedException {
+		sleepNanos((long)(millis * 1000000 / timeScale));
+	}
+
+	/**
+	 * Sleeps for the real time left until the simulation reaches the given time.
+	 */
+	@Override
+	public void sleepUntil(long time) throws InterruptedException {
+		long wakeNanos = startNanos + (long)(time * 1000000 / timeScale);
+		sleepNanos(wakeNanos - System.nanoTime());
+	}
+	
+	/**
+	 * Parks the calling thread for the real time equivalent of the simulated milliseconds.
+	 */
+	@Override
+	public void park(Object blocker, long millis) {
+		long nanos = (long)(millis * 1000000 / timeScale);
+		if(nanos > 0)
+			LockSupport.parkNanos(blocker, nanos);
+	}
+	
+	/**
+	 * Sleeps the current thread for a number of real nanoseconds.
+	 * @param nanos - Real nanoseconds to sleep, does nothing if not positive
+	 * @throws InterruptedException if the sleeping thread is interrupted
+	 */
+	private void sleepNanos(long nanos) throws InterruptedException{
+		if(nanos <= 0)
+			return;
+		
+		Thread.sleep(nanos / 1000000, (int)(nanos % 1000000));
+	}
+	
+	/**
+	 * Get the time scale of the clock.
+	 * @return The number of simulated seconds for every real second
+	 */
+	public double getTimeScale(){
+		return timeScale;
+	}
+
+}
@@ -0,0 +1,45 @@
+package com.mattkula.se350.elevatorsimulator.simulation;
+
+/**
+ * Interface that defines the clock every part of the simulation reads the time
+ * from and sleeps against. Implementations decide how simulated milliseconds relate
+ * to real time, so the same elevator code can run in real time, sped up, or entirely
+ * in virtual time.
+ * 
+ * @author Matt
+ *
+ */
+public interface SimulationClock {
+	
+	/**
+	 * Get the current time in the simulation.
+	 * @return The number of simulated milliseconds gone by since the clock started
+	 */
+	public long currentTimeMillis();
+	
+	/**
+	 * Blocks the calling thread for a number of simulated milliseconds.
+	 * @param millis - The number of simulated milliseconds to sleep for
+	 * @throws InterruptedException if the sleeping thread is interrupted
+	 */
+	public void sleep(long millis) throws InterruptedException;
+	
+	/**
+	 * Blocks the calling thread until the simulation reaches the given time. Returns
+	 * right away if that time has already passed. Useful for loops that should not 
+	 * drift when the work between sleeps takes time.
+	 * @param time - The simulated millisecond to sleep until
+	 * @throws InterruptedException if the sleeping thread is interrupted
+	 */
+	public void sleepUntil(long time) throws InterruptedException;
+	
+	/**
+	 * Parks the calling thread for a number of simulated milliseconds, as LockSupport.parkNanos
+	 * does. Returns early if the thread is unparked or interrupted, or for no reason at all, so
+	 * the caller checks again what it was waiting for.
+	 * @param blocker - The object the thread is parked on, shown in thread dumps
+	 * @param millis - The most simulated milliseconds to park for
+	 */
+	public void park(Object blocker, long millis);
+
+}
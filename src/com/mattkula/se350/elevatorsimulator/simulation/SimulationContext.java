@@ -0,0 +1,485 @@
+package com.mattkula.se350.elevatorsimulator.simulation;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+import com.mattkula.se350.elevatorsimulator.building.FloorManager;
+import com.mattkula.se350.elevatorsimulator.elevatorcontroller.ElevatorController;
+import com.mattkula.se350.elevatorsimulator.logging.EventLog;
+import com.mattkula.se350.elevatorsimulator.logging.PrintStreamLogWriter;
+import com.mattkula.se350.elevatorsimulator.person.ArrivalProfile;
+import com.mattkula.se350.elevatorsimulator.person.PersonGenerator;
+import com.mattkula.se350.elevatorsimulator.statistics.MetricsRegistry;
+import com.mattkula.se350.elevatorsimulator.statistics.ReportGenerator;
+import com.mattkula.se350.elevatorsimulator.trace.TraceWriter;
+
+/**
+ * Holds everything that belongs to a single simulation: the FloorManager, ElevatorController,
+ * PersonGenerator and ReportGenerator instances, the clock, and whether the simulation is
+ * still running. Elevators, floors, control boxes and people are handed the context they
+ * belong to when they are built and only ever talk to that one, so several simulations can
+ * run side by side in one JVM, on any threads. The settings of a simulation, such as its
+ * dispatch mode and arrival profile, are kept here too and are read when it is initialized.
+ * 
+ * The singletons' getInstance() methods look up the context bound to the calling thread
+ * with bind(). Threads that never bind a context share a default one, which is how a single
+ * simulation run from ElevatorSimulation behaves.
+ * 
+ * @author Matt
+ *
+ */
+public class SimulationContext {
+	
+	/**
+	 * The context used by threads that have not bound one of their own.
+	 */
+	private static final SimulationContext defaultContext = new SimulationContext();
+	
+	/**
+	 * The context bound to each thread. Not inherited, since everything a simulation creates
+	 * is handed its context directly and pooled threads may go on to serve other simulations.
+	 */
+	private static final ThreadLocal<SimulationContext> boundContext = new ThreadLocal<SimulationContext>();
+	
+	/**
+	 * The simulation's FloorManager, null until initialized.
+	 */
+	private FloorManager floorManager;
+	
+	/**
+	 * The simulation's ElevatorController, null until initialized.
+	 */
+	private ElevatorController elevatorController;
+	
+	/**
+	 * The simulation's PersonGenerator, null until initialized.
+	 */
+	private PersonGenerator personGenerator;
+	
+	/**
+	 * The simulation's ReportGenerator, null until initialized.
+	 */
+	private ReportGenerator reportGenerator;
+	
+	/**
+	 * The clock everything in the simulation reads the time from and sleeps against.
+	 */
+	private SimulationClock clock;
+	
+	/**
+	 * The engine running the simulation in fast mode, null when running in real time.
+	 */
+	private DiscreteEventEngine eventEngine;
+	
+	/**
+	 * Whether the simulation is still running.
+	 */
+	private volatile boolean running;
+	
+	/**
+	 * The number of simulated seconds for every real second.
+	 */
+	private int timeScale;
+	
+	/**
+	 * Where the simulation writes its console output and final report.
+	 */
+	private PrintStream out;
+	
+	/**
+	 * Whether the ReportGenerator keeps every person's own report, needed to print them
+	 * one by one at the end but growing with the number of people.
+	 */
+	private boolean keepPersonReports;
+	
+	/**
+	 * The log everything in the simulation reports its events to, created on first use.
+	 * @see #getLog()
+	 */
+	private volatile EventLog log;
+	
+	/**
+	 * The binary trace of the simulation's events, null when it is not traced.
+	 */
+	private TraceWriter trace;
+	
+	/**
+	 * The live metrics of the elevators, floors and controller, null when they are not collected.
+	 */
+	private MetricsRegistry metrics;
+	
+	/**
+	 * The kind of threads the elevators run on, as defined in ElevatorRuntime.
+	 */
+	private int elevatorThreads;
+	
+	/**
+	 * How people call elevators, as defined in ElevatorController.
+	 */
+	private int dispatchMode;
+	
+	/**
+	 * The real microseconds each tick may spend assigning calls in batched dispatch mode.
+	 */
+	private long batchTimeBudget;
+	
+	/**
+	 * How fast and where people arrive, null to generate one every 60 / personsPerMinute seconds.
+	 */
+	private ArrivalProfile arrivalProfile;
+	
+	/**
+	 * The file of recorded trips to replay instead of generating people, null to generate them.
+	 */
+	private String passengerLog;
+	
+	/**
+	 * Creates an empty context that runs in real time and prints to System.out, with
+	 * people pressing up or down and elevators on virtual threads where the JVM has them.
+	 */
+	public SimulationContext(){
+		clock = new RealTimeClock();
+		timeScale = 1;
+		out = System.out;
+		keepPersonReports = true;
+		elevatorThreads = ElevatorRuntime.VIRTUAL_THREADS;
+		dispatchMode = ElevatorController.HALL_CALL_DISPATCH;
+		batchTimeBudget = 2000;
+	}
+	
+	/**
+	 * Get the context of the calling thread.
+	 * @return The context bound to the thread, or the default context if none is bound
+	 */
+	public static SimulationContext current(){
+		SimulationContext context = boundContext.get();
+		if(context == null)
+			return defaultContext;
+		
+		return context;
+	}
+	
+	/**
+	 * Makes the given context the current one for the calling thread.
+	 * @param context - The context to bind
+	 */
+	public static void bind(SimulationContext context){
+		boundContext.set(context);
+	}
+	
+	/**
+	 * Returns the calling thread to using the default context.
+	 */
+	public static void unbind(){
+		boundContext.remove();
+	}
+	
+	/**
+	 * Creates a PrintStream that throws away everything written to it, useful for
+	 * simulations that only need their statistics.
+	 * @return A PrintStream that writes nowhere
+	 */
+	public static PrintStream discardingStream(){
+		return new PrintStream(new OutputStream(){
+			public void write(int b){}
+			public void write(byte[] b, int off, int len){}
+		});
+	}
+
+	/**
+	 * Get current time in the simulation, specified by simulated seconds
+	 * @return The number of simulated seconds gone by since it began
+	 */
+	public int getCurrentTime(){
+		return (int)(clock.currentTimeMillis() / 1000);
+	}
+	
+	/**
+	 * Keeps track of simulation time, useful for logging.
+	 * @return A String formatting of the current hour, minute and second in hh:mm:ss format
+	 */
+	public String getTimeString(){
+		return formatTime(getCurrentTime());
+	}
+	
+	/**
+	 * Formats a number of simulated seconds as a time of day.
+	 * @param time - The number of simulated seconds since the simulation began
+	 * @return The time in hh:mm:ss format
+	 */
+	public static String formatTime(int time){
+		return String.format("%02d:%02d:%02d", time / 3600, (time / 60) % 60, time % 60);
+	}
+
+	/**
+	 * @return The simulation's FloorManager, null if not initialized
+	 */
+	public FloorManager getFloorManager() {
+		return floorManager;
+	}
+
+	/**
+	 * @param floorManager - The simulation's FloorManager
+	 */
+	public void setFloorManager(FloorManager floorManager) {
+		this.floorManager = floorManager;
+	}
+
+	/**
+	 * @return The simulation's ElevatorController, null if not initialized
+	 */
+	public ElevatorController getElevatorController() {
+		return elevatorController;
+	}
+
+	/**
+	 * @param elevatorController - The simulation's ElevatorController
+	 */
+	public void setElevatorController(ElevatorController elevatorController) {
+		this.elevatorController = elevatorController;
+	}
+
+	/**
+	 * @return The simulation's PersonGenerator, null if not initialized
+	 */
+	public PersonGenerator getPersonGenerator() {
+		return personGenerator;
+	}
+
+	/**
+	 * @param personGenerator - The simulation's PersonGenerator
+	 */
+	public void setPersonGenerator(PersonGenerator personGenerator) {
+		this.personGenerator = personGenerator;
+	}
+
+	/**
+	 * @return The simulation's ReportGenerator, null if not initialized
+	 */
+	public ReportGenerator getReportGenerator() {
+		return reportGenerator;
+	}
+
+	/**
+	 * @param reportGenerator - The simulation's ReportGenerator
+	 */
+	public void setReportGenerator(ReportGenerator reportGenerator) {
+		this.reportGenerator = reportGenerator;
+	}
+
+	/**
+	 * @return The clock of the simulation
+	 */
+	public SimulationClock getClock() {
+		return clock;
+	}
+
+	/**
+	 * @param clock - The clock the simulation should use
+	 */
+	public void setClock(SimulationClock clock) {
+		this.clock = clock;
+	}
+
+	/**
+	 * @return The engine running the simulation, null when running in real time
+	 */
+	public DiscreteEventEngine getEventEngine() {
+		return eventEngine;
+	}
+
+	/**
+	 * @param eventEngine - The engine running the simulation, null when running in real time
+	 */
+	public void setEventEngine(DiscreteEventEngine eventEngine) {
+		this.eventEngine = eventEngine;
+	}
+
+	/**
+	 * @return True if the simulation is running, false if it is over
+	 */
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * @param running - Whether the simulation is running
+	 */
+	public void setRunning(boolean running) {
+		this.running = running;
+	}
+
+	/**
+	 * @return The number of simulated seconds for every real second
+	 */
+	public int getTimeScale() {
+		return timeScale;
+	}
+
+	/**
+	 * @param timeScale - The number of simulated seconds for every real second
+	 */
+	public void setTimeScale(int timeScale) {
+		this.timeScale = timeScale;
+	}
+
+	/**
+	 * @return Where the simulation writes its console output
+	 */
+	public PrintStream getOut() {
+		return out;
+	}
+
+	/**
+	 * @param out - Where the simulation should write its console output
+	 */
+	public void setOut(PrintStream out) {
+		this.out = out;
+	}
+
+	/**
+	 * @return True if the ReportGenerator keeps every person's own report
+	 */
+	public boolean isKeepPersonReports() {
+		return keepPersonReports;
+	}
+
+	/**
+	 * @param keepPersonReports - Whether the ReportGenerator should keep every person's own report,
+	 * must be set before the ReportGenerator is initialized
+	 */
+	public void setKeepPersonReports(boolean keepPersonReports) {
+		this.keepPersonReports = keepPersonReports;
+	}
+
+	/**
+	 * Get the log of the simulation. Unless one is set, the first call creates a log of every
+	 * event that prints straight to the simulation's console output as it is at that time.
+	 * @return The log of the simulation
+	 */
+	public EventLog getLog() {
+		EventLog current = log;
+		if(current == null){
+			synchronized(this){
+				if(log == null)
+					log = new EventLog(this, EventLog.DEBUG, new PrintStreamLogWriter(out, false));
+				current = log;
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * @param log - The log the simulation should report its events to
+	 */
+	public void setLog(EventLog log) {
+		this.log = log;
+	}
+
+	/**
+	 * @return The binary trace of the simulation's events, null when it is not traced
+	 */
+	public TraceWriter getTrace() {
+		return trace;
+	}
+
+	/**
+	 * @param trace - Where to write the binary trace of the simulation's events, null for no trace.
+	 * Must be set before the simulation starts
+	 */
+	public void setTrace(TraceWriter trace) {
+		this.trace = trace;
+	}
+
+	/**
+	 * @return The live metrics of the simulation, null when they are not collected
+	 */
+	public MetricsRegistry getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * @param metrics - Where the elevators, floors and controller register their metrics, null for none.
+	 * Must be set before the simulation starts
+	 */
+	public void setMetrics(MetricsRegistry metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * @return The kind of threads the elevators run on, ElevatorRuntime.VIRTUAL_THREADS or ElevatorRuntime.PLATFORM_THREADS
+	 */
+	public int getElevatorThreads() {
+		return elevatorThreads;
+	}
+
+	/**
+	 * @param elevatorThreads - ElevatorRuntime.VIRTUAL_THREADS or ElevatorRuntime.PLATFORM_THREADS.
+	 * Must be set before the ElevatorController is initialized
+	 */
+	public void setElevatorThreads(int elevatorThreads) {
+		this.elevatorThreads = elevatorThreads;
+	}
+
+	/**
+	 * @return How people call elevators, as defined in ElevatorController
+	 */
+	public int getDispatchMode() {
+		return dispatchMode;
+	}
+
+	/**
+	 * @param dispatchMode - ElevatorController.HALL_CALL_DISPATCH, DESTINATION_DISPATCH or BATCHED_DISPATCH.
+	 * Must be set before the ElevatorController is initialized
+	 */
+	public void setDispatchMode(int dispatchMode) {
+		this.dispatchMode = dispatchMode;
+	}
+
+	/**
+	 * @return The real microseconds each tick may spend assigning calls in batched dispatch mode
+	 */
+	public long getBatchTimeBudget() {
+		return batchTimeBudget;
+	}
+
+	/**
+	 * @param batchTimeBudget - The real microseconds each tick may spend assigning calls in batched
+	 * dispatch mode, calls left over once it is spent are assigned one at a time.
+	 * Must be set before the ElevatorController is initialized
+	 */
+	public void setBatchTimeBudget(long batchTimeBudget) {
+		this.batchTimeBudget = batchTimeBudget;
+	}
+
+	/**
+	 * @return How fast and where people arrive, null if they are generated at a fixed interval
+	 */
+	public ArrivalProfile getArrivalProfile() {
+		return arrivalProfile;
+	}
+
+	/**
+	 * @param arrivalProfile - How fast and where people arrive, null to generate one every 60 / personsPerMinute seconds.
+	 * Must be set before the PersonGenerator is initialized
+	 */
+	public void setArrivalProfile(ArrivalProfile arrivalProfile) {
+		this.arrivalProfile = arrivalProfile;
+	}
+
+	/**
+	 * @return The file of recorded trips replayed instead of generating people, null if they are generated
+	 */
+	public String getPassengerLog() {
+		return passengerLog;
+	}
+
+	/**
+	 * @param passengerLog - A log of recorded trips as read by PassengerLogReader, null to generate people.
+	 * Must be set before the PersonGenerator is initialized
+	 */
+	public void setPassengerLog(String passengerLog) {
+		this.passengerLog = passengerLog;
+	}
+
+}
@@ -0,0 +1,84 @@
+package com.mattkula.se350.elevatorsimulator.simulation;
+
+import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+
+/**
+ * A single timestamped occurrence in a discrete event simulation. Events are
+ * placed on a DiscreteEventEngine and fired in order of their simulated time,
+ * with events scheduled for the same millisecond firing in the order they were
+ * scheduled.
+ * 
+ * @author Matt
+ *
+ */
+public abstract class SimulationEvent implements Comparable<SimulationEvent>{
+	
+	/**
+	 * Enum that defines the different kinds of events that can happen in the simulation.
+	 * @see #getType()
+	 */
+	public enum Type{
+		PERSON_ARRIVAL, FLOOR_PASSED, DOORS_CLOSED, IDLE_TIMEOUT
+	}
+	
+	/**
+	 * The kind of event this is.
+	 * @see #getType()
+	 */
+	private Type type;
+	
+	/**
+	 * The simulated millisecond this event should fire at, set by the engine when scheduled.
+	 */
+	long time;
+	
+	/**
+	 * The order in which the event was scheduled, used to break ties between events
+	 * with the same time so every run fires them in the same order.
+	 */
+	long sequence;
+	
+	/**
+	 * Creates an event of the given type.
+	 * @param type - The kind of event being created
+	 */
+	public SimulationEvent(Type type){
+		this.type = type;
+	}
+	
+	/**
+	 * Performs whatever should happen at the event's time. Called by the engine
+	 * once the simulation clock has reached the event.
+	 * @throws InvalidArgumentException if data used by the event is invalid, as specified by the message
+	 */
+	public abstract void fire() throws InvalidArgumentException;
+	
+	/**
+	 * Get the kind of event this is.
+	 * @return The Type of the event
+	 */
+	public Type getType(){
+		return type;
+	}
+	
+	/**
+	 * Get the simulated time the event is scheduled for.
+	 * @return The simulated millisecond the event fires at
+	 */
+	public long getTime(){
+		return time;
+	}
+
+	/**
+	 * Orders events by time, then by the order they were scheduled in.
+	 */
+	@Override
+	public int compareTo(SimulationEvent o) {
+		if(time != o.time)
+			return time < o.time ? -1 : 1;
+		if(sequence != o.sequence)
+			return sequence < o.sequence ? -1 : 1;
+		return 0;
+	}
+
+}
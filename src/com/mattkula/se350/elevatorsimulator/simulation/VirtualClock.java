@@ -0,0 +1,68 @@
+package com.mattkula.se350.elevatorsimulator.simulation;
+
+/**
+ * A SimulationClock that is completely detached from real time. The time only moves
+ * when it is advanced, either by a DiscreteEventEngine jumping to its next event or by
+ * a call to sleep, so nothing ever actually blocks.
+ * 
+ * @author Matt
+ *
+ */
+public class VirtualClock implements SimulationClock{
+	
+	/**
+	 * The current simulated time in milliseconds.
+	 */
+	private volatile long currentTime;
+	
+	/**
+	 * Creates a clock that starts at zero.
+	 */
+	public VirtualClock(){
+		currentTime = 0;
+	}
+
+	/**
+	 * Get the current simulated time.
+	 */
+	@Override
+	public long currentTimeMillis() {
+		return currentTime;
+	}
+
+	/**
+	 * Moves the clock forward by the given number of milliseconds without blocking.
+	 */
+	@Override
+	public void sleep(long millis) {
+		if(millis > 0)
+			currentTime += millis;
+	}
+
+	/**
+	 * Moves the clock forward to the given time without blocking.
+	 */
+	@Override
+	public void sleepUntil(long time) {
+		advanceTo(time);
+	}
+	
+	/**
+	 * Moves the clock forward by the given number of milliseconds without blocking, as
+	 * nothing else can unpark the thread while virtual time stands still.
+	 */
+	@Override
+	public void park(Object blocker, long millis) {
+		sleep(millis);
+	}
+	
+	/**
+	 * Moves the clock forward to the given time, ignored if the time has already passed.
+	 * @param time - The simulated millisecond to move the clock to
+	 */
+	public void advanceTo(long time){
+		if(time > currentTime)
+			currentTime = time;
+	}
+
+}
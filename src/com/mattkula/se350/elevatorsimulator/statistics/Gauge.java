@@ -0,0 +1,19 @@
+package com.mattkula.se350.elevatorsimulator.statistics;
+
+/**
+ * A value that is read whenever a MetricsRegistry is sampled, instead of being
+ * recorded as it changes, such as the number of people waiting on a floor.
+ *
+ * @author Matt
+ *
+ */
+public interface Gauge {
+
+	/**
+	 * Reads the current value. Called from whichever thread samples the registry,
+	 * so it may be slightly out of date while the simulation is running.
+	 * @return The current value
+	 */
+	public double getValue();
+
+}
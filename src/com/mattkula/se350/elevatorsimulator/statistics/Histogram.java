@@ -0,0 +1,211 @@
+package com.mattkula.se350.elevatorsimulator.statistics;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of non-negative whole numbers, such as wait and ride times in seconds, that
+ * takes the same small amount of memory no matter how many values are recorded. Values
+ * below 256 each get their own bucket, larger values share buckets whose width grows with
+ * the value so every bucket is within 1/128 of the values in it, the same log-linear layout
+ * an HDR histogram uses. The count, sum, minimum and maximum are kept exactly.
+ *
+ * Buckets are only allocated up to the largest value seen, and two histograms can be
+ * merged with add(Histogram), giving the same result as recording every value into one.
+ *
+ * @author Matt
+ *
+ */
+public class Histogram {
+
+	/**
+	 * The number of bits of precision kept for each value.
+	 * Value: {@value}
+	 */
+	private static final int SUB_BUCKET_BITS = 8;
+
+	/**
+	 * The number of values that are recorded exactly, and the number of buckets in the first octave.
+	 */
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+	/**
+	 * The number of buckets every later octave is split into.
+	 */
+	private static final int HALF_SUB_BUCKET_COUNT = SUB_BUCKET_COUNT / 2;
+
+	/**
+	 * The number of values in each bucket, grown as larger values are recorded.
+	 */
+	private long[] counts;
+
+	/**
+	 * The number of values recorded.
+	 * @see #getCount()
+	 */
+	private long count;
+
+	/**
+	 * The exact total of all values recorded.
+	 * @see #getSum()
+	 */
+	private long sum;
+
+	/**
+	 * The smallest value recorded, Long.MAX_VALUE if none.
+	 */
+	private long min;
+
+	/**
+	 * The largest value recorded, 0 if none.
+	 */
+	private long max;
+
+	/**
+	 * Creates an empty histogram.
+	 */
+	public Histogram(){
+		counts = new long[16];
+		min = Long.MAX_VALUE;
+	}
+
+	/**
+	 * Records a single value.
+	 * @param value - The value to record
+	 * @throws IllegalStateException if the value is negative
+	 */
+	public void recordValue(long value){
+		if(value < 0)
+			throw new IllegalStateException("Histogram values must not be negative");
+
+		int index = indexOf(value);
+		if(index >= counts.length)
+			counts = Arrays.copyOf(counts, Math.max(index + 1, counts.length * 2));
+
+		counts[index]++;
+		count++;
+		sum += value;
+		if(value < min)
+			min = value;
+		if(value > max)
+			max = value;
+	}
+
+	/**
+	 * Adds every value recorded in another histogram to this one.
+	 * @param other - The histogram to merge into this one, left unchanged
+	 */
+	public void add(Histogram other){
+		if(other.counts.length > counts.length)
+			counts = Arrays.copyOf(counts, other.counts.length);
+
+		for(int i = 0; i < other.counts.length; i++){
+			counts[i] += other.counts[i];
+		}
+
+		count += other.count;
+		sum += other.sum;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+	}
+
+	/**
+	 * Gets the value that the given percentage of recorded values are at or below.
+	 * Exact for values below 256, otherwise within 1/128 of the true value.
+	 * @param percentile - The percentile to get, from 0 to 100
+	 * @return The value at the percentile, 0 if nothing has been recorded
+	 */
+	public long getValueAtPercentile(double percentile){
+		if(count == 0)
+			return 0;
+
+		long countAtPercentile = (long)Math.ceil(Math.min(Math.max(percentile, 0), 100) / 100 * count);
+		if(countAtPercentile < 1)
+			countAtPercentile = 1;
+
+		long seen = 0;
+		for(int i = 0; i < counts.length; i++){
+			seen += counts[i];
+			if(seen >= countAtPercentile)
+				return Math.max(min, Math.min(max, highestValueIn(i)));
+		}
+
+		return max;
+	}
+
+	/**
+	 * @return The number of values recorded
+	 */
+	public long getCount(){
+		return count;
+	}
+
+	/**
+	 * @return The exact total of all values recorded
+	 */
+	public long getSum(){
+		return sum;
+	}
+
+	/**
+	 * @return The smallest value recorded, 0 if nothing has been recorded
+	 */
+	public long getMin(){
+		return count == 0 ? 0 : min;
+	}
+
+	/**
+	 * @return The largest value recorded, 0 if nothing has been recorded
+	 */
+	public long getMax(){
+		return max;
+	}
+
+	/**
+	 * @return The exact mean of all values recorded, 0 if nothing has been recorded
+	 */
+	public double getMean(){
+		if(count == 0)
+			return 0;
+
+		return (double)sum / count;
+	}
+
+	/**
+	 * Finds the bucket a value is counted in.
+	 * @param value - A non-negative value
+	 * @return The index of the value's bucket
+	 */
+	private static int indexOf(long value){
+		if(value < SUB_BUCKET_COUNT)
+			return (int)value;
+
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int shift = exponent - SUB_BUCKET_BITS + 1;
+		return SUB_BUCKET_COUNT + (exponent - SUB_BUCKET_BITS) * HALF_SUB_BUCKET_COUNT
+				+ (int)(value >> shift) - HALF_SUB_BUCKET_COUNT;
+	}
+
+	/**
+	 * Finds the largest value that is counted in a bucket.
+	 * @param index - The index of the bucket
+	 * @return The largest value that falls in the bucket
+	 */
+	private static long highestValueIn(int index){
+		if(index < SUB_BUCKET_COUNT)
+			return index;
+
+		int octave = (index - SUB_BUCKET_COUNT) / HALF_SUB_BUCKET_COUNT;
+		int subBucket = (index - SUB_BUCKET_COUNT) % HALF_SUB_BUCKET_COUNT + HALF_SUB_BUCKET_COUNT;
+		int shift = octave + 1;
+		return (((long)subBucket + 1) << shift) - 1;
+	}
+
+	/**
+	 * @return A string representation of the Histogram
+	 */
+	public String toString(){
+		return String.format("count=%d mean=%.2f min=%d p50=%d p90=%d p99=%d p99.9=%d max=%d", getCount(), getMean(), getMin(),
+				getValueAtPercentile(50), getValueAtPercentile(90), getValueAtPercentile(99), getValueAtPercentile(99.9), getMax());
+	}
+
+}
@@ -0,0 +1,243 @@
+package com.mattkula.se350.elevatorsimulator.statistics;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+
+/**
+ * The live metrics of a simulation by name, such as how far each elevator has travelled and
+ * how many people are waiting on each floor, readable at any time while it runs.
+ *
+ * Three kinds of metric can be registered. Counters are StripedCounters, which spread increments
+ * from different threads over separate cells so counting never contends. Gauges are read
+ * only when the registry is sampled, so they cost nothing in between. Histograms are recorded
+ * into while holding their lock, which is only contended while they are being sampled.
+ *
+ * The registry can be printed as a snapshot, and can write a row of every metric to a CSV
+ * file at a fixed interval of simulated time.
+ *
+ * @author Matt
+ *
+ */
+public class MetricsRegistry {
+
+	/**
+	 * Every metric by name, in the order they were registered. Each is a StripedCounter, Gauge or Histogram.
+	 */
+	private LinkedHashMap<String, Object> metrics;
+
+	/**
+	 * Where the CSV rows are written, null if they are not.
+	 */
+	private PrintStream csv;
+
+	/**
+	 * The simulated milliseconds between CSV rows.
+	 */
+	private long msPerRow;
+
+	/**
+	 * The simulation time the next CSV row is due at.
+	 */
+	private long nextRowAt;
+
+	/**
+	 * The simulation time the last CSV row was written at, -1 if none has been.
+	 */
+	private long lastRowAt;
+
+	/**
+	 * The number of values in each CSV row, fixed by the header, 0 until it is written.
+	 */
+	private int columns;
+
+	/**
+	 * Creates an empty registry that is only read on demand.
+	 */
+	public MetricsRegistry(){
+		metrics = new LinkedHashMap<String, Object>();
+		lastRowAt = -1;
+	}
+
+	/**
+	 * Creates an empty registry that also writes every metric to a CSV file as the simulation runs.
+	 * @param csvFile - The file to write to, replaced if it already exists
+	 * @param secondsPerRow - The simulated seconds between rows
+	 * @throws IOException if the file cannot be created
+	 * @throws InvalidArgumentException if secondsPerRow < 1
+	 */
+	public MetricsRegistry(String csvFile, int secondsPerRow) throws IOException, InvalidArgumentException{
+		this();
+		if(secondsPerRow < 1)
+			throw new InvalidArgumentException("Metrics must be sampled at least every second.");
+
+		csv = new PrintStream(new BufferedOutputStream(new FileOutputStream(csvFile)), false, "US-ASCII");
+		msPerRow = secondsPerRow * 1000L;
+		nextRowAt = msPerRow;
+	}
+
+	/**
+	 * Creates and registers a counter.
+	 * @param name - The name of the counter
+	 * @return The counter, to be incremented from any thread
+	 * @throws IllegalStateException if a metric with the name is already registered
+	 */
+	public synchronized StripedCounter counter(String name){
+		StripedCounter counter = new StripedCounter();
+		register(name, counter);
+		return counter;
+	}
+
+	/**
+	 * Registers a counter that has already been created.
+	 * @param name - The name of the counter
+	 * @param counter - The counter
+	 * @throws IllegalStateException if a metric with the name is already registered
+	 */
+	public synchronized void counter(String name, StripedCounter counter){
+		register(name, counter);
+	}
+
+	/**
+	 * Registers a gauge.
+	 * @param name - The name of the gauge
+	 * @param gauge - Reads the value each time the registry is sampled
+	 * @throws IllegalStateException if a metric with the name is already registered
+	 */
+	public synchronized void gauge(String name, Gauge gauge){
+		register(name, gauge);
+	}
+
+	/**
+	 * Registers a histogram, which must be locked while recording into it.
+	 * It is sampled as its count, mean, 99th percentile and maximum.
+	 * @param name - The name of the histogram
+	 * @param histogram - The histogram
+	 * @throws IllegalStateException if a metric with the name is already registered
+	 */
+	public synchronized void histogram(String name, Histogram histogram){
+		register(name, histogram);
+	}
+
+	/**
+	 * Adds a metric under a name that must not be taken.
+	 * @param name - The name of the metric
+	 * @param metric - A StripedCounter, Gauge or Histogram
+	 */
+	private void register(String name, Object metric){
+		if(metrics.containsKey(name))
+			throw new IllegalStateException("Metric " + name + " already registered");
+
+		metrics.put(name, metric);
+	}
+
+	/**
+	 * Reads every metric. Histograms give four values, named after the histogram
+	 * followed by .count, .mean, .p99 and .max.
+	 * @return The current value of every metric by name, in the order they were registered
+	 */
+	public synchronized LinkedHashMap<String, Double> snapshot(){
+		LinkedHashMap<String, Double> values = new LinkedHashMap<String, Double>();
+		for(Map.Entry<String, Object> entry : metrics.entrySet()){
+			Object metric = entry.getValue();
+			if(metric instanceof StripedCounter){
+				values.put(entry.getKey(), (double)((StripedCounter)metric).sum());
+			}else if(metric instanceof Gauge){
+				values.put(entry.getKey(), ((Gauge)metric).getValue());
+			}else{
+				Histogram histogram = (Histogram)metric;
+				synchronized(histogram){
+					values.put(entry.getKey() + ".count", (double)histogram.getCount());
+					values.put(entry.getKey() + ".mean", histogram.getMean());
+					values.put(entry.getKey() + ".p99", (double)histogram.getValueAtPercentile(99));
+					values.put(entry.getKey() + ".max", (double)histogram.getMax());
+				}
+			}
+		}
+
+		return values;
+	}
+
+	/**
+	 * Prints the current value of every metric, one per line.
+	 * @param out - Where to print the metrics
+	 */
+	public void printSnapshot(PrintStream out){
+		for(Map.Entry<String, Double> entry : snapshot().entrySet()){
+			out.printf("%-40s %15s \n", entry.getKey(), format(entry.getValue()));
+		}
+	}
+
+	/**
+	 * Called every simulated second, writes a CSV row if one is due.
+	 * @param time - The current simulation time in milliseconds
+	 */
+	public synchronized void sample(long time){
+		if(csv == null || time < nextRowAt)
+			return;
+
+		writeRow(time);
+		nextRowAt = time - time % msPerRow + msPerRow;
+	}
+
+	/**
+	 * Writes a CSV row now, whether or not one is due, such as at the end of the simulation.
+	 * The first row also writes the header, so metrics registered after it are left out of the file.
+	 * @param time - The current simulation time in milliseconds
+	 */
+	public synchronized void writeRow(long time){
+		if(csv == null || time == lastRowAt)
+			return;
+
+		LinkedHashMap<String, Double> values = snapshot();
+		if(columns == 0){
+			csv.print("time");
+			for(String name : values.keySet()){
+				csv.print(',');
+				csv.print(name);
+			}
+			csv.println();
+			columns = values.size();
+		}
+
+		csv.print(time / 1000);
+		int column = 0;
+		for(Double value : values.values()){
+			if(column++ == columns)
+				break;
+
+			csv.print(',');
+			csv.print(format(value));
+		}
+		csv.println();
+		csv.flush();		// So the file can be followed while the simulation runs
+		lastRowAt = time;
+	}
+
+	/**
+	 * Writes every CSV row so far and closes the file, if there is one.
+	 */
+	public synchronized void close(){
+		if(csv != null)
+			csv.close();
+	}
+
+	/**
+	 * Formats a value as a whole number if it is one, otherwise to three decimal places.
+	 * @param value - The value of a metric
+	 * @return The value as text, the same in every locale
+	 */
+	private static String format(double value){
+		if(value == Math.rint(value) && !Double.isInfinite(value))
+			return Long.toString((long)value);
+
+		return String.format(Locale.ROOT, "%.3f", value);
+	}
+
+}
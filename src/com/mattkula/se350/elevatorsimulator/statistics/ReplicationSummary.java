@@ -0,0 +1,119 @@
+package com.mattkula.se350.elevatorsimulator.statistics;
+
+/**
+ * The combined results of several independent replications of the same simulation.
+ * Each replication contributes its overall average wait and ride time, and the
+ * statistics across replications describe how much the results vary run to run.
+ * The wait and ride times of everybody in every replication are also pooled together.
+ * 
+ * @author Matt
+ *
+ */
+public class ReplicationSummary {
+	
+	/**
+	 * Statistics of each replication's average wait time in seconds.
+	 */
+	private SampleStatistics waitTimes;
+	
+	/**
+	 * Statistics of each replication's average ride time in seconds.
+	 */
+	private SampleStatistics rideTimes;
+	
+	/**
+	 * The number of replications that were run.
+	 */
+	private int replications;
+	
+	/**
+	 * The total number of people who reached their destinations across all replications.
+	 */
+	private long totalPeople;
+	
+	/**
+	 * The wait times of everybody in every replication.
+	 */
+	private Histogram allWaitTimes;
+	
+	/**
+	 * The ride times of everybody in every replication.
+	 */
+	private Histogram allRideTimes;
+	
+	/**
+	 * Creates the summary from the results of each replication.
+	 * @param averageWaitTimes - The average wait time of each replication that moved anybody
+	 * @param averageRideTimes - The average ride time of each replication that moved anybody
+	 * @param replications - The number of replications that were run
+	 * @param totalPeople - The number of people who reached their destinations across all replications
+	 * @param allWaitTimes - The wait times of everybody in every replication
+	 * @param allRideTimes - The ride times of everybody in every replication
+	 */
+	public ReplicationSummary(double[] averageWaitTimes, double[] averageRideTimes, int replications, long totalPeople,
+			Histogram allWaitTimes, Histogram allRideTimes){
+		this.waitTimes = new SampleStatistics(averageWaitTimes);
+		this.rideTimes = new SampleStatistics(averageRideTimes);
+		this.replications = replications;
+		this.totalPeople = totalPeople;
+		this.allWaitTimes = allWaitTimes;
+		this.allRideTimes = allRideTimes;
+	}
+	
+	/**
+	 * @return Statistics of the replications' average wait times
+	 */
+	public SampleStatistics getWaitTimes(){
+		return waitTimes;
+	}
+	
+	/**
+	 * @return Statistics of the replications' average ride times
+	 */
+	public SampleStatistics getRideTimes(){
+		return rideTimes;
+	}
+	
+	/**
+	 * @return The number of replications that were run
+	 */
+	public int getReplications(){
+		return replications;
+	}
+	
+	/**
+	 * @return The number of people who reached their destinations across all replications
+	 */
+	public long getTotalPeople(){
+		return totalPeople;
+	}
+	
+	/**
+	 * @return The Histogram of seconds everybody in every replication waited
+	 */
+	public Histogram getAllWaitTimes(){
+		return allWaitTimes;
+	}
+	
+	/**
+	 * @return The Histogram of seconds everybody in every replication rode
+	 */
+	public Histogram getAllRideTimes(){
+		return allRideTimes;
+	}
+	
+	/**
+	 * @return A string representation of the ReplicationSummary
+	 */
+	public String toString(){
+		String s = "";
+		s += "Replications: " + getReplications() + "\n";
+		s += "People Moved: " + getTotalPeople() + "\n";
+		s += "Wait Time (sec): " + getWaitTimes() + "\n";
+		s += "Ride Time (sec): " + getRideTimes() + "\n";
+		s += "All Wait Times (sec): " + getAllWaitTimes() + "\n";
+		s += "All Ride Times (sec): " + getAllRideTimes() + "\n";
+		return s;
+	}
+
+}
@@ -1,14 +1,23 @@
 package com.mattkula.se350.elevatorsimulator.statistics;
 
-import java.util.ArrayList;
 import java.util.Collections;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
+import com.mattkula.se350.elevatorsimulator.elevatorcontroller.ElevatorController;
 import com.mattkula.se350.elevatorsimulator.person.PersonResultDTO;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
 
 /**
  * Singleton class that is responsible for storing data about Person instances' waiting times
  * and riding times. It is initialized at the beginning of a simulation and prints out all of the
- * statistics at the end of the simulation. 
+ * statistics at the end of the simulation. There is one instance per SimulationContext.
+ * 
+ * Times are kept in Histograms per floor and per pair of floors, so memory does not grow with
+ * the number of people. Each person's own report is only kept if the SimulationContext asks
+ * for it, which it does by default.
+ * 
+ * Reports come in from every elevator thread at once. Each thread records into its own
+ * ReportShard without any locking, and the shards are merged when the report is read.
  * 
  * @author Matt
  *
@@ -16,49 +25,49 @@ import com.mattkula.se350.elevatorsimulator.person.PersonResultDTO;
 public class ReportGenerator {
 	
 	/**
-	 * A static member of ReportGenerator as used by the Singleton pattern
+	 * The number of floors the simulation is running with.
+	 */
+	private int numOfFloors;
+	
+	/**
+	 * Whether each Person's own report is kept so it can be printed at the end.
+	 * @see SimulationContext#setKeepPersonReports(boolean)
 	 */
-	private static ReportGenerator rGenerator;
+	private boolean keepPersonReports;
 	
 	/**
-	 * Keeps track of all reported data from Persons who arrived at their
-	 * destinations. 
-	 * @see #addReport(PersonResultDTO)
+	 * Every shard that has been reported to, one per reporting thread.
 	 */
-	private ArrayList<PersonResultDTO> reports;
+	private ConcurrentLinkedQueue<ReportShard> shards;
 	
 	/**
-	 * Keeps track of all of the wait times at each of the floor. Each floor
-	 * has it's own ArrayList containing Integers of the wait times at that floor.
+	 * The shard the calling thread records its reports in, created and added
+	 * to the shards the first time the thread reports.
 	 */
-	private ArrayList<ArrayList<Integer>> waitTimes;
+	private ThreadLocal<ReportShard> localShard;
 	
 	/**
-	 * Holds data of the ride times for each floor to every other floor.
+	 * The simulation the report is printed for.
 	 */
-	private ArrayList<ArrayList<ArrayList<Integer>>> rideTimes;
+	private SimulationContext context;
 	
 	/**
 	 * A private constructor to ensure the singleton nature of this class.
+	 * @param context - The simulation the report is printed for
 	 * @param numOfFloors - The number of floors the simulation is running with. 
 	 */
-	private ReportGenerator(int numOfFloors){
-		reports = new ArrayList<PersonResultDTO>();
-		waitTimes = new ArrayList<ArrayList<Integer>>();
-		rideTimes = new ArrayList<ArrayList<ArrayList<Integer>>>();
-		
-		//Initialize the data holders
-		for(int i = 0; i < numOfFloors; i++){
-			waitTimes.add(new ArrayList<Integer>());
-			
-			rideTimes.add(new ArrayList<ArrayList<Integer>>());
-			
-			for(int j = 0; j < numOfFloors; j++){
-				rideTimes.get(i).add(new ArrayList<Integer>());
+	private ReportGenerator(SimulationContext context, int numOfFloors){
+		this.context = context;
+		this.numOfFloors = numOfFloors;
+		this.keepPersonReports = context.isKeepPersonReports();
+		shards = new ConcurrentLinkedQueue<ReportShard>();
+		localShard = new ThreadLocal<ReportShard>(){
+			protected ReportShard initialValue(){
+				ReportShard shard = createShard();
+				shards.add(shard);
+				return shard;
 			}
-		}
-		
-		
+		};
 	}
 	
 	/**
@@ -67,7 +76,16 @@ public class ReportGenerator {
 	 * @param numOfFloors - The number of floors in the simulation.
 	 */
 	public static void initialize(int numOfFloors){
-		rGenerator = new ReportGenerator(numOfFloors);
+		initialize(SimulationContext.current(), numOfFloors);
+	}
+	
+	/**
+	 * Initializes the ReportGenerator of the given simulation.
+	 * @param context - The simulation to report on
+	 * @param numOfFloors - The number of floors in the simulation.
+	 */
+	public static void initialize(SimulationContext context, int numOfFloors){
+		context.setReportGenerator(new ReportGenerator(context, numOfFloors));
 	}
 	
 	/**
@@ -76,6 +94,7 @@ public class ReportGenerator {
 	 * @return The only instance of the ReportGenerator
 	 */
 	public static ReportGenerator getInstance(){
+		ReportGenerator rGenerator = SimulationContext.current().getReportGenerator();
 		if(rGenerator == null)
 			throw new IllegalStateException("ReportGenerator must be initialized first");
 		
@@ -85,97 +104,145 @@ public class ReportGenerator {
 	/**
 	 * Method for a Person to add their data to the collection of reports in order to 
 	 * analyze all of the people's experiences. Called when a person arrives at their
-	 * destination. 
+	 * destination, from whichever thread the person's elevator runs on. Each thread records
+	 * into its own shard, so reporting never blocks.
 	 * @param report - The data about a person that is to be added
 	 */
 	public void addReport(PersonResultDTO report){
 		
-		if(report.id <= 0 || report.rideTime <= 0 || report.waitTime < 0 || report.startingFloor <= 0 || report.startingFloor > waitTimes.size() 
-				|| report.endingFloor <= 0 || report.endingFloor > waitTimes.size())
+		if(report.id <= 0 || report.rideTime <= 0 || report.waitTime < 0 || report.startingFloor <= 0 || report.startingFloor > numOfFloors 
+				|| report.endingFloor <= 0 || report.endingFloor > numOfFloors)
 			throw new IllegalStateException("Person's report is invalid");
 		
-		// Add report
-		reports.add(report);
-		
-		// Add wait times
-		int floor = report.startingFloor;
-		int waitTime = report.waitTime;
-		waitTimes.get(floor - 1).add(waitTime);
-		
-		//Add ride times
-		int floorFrom = report.startingFloor;
-		int floorTo = report.endingFloor;
-		int rideTime = report.rideTime;
-		rideTimes.get(floorFrom - 1).get(floorTo - 1).add(rideTime);
+		localShard.get().add(report);
+	}
+	
+	/**
+	 * Creates an empty shard for the simulation's floors.
+	 * @return A new shard
+	 */
+	private ReportShard createShard(){
+		return new ReportShard(numOfFloors, keepPersonReports);
+	}
+	
+	/**
+	 * Merges every thread's shard into one. Should be called once the elevators have
+	 * stopped, reports still being added by other threads may be missed.
+	 * @return A shard holding everything reported so far
+	 */
+	private ReportShard merge(){
+		ReportShard merged = createShard();
+		for(ReportShard shard : shards){
+			merged.add(shard);
+		}
 		
+		return merged;
 	}
 	
 	/**
-	 * Prints the final result of the simulation to the console, including all data about avg/min/max wait times,
-	 * the individual statistics for each person, and the ride times to and from each floor.
-	 * Called at the end of each simulation run. 
+	 * Prints the final result of the simulation to the console, including all data about avg/min/max 
+	 * and percentile wait times, the ride times to and from each floor, and the individual statistics
+	 * for each person if they were kept. Called at the end of each simulation run. 
 	 */
 	public void printFinalReport(){
+		ReportShard merged = merge();
 		
 		//print the wait times
-		System.out.printf("%40s \n", "Average Wait Times by Floor");
-		System.out.println(String.format("%15s %15s %15s %15s", "Floor", "Avg Wait Time", "Min Wait Time", "Max Wait Time"));
+		context.getOut().printf("%40s \n", "Average Wait Times by Floor");
+		context.getOut().println(String.format("%15s %15s %15s %15s %10s %10s %10s %10s", "Floor", "Avg Wait Time", "Min Wait Time", "Max Wait Time",
+				"p50", "p90", "p99", "p99.9"));
 		
-		for(int i = 0; i < waitTimes.size(); i++){
-			ArrayList<Integer> times = waitTimes.get(i);
-			if(times.size() > 0)
-				System.out.printf("%15d %15s %15s %15s \n", i+1, ReportGenerator.getAverageTime(times) + " sec", Collections.min(times) + " sec", Collections.max(times) + " sec");
+		for(int i = 0; i < merged.waitTimes.length; i++){
+			Histogram times = merged.waitTimes[i];
+			if(times.getCount() > 0)
+				context.getOut().printf("%15d %15s %15s %15s %10d %10d %10d %10d \n", i+1, ReportGenerator.getAverageTime(times) + " sec", times.getMin() + " sec", 
+						times.getMax() + " sec", times.getValueAtPercentile(50), times.getValueAtPercentile(90), times.getValueAtPercentile(99), 
+						times.getValueAtPercentile(99.9));
 			else{
-				System.out.printf("%15d %15s %15s %15s \n", i+1, "n/a", "n/a", "n/a");
+				context.getOut().printf("%15d %15s %15s %15s %10s %10s %10s %10s \n", i+1, "n/a", "n/a", "n/a", "n/a", "n/a", "n/a", "n/a");
 			}
 		}
 		
-		System.out.println();
+		context.getOut().println();
 		
 		//Print ride times
-		System.out.printf("%40s \n", "Average Ride Times from Floor to Floor");
-		for(int i = 0; i < waitTimes.size(); i++){
-			for(int j = 0; j < waitTimes.size(); j++){
-				int averageTime = getAverageTime(rideTimes.get(i).get(j));
+		context.getOut().printf("%40s \n", "Average Ride Times from Floor to Floor");
+		for(int i = 0; i < merged.waitTimes.length; i++){
+			for(int j = 0; j < merged.waitTimes.length; j++){
+				int averageTime = getAverageTime(merged.rideTimes[i][j]);
 				if(averageTime != -1)
-					System.out.printf("%8d ", averageTime);
+					context.getOut().printf("%8d ", averageTime);
+				else
+					context.getOut().printf("%8s ", "n/a");
+			}
+			context.getOut().println();
+		}
+		
+		context.getOut().println();
+		
+		//Print ride time percentiles
+		context.getOut().printf("%40s \n", "Ride Time Percentiles from Floor to Floor");
+		context.getOut().println(String.format("%10s %10s %10s %10s %10s %10s %10s %10s", "From", "To", "People", "Avg", "p50", "p90", "p99", "p99.9"));
+		for(int i = 0; i < merged.waitTimes.length; i++){
+			for(int j = 0; j < merged.waitTimes.length; j++){
+				Histogram times = merged.rideTimes[i][j];
+				if(times != null)
+					context.getOut().printf("%10d %10d %10d %10d %10d %10d %10d %10d \n", i+1, j+1, times.getCount(), getAverageTime(times), 
+							times.getValueAtPercentile(50), times.getValueAtPercentile(90), times.getValueAtPercentile(99), times.getValueAtPercentile(99.9));
+			}
+		}
+		
+		context.getOut().println();
+		
+		//Print how quickly each elevator took its commands
+		ElevatorController controller = context.getElevatorController();
+		if(controller != null){
+			context.getOut().printf("%40s \n", "Command Latency by Elevator (ms)");
+			context.getOut().println(String.format("%10s %10s %10s %10s %10s", "Elevator", "Commands", "Avg", "p99", "Max"));
+			Histogram[] latencies = controller.getCommandLatencies();
+			for(int i = 0; i < latencies.length; i++){
+				Histogram times = latencies[i];
+				if(times.getCount() > 0)
+					context.getOut().printf("%10d %10d %10d %10d %10d \n", i+1, times.getCount(), getAverageTime(times), 
+							times.getValueAtPercentile(99), times.getMax());
 				else
-					System.out.printf("%8s ", "n/a");
+					context.getOut().printf("%10d %10d %10s %10s %10s \n", i+1, 0, "n/a", "n/a", "n/a");
 			}
-			System.out.println();
+			
+			context.getOut().println();
 		}
 		
-		System.out.println();
+		context.getOut().println("Wait Times: " + merged.allWaitTimes);
+		context.getOut().println("Ride Times: " + merged.allRideTimes);
+		
+		if(merged.reports == null)
+			return;
+		
+		context.getOut().println();
 		
 		//print out all reports
-		System.out.printf("%40s \n", "Wait and Ride Times by Person");
-		Collections.sort(reports);
-		System.out.println(String.format("%15s %15s %15s %15s %15s", "Person", "Wait Time", "Start Floor", "Dest Floor", "Ride Time"));
+		context.getOut().printf("%40s \n", "Wait and Ride Times by Person");
+		Collections.sort(merged.reports);
+		context.getOut().println(String.format("%15s %15s %15s %15s %15s", "Person", "Wait Time", "Start Floor", "Dest Floor", "Ride Time"));
 		
-		for(int i = 0; i < reports.size(); i++){
-			PersonResultDTO report = reports.get(i);
-			System.out.println(String.format("%15d %15d %15d %15d %15d", report.id, report.waitTime, report.startingFloor, 
+		for(int i = 0; i < merged.reports.size(); i++){
+			PersonResultDTO report = merged.reports.get(i);
+			context.getOut().println(String.format("%15d %15d %15d %15d %15d", report.id, report.waitTime, report.startingFloor, 
 					report.endingFloor, report.rideTime));
 		}
 		
 	}
 	
 	/**
-	 * Gets the average time from an ArrayList of integers
-	 * @param times - An array list containing Integers of seconds waited/ridden
-	 * @return The average of all of the numbers in the ArrayList
+	 * Gets the average time from a Histogram of times
+	 * @param times - A Histogram of seconds waited/ridden, may be null
+	 * @return The average of all of the times, rounded down, -1 if there are none
 	 */
-	private static int getAverageTime(ArrayList<Integer> times){
-		if(times.size() == 0)
+	private static int getAverageTime(Histogram times){
+		if(times == null || times.getCount() == 0)
 			return -1;
 		
-		int total = 0;
-		
-		for(int i = 0; i < times.size(); i++){
-			total += times.get(i);
-		}
-		
-		return total / times.size();
+		return (int)(times.getSum() / times.getCount());
 	}
 	
 	/**
@@ -184,10 +251,7 @@ public class ReportGenerator {
 	 * @return The average number of seconds people have waited at that floor, -1 if nobody has waited at that floor
 	 */
 	public int getAverageFloorWaitTime(int floor){
-		if(waitTimes.get(floor-1).size() == 0)
-			return -1;
-		
-		return getAverageTime(waitTimes.get(floor - 1));
+		return getAverageTime(merge().waitTimes[floor - 1]);
 	}
 	
 	/**
@@ -197,7 +261,76 @@ public class ReportGenerator {
 	 * @return The average number of seconds the ride has taken, -1 if nobody has ridden from 'from' to 'to'
 	 */
 	public int getRideTime(int from , int to){
-		return getAverageTime(rideTimes.get(from - 1).get(to - 1));
+		return getAverageTime(merge().rideTimes[from - 1][to - 1]);
+	}
+	
+	/**
+	 * Get the wait times of people who started at a floor.
+	 * @param floor - the Floor to get the information about
+	 * @return The Histogram of seconds people have waited at that floor
+	 */
+	public Histogram getFloorWaitTimes(int floor){
+		return merge().waitTimes[floor - 1];
+	}
+	
+	/**
+	 * Get the ride times from one floor to another.
+	 * @param from - The floor that the people are riding from
+	 * @param to - The floor that the people are riding to
+	 * @return The Histogram of seconds the ride has taken, empty if nobody has ridden from 'from' to 'to'
+	 */
+	public Histogram getRideTimes(int from, int to){
+		Histogram times = merge().rideTimes[from - 1][to - 1];
+		if(times == null)
+			return new Histogram();
+		
+		return times;
+	}
+	
+	/**
+	 * @return The Histogram of seconds everybody in the simulation waited
+	 */
+	public Histogram getAllWaitTimes(){
+		return merge().allWaitTimes;
+	}
+	
+	/**
+	 * @return The Histogram of seconds everybody in the simulation rode
+	 */
+	public Histogram getAllRideTimes(){
+		return merge().allRideTimes;
+	}
+	
+	/**
+	 * Get the number of people who have arrived at their destinations.
+	 * @return The number of reports added
+	 */
+	public int getNumberOfReports(){
+		return (int)merge().allWaitTimes.getCount();
+	}
+	
+	/**
+	 * Get the average wait time of everybody in the simulation, regardless of floor.
+	 * @return The average number of seconds people waited, -1 if nobody has been reported
+	 */
+	public double getOverallAverageWaitTime(){
+		ReportShard merged = merge();
+		if(merged.allWaitTimes.getCount() == 0)
+			return -1;
+		
+		return merged.allWaitTimes.getMean();
+	}
+	
+	/**
+	 * Get the average ride time of everybody in the simulation, regardless of floor.
+	 * @return The average number of seconds people rode, -1 if nobody has been reported
+	 */
+	public double getOverallAverageRideTime(){
+		ReportShard merged = merge();
+		if(merged.allRideTimes.getCount() == 0)
+			return -1;
+		
+		return merged.allRideTimes.getMean();
 	}
 
 }
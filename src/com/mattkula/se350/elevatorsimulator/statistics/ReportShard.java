@@ -0,0 +1,113 @@
+package com.mattkula.se350.elevatorsimulator.statistics;
+
+import java.util.ArrayList;
+
+import com.mattkula.se350.elevatorsimulator.person.PersonResultDTO;
+
+/**
+ * The wait and ride times reported to a ReportGenerator by a single thread. Every thread
+ * that reports gets its own shard, so recording never waits on another thread, and the
+ * shards are merged together when the report is read.
+ *
+ * @author Matt
+ *
+ */
+class ReportShard {
+
+	/**
+	 * The reports of each Person, null when they are not kept.
+	 */
+	ArrayList<PersonResultDTO> reports;
+
+	/**
+	 * The wait times at each floor, indexed by story-1.
+	 */
+	Histogram[] waitTimes;
+
+	/**
+	 * The ride times from each floor to every other floor, each Histogram
+	 * is created the first time somebody makes that ride.
+	 */
+	Histogram[][] rideTimes;
+
+	/**
+	 * The wait times of everybody, regardless of floor.
+	 */
+	Histogram allWaitTimes;
+
+	/**
+	 * The ride times of everybody, regardless of floor.
+	 */
+	Histogram allRideTimes;
+
+	/**
+	 * Creates an empty shard.
+	 * @param numOfFloors - The number of floors the simulation is running with
+	 * @param keepPersonReports - Whether to keep each Person's own report
+	 */
+	ReportShard(int numOfFloors, boolean keepPersonReports){
+		if(keepPersonReports)
+			reports = new ArrayList<PersonResultDTO>();
+		waitTimes = new Histogram[numOfFloors];
+		rideTimes = new Histogram[numOfFloors][numOfFloors];
+		allWaitTimes = new Histogram();
+		allRideTimes = new Histogram();
+
+		for(int i = 0; i < numOfFloors; i++){
+			waitTimes[i] = new Histogram();
+		}
+	}
+
+	/**
+	 * Records a Person's report, which must already be checked to be valid.
+	 * @param report - The data about a person that is to be added
+	 */
+	void add(PersonResultDTO report){
+		if(reports != null)
+			reports.add(report);
+
+		waitTimes[report.startingFloor - 1].recordValue(report.waitTime);
+		allWaitTimes.recordValue(report.waitTime);
+
+		rideTimesFor(report.startingFloor - 1, report.endingFloor - 1).recordValue(report.rideTime);
+		allRideTimes.recordValue(report.rideTime);
+	}
+
+	/**
+	 * Adds everything recorded in another shard to this one.
+	 * @param other - The shard to merge into this one, left unchanged
+	 */
+	void add(ReportShard other){
+		if(reports != null && other.reports != null)
+			reports.addAll(other.reports);
+
+		for(int i = 0; i < waitTimes.length; i++){
+			waitTimes[i].add(other.waitTimes[i]);
+
+			for(int j = 0; j < waitTimes.length; j++){
+				if(other.rideTimes[i][j] != null)
+					rideTimesFor(i, j).add(other.rideTimes[i][j]);
+			}
+		}
+
+		allWaitTimes.add(other.allWaitTimes);
+		allRideTimes.add(other.allRideTimes);
+	}
+
+	/**
+	 * Gets the ride times between two floors, creating the Histogram if nobody has made the ride yet.
+	 * @param from - The index of the floor the ride starts at
+	 * @param to - The index of the floor the ride ends at
+	 * @return The Histogram of ride times between the floors
+	 */
+	private Histogram rideTimesFor(int from, int to){
+		Histogram times = rideTimes[from][to];
+		if(times == null){
+			times = new Histogram();
+			rideTimes[from][to] = times;
+		}
+
+		return times;
+	}
+
+}
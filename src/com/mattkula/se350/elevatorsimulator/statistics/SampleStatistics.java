@@ -0,0 +1,124 @@
+package com.mattkula.se350.elevatorsimulator.statistics;
+
+/**
+ * Summary statistics of a sample of independent observations, such as the average wait
+ * time of each replication of a simulation. Gives the mean, the sample variance and a 95%
+ * confidence interval for the mean based on the Student t distribution.
+ * 
+ * @author Matt
+ *
+ */
+public class SampleStatistics {
+	
+	/**
+	 * Two sided 95% critical values of the t distribution for 1 to 30 degrees of freedom.
+	 */
+	private static final double[] T_CRITICAL_95 = {
+		12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+		2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+		2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+	};
+	
+	/**
+	 * The number of observations in the sample.
+	 */
+	private int count;
+	
+	/**
+	 * The mean of the observations.
+	 */
+	private double mean;
+	
+	/**
+	 * The sample variance of the observations, using n - 1 in the denominator.
+	 */
+	private double variance;
+	
+	/**
+	 * Computes the statistics of the given observations.
+	 * @param observations - The observations to summarize
+	 */
+	public SampleStatistics(double[] observations){
+		count = observations.length;
+		
+		double sum = 0;
+		for(int i = 0; i < count; i++){
+			sum += observations[i];
+		}
+		mean = (count > 0 ? sum / count : Double.NaN);
+		
+		double squares = 0;
+		for(int i = 0; i < count; i++){
+			squares += (observations[i] - mean) * (observations[i] - mean);
+		}
+		variance = (count > 1 ? squares / (count - 1) : Double.NaN);
+	}
+	
+	/**
+	 * @return The number of observations in the sample
+	 */
+	public int getCount(){
+		return count;
+	}
+	
+	/**
+	 * @return The mean of the observations, NaN if there are none
+	 */
+	public double getMean(){
+		return mean;
+	}
+	
+	/**
+	 * @return The sample variance of the observations, NaN if there are less than two
+	 */
+	public double getVariance(){
+		return variance;
+	}
+	
+	/**
+	 * @return The sample standard deviation of the observations, NaN if there are less than two
+	 */
+	public double getStandardDeviation(){
+		return Math.sqrt(variance);
+	}
+	
+	/**
+	 * Get the half width of the 95% confidence interval for the mean, so the interval
+	 * is the mean plus or minus this value.
+	 * @return The half width of the confidence interval, NaN if there are less than two observations
+	 */
+	public double getConfidenceHalfWidth(){
+		if(count < 2)
+			return Double.NaN;
+		
+		return getTCritical(count - 1) * Math.sqrt(variance / count);
+	}
+	
+	/**
+	 * Gets the two sided 95% critical value of the t distribution. Past 30 degrees of freedom
+	 * only some values are known, so each range uses the value at its lowest end, which is
+	 * the largest in the range. The interval is then never narrower than it should be.
+	 * @param degreesOfFreedom - The degrees of freedom, at least one
+	 * @return The critical value, 1.98 for samples larger than 120
+	 */
+	static double getTCritical(int degreesOfFreedom){
+		if(degreesOfFreedom <= T_CRITICAL_95.length)
+			return T_CRITICAL_95[degreesOfFreedom - 1];
+		if(degreesOfFreedom <= 40)
+			return 2.042;		// 30 degrees of freedom
+		if(degreesOfFreedom <= 60)
+			return 2.021;		// 40
+		if(degreesOfFreedom <= 120)
+			return 2.000;		// 60
+		return 1.980;			// 120
+	}
+	
+	/**
+	 * @return A string of the mean, standard deviation and confidence interval
+	 */
+	public String toString(){
+		return String.format("mean %.2f, std dev %.2f, 95%% CI [%.2f, %.2f] (n=%d)", getMean(), getStandardDeviation(),
+				getMean() - getConfidenceHalfWidth(), getMean() + getConfidenceHalfWidth(), getCount());
+	}
+
+}
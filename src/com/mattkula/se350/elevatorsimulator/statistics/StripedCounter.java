@@ -0,0 +1,73 @@
+package com.mattkula.se350.elevatorsimulator.statistics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A count that many threads can add to at once without contending, for metrics that are
+ * incremented far more often than they are read. Each thread adds to one of several cells
+ * chosen by its id, and the cells are only summed when the count is read.
+ *
+ * The cells are spaced a cache line apart in one AtomicLongArray, so threads adding to
+ * neighbouring cells do not slow each other down either.
+ *
+ * @author Matt
+ *
+ */
+public class StripedCounter {
+
+	/**
+	 * The number of longs between two cells, one 64 byte cache line.
+	 */
+	private static final int SPACING = 8;
+
+	/**
+	 * The cells, one every SPACING longs.
+	 */
+	private AtomicLongArray cells;
+
+	/**
+	 * The number of cells minus one, the number of cells is always a power of two.
+	 */
+	private int mask;
+
+	/**
+	 * Creates a counter with a cell for each processor, starting at 0.
+	 */
+	public StripedCounter(){
+		int processors = Runtime.getRuntime().availableProcessors();
+		int numOfCells = Integer.highestOneBit(Math.max(processors, 1) * 2 - 1);	// Smallest power of two holding every processor
+		cells = new AtomicLongArray(numOfCells * SPACING);
+		mask = numOfCells - 1;
+	}
+
+	/**
+	 * Adds one to the count.
+	 */
+	public void increment(){
+		add(1);
+	}
+
+	/**
+	 * Adds to the count from the calling thread's cell.
+	 * @param amount - The amount to add
+	 */
+	public void add(long amount){
+		long id = Thread.currentThread().getId();
+		int cell = (int)(id ^ (id >>> 16)) & mask;
+		cells.getAndAdd(cell * SPACING, amount);
+	}
+
+	/**
+	 * Adds up the cells. Amounts added while summing may or may not be counted.
+	 * @return The count
+	 */
+	public long sum(){
+		long sum = 0;
+		for(int i = 0; i < cells.length(); i += SPACING){
+			sum += cells.get(i);
+		}
+
+		return sum;
+	}
+
+}
@@ -0,0 +1,298 @@
+package com.mattkula.se350.elevatorsimulator.trace;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Streams recorded passenger trips, such as badge or turnstile logs, one at a time without
+ * loading the whole file, so PersonGenerator can replay real traffic. Call next() to move
+ * to the next trip, then read it with the getters.
+ *
+ * Two formats are read. A binary log written by a PassengerLogWriter starts with the MAGIC
+ * number and holds fixed-width records. Any other file is read as text, one trip per line
+ * as "time, origin, destination" with the time in milliseconds. Blank lines, # comments and
+ * lines without any digits, like a header, are skipped. Every other line must be exactly
+ * three comma separated whole numbers that are not negative, or reading it fails, so a log
+ * in another format is never replayed as the wrong trips.
+ *
+ * @author Matt
+ *
+ */
+public class PassengerLogReader {
+
+	/**
+	 * The number that every binary passenger log starts with.
+	 */
+	public static final int MAGIC = 0x454C504C;
+
+	/**
+	 * The version of the binary record layout.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * The number of bytes in the binary header.
+	 */
+	public static final int HEADER_SIZE = 8;
+
+	/**
+	 * The number of bytes in each binary record: an 8 byte time followed by 4 byte origin and destination.
+	 */
+	public static final int RECORD_SIZE = 16;
+
+	/**
+	 * The number of bytes read from the file at once, also the longest text line allowed.
+	 */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * The channel of the log file.
+	 */
+	private FileChannel channel;
+
+	/**
+	 * Bytes read from the file that have not been turned into trips yet.
+	 */
+	private ByteBuffer buffer;
+
+	/**
+	 * true if the file is a binary log, false if it is text.
+	 */
+	private boolean binary;
+
+	/**
+	 * The number of the current text line, used in error messages.
+	 */
+	private long line;
+
+	/**
+	 * The time of the current trip in milliseconds.
+	 */
+	private long time;
+
+	/**
+	 * The story the current trip starts on.
+	 */
+	private int origin;
+
+	/**
+	 * The story the current trip ends on.
+	 */
+	private int destination;
+
+	/**
+	 * Opens a passenger log, working out whether it is binary or text.
+	 * @param fileName - The log file to read
+	 * @throws IOException if the file cannot be read or is an unsupported binary version
+	 */
+	public PassengerLogReader(String fileName) throws IOException{
+		channel = new FileInputStream(fileName).getChannel();
+		buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.flip();
+
+		if(fill(HEADER_SIZE) && buffer.getInt(buffer.position()) == MAGIC){
+			binary = true;
+			buffer.getInt();
+			int version = buffer.getInt();
+			if(version != VERSION){
+				close();
+				throw new IOException("Unsupported passenger log version " + version);
+			}
+		}
+	}
+
+	/**
+	 * Moves to the next trip.
+	 * @return true if there was another trip, false at the end of the log
+	 * @throws IOException if the file cannot be read or a line is not a trip
+	 */
+	public boolean next() throws IOException{
+		if(binary){
+			if(!fill(RECORD_SIZE))
+				return false;
+
+			time = buffer.getLong();
+			origin = buffer.getInt();
+			destination = buffer.getInt();
+			return true;
+		}
+
+		while(true){
+			int end = findLineEnd();
+			if(end < 0)
+				return false;
+
+			line++;
+			if(isTrip(end)){
+				parseLine(end);
+				return true;
+			}
+
+			buffer.position(Math.min(end + 1, buffer.limit()));	// Skip headers, comments and blank lines
+		}
+	}
+
+	/**
+	 * Finds the end of the next text line, reading more of the file if the buffer does not hold all of it.
+	 * @return The index of the line's newline, or of the end of the buffer for a last line without one, -1 at the end of the file
+	 * @throws IOException if the file cannot be read or the line does not fit in the buffer
+	 */
+	private int findLineEnd() throws IOException{
+		int searched = 0;	// Bytes after the position already known not to be a newline
+		while(true){
+			for(int i = buffer.position() + searched; i < buffer.limit(); i++){
+				if(buffer.get(i) == '\n')
+					return i;
+			}
+
+			searched = buffer.remaining();
+			if(!fill(searched + 1))
+				return buffer.hasRemaining() ? buffer.limit() : -1;	// The last line may have no newline
+		}
+	}
+
+	/**
+	 * Tells whether the text line at the buffer's position is a trip rather than a blank line,
+	 * a # comment or a header.
+	 * @param end - The index of the line's newline or the end of the buffer
+	 * @return true if the line has a digit and does not start with #
+	 */
+	private boolean isTrip(int end){
+		int i = skipSpaces(buffer.position(), end);
+		if(i < end && buffer.get(i) == '#')
+			return false;
+
+		for(; i < end; i++){
+			if(isDigit(buffer.get(i)))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Reads the time, origin and destination of the text line at the buffer's position and moves past it.
+	 * @param end - The index of the line's newline or the end of the buffer
+	 * @throws IOException if the line is not exactly three comma separated numbers
+	 */
+	private void parseLine(int end) throws IOException{
+		time = parseField(end, Long.MAX_VALUE, false);
+		origin = (int)parseField(end, Integer.MAX_VALUE, false);
+		destination = (int)parseField(end, Integer.MAX_VALUE, true);
+		buffer.position(Math.min(end + 1, buffer.limit()));
+	}
+
+	/**
+	 * Reads the next field of the current line, a whole number with optional spaces around it,
+	 * and moves past the comma after it.
+	 * @param end - The index of the line's newline or the end of the buffer
+	 * @param max - The largest value the field may hold
+	 * @param last - true if the line must end after the field, false if a comma must follow it
+	 * @return The number
+	 * @throws IOException if the field is not a number, is too large or is not followed by what it should be
+	 */
+	private long parseField(int end, long max, boolean last) throws IOException{
+		int i = skipSpaces(buffer.position(), end);
+		if(i == end || !isDigit(buffer.get(i)))
+			throw malformed();
+
+		long value = 0;
+		while(i < end && isDigit(buffer.get(i))){
+			int digit = buffer.get(i) - '0';
+			if(value > (max - digit) / 10)
+				throw malformed();
+			value = value * 10 + digit;
+			i++;
+		}
+
+		i = skipSpaces(i, end);
+		if(last ? i != end : i == end || buffer.get(i++) != ',')
+			throw malformed();
+
+		buffer.position(i);
+		return value;
+	}
+
+	/**
+	 * Skips spaces, tabs and the carriage return of a Windows line ending.
+	 * @param i - The index to start from
+	 * @param end - The index of the line's newline or the end of the buffer
+	 * @return The index of the first other byte, or end
+	 */
+	private int skipSpaces(int i, int end){
+		while(i < end && (buffer.get(i) == ' ' || buffer.get(i) == '\t' || buffer.get(i) == '\r'))
+			i++;
+		return i;
+	}
+
+	/**
+	 * @return The error for a current line that is not a trip
+	 */
+	private IOException malformed(){
+		return new IOException("Passenger log line " + line + " must be time, origin, destination as whole numbers that are not negative");
+	}
+
+	/**
+	 * @param b - A byte of text
+	 * @return true if the byte is the digit 0 to 9
+	 */
+	private static boolean isDigit(byte b){
+		return b >= '0' && b <= '9';
+	}
+
+	/**
+	 * Makes sure the buffer holds at least the given number of bytes, reading more of the file if needed.
+	 * Whatever has not been read yet is moved to the start of the buffer.
+	 * @param bytes - The number of bytes needed
+	 * @return true if there are enough bytes, false if the file ended first
+	 * @throws IOException if the file cannot be read or the bytes do not fit in the buffer
+	 */
+	private boolean fill(int bytes) throws IOException{
+		if(buffer.remaining() >= bytes)
+			return true;
+
+		if(bytes > buffer.capacity())
+			throw new IOException("Passenger log line " + (line + 1) + " is longer than " + buffer.capacity() + " bytes");
+
+		buffer.compact();
+		while(buffer.position() < bytes){
+			if(channel.read(buffer) == -1)
+				break;
+		}
+		buffer.flip();
+
+		return buffer.remaining() >= bytes;
+	}
+
+	/**
+	 * Closes the log file.
+	 * @throws IOException if the file cannot be closed
+	 */
+	public void close() throws IOException{
+		channel.close();
+	}
+
+	/**
+	 * @return The time of the current trip in milliseconds
+	 */
+	public long getTime(){
+		return time;
+	}
+
+	/**
+	 * @return The story the current trip starts on
+	 */
+	public int getOrigin(){
+		return origin;
+	}
+
+	/**
+	 * @return The story the current trip ends on
+	 */
+	public int getDestination(){
+		return destination;
+	}
+
+}
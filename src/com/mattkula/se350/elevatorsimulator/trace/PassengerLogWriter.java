@@ -0,0 +1,87 @@
+package com.mattkula.se350.elevatorsimulator.trace;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Writes passenger trips to a binary log that a PassengerLogReader can replay, one
+ * fixed-width record per trip: the time in milliseconds, the origin and the destination.
+ * A binary log is much smaller and faster to read than the same trips as text, so a long
+ * text log can be converted once and replayed many times.
+ *
+ * @author Matt
+ *
+ */
+public class PassengerLogWriter {
+
+	/**
+	 * The number of records buffered before they are written to the file.
+	 */
+	private static final int BUFFERED_RECORDS = 4096;
+
+	/**
+	 * The channel of the log file.
+	 */
+	private FileChannel channel;
+
+	/**
+	 * Records waiting to be written to the channel.
+	 */
+	private ByteBuffer buffer;
+
+	/**
+	 * Creates the log file, replacing it if it already exists, and writes its header.
+	 * @param fileName - The file to write the trips to
+	 * @throws IOException if the file cannot be created
+	 */
+	public PassengerLogWriter(String fileName) throws IOException{
+		channel = new FileOutputStream(fileName).getChannel();
+		buffer = ByteBuffer.allocateDirect(PassengerLogReader.RECORD_SIZE * BUFFERED_RECORDS).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(PassengerLogReader.MAGIC);
+		buffer.putInt(PassengerLogReader.VERSION);
+	}
+
+	/**
+	 * Adds a trip to the log.
+	 * @param time - The time the person arrives at the origin in milliseconds
+	 * @param origin - The story the trip starts on
+	 * @param destination - The story the trip ends on
+	 * @throws IOException if the file cannot be written
+	 */
+	public void record(long time, int origin, int destination) throws IOException{
+		if(buffer.remaining() < PassengerLogReader.RECORD_SIZE)
+			writeBuffer();
+
+		buffer.putLong(time);
+		buffer.putInt(origin);
+		buffer.putInt(destination);
+	}
+
+	/**
+	 * Writes every trip so far and closes the file.
+	 * @throws IOException if the file cannot be written or closed
+	 */
+	public void close() throws IOException{
+		try{
+			writeBuffer();
+		}finally{
+			channel.close();
+		}
+	}
+
+	/**
+	 * Writes the buffered trips to the channel and empties the buffer.
+	 * @throws IOException if the file cannot be written
+	 */
+	private void writeBuffer() throws IOException{
+		buffer.flip();
+		while(buffer.hasRemaining()){
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+}
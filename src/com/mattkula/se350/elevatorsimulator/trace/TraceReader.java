@@ -0,0 +1,215 @@
+package com.mattkula.se350.elevatorsimulator.trace;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+
+import com.mattkula.se350.elevatorsimulator.person.PersonResultDTO;
+import com.mattkula.se350.elevatorsimulator.person.SimplePersonImpl;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
+import com.mattkula.se350.elevatorsimulator.statistics.ReportGenerator;
+
+/**
+ * Streams the records of a trace written by a TraceWriter, one at a time, without loading
+ * the whole file. Call next() to move to the next record, then read it with the getters.
+ * 
+ * buildReport() replays the person records of a trace into a ReportGenerator, giving the
+ * same statistics as the simulation that wrote it without running the simulation again.
+ * 
+ * @author Matt
+ *
+ */
+public class TraceReader {
+	
+	/**
+	 * The number of records read from the file at once.
+	 */
+	private static final int BUFFERED_RECORDS = 4096;
+	
+	/**
+	 * The channel of the trace file.
+	 */
+	private FileChannel channel;
+	
+	/**
+	 * Bytes read from the file that have not been turned into records yet.
+	 */
+	private ByteBuffer buffer;
+	
+	/**
+	 * The simulation time of the current record in milliseconds.
+	 */
+	private long time;
+	
+	/**
+	 * The type of the current record.
+	 */
+	private int type;
+	
+	/**
+	 * The elevator of the current record.
+	 */
+	private int elevator;
+	
+	/**
+	 * The floor of the current record.
+	 */
+	private int floor;
+	
+	/**
+	 * The person of the current record.
+	 */
+	private int person;
+	
+	/**
+	 * Opens a trace file and checks its header.
+	 * @param fileName - The trace file to read
+	 * @throws IOException if the file cannot be read or is not a trace
+	 */
+	public TraceReader(String fileName) throws IOException{
+		channel = new FileInputStream(fileName).getChannel();
+		buffer = ByteBuffer.allocate(TraceWriter.RECORD_SIZE * BUFFERED_RECORDS).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.flip();
+		
+		if(!fill(TraceWriter.HEADER_SIZE) || buffer.getInt() != TraceWriter.MAGIC){
+			close();
+			throw new IOException(fileName + " is not an elevator simulation trace");
+		}
+		
+		int version = buffer.getInt();
+		if(version != TraceWriter.VERSION){
+			close();
+			throw new IOException("Unsupported trace version " + version);
+		}
+	}
+	
+	/**
+	 * Moves to the next record.
+	 * @return true if there was another record, false at the end of the trace
+	 * @throws IOException if the file cannot be read
+	 */
+	public boolean next() throws IOException{
+		if(!fill(TraceWriter.RECORD_SIZE))
+			return false;
+		
+		time = buffer.getLong();
+		type = buffer.getInt();
+		elevator = buffer.getInt();
+		floor = buffer.getInt();
+		person = buffer.getInt();
+		return true;
+	}
+	
+	/**
+	 * Makes sure the buffer holds at least the given number of bytes, reading more of the file if needed.
+	 * @param bytes - The number of bytes needed
+	 * @return true if there are enough bytes, false if the file ended first
+	 * @throws IOException if the file cannot be read
+	 */
+	private boolean fill(int bytes) throws IOException{
+		if(buffer.remaining() >= bytes)
+			return true;
+		
+		buffer.compact();
+		while(buffer.position() < bytes){
+			if(channel.read(buffer) == -1)
+				break;
+		}
+		buffer.flip();
+		
+		return buffer.remaining() >= bytes;
+	}
+	
+	/**
+	 * Closes the trace file.
+	 * @throws IOException if the file cannot be closed
+	 */
+	public void close() throws IOException{
+		channel.close();
+	}
+	
+	/**
+	 * Replays every person in the trace into a new ReportGenerator on the given context, working
+	 * out each person's wait and ride times the same way the simulation did. Reads to the end of
+	 * the trace, but does not close it.
+	 * @param context - The context to create the ReportGenerator on
+	 * @return The ReportGenerator holding everybody who reached their destination
+	 * @throws IOException if the file cannot be read or does not start with a SIMULATION_STARTED record
+	 */
+	public ReportGenerator buildReport(SimulationContext context) throws IOException{
+		if(!next() || type != TraceWriter.SIMULATION_STARTED)
+			throw new IOException("Trace does not start with a SIMULATION_STARTED record");
+		
+		ReportGenerator.initialize(context, floor);
+		ReportGenerator report = context.getReportGenerator();
+		
+		HashMap<Integer, long[]> waiting = new HashMap<Integer, long[]>();	// Person id -> created time, source floor, boarded time
+		
+		while(next()){
+			switch(type){
+			case TraceWriter.PERSON_CREATED:
+				waiting.put(person, new long[]{time, floor, -1});
+				break;
+			case TraceWriter.PERSON_BOARDED:
+				long[] boarding = waiting.get(person);
+				if(boarding != null)
+					boarding[2] = time;
+				break;
+			case TraceWriter.PERSON_ARRIVED:
+				long[] times = waiting.remove(person);
+				if(times == null || times[2] < 0)
+					break;		// Created before the trace started
+				
+				PersonResultDTO result = new PersonResultDTO();
+				result.id = person;
+				result.startingFloor = (int)times[1];
+				result.endingFloor = floor;
+				result.waitTime = SimplePersonImpl.toSeconds(times[2] - times[0]);
+				result.rideTime = SimplePersonImpl.toSeconds(time - times[2]);
+				report.addReport(result);
+				break;
+			}
+		}
+		
+		return report;
+	}
+	
+	/**
+	 * @return The simulation time of the current record in milliseconds
+	 */
+	public long getTime(){
+		return time;
+	}
+	
+	/**
+	 * @return The type of the current record, one of the constants of TraceWriter
+	 */
+	public int getType(){
+		return type;
+	}
+	
+	/**
+	 * @return The elevator of the current record, 0 if none
+	 */
+	public int getElevator(){
+		return elevator;
+	}
+	
+	/**
+	 * @return The floor of the current record, 0 if none
+	 */
+	public int getFloor(){
+		return floor;
+	}
+	
+	/**
+	 * @return The person of the current record, 0 if none
+	 */
+	public int getPerson(){
+		return person;
+	}
+
+}
@@ -0,0 +1,178 @@
+package com.mattkula.se350.elevatorsimulator.trace;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Writes a compact binary trace of a simulation to a file, one fixed-width record per event:
+ * the simulation time in milliseconds, the type of event, and the elevator, floor and person
+ * it involves, with 0 for whatever does not apply. Records are collected in a direct buffer
+ * and written to a FileChannel whenever it fills up.
+ * 
+ * The file starts with a header of the MAGIC number and the VERSION, and is read back with
+ * a TraceReader. Recording is synchronized so every elevator thread can share one writer.
+ * 
+ * @author Matt
+ *
+ */
+public class TraceWriter {
+	
+	/**
+	 * The number that every trace file starts with.
+	 */
+	public static final int MAGIC = 0x454C5452;
+	
+	/**
+	 * The version of the record layout.
+	 */
+	public static final int VERSION = 1;
+	
+	/**
+	 * The number of bytes in the header.
+	 */
+	public static final int HEADER_SIZE = 8;
+	
+	/**
+	 * The number of bytes in each record: an 8 byte time followed by 4 byte type, elevator, floor and person.
+	 */
+	public static final int RECORD_SIZE = 24;
+	
+	/**
+	 * The simulation started, the elevator is the number of elevators and the floor is the number of floors.
+	 */
+	public static final int SIMULATION_STARTED = 1;
+	
+	/**
+	 * A person was created at the floor.
+	 */
+	public static final int PERSON_CREATED = 2;
+	
+	/**
+	 * A person got into the elevator at the floor.
+	 */
+	public static final int PERSON_BOARDED = 3;
+	
+	/**
+	 * A person got out of the elevator at their destination floor.
+	 */
+	public static final int PERSON_ARRIVED = 4;
+	
+	/**
+	 * The elevator passed the floor without stopping.
+	 */
+	public static final int ELEVATOR_PASSED = 5;
+	
+	/**
+	 * The elevator stopped at the floor and opened its doors.
+	 */
+	public static final int ELEVATOR_ARRIVED = 6;
+	
+	/**
+	 * The elevator closed its doors at the floor.
+	 */
+	public static final int DOORS_CLOSED = 7;
+	
+	/**
+	 * The elevator has nowhere to go and is waiting at the floor.
+	 */
+	public static final int ELEVATOR_IDLE = 8;
+	
+	/**
+	 * The simulation stopped generating people.
+	 */
+	public static final int SIMULATION_ENDED = 9;
+	
+	/**
+	 * The number of records buffered before they are written to the file.
+	 */
+	private static final int BUFFERED_RECORDS = 4096;
+	
+	/**
+	 * The channel of the trace file.
+	 */
+	private FileChannel channel;
+	
+	/**
+	 * Records waiting to be written to the channel.
+	 */
+	private ByteBuffer buffer;
+	
+	/**
+	 * Creates the trace file, replacing it if it already exists, and writes its header.
+	 * @param fileName - The file to write the trace to
+	 * @throws IOException if the file cannot be created
+	 */
+	public TraceWriter(String fileName) throws IOException{
+		channel = new FileOutputStream(fileName).getChannel();
+		buffer = ByteBuffer.allocateDirect(RECORD_SIZE * BUFFERED_RECORDS).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(MAGIC);
+		buffer.putInt(VERSION);
+	}
+	
+	/**
+	 * Adds a record to the trace. Does nothing once the trace is closed.
+	 * @param time - The simulation time of the event in milliseconds
+	 * @param type - The type of event, one of the constants of this class
+	 * @param elevator - The number of the elevator involved, 0 if none
+	 * @param floor - The story the event happened at, 0 if none
+	 * @param person - The id of the person involved, 0 if none
+	 */
+	public synchronized void record(long time, int type, int elevator, int floor, int person){
+		if(channel == null)
+			return;
+		
+		if(buffer.remaining() < RECORD_SIZE)
+			writeBuffer();
+		
+		buffer.putLong(time);
+		buffer.putInt(type);
+		buffer.putInt(elevator);
+		buffer.putInt(floor);
+		buffer.putInt(person);
+	}
+	
+	/**
+	 * Writes every record so far to the file.
+	 */
+	public synchronized void flush(){
+		if(channel != null)
+			writeBuffer();
+	}
+	
+	/**
+	 * Writes every record so far and closes the file.
+	 */
+	public synchronized void close(){
+		if(channel == null)
+			return;
+		
+		writeBuffer();
+		try{
+			channel.close();
+		}catch(IOException e){
+			e.printStackTrace();
+		}
+		channel = null;
+	}
+	
+	/**
+	 * Writes the buffered records to the channel and empties the buffer. Stops
+	 * tracing if the file can no longer be written.
+	 */
+	private void writeBuffer(){
+		buffer.flip();
+		try{
+			while(buffer.hasRemaining()){
+				channel.write(buffer);
+			}
+		}catch(IOException e){
+			e.printStackTrace();
+			channel = null;
+		}
+		buffer.clear();
+	}
+
+}
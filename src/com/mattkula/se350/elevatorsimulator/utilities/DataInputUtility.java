@@ -5,6 +5,7 @@ import java.io.FileNotFoundException;
 import java.util.Scanner;
 
 import com.mattkula.se350.elevatorsimulator.building.BuildingStatsDTO;
+import com.mattkula.se350.elevatorsimulator.building.OriginDestinationMatrix;
 import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
 
 /**
@@ -53,10 +54,10 @@ public class DataInputUtility {
 		
 		int personsPerMinute = Integer.parseInt(args[counter++].trim());
 		
-		int[] startDestPct = new int[floors];
+		double[] startDestPct = new double[floors];
 		
 		for(int i = 0; i < floors; i++){
-			startDestPct[i] = Integer.parseInt(args[counter++].trim());
+			startDestPct[i] = Double.parseDouble(args[counter++].trim());
 		}
 		
 		returnObject = new BuildingStatsDTO(duration, scale, floors, elevators, maxPersons, msPerFloor,
@@ -66,4 +67,79 @@ public class DataInputUtility {
 		
 		return returnObject;
 	}
+	
+	/**
+	 * Gets all simulation data from a file, along with the trips between floors from a second file.
+	 * @param inputFile - the File to get the data from
+	 * @param matrixFile - the File to get the origin-destination matrix from
+	 * @return BuildingStatsDTO that contains all neccessary simulation data.
+	 * @throws InvalidArgumentException if the Data in either file is incorrect/illegal
+	 * @throws FileNotFoundException if either filename is not a valid file. 
+	 * @see #getOriginDestinationMatrixFromFile(String, int)
+	 */
+	public static BuildingStatsDTO getBuildingInfoFromFile(String inputFile, String matrixFile) throws InvalidArgumentException, FileNotFoundException{
+		BuildingStatsDTO buildingStats = getBuildingInfoFromFile(inputFile);
+		buildingStats.setOriginDestinationMatrix(getOriginDestinationMatrixFromFile(matrixFile, buildingStats.getNumOfFloors()));
+		return buildingStats;
+	}
+	
+	/**
+	 * Gets the trips between floors from a file. Each line is the comma separated weights of
+	 * the trips from one floor to every floor, starting with the first floor. A line of
+	 * "window, minute" starts the matrix of the part of the day beginning at that simulated
+	 * minute. Blank lines and lines starting with # are skipped.
+	 * @param inputFile - the File to get the matrix from
+	 * @param numOfFloors - the number of floors in the building
+	 * @return The origin-destination matrix
+	 * @throws InvalidArgumentException if the Data in the file is incorrect/illegal
+	 * @throws FileNotFoundException if the filename is not a valid file. 
+	 */
+	public static OriginDestinationMatrix getOriginDestinationMatrixFromFile(String inputFile, int numOfFloors) throws InvalidArgumentException, FileNotFoundException{
+		OriginDestinationMatrix matrix = new OriginDestinationMatrix(numOfFloors);
+		Scanner s = new Scanner(new File(inputFile));
+		
+		try{
+			int window = 0;
+			int origin = 0;
+			while(s.hasNextLine()){
+				String line = s.nextLine().trim();
+				if(line.isEmpty() || line.startsWith("#"))
+					continue;
+				
+				String[] args = line.split(",");
+				if(args[0].trim().equalsIgnoreCase("window")){
+					if(args.length != 2)
+						throw new InvalidArgumentException("Window line must give the minute it starts: " + line);
+					
+					double startMinute = Double.parseDouble(args[1].trim());
+					if(origin != 0 || startMinute != 0){
+						if(origin != numOfFloors)
+							throw new InvalidArgumentException("Origin-destination window " + window + " must have " + numOfFloors + " rows");
+						window = matrix.addWindow(startMinute);
+					}
+					origin = 0;
+					continue;
+				}
+				
+				if(++origin > numOfFloors)
+					throw new InvalidArgumentException("Origin-destination window " + window + " must have " + numOfFloors + " rows");
+				if(args.length != numOfFloors)
+					throw new InvalidArgumentException("Origin-destination row for floor " + origin + " must have " + numOfFloors + " weights");
+				
+				for(int destination = 1; destination <= numOfFloors; destination++){
+					matrix.setTrips(window, origin, destination, Double.parseDouble(args[destination - 1].trim()));
+				}
+			}
+			
+			if(origin != numOfFloors)
+				throw new InvalidArgumentException("Origin-destination window " + window + " must have " + numOfFloors + " rows");
+		}catch(NumberFormatException e){
+			throw new InvalidArgumentException("Origin-destination weight is not a number: " + e.getMessage());
+		}finally{
+			s.close();
+		}
+		
+		matrix.validate();
+		return matrix;
+	}
 }
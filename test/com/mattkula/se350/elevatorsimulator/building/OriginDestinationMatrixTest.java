@@ -0,0 +1,40 @@
+package com.mattkula.se350.elevatorsimulator.building;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+
+public class OriginDestinationMatrixTest {
+
+	//Tests that each window keeps its own trips and trips to the same floor are ignored
+	@Test
+	public void testWindows() throws InvalidArgumentException{
+		OriginDestinationMatrix matrix = new OriginDestinationMatrix(3);
+		matrix.setTrips(0, 1, 3, 4);
+		matrix.setTrips(0, 2, 2, 9);
+		assertEquals(1, matrix.addWindow(30));
+		matrix.setTrips(1, 3, 1, 2.5);
+		
+		assertEquals(0, matrix.windowAt(30 * 60000 - 1));
+		assertEquals(1, matrix.windowAt(30 * 60000));
+		assertArrayEquals(new double[]{0, 0, 4, 0, 0, 0, 0, 0, 0}, matrix.getWindow(0), 0);
+		assertArrayEquals(new double[]{0, 0, 0, 0, 0, 0, 2.5, 0, 0}, matrix.getWindow(1), 0);
+	}
+	
+	@Test(expected=InvalidArgumentException.class)
+	public void testEmptyWindow() throws InvalidArgumentException{
+		OriginDestinationMatrix matrix = new OriginDestinationMatrix(3);
+		matrix.setTrips(0, 1, 2, 1);
+		matrix.addWindow(10);
+		matrix.validate();
+	}
+	
+	@Test(expected=InvalidArgumentException.class)
+	public void testTripOutsideBuilding() throws InvalidArgumentException{
+		new OriginDestinationMatrix(3).setTrips(0, 4, 1, 1);
+	}
+
+}
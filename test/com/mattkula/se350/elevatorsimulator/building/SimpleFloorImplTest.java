@@ -0,0 +1,98 @@
+package com.mattkula.se350.elevatorsimulator.building;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.mattkula.se350.elevatorsimulator.elevator.Elevator;
+import com.mattkula.se350.elevatorsimulator.elevator.ElevatorFactory;
+import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+import com.mattkula.se350.elevatorsimulator.logging.EventLog;
+import com.mattkula.se350.elevatorsimulator.person.Person;
+import com.mattkula.se350.elevatorsimulator.person.PersonGenerator;
+import com.mattkula.se350.elevatorsimulator.simulation.DiscreteEventEngine;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
+
+public class SimpleFloorImplTest {
+	
+	SimulationContext context;
+	SimpleFloorImpl floor;
+	
+	@Before
+	public void setup() throws InvalidArgumentException{
+		context = new SimulationContext();
+		context.setLog(EventLog.disabled());
+		FloorManager.initialize(context, 10);
+		floor = new SimpleFloorImpl(context, 5);
+	}
+	
+	/**
+	 * Creates an elevator on floor 5 that only moves when its engine is run.
+	 */
+	private Elevator elevatorOnFloor() throws InvalidArgumentException{
+		Elevator e = ElevatorFactory.build(context, 1, 5, 1000, 2000);
+		e.scheduleOn(new DiscreteEventEngine());
+		return e;
+	}
+	
+	//Tests that a waiting elevator takes whoever waited longest, then only people going their way
+	@Test
+	public void testWaitingElevatorFollowsFirstPerson() throws InvalidArgumentException{
+		floor.addPerson(PersonGenerator.build(context, 1, 5, 2));
+		floor.addPerson(PersonGenerator.build(context, 2, 5, 9));
+		floor.addPerson(PersonGenerator.build(context, 3, 5, 1));
+		floor.addPerson(PersonGenerator.build(context, 4, 5, 8));
+		
+		Elevator e = elevatorOnFloor();
+		floor.addPeopleToElevator(e);
+		
+		assertEquals(Elevator.Status.MOVING_DOWN, e.getStatus());
+		assertEquals("[2, 1]", e.getRemainingDestinations());
+		assertEquals(0, floor.downQueue.size());
+		assertEquals(2, floor.upQueue.size());
+	}
+	
+	//Tests that people board in the order they arrived until the elevator is full
+	@Test
+	public void testBoardsInOrderUntilFull() throws InvalidArgumentException{
+		for(int i = 1; i <= 15; i++){
+			floor.addPerson(PersonGenerator.build(context, i, 5, 6 + i % 5));
+		}
+		
+		Elevator e = elevatorOnFloor();
+		e.addDestination(10);
+		floor.addPeopleToElevator(e);
+		
+		assertEquals(5, floor.upQueue.size());
+		assertEquals(11, floor.upQueue.peek().getId());
+	}
+	
+	//Tests that people told to take a different elevator are left waiting for it
+	@Test
+	public void testOnlyAssignedPeopleBoard() throws InvalidArgumentException{
+		Person assignedElsewhere = PersonGenerator.build(context, 1, 5, 9);
+		assignedElsewhere.setAssignedElevator(2);
+		floor.addPerson(assignedElsewhere);
+		floor.addPerson(PersonGenerator.build(context, 2, 5, 7));
+		floor.addPerson(PersonGenerator.build(context, 3, 5, 1));
+		
+		Elevator e = elevatorOnFloor();
+		floor.addPeopleToElevator(e);
+		
+		assertEquals(Elevator.Status.MOVING_UP, e.getStatus());
+		assertEquals("[7]", e.getRemainingDestinations());
+		assertEquals(1, floor.upQueue.size());
+		assertEquals(1, floor.upQueue.peek().getId());
+	}
+	
+	//Tests that somebody who arrived at the floor is not left waiting there
+	@Test
+	public void testArrivedPersonNotQueued() throws InvalidArgumentException{
+		floor.addPerson(PersonGenerator.build(context, 1, 2, 5));
+		
+		assertEquals(0, floor.upQueue.size());
+		assertEquals(0, floor.downQueue.size());
+	}
+
+}
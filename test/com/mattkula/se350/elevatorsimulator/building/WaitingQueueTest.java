@@ -0,0 +1,166 @@
+package com.mattkula.se350.elevatorsimulator.building;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+import com.mattkula.se350.elevatorsimulator.person.Person;
+import com.mattkula.se350.elevatorsimulator.person.PersonGenerator;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
+
+public class WaitingQueueTest {
+
+	//Tests that people leave in the order they arrived while the queue wraps around and grows
+	@Test
+	public void testFirstInFirstOut() throws InvalidArgumentException{
+		SimulationContext context = new SimulationContext();
+		FloorManager.initialize(context, 2);
+		WaitingQueue queue = new WaitingQueue();
+		int next = 1;
+		
+		for(int id = 1; id <= 100; id++){
+			queue.add(PersonGenerator.build(context, id, 1, 2), id);
+			if(id % 3 == 0){
+				assertEquals(next, queue.peekArrival());
+				assertEquals(next++, queue.poll().getId());
+			}
+		}
+		
+		assertEquals(67, queue.size());
+		while(!queue.isEmpty()){
+			assertEquals(next++, queue.poll().getId());
+		}
+		assertNull(queue.poll());
+		assertEquals(Long.MAX_VALUE, queue.peekArrival());
+	}
+	
+	//Tests removing somebody from the middle of the queue
+	@Test
+	public void testRemove() throws InvalidArgumentException{
+		SimulationContext context = new SimulationContext();
+		FloorManager.initialize(context, 2);
+		WaitingQueue queue = new WaitingQueue();
+		for(int id = 1; id <= 5; id++){
+			queue.add(PersonGenerator.build(context, id, 1, 2), id);
+		}
+		
+		assertTrue(queue.remove(3));
+		assertFalse(queue.remove(3));
+		assertEquals(4, queue.size());
+		assertEquals(1, queue.poll().getId());
+		assertEquals(2, queue.poll().getId());
+		assertEquals(4, queue.poll().getId());
+		assertEquals(5, queue.peekArrival());
+	}
+	
+	//Tests finding the people who may take an elevator and removing them in place
+	@Test
+	public void testIndexForAssignedElevator() throws InvalidArgumentException{
+		SimulationContext context = new SimulationContext();
+		FloorManager.initialize(context, 2);
+		WaitingQueue queue = new WaitingQueue();
+		for(int id = 1; id <= 4; id++){
+			Person person = PersonGenerator.build(context, id, 1, 2);
+			person.setAssignedElevator(id % 2 == 0 ? 2 : 1);
+			queue.add(person, id);
+		}
+		
+		assertEquals(1, queue.indexFor(2, 0));
+		assertEquals(3, queue.indexFor(2, 2));
+		assertEquals(-1, queue.indexFor(3, 0));
+		assertEquals(2, queue.removeAt(1).getId());
+		assertEquals(2, queue.indexFor(2, 1));
+		assertEquals(3, queue.arrivalAt(1));
+		assertEquals(3, queue.size());
+	}
+	
+	//Tests finding where the people who arrived after someone start
+	@Test
+	public void testIndexAfter() throws InvalidArgumentException{
+		SimulationContext context = new SimulationContext();
+		FloorManager.initialize(context, 2);
+		WaitingQueue queue = new WaitingQueue();
+		for(int id = 1; id <= 40; id++){
+			queue.add(PersonGenerator.build(context, id, 1, 2), id * 10);
+		}
+		queue.poll();		// Moves the front of the queue off index 0
+		
+		assertEquals(0, queue.indexAfter(-1));
+		assertEquals(0, queue.indexAfter(15));
+		assertEquals(1, queue.indexAfter(20));
+		assertEquals(38, queue.indexAfter(399));
+		assertEquals(39, queue.indexAfter(400));
+	}
+	
+	//Tests that people offered out of order are drained into the order they arrived
+	@Test
+	public void testDrainKeepsArrivalOrder() throws InvalidArgumentException{
+		SimulationContext context = new SimulationContext();
+		FloorManager.initialize(context, 2);
+		WaitingQueue queue = new WaitingQueue();
+		long[] arrivals = {5, 2, 8, 1, 6};
+		for(int i = 0; i < arrivals.length; i++){
+			queue.offer(PersonGenerator.build(context, i + 1, 1, 2), arrivals[i]);
+		}
+		
+		assertEquals(0, queue.size());		// Not seen until drained
+		queue.drain();
+		assertEquals(5, queue.size());
+		
+		long last = -1;
+		while(!queue.isEmpty()){
+			assertTrue(queue.peekArrival() > last);
+			last = queue.peekArrival();
+			queue.poll();
+		}
+	}
+	
+	//Tests that people offered from many threads at once are all drained, in the order they arrived
+	@Test
+	public void testConcurrentOffers() throws InvalidArgumentException, InterruptedException{
+		final SimulationContext context = new SimulationContext();
+		FloorManager.initialize(context, 2);
+		final WaitingQueue queue = new WaitingQueue();
+		final AtomicLong arrivals = new AtomicLong();
+		final Person person = PersonGenerator.build(context, 1, 1, 2);
+		
+		Thread[] threads = new Thread[4];
+		for(int t = 0; t < threads.length; t++){
+			threads[t] = new Thread(){
+				public void run(){
+					for(int i = 0; i < 10000; i++){
+						queue.offer(person, arrivals.getAndIncrement());
+					}
+				}
+			};
+			threads[t].start();
+		}
+		
+		int drained = 0;
+		long next = 0;
+		while(drained < 40000){
+			synchronized(queue){		// Drain while the others are still offering
+				queue.drain();
+				while(!queue.isEmpty() && queue.peekArrival() == next){
+					queue.poll();
+					next++;
+					drained++;
+				}
+			}
+		}
+		for(Thread thread : threads){
+			thread.join();
+		}
+		
+		queue.drain();
+		assertEquals(0, queue.size());
+		assertEquals(40000, next);
+	}
+
+}
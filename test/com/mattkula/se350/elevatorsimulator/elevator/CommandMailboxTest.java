@@ -0,0 +1,133 @@
+package com.mattkula.se350.elevatorsimulator.elevator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.mattkula.se350.elevatorsimulator.simulation.RealTimeClock;
+
+public class CommandMailboxTest {
+
+	//Tests that commands are taken in the order they were posted, with their latencies recorded
+	@Test
+	public void testTakeInOrder(){
+		CommandMailbox mailbox = new CommandMailbox(10);
+		mailbox.post(7, 1000);
+		mailbox.post(2, 1500);
+		mailbox.post(9, 2000);
+
+		assertTrue(mailbox.peek());
+		assertEquals(7, mailbox.getStory());
+		mailbox.take(2500);
+		assertTrue(mailbox.peek());
+		assertEquals(2, mailbox.getStory());
+		mailbox.take(2500);
+		assertTrue(mailbox.peek());
+		assertEquals(9, mailbox.getStory());
+		mailbox.take(2500);
+		assertFalse(mailbox.peek());
+		assertTrue(mailbox.isEmpty());
+
+		assertEquals(3, mailbox.getLatencies().getCount());
+		assertEquals(1500, mailbox.getLatencies().getMax());
+		assertEquals(500, mailbox.getLatencies().getMin());
+	}
+
+	//Tests that a story already waiting is not posted again, so the mailbox never holds more commands than floors
+	@Test
+	public void testDuplicateStoriesMerged(){
+		CommandMailbox mailbox = new CommandMailbox(3);
+		for(int lap = 0; lap < 100; lap++){
+			for(int story = 1; story <= 3; story++){
+				mailbox.post(story, 0);
+				mailbox.post(story, 0);
+			}
+
+			for(int story = 1; story <= 3; story++){
+				assertTrue(mailbox.peek());
+				assertEquals(story, mailbox.getStory());
+				mailbox.take(0);
+			}
+			assertFalse(mailbox.peek());
+		}
+
+		assertEquals(300, mailbox.getPostCount());
+	}
+
+	//Tests that the stories waiting are copied in the order they were posted, and stay until they are taken
+	@Test
+	public void testCopyPending(){
+		CommandMailbox mailbox = new CommandMailbox(10);
+		int[] pending = new int[10];
+		assertEquals(0, mailbox.copyPending(pending));
+
+		mailbox.post(8, 0);
+		mailbox.post(2, 0);
+		mailbox.post(8, 0);
+		assertEquals(2, mailbox.copyPending(pending));
+		assertEquals(8, pending[0]);
+		assertEquals(2, pending[1]);
+
+		assertTrue(mailbox.peek());
+		assertEquals(2, mailbox.copyPending(pending));		// Only looked at, not taken yet
+		mailbox.take(0);
+		assertEquals(1, mailbox.copyPending(pending));
+		assertEquals(2, pending[0]);
+	}
+
+	//Tests that every command posted from many threads at once is taken while a parked elevator is woken up for them
+	@Test
+	public void testConcurrentPosts() throws InterruptedException{
+		final int floors = 16;
+		final CommandMailbox mailbox = new CommandMailbox(floors);
+		final int[] taken = new int[floors + 1];
+
+		Thread elevator = new Thread(){
+			public void run(){
+				RealTimeClock clock = new RealTimeClock();
+				while(true){
+					while(mailbox.peek()){
+						taken[mailbox.getStory()]++;
+						mailbox.take(0);
+					}
+
+					if(Thread.currentThread().isInterrupted() && mailbox.isEmpty())
+						return;
+					mailbox.park(clock, 0);
+				}
+			}
+		};
+		elevator.start();
+
+		Thread[] posters = new Thread[4];
+		for(int t = 0; t < posters.length; t++){
+			final int first = t;
+			posters[t] = new Thread(){
+				public void run(){
+					for(int i = 0; i < 20000; i++){
+						mailbox.post((first + i) % floors + 1, 0);
+					}
+				}
+			};
+			posters[t].start();
+		}
+
+		for(Thread poster : posters){
+			poster.join();
+		}
+		elevator.interrupt();		// Unparks the elevator, which stops once the mailbox is empty
+		elevator.join(10000);
+
+		assertFalse(elevator.isAlive());
+		int total = 0;
+		for(int story = 1; story <= floors; story++){
+			assertTrue(taken[story] > 0);
+			total += taken[story];
+		}
+		assertEquals(mailbox.getPostCount(), total);
+		assertEquals(total, mailbox.getLatencies().getCount());
+	}
+
+}
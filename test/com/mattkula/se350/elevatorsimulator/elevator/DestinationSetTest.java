@@ -0,0 +1,97 @@
+package com.mattkula.se350.elevatorsimulator.elevator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class DestinationSetTest {
+
+	//Tests finding the next stop in each direction of a tall building
+	@Test
+	public void testNextStops(){
+		DestinationSet set = new DestinationSet(150);
+		set.add(120);
+		set.add(3);
+		set.add(70);
+		set.add(70);
+		
+		assertEquals(3, set.size());
+		assertEquals(3, set.lowest());
+		assertEquals(120, set.highest());
+		assertEquals(70, set.nextAbove(4));
+		assertEquals(70, set.nextAbove(70));
+		assertEquals(-1, set.nextAbove(121));
+		assertEquals(70, set.nextBelow(119));
+		assertEquals(-1, set.nextBelow(2));
+		
+		set.remove(70);
+		assertFalse(set.contains(70));
+		assertEquals(120, set.nextAbove(4));
+		
+		set.add(64);
+		set.add(63);
+		assertEquals(64, set.nextAbove(64));
+		assertEquals(63, set.nextBelow(63));
+		assertEquals(120, set.nextAbove(65));
+		assertEquals(-1, set.nextAbove(200));
+		assertEquals(120, set.nextBelow(200));
+	}
+	
+	//Tests that the stops are listed in the order they will be stopped at
+	@Test
+	public void testToString(){
+		DestinationSet set = new DestinationSet(15);
+		assertEquals("[]", set.toString(true));
+		
+		set.add(12);
+		set.add(4);
+		set.add(9);
+		assertEquals("[4, 9, 12]", set.toString(true));
+		assertEquals("[12, 9, 4]", set.toString(false));
+	}
+	
+	//Tests an empty set
+	@Test
+	public void testEmpty(){
+		DestinationSet set = new DestinationSet(15);
+		assertTrue(set.isEmpty());
+		assertEquals(-1, set.lowest());
+		assertEquals(-1, set.highest());
+		
+		set.add(15);
+		set.remove(15);
+		assertTrue(set.isEmpty());
+	}
+	
+	//Tests that the controller can read the set into a snapshot while the elevator changes it on another thread
+	@Test
+	public void testWriteToWhileChanging() throws InterruptedException{
+		final DestinationSet set = new DestinationSet(10);
+		final ElevatorSnapshot snapshot = new ElevatorSnapshot(1, 10);
+		final Throwable[] failure = new Throwable[1];
+		Thread reader = new Thread(){
+			public void run(){
+				try{
+					for(int i = 0; i < 200000; i++){
+						set.writeTo(snapshot, 0);
+						assertTrue(snapshot.getDestinationCount(0) <= 1);
+					}
+				}catch(Throwable t){
+					failure[0] = t;
+				}
+			}
+		};
+		reader.start();
+		
+		while(reader.isAlive()){
+			set.add(5);
+			set.remove(5);
+		}
+		reader.join();
+		assertEquals(null, failure[0]);
+		assertTrue(set.isEmpty());
+	}
+
+}
@@ -0,0 +1,93 @@
+package com.mattkula.se350.elevatorsimulator.elevator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ElevatorSnapshotTest {
+
+	//Tests that destinations past the first 64 floors are kept apart for each elevator
+	@Test
+	public void testDestinationsOfTallBuilding(){
+		ElevatorSnapshot snapshot = new ElevatorSnapshot(3, 150);
+		snapshot.addDestination(1, 1);
+		snapshot.addDestination(1, 64);
+		snapshot.addDestination(1, 65);
+		snapshot.addDestination(1, 150);
+		
+		assertTrue(snapshot.hasDestination(1, 64));
+		assertTrue(snapshot.hasDestination(1, 65));
+		assertTrue(snapshot.hasDestination(1, 150));
+		assertFalse(snapshot.hasDestination(1, 66));
+		assertFalse(snapshot.hasDestination(0, 65));
+		assertFalse(snapshot.hasDestination(2, 1));
+		assertEquals(4, snapshot.getDestinationCount(1));
+		
+		snapshot.clearDestinations(1);
+		assertEquals(0, snapshot.getDestinationCount(1));
+	}
+	
+	//Tests counting the destinations between two stories, across the 64 floor boundary
+	@Test
+	public void testDestinationCountBetween(){
+		ElevatorSnapshot snapshot = new ElevatorSnapshot(2, 150);
+		snapshot.addDestination(1, 1);
+		snapshot.addDestination(1, 63);
+		snapshot.addDestination(1, 64);
+		snapshot.addDestination(1, 65);
+		snapshot.addDestination(1, 128);
+		snapshot.addDestination(1, 129);
+		snapshot.addDestination(1, 150);
+		
+		assertEquals(7, snapshot.getDestinationCount(1, 1, 150));
+		assertEquals(7, snapshot.getDestinationCount(1, -5, 200));
+		assertEquals(3, snapshot.getDestinationCount(1, 63, 65));
+		assertEquals(4, snapshot.getDestinationCount(1, 64, 129));
+		assertEquals(0, snapshot.getDestinationCount(1, 66, 127));
+		assertEquals(1, snapshot.getDestinationCount(1, 150, 150));
+		assertEquals(0, snapshot.getDestinationCount(1, 10, 5));
+		assertEquals(0, snapshot.getDestinationCount(0, 1, 150));
+	}
+	
+	//Tests building a snapshot from ElevatorDTOs
+	@Test
+	public void testOfElevatorDTOs(){
+		ElevatorDTO[] dtos = new ElevatorDTO[2];
+		dtos[0] = new ElevatorDTO();
+		dtos[0].currentFloor = 3;
+		dtos[0].status = Elevator.Status.MOVING_UP;
+		dtos[0].remainingDestinations = "[5, 9]";
+		dtos[1] = new ElevatorDTO();
+		dtos[1].currentFloor = 1;
+		dtos[1].status = Elevator.Status.WAITING;
+		
+		ElevatorSnapshot snapshot = ElevatorSnapshot.of(dtos);
+		assertEquals(2, snapshot.size());
+		assertEquals(3, snapshot.getCurrentFloor(0));
+		assertEquals(Elevator.Status.MOVING_UP, snapshot.getStatus(0));
+		assertTrue(snapshot.hasDestination(0, 5));
+		assertTrue(snapshot.hasDestination(0, 9));
+		assertEquals(2, snapshot.getDestinationCount(0));
+		assertTrue(snapshot.isWaiting(1));
+		assertEquals(0, snapshot.getDestinationCount(1));
+	}
+
+	//Tests that a command is recorded the way the elevator will take it, moving a waiting elevator and ignoring stories behind a moving one
+	@Test
+	public void testAddCommand(){
+		ElevatorSnapshot snapshot = new ElevatorSnapshot(1, 10);
+		snapshot.set(0, 5, Elevator.Status.WAITING_DEFAULT, 0);
+		
+		assertTrue(snapshot.addCommand(0, 5));
+		assertTrue(snapshot.isWaiting(0));
+		assertTrue(snapshot.addCommand(0, 8));
+		assertEquals(Elevator.Status.MOVING_UP, snapshot.getStatus(0));
+		assertFalse(snapshot.addCommand(0, 2));
+		assertFalse(snapshot.hasDestination(0, 2));
+		assertTrue(snapshot.addCommand(0, 9));
+		assertEquals(3, snapshot.getDestinationCount(0));
+	}
+
+}
@@ -1,6 +1,8 @@
 package com.mattkula.se350.elevatorsimulator.elevator;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import org.junit.BeforeClass;
@@ -8,8 +10,11 @@ import org.junit.Test;
 
 import com.mattkula.se350.elevatorsimulator.building.Building;
 import com.mattkula.se350.elevatorsimulator.building.BuildingStatsDTO;
+import com.mattkula.se350.elevatorsimulator.building.FloorManager;
 import com.mattkula.se350.elevatorsimulator.elevatorcontroller.ElevatorController;
 import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+import com.mattkula.se350.elevatorsimulator.logging.EventLog;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
 
 public class SimpleElevatorImplTest {
 	
@@ -36,6 +41,29 @@ public class SimpleElevatorImplTest {
 		ec.sendRequestToElevator(1, 20);
 	}
 	
+	//Tests that commands not taken yet are written to a snapshot the way the elevator will take them
+	@Test
+	public void testSnapshotShowsPendingCommands() throws InvalidArgumentException{
+		SimulationContext context = new SimulationContext();
+		context.setLog(EventLog.disabled());
+		FloorManager.initialize(context, 10);
+		SimpleElevatorImpl e = new SimpleElevatorImpl(context, 1, 5, 1000, 2200);	// Never started, so it takes no commands
+		ElevatorSnapshot snapshot = new ElevatorSnapshot(1, 10);
+		
+		e.sendCommand(8);
+		e.sendCommand(2);
+		e.writeTo(snapshot, 0);
+		assertEquals(Elevator.Status.WAITING_DEFAULT, e.getStatus());
+		assertEquals(Elevator.Status.MOVING_UP, snapshot.getStatus(0));
+		assertTrue(snapshot.hasDestination(0, 8));
+		assertFalse(snapshot.hasDestination(0, 2));		// Behind it once it moves up, so it will be ignored
+		
+		e.sendCommand(6);
+		e.writeTo(snapshot, 0);
+		assertTrue(snapshot.hasDestination(0, 6));
+		assertEquals(2, snapshot.getDestinationCount(0));
+	}
+	
 	//Tests movement of the elevator, taking approximately one second per floor
 	@Test
 	public void testElevatorApprxOneSecondPerFloor(){
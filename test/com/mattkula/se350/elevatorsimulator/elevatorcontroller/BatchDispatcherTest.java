@@ -0,0 +1,75 @@
+package com.mattkula.se350.elevatorsimulator.elevatorcontroller;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.mattkula.se350.elevatorsimulator.building.BuildingStatsDTO;
+import com.mattkula.se350.elevatorsimulator.building.FloorManager;
+import com.mattkula.se350.elevatorsimulator.elevator.ElevatorSnapshot;
+import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+import com.mattkula.se350.elevatorsimulator.logging.EventLog;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
+
+public class BatchDispatcherTest {
+
+	//Tests that the matching gives up the cheapest choice of one row when that makes the total smaller
+	@Test
+	public void testMinimumTotalCost(){
+		long[][] cost = {
+				{1, 2, 3},
+				{1, 5, 6},
+				{1, 9, 9}};
+		
+		assertArrayEquals(new int[]{1, 2, 0}, BatchDispatcher.match(cost));
+	}
+	
+	//Tests that the rows that cost the most are left out when there are more rows than columns
+	@Test
+	public void testMoreRowsThanColumns(){
+		long[][] cost = {
+				{4, 1},
+				{2, 3},
+				{1, 1}};
+		
+		assertArrayEquals(new int[]{1, -1, 0}, BatchDispatcher.match(cost));
+	}
+	
+	//Tests that an empty tick matches nothing
+	@Test
+	public void testNoCalls(){
+		assertArrayEquals(new int[0], BatchDispatcher.match(new long[0][3]));
+	}
+
+	//Tests that every call of a batch is either sent to an elevator that will stop for it or left pending, while the elevators have not taken the commands of earlier rounds
+	@Test
+	public void testDispatchLosesNoCalls() throws InvalidArgumentException, InterruptedException{
+		SimulationContext context = new SimulationContext();
+		context.setLog(EventLog.disabled());
+		FloorManager.initialize(context, 10);
+		// Not running, so the elevator threads end right away and never take their commands
+		ElevatorController.initialize(context, new BuildingStatsDTO(1, 1, 10, 1, 12, 1000, 2200, new int[]{5}, 0, new int[]{100, 0, 0, 0, 0, 0, 0, 0, 0, 0}), 
+				ElevatorController.DEFAULT_DECISION_DELEGATE, null);
+		ElevatorController controller = context.getElevatorController();
+		
+		int[] directions = {ElevatorController.UP, ElevatorController.DOWN, ElevatorController.UP};
+		int[] stories = {8, 2, 9};
+		HallCallTable hallCalls = controller.getHallCalls();
+		for(int c = 0; c < stories.length; c++){
+			hallCalls.register(directions[c], stories[c], c);
+		}
+		
+		BatchDispatcher dispatcher = new BatchDispatcher(new EtaElevatorDecisionDelegate(context, 1000, 2200), 1000000);
+		assertFalse(dispatcher.dispatch(controller, hallCalls));
+		assertTrue(hallCalls.size(ElevatorController.UP) + hallCalls.size(ElevatorController.DOWN) < stories.length);
+		
+		ElevatorSnapshot snapshot = controller.getElevatorSnapshot();
+		for(int c = 0; c < stories.length; c++){
+			assertTrue(hallCalls.isPending(directions[c], stories[c]) || snapshot.hasDestination(0, stories[c]));
+		}
+		assertTrue(controller.stopElevators());
+	}
+
+}
@@ -2,13 +2,28 @@ package com.mattkula.se350.elevatorsimulator.elevatorcontroller;
 
 import static org.junit.Assert.fail;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import com.mattkula.se350.elevatorsimulator.building.Building;
 import com.mattkula.se350.elevatorsimulator.building.BuildingStatsDTO;
 import com.mattkula.se350.elevatorsimulator.building.FloorManager;
+import com.mattkula.se350.elevatorsimulator.elevator.Elevator;
+import com.mattkula.se350.elevatorsimulator.elevator.ElevatorSnapshot;
 import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+import com.mattkula.se350.elevatorsimulator.logging.EventLog;
+import com.mattkula.se350.elevatorsimulator.simulation.DiscreteEventEngine;
+import com.mattkula.se350.elevatorsimulator.simulation.ScaledClock;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
+import com.mattkula.se350.elevatorsimulator.statistics.ReportGenerator;
 
 public class ElevatorControllerTest {
 	
@@ -61,4 +76,109 @@ public class ElevatorControllerTest {
 	public void testSendRequestSuccess() throws InvalidArgumentException{
 		ElevatorController.getInstance().sendRequestToElevator(1, 3);
 	}
+	
+	//Tests that the snapshot is refreshed in place and shows where each elevator is going
+	@Test
+	public void testElevatorSnapshot() throws InvalidArgumentException{
+		SimulationContext context = new SimulationContext();
+		context.setLog(EventLog.disabled());
+		FloorManager.initialize(context, 5);
+		ElevatorController.initialize(context, new BuildingStatsDTO(1, 1, 5, 2, 12, 1000, 2200, new int[]{1, 5}, 0, new int[]{100, 0, 0, 0, 0}), 
+				ElevatorController.DEFAULT_DECISION_DELEGATE, new DiscreteEventEngine());
+		ElevatorController controller = context.getElevatorController();
+		
+		ElevatorSnapshot snapshot = controller.getElevatorSnapshot();
+		assertEquals(2, snapshot.size());
+		assertEquals(5, snapshot.getCurrentFloor(1));
+		assertEquals(0, snapshot.getDestinationCount(0));
+		
+		controller.sendRequestToElevator(1, 4);
+		controller.sendRequestToElevator(1, 3);
+		assertSame(snapshot, controller.getElevatorSnapshot());
+		assertEquals(Elevator.Status.MOVING_UP, snapshot.getStatus(0));
+		assertTrue(snapshot.hasDestination(0, 3));
+		assertTrue(snapshot.hasDestination(0, 4));
+		assertFalse(snapshot.hasDestination(0, 5));
+		assertEquals(2, snapshot.getDestinationCount(0));
+		assertEquals(Elevator.Status.WAITING_DEFAULT, snapshot.getStatus(1));
+	}
+	
+	//Tests that a burst of calls in batched mode is spread across the elevators
+	@Test
+	public void testBatchedDispatchSpreadsCalls() throws InvalidArgumentException{
+		SimulationContext context = new SimulationContext();
+		context.setLog(EventLog.disabled());
+		FloorManager.initialize(context, 5);
+		context.setDispatchMode(ElevatorController.BATCHED_DISPATCH);
+		ElevatorController.initialize(context, new BuildingStatsDTO(1, 1, 5, 3, 12, 1000, 2200, new int[]{1, 1, 1}, 0, new int[]{100, 0, 0, 0, 0}), 
+				ElevatorController.DEFAULT_DECISION_DELEGATE, new DiscreteEventEngine());
+		ElevatorController controller = context.getElevatorController();
+		
+		assertEquals(0, controller.sendRequest(ElevatorController.UP, 3));
+		assertEquals(0, controller.sendRequest(ElevatorController.UP, 4));
+		assertEquals(0, controller.sendRequest(ElevatorController.UP, 5));
+		assertEquals(3, controller.getHallCalls().size(ElevatorController.UP));
+		
+		controller.checkIfPendingNowValid();
+		
+		ElevatorSnapshot snapshot = controller.getElevatorSnapshot();
+		assertTrue(controller.getHallCalls().isEmpty());
+		assertEquals(1, snapshot.getDestinationCount(0));
+		assertEquals(1, snapshot.getDestinationCount(1));
+		assertEquals(1, snapshot.getDestinationCount(2));
+	}
+	
+	//Tests that a call against the way an elevator has just been sent, before it takes the command, waits for it instead of being lost
+	@Test
+	public void testCallAgainstPendingCommandWaits() throws InvalidArgumentException, InterruptedException{
+		for(int delegate = ElevatorController.DEFAULT_DECISION_DELEGATE; delegate <= ElevatorController.IMPROVED_DECISION_DELEGATE; delegate++){
+			SimulationContext context = new SimulationContext();
+			context.setLog(EventLog.disabled());
+			context.setClock(new ScaledClock(10));
+			context.setRunning(true);
+			FloorManager.initialize(context, 10);
+			ElevatorController.initialize(context, new BuildingStatsDTO(1, 10, 10, 1, 12, 1000, 2200, new int[]{5}, 0, new int[]{100, 0, 0, 0, 0, 0, 0, 0, 0, 0}), 
+					delegate, null);
+			ElevatorController controller = context.getElevatorController();
+			
+			assertEquals(1, controller.sendRequest(ElevatorController.UP, 8));
+			assertEquals(0, controller.sendRequest(ElevatorController.DOWN, 2));
+			assertTrue(controller.getHallCalls().isPending(ElevatorController.DOWN, 2));
+			
+			long deadline = System.currentTimeMillis() + 5000;
+			while(controller.getElevatorData()[0].currentFloor != 2 && System.currentTimeMillis() < deadline){
+				controller.checkIfPendingNowValid();
+				Thread.sleep(5);
+			}
+			assertEquals(2, controller.getElevatorData()[0].currentFloor);
+			assertTrue(controller.getHallCalls().isEmpty());
+			
+			context.setRunning(false);
+			assertTrue(controller.stopElevators());
+		}
+	}
+	
+	//Tests that somebody told to take an elevator that boards the other direction calls another one in destination dispatch mode
+	@Test
+	public void testDestinationDispatchLeftBehindCallsAgain() throws IOException, InvalidArgumentException{
+		File file = File.createTempFile("passengers", ".csv");
+		file.deleteOnExit();
+		FileOutputStream out = new FileOutputStream(file);
+		out.write("0,5,1\n0,5,9\n".getBytes("US-ASCII"));		// Both are told to take the only elevator, which boards the first to arrive
+		out.close();
+		BuildingStatsDTO stats = new BuildingStatsDTO(5, 1, 10, 1, 8, 1000, 3000, new int[]{1}, 0, new int[]{10, 10, 10, 10, 10, 10, 10, 10, 10, 10});
+		
+		for(int delegate = ElevatorController.DEFAULT_DECISION_DELEGATE; delegate <= ElevatorController.ETA_DECISION_DELEGATE; delegate++){
+			SimulationContext context = new SimulationContext();
+			context.setOut(SimulationContext.discardingStream());
+			context.setLog(EventLog.disabled());
+			context.setPassengerLog(file.getPath());
+			context.setDispatchMode(ElevatorController.DESTINATION_DISPATCH);
+			new Building(context, stats, delegate, Building.FAST_SIMULATION, 1);
+			
+			ReportGenerator reports = context.getReportGenerator();
+			assertEquals(2, reports.getNumberOfReports());
+			assertTrue(reports.getAllWaitTimes().getMax() <= 40);	// Down to 1 and back up with three door operations
+		}
+	}
 }
@@ -0,0 +1,151 @@
+package com.mattkula.se350.elevatorsimulator.elevatorcontroller;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.mattkula.se350.elevatorsimulator.building.Building;
+import com.mattkula.se350.elevatorsimulator.building.BuildingStatsDTO;
+import com.mattkula.se350.elevatorsimulator.elevator.Elevator;
+import com.mattkula.se350.elevatorsimulator.elevator.ElevatorDTO;
+import com.mattkula.se350.elevatorsimulator.elevator.ElevatorSnapshot;
+import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+import com.mattkula.se350.elevatorsimulator.logging.EventLog;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
+import com.mattkula.se350.elevatorsimulator.statistics.ReportGenerator;
+
+public class EtaElevatorDecisionDelegateTest {
+
+	static ElevatorDTO[] dtos;
+	static ElevatorDecisionDelegate delegate;
+	
+	@BeforeClass
+	public static void setup(){
+		delegate = new EtaElevatorDecisionDelegate(1000, 3000);
+		dtos = new ElevatorDTO[4];
+		
+		dtos[0] = new ElevatorDTO();
+		dtos[0].currentFloor = 1;
+		dtos[0].status = Elevator.Status.WAITING_DEFAULT;
+		dtos[0].remainingDestinations = "[]";
+		
+		dtos[1] = new ElevatorDTO();
+		dtos[1].currentFloor = 6;
+		dtos[1].status = Elevator.Status.MOVING_DOWN;
+		dtos[1].remainingDestinations = "[]";
+		
+		dtos[2] = new ElevatorDTO();
+		dtos[2].currentFloor = 8;
+		dtos[2].status = Elevator.Status.MOVING_UP;
+		dtos[2].remainingDestinations = "[]";
+		
+		dtos[3] = new ElevatorDTO();
+		dtos[3].currentFloor = 7;
+		dtos[3].status = Elevator.Status.WAITING;
+		dtos[3].remainingDestinations = "[]";
+	}
+	
+	@Test
+	public void testFloorOneRequestWithElevatorThere(){
+		assertEquals(1, delegate.getBestElevator(ElevatorController.UP, 1, dtos));
+	}
+	
+	@Test
+	public void testAddDownToMovingDown(){
+		assertEquals(2, delegate.getBestElevator(ElevatorController.DOWN, 5, dtos));
+	}
+	
+	@Test
+	public void testAddUpToMovingUp(){
+		assertEquals(3, delegate.getBestElevator(ElevatorController.UP, 9, dtos));
+	}
+	
+	@Test
+	public void testClosestWaiting(){
+		assertEquals(4, delegate.getBestElevator(ElevatorController.DOWN, 8, dtos));
+	}
+	
+	//Tests that the stops an elevator has on the way count against it
+	@Test
+	public void testStopsOnTheWay(){
+		ElevatorDTO[] data = new ElevatorDTO[2];
+		
+		data[0] = new ElevatorDTO();
+		data[0].currentFloor = 2;
+		data[0].status = Elevator.Status.MOVING_UP;
+		data[0].remainingDestinations = "[3, 4, 5]";
+		
+		data[1] = new ElevatorDTO();
+		data[1].currentFloor = 12;
+		data[1].status = Elevator.Status.WAITING;
+		data[1].remainingDestinations = "[]";
+		
+		assertEquals(2, delegate.getBestElevator(ElevatorController.UP, 6, data));
+		
+		data[0].remainingDestinations = "[7, 9]";
+		assertEquals(1, delegate.getBestElevator(ElevatorController.UP, 6, data));
+	}
+	
+	//Tests that a full elevator is never sent, even when it is the closest
+	@Test
+	public void testFullElevatorSkipped(){
+		ElevatorSnapshot snapshot = new ElevatorSnapshot(2, 10);
+		snapshot.set(0, 5, Elevator.Status.WAITING, 8);
+		snapshot.setCapacity(0, 8);
+		snapshot.set(1, 1, Elevator.Status.WAITING, 0);
+		snapshot.setCapacity(1, 8);
+		
+		assertEquals(2, delegate.getBestElevator(ElevatorController.UP, 5, snapshot));
+		
+		snapshot.set(1, 1, Elevator.Status.MOVING_DOWN, 8);
+		assertEquals(0, delegate.getBestElevator(ElevatorController.UP, 5, snapshot));
+	}
+	
+	//Tests that nothing is sent when every elevator is moving away from the request
+	@Test
+	public void testNoGoodFit(){
+		ElevatorDTO[] data = new ElevatorDTO[2];
+		
+		data[0] = new ElevatorDTO();
+		data[0].currentFloor = 4;
+		data[0].status = Elevator.Status.MOVING_UP;
+		data[0].remainingDestinations = "[10]";
+		
+		data[1] = new ElevatorDTO();
+		data[1].currentFloor = 5;
+		data[1].status = Elevator.Status.MOVING_DOWN;
+		data[1].remainingDestinations = "[1]";
+		
+		assertEquals(0, delegate.getBestElevator(ElevatorController.DOWN, 6, data));
+		assertEquals(0, delegate.getBestElevator(ElevatorController.UP, 3, data));
+	}
+	
+	//Tests that somebody left behind when an elevator boards the other direction calls it again, with every delegate
+	@Test
+	public void testLeftBehindWaitIsBounded() throws IOException, InvalidArgumentException{
+		File file = File.createTempFile("passengers", ".csv");
+		file.deleteOnExit();
+		FileOutputStream out = new FileOutputStream(file);
+		out.write("0,5,1\n0,5,9\n".getBytes("US-ASCII"));		// Both calls go to the elevator waiting below, which then boards the first to arrive
+		out.close();
+		BuildingStatsDTO stats = new BuildingStatsDTO(5, 1, 10, 1, 8, 1000, 3000, new int[]{1}, 0, new int[]{10, 10, 10, 10, 10, 10, 10, 10, 10, 10});
+		
+		for(int whichDelegate = ElevatorController.DEFAULT_DECISION_DELEGATE; whichDelegate <= ElevatorController.ETA_DECISION_DELEGATE; whichDelegate++){
+			SimulationContext context = new SimulationContext();
+			context.setOut(SimulationContext.discardingStream());
+			context.setLog(EventLog.disabled());
+			context.setPassengerLog(file.getPath());
+			new Building(context, stats, whichDelegate, Building.FAST_SIMULATION, 1);
+			
+			ReportGenerator reports = context.getReportGenerator();
+			assertEquals(2, reports.getNumberOfReports());
+			assertTrue(reports.getAllWaitTimes().getMax() <= 40);	// Down to 1 and back up with three door operations
+		}
+	}
+
+}
@@ -0,0 +1,60 @@
+package com.mattkula.se350.elevatorsimulator.elevatorcontroller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class HallCallTableTest {
+
+	//Tests that calls are kept in the order they were made and cleared from anywhere
+	@Test
+	public void testRegistrationOrder(){
+		HallCallTable table = new HallCallTable(10);
+		assertTrue(table.register(ElevatorController.UP, 7, 1000));
+		assertTrue(table.register(ElevatorController.UP, 2, 2000));
+		assertTrue(table.register(ElevatorController.UP, 9, 3000));
+		assertFalse(table.register(ElevatorController.UP, 2, 4000));
+		assertTrue(table.register(ElevatorController.DOWN, 2, 5000));
+		
+		assertEquals(3, table.size(ElevatorController.UP));
+		assertEquals(7, table.getOldest(ElevatorController.UP));
+		assertEquals(2, table.getNext(ElevatorController.UP, 7));
+		assertEquals(9, table.getNext(ElevatorController.UP, 2));
+		assertEquals(0, table.getNext(ElevatorController.UP, 9));
+		
+		assertTrue(table.clear(ElevatorController.UP, 2));
+		assertFalse(table.clear(ElevatorController.UP, 2));
+		assertEquals(9, table.getNext(ElevatorController.UP, 7));
+		assertTrue(table.clear(ElevatorController.UP, 7));
+		assertEquals(9, table.getOldest(ElevatorController.UP));
+		assertTrue(table.isPending(ElevatorController.DOWN, 2));
+	}
+	
+	//Tests the waiting age of a call
+	@Test
+	public void testAge(){
+		HallCallTable table = new HallCallTable(10);
+		table.register(ElevatorController.DOWN, 4, 1500);
+		
+		assertEquals(1500, table.getRegisteredAt(ElevatorController.DOWN, 4));
+		assertEquals(8500, table.getAge(ElevatorController.DOWN, 4, 10000));
+		assertEquals(-1, table.getAge(ElevatorController.UP, 4, 10000));
+	}
+	
+	//Tests that the table is empty once every call is cleared
+	@Test
+	public void testEmpty(){
+		HallCallTable table = new HallCallTable(10);
+		assertTrue(table.isEmpty());
+		
+		table.register(ElevatorController.UP, 10, 0);
+		assertFalse(table.isEmpty());
+		
+		table.clear(ElevatorController.UP, 10);
+		assertTrue(table.isEmpty());
+		assertEquals(0, table.getOldest(ElevatorController.UP));
+	}
+
+}
@@ -0,0 +1,67 @@
+package com.mattkula.se350.elevatorsimulator.logging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import org.junit.Test;
+
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
+import com.mattkula.se350.elevatorsimulator.simulation.VirtualClock;
+
+public class EventLogTest {
+
+	//Tests that messages are stamped with the simulation time
+	@Test
+	public void testFormat(){
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		SimulationContext context = new SimulationContext();
+		VirtualClock clock = new VirtualClock();
+		clock.advanceTo(3723000);
+		context.setClock(clock);
+
+		EventLog log = new EventLog(context, EventLog.DEBUG, new PrintStreamLogWriter(new PrintStream(bytes), false));
+		log.log(EventLog.INFO, "Elevator %d arrived at Floor %d.", 2, 7);
+		log.flush();
+
+		assertEquals("01:02:03 Elevator 2 arrived at Floor 7." + System.getProperty("line.separator"), bytes.toString());
+	}
+
+	//Tests that messages above the level of the log are dropped
+	@Test
+	public void testLevels(){
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		EventLog log = new EventLog(new SimulationContext(), EventLog.INFO, new PrintStreamLogWriter(new PrintStream(bytes), false));
+
+		assertTrue(log.isEnabled(EventLog.INFO));
+		assertFalse(log.isEnabled(EventLog.DEBUG));
+		log.log(EventLog.DEBUG, "dropped");
+		log.flush();
+		assertEquals(0, bytes.size());
+
+		assertFalse(EventLog.disabled().isEnabled(EventLog.INFO));
+	}
+
+	//Tests that the asynchronous writer writes every message in order
+	@Test
+	public void testAsyncWritesInOrder(){
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		EventLog log = new EventLog(new SimulationContext(), EventLog.DEBUG, 
+				new AsyncLogWriter(new PrintStreamLogWriter(new PrintStream(bytes), false), 16));
+
+		for(int i = 0; i < 1000; i++){
+			log.log(EventLog.DEBUG, "%d", i);
+		}
+		log.close();
+
+		String[] lines = bytes.toString().split(System.getProperty("line.separator"));
+		assertEquals(1000, lines.length);
+		for(int i = 0; i < lines.length; i++){
+			assertTrue(lines[i].endsWith(" " + i));
+		}
+	}
+
+}
@@ -0,0 +1,39 @@
+package com.mattkula.se350.elevatorsimulator.person;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class AliasTableTest {
+
+	//Tests that floors are drawn in proportion to their weights and floors without weight never are
+	@Test
+	public void testDrawsInProportion(){
+		AliasTable table = new AliasTable(new double[]{0.5, 0, 0.125, 0.25, 0.125});
+		Random r = new Random(42);
+		int[] counts = new int[6];
+		for(int i = 0; i < 80000; i++){
+			counts[table.draw(r)]++;
+		}
+		
+		assertEquals(0, counts[0]);
+		assertEquals(0, counts[2]);
+		assertEquals(40000, counts[1], 800);
+		assertEquals(10000, counts[3], 400);
+		assertEquals(20000, counts[4], 600);
+		assertEquals(10000, counts[5], 400);
+	}
+	
+	//Tests that a single floor with weight is always drawn
+	@Test
+	public void testSingleFloor(){
+		AliasTable table = new AliasTable(new double[]{0, 0, 3});
+		Random r = new Random(1);
+		for(int i = 0; i < 100; i++){
+			assertEquals(3, table.draw(r));
+		}
+	}
+
+}
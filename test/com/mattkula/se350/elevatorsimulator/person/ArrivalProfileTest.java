@@ -0,0 +1,52 @@
+package com.mattkula.se350.elevatorsimulator.person;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+
+public class ArrivalProfileTest {
+
+	//Tests that each moment of the simulation falls in the period that started last
+	@Test
+	public void testPeriods() throws InvalidArgumentException{
+		ArrivalProfile profile = new ArrivalProfile(10)
+				.addPeriod(2, 0, ArrivalProfile.MIXED_TRAFFIC)
+				.addPeriod(5, 3000, ArrivalProfile.DOWN_PEAK);
+		
+		assertEquals(3, profile.size());
+		assertEquals(0, profile.periodAt(0));
+		assertEquals(0, profile.periodAt(119999));
+		assertEquals(1, profile.periodAt(120000));
+		assertEquals(2, profile.periodAt(600000));
+		assertEquals(300000, profile.getEnd(1), 0);
+		assertEquals(Double.POSITIVE_INFINITY, profile.getEnd(2), 0);
+		assertEquals(3000, profile.getPersonsPerMinute(2), 0);
+		assertEquals(ArrivalProfile.DOWN_PEAK, profile.getPattern(2));
+	}
+	
+	//Tests that an office day starts with the morning up-peak and ends with the evening down-peak
+	@Test
+	public void testOfficeDay() throws InvalidArgumentException{
+		ArrivalProfile profile = ArrivalProfile.officeDay(1000, 100);
+		
+		assertEquals(5, profile.size());
+		assertEquals(ArrivalProfile.UP_PEAK, profile.getPattern(profile.periodAt(0)));
+		assertEquals(ArrivalProfile.LUNCH, profile.getPattern(profile.periodAt(50 * 60000)));
+		assertEquals(600, profile.getPersonsPerMinute(profile.periodAt(50 * 60000)), 0);
+		assertEquals(ArrivalProfile.DOWN_PEAK, profile.getPattern(profile.periodAt(99 * 60000)));
+		assertEquals(1000, profile.getPersonsPerMinute(profile.periodAt(99 * 60000)), 0);
+	}
+	
+	@Test(expected=InvalidArgumentException.class)
+	public void testPeriodsOutOfOrder() throws InvalidArgumentException{
+		new ArrivalProfile(10).addPeriod(5, 10, ArrivalProfile.UP_PEAK).addPeriod(3, 10, ArrivalProfile.DOWN_PEAK);
+	}
+	
+	@Test(expected=InvalidArgumentException.class)
+	public void testNegativeRate() throws InvalidArgumentException{
+		new ArrivalProfile(-1);
+	}
+
+}
@@ -0,0 +1,51 @@
+package com.mattkula.se350.elevatorsimulator.person;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.mattkula.se350.elevatorsimulator.building.Building;
+import com.mattkula.se350.elevatorsimulator.building.BuildingStatsDTO;
+import com.mattkula.se350.elevatorsimulator.elevatorcontroller.ElevatorController;
+import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+import com.mattkula.se350.elevatorsimulator.logging.EventLog;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
+import com.mattkula.se350.elevatorsimulator.statistics.MetricsRegistry;
+
+public class PersonGeneratorTest {
+
+	//Runs a two minute simulation and counts the people who arrived on every floor
+	private double countArrivals(int personsPerMinute) throws InvalidArgumentException{
+		SimulationContext context = new SimulationContext();
+		context.setOut(SimulationContext.discardingStream());
+		context.setLog(EventLog.disabled());
+		MetricsRegistry metrics = new MetricsRegistry();
+		context.setMetrics(metrics);
+		BuildingStatsDTO stats = new BuildingStatsDTO(2, 1, 10, 2, 8, 1000, 2000, new int[]{1, 1}, personsPerMinute, new int[]{30, 10, 10, 10, 10, 10, 5, 5, 5, 5});
+
+		new Building(context, stats, ElevatorController.DEFAULT_DECISION_DELEGATE, Building.FAST_SIMULATION, 3);
+
+		double arrivals = 0;
+		for(int story = 1; story <= 10; story++){
+			arrivals += metrics.snapshot().get("floor." + story + ".arrivals");
+		}
+		return arrivals;
+	}
+
+	//Tests that people are generated at the rate of the input even when it does not divide a minute or is more than one a second
+	@Test
+	public void testFixedRate() throws InvalidArgumentException{
+		for(int personsPerMinute : new int[]{7, 45, 90, 600}){
+			double arrivals = countArrivals(personsPerMinute);
+			assertTrue(arrivals >= 2 * personsPerMinute && arrivals <= 2 * personsPerMinute + 1);	// One more may arrive right at the end
+		}
+	}
+
+	//Tests that nobody is generated when nobody arrives per minute
+	@Test
+	public void testZeroRate() throws InvalidArgumentException{
+		assertEquals(0, countArrivals(0), 0);
+	}
+
+}
@@ -0,0 +1,74 @@
+package com.mattkula.se350.elevatorsimulator.simulation;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+
+public class DiscreteEventEngineTest {
+	
+	/**
+	 * Creates an event that records its name in the list when fired.
+	 */
+	private static SimulationEvent recordingEvent(final String name, final ArrayList<String> fired){
+		return new SimulationEvent(SimulationEvent.Type.PERSON_ARRIVAL){
+			public void fire(){
+				fired.add(name);
+			}
+		};
+	}
+
+	//Tests that events fire in time order regardless of when they were scheduled
+	@Test
+	public void testEventsFireInTimeOrder() throws InvalidArgumentException{
+		DiscreteEventEngine engine = new DiscreteEventEngine();
+		ArrayList<String> fired = new ArrayList<String>();
+		
+		engine.schedule(recordingEvent("third", fired), 3000);
+		engine.schedule(recordingEvent("first", fired), 1000);
+		engine.schedule(recordingEvent("second", fired), 2000);
+		engine.run();
+		
+		assertEquals("[first, second, third]", fired.toString());
+		assertEquals(3000, engine.getCurrentTime());
+	}
+	
+	//Tests that events at the same time fire in the order they were scheduled
+	@Test
+	public void testTiesFireInScheduledOrder() throws InvalidArgumentException{
+		DiscreteEventEngine engine = new DiscreteEventEngine();
+		ArrayList<String> fired = new ArrayList<String>();
+		
+		engine.schedule(recordingEvent("a", fired), 500);
+		engine.schedule(recordingEvent("b", fired), 500);
+		engine.schedule(recordingEvent("c", fired), 500);
+		engine.run();
+		
+		assertEquals("[a, b, c]", fired.toString());
+	}
+	
+	//Tests that runUntil leaves later events on the queue
+	@Test
+	public void testRunUntilStopsAtEndTime() throws InvalidArgumentException{
+		DiscreteEventEngine engine = new DiscreteEventEngine();
+		ArrayList<String> fired = new ArrayList<String>();
+		
+		engine.schedule(recordingEvent("early", fired), 1000);
+		engine.schedule(recordingEvent("late", fired), 5000);
+		engine.runUntil(2000);
+		
+		assertEquals("[early]", fired.toString());
+		assertEquals(1, engine.getPendingEvents());
+	}
+	
+	//Tests scheduling an event in the past, should throw exception
+	@Test(expected=InvalidArgumentException.class)
+	public void testNegativeDelayFail() throws InvalidArgumentException{
+		DiscreteEventEngine engine = new DiscreteEventEngine();
+		engine.schedule(recordingEvent("bad", new ArrayList<String>()), -1);
+	}
+
+}
@@ -0,0 +1,174 @@
+package com.mattkula.se350.elevatorsimulator.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.Test;
+
+import com.mattkula.se350.elevatorsimulator.building.FloorManager;
+import com.mattkula.se350.elevatorsimulator.elevator.Elevator;
+import com.mattkula.se350.elevatorsimulator.elevator.ElevatorSnapshot;
+import com.mattkula.se350.elevatorsimulator.elevator.SimpleElevatorImpl;
+import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+import com.mattkula.se350.elevatorsimulator.logging.EventLog;
+import com.mattkula.se350.elevatorsimulator.person.Person;
+import com.mattkula.se350.elevatorsimulator.statistics.Histogram;
+
+public class ElevatorRuntimeTest {
+
+	//Creates a running simulation of 10 floors at 100 times real time, with nothing in it yet
+	private SimulationContext createContext() throws InvalidArgumentException{
+		SimulationContext context = new SimulationContext();
+		context.setLog(EventLog.disabled());
+		context.setClock(new ScaledClock(100));
+		context.setRunning(true);
+		FloorManager.initialize(context, 10);
+		return context;
+	}
+
+	//Creates elevators waiting at the first floor
+	private ArrayList<Elevator> createElevators(SimulationContext context, int count) throws InvalidArgumentException{
+		ArrayList<Elevator> elevators = new ArrayList<Elevator>();
+		for(int i = 1; i <= count; i++){
+			elevators.add(new SimpleElevatorImpl(context, i, 1, 1000, 1000));
+		}
+		return elevators;
+	}
+
+	//Waits up to 5 real seconds for an elevator to reach a floor
+	private boolean awaitFloor(Elevator elevator, int floor) throws InterruptedException{
+		long deadline = System.currentTimeMillis() + 5000;
+		while(elevator.getCurrentFloor() != floor){
+			if(System.currentTimeMillis() > deadline)
+				return false;
+			Thread.sleep(5);
+		}
+		return true;
+	}
+
+	//Tests that elevators run and stop on a pool of platform threads when asked for
+	@Test
+	public void testPlatformThreads() throws InvalidArgumentException, InterruptedException{
+		SimulationContext context = createContext();
+		ArrayList<Elevator> elevators = createElevators(context, 3);
+		ElevatorRuntime runtime = new ElevatorRuntime(ElevatorRuntime.PLATFORM_THREADS);
+		runtime.start(elevators);
+
+		assertFalse(runtime.isVirtual());
+		elevators.get(2).sendCommand(4);
+		assertTrue(awaitFloor(elevators.get(2), 4));
+		assertTrue(runtime.stop(5000));
+	}
+
+	//Tests that elevators run on virtual threads when the JVM has them, and on platform threads otherwise
+	@Test
+	public void testVirtualThreadsOrFallback() throws InvalidArgumentException, InterruptedException{
+		boolean supported;
+		try{
+			Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			supported = true;
+		}catch(NoSuchMethodException e){
+			supported = false;
+		}
+
+		SimulationContext context = createContext();
+		ArrayList<Elevator> elevators = createElevators(context, 3);
+		ElevatorRuntime runtime = new ElevatorRuntime(ElevatorRuntime.VIRTUAL_THREADS);
+		runtime.start(elevators);
+
+		assertEquals(supported, runtime.isVirtual());
+		elevators.get(0).sendCommand(6);
+		assertTrue(awaitFloor(elevators.get(0), 6));
+		assertTrue(runtime.stop(5000));
+	}
+
+	//Tests that stopping waits for an elevator to finish its trip and returns once every elevator has
+	@Test
+	public void testStopWaitsForTrip() throws InvalidArgumentException, InterruptedException{
+		SimulationContext context = createContext();
+		ArrayList<Elevator> elevators = createElevators(context, 2);
+		ElevatorRuntime runtime = new ElevatorRuntime(ElevatorRuntime.PLATFORM_THREADS);
+		runtime.start(elevators);
+
+		Elevator elevator = elevators.get(0);
+		elevator.sendCommand(10);
+		long deadline = System.currentTimeMillis() + 5000;
+		while(elevator.getStatus() != Elevator.Status.MOVING_UP && System.currentTimeMillis() < deadline){
+			Thread.sleep(1);
+		}
+
+		assertTrue(runtime.stop(5000));
+		assertEquals(10, elevator.getCurrentFloor());		// Finished the trip before stopping
+	}
+
+	//Tests that stopping an elevator that ignores being asked cancels it, interrupting its parked thread
+	@Test
+	public void testStopCancelsParkedElevator() throws InterruptedException{
+		ParkedElevator elevator = new ParkedElevator();
+		ArrayList<Elevator> elevators = new ArrayList<Elevator>();
+		elevators.add(elevator);
+		ElevatorRuntime runtime = new ElevatorRuntime(ElevatorRuntime.PLATFORM_THREADS);
+		runtime.start(elevators);
+
+		assertTrue(elevator.started.await(5, TimeUnit.SECONDS));
+		assertFalse(runtime.stop(50));
+		assertTrue(elevator.interrupted.await(5, TimeUnit.SECONDS));
+	}
+
+	//Tests that cancelling interrupts every parked elevator right away
+	@Test
+	public void testCancelInterruptsParkedElevators() throws InterruptedException{
+		ArrayList<Elevator> elevators = new ArrayList<Elevator>();
+		for(int i = 0; i < 4; i++){
+			elevators.add(new ParkedElevator());
+		}
+		ElevatorRuntime runtime = new ElevatorRuntime(ElevatorRuntime.VIRTUAL_THREADS);
+		runtime.start(elevators);
+
+		for(Elevator e : elevators){
+			assertTrue(((ParkedElevator)e).started.await(5, TimeUnit.SECONDS));
+		}
+		runtime.cancel();
+		for(Elevator e : elevators){
+			assertTrue(((ParkedElevator)e).interrupted.await(5, TimeUnit.SECONDS));
+		}
+	}
+
+	/**
+	 * An elevator that parks until its thread is interrupted, ignoring stop().
+	 */
+	private static class ParkedElevator implements Elevator {
+
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch interrupted = new CountDownLatch(1);
+
+		public void run(){
+			started.countDown();
+			while(!Thread.currentThread().isInterrupted()){
+				LockSupport.park(this);
+			}
+			interrupted.countDown();
+		}
+
+		public void stop(){}
+		public void addDestination(int floorNum){}
+		public void sendCommand(int floorNum){}
+		public Histogram getCommandLatencies(){ return new Histogram(); }
+		public int getCurrentFloor(){ return 1; }
+		public int getElevatorNumber(){ return 1; }
+		public boolean addPerson(Person p){ return false; }
+		public String getRemainingDestinations(){ return "[]"; }
+		public void writeTo(ElevatorSnapshot snapshot, int index){}
+		public Elevator.Status getStatus(){ return Elevator.Status.WAITING_DEFAULT; }
+		public void scheduleOn(DiscreteEventEngine engine){}
+
+	}
+
+}
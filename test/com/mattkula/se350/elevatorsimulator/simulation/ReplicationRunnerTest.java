@@ -0,0 +1,55 @@
+package com.mattkula.se350.elevatorsimulator.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.mattkula.se350.elevatorsimulator.building.BuildingStatsDTO;
+import com.mattkula.se350.elevatorsimulator.elevatorcontroller.ElevatorController;
+import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+import com.mattkula.se350.elevatorsimulator.statistics.ReplicationSummary;
+
+public class ReplicationRunnerTest {
+	
+	static BuildingStatsDTO stats;
+	
+	@BeforeClass
+	public static void setup() throws InvalidArgumentException{
+		stats = new BuildingStatsDTO(5, 1, 10, 2, 8, 1000, 2000, new int[]{1, 1}, 10, new int[]{30, 10, 10, 10, 10, 10, 5, 5, 5, 5});
+	}
+
+	//Tests that every replication runs and people get moved
+	@Test
+	public void testRunsAllReplications() throws InvalidArgumentException, InterruptedException{
+		ReplicationSummary summary = new ReplicationRunner(stats, ElevatorController.DEFAULT_DECISION_DELEGATE, 6, 7).run();
+		
+		assertEquals(6, summary.getReplications());
+		assertEquals(6, summary.getWaitTimes().getCount());
+		assertTrue(summary.getTotalPeople() > 0);
+		assertTrue(summary.getRideTimes().getMean() > 0);
+	}
+	
+	//Tests that the same base seed gives the same results no matter how many threads are used
+	@Test
+	public void testSameSeedSameResults() throws InvalidArgumentException, InterruptedException{
+		ReplicationRunner parallel = new ReplicationRunner(stats, ElevatorController.DEFAULT_DECISION_DELEGATE, 4, 99);
+		ReplicationRunner serial = new ReplicationRunner(stats, ElevatorController.DEFAULT_DECISION_DELEGATE, 4, 99);
+		serial.setThreads(1);
+		
+		ReplicationSummary first = parallel.run();
+		ReplicationSummary second = serial.run();
+		
+		assertEquals(first.getTotalPeople(), second.getTotalPeople());
+		assertEquals(first.getWaitTimes().getMean(), second.getWaitTimes().getMean(), 0.0);
+		assertEquals(first.getRideTimes().getVariance(), second.getRideTimes().getVariance(), 0.0);
+	}
+	
+	//Tests running zero replications, should throw exception
+	@Test(expected=InvalidArgumentException.class)
+	public void testZeroReplicationsFail() throws InvalidArgumentException{
+		new ReplicationRunner(stats, ElevatorController.DEFAULT_DECISION_DELEGATE, 0, 1);
+	}
+
+}
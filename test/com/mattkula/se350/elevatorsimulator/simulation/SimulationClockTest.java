@@ -0,0 +1,67 @@
+package com.mattkula.se350.elevatorsimulator.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+
+public class SimulationClockTest {
+
+	//Tests that sleeping on a virtual clock moves it forward without blocking
+	@Test
+	public void testVirtualClockSleepAdvances(){
+		VirtualClock clock = new VirtualClock();
+		clock.sleep(1500);
+		clock.sleepUntil(1000);		// Already passed, should be ignored
+		
+		assertEquals(1500, clock.currentTimeMillis());
+	}
+	
+	//Tests that a large time scale still sleeps instead of rounding down to nothing
+	@Test
+	public void testScaledClockHighScale() throws InvalidArgumentException, InterruptedException{
+		ScaledClock clock = new ScaledClock(1000);
+		long start = System.nanoTime();
+		clock.sleep(500);		// Half a real millisecond
+		
+		assertTrue(System.nanoTime() - start >= 500000);
+		assertTrue(clock.currentTimeMillis() >= 500);
+	}
+	
+	//Tests that the scaled clock reaches the requested time after sleepUntil
+	@Test
+	public void testScaledClockSleepUntil() throws InvalidArgumentException, InterruptedException{
+		ScaledClock clock = new ScaledClock(100);
+		clock.sleepUntil(2000);
+		
+		assertTrue(clock.currentTimeMillis() >= 2000);
+	}
+	
+	//Tests that parking follows the time scale, so a 10 second idle timeout at scale 100 takes a tenth of a real second
+	@Test
+	public void testScaledClockPark() throws InvalidArgumentException{
+		ScaledClock clock = new ScaledClock(100);
+		long start = System.nanoTime();
+		clock.park(this, 10000);
+		
+		assertTrue(System.nanoTime() - start < 5000000000L);	// Would be 10 real seconds without the scale
+	}
+	
+	//Tests that parking on a virtual clock moves it forward without blocking
+	@Test
+	public void testVirtualClockParkAdvances(){
+		VirtualClock clock = new VirtualClock();
+		clock.park(this, 10000);
+		
+		assertEquals(10000, clock.currentTimeMillis());
+	}
+	
+	//Tests creating a clock with a zero time scale, should throw exception
+	@Test(expected=InvalidArgumentException.class)
+	public void testScaledClockZeroScaleFail() throws InvalidArgumentException{
+		new ScaledClock(0);
+	}
+
+}
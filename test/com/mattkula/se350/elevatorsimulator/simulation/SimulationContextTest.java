@@ -0,0 +1,120 @@
+package com.mattkula.se350.elevatorsimulator.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.mattkula.se350.elevatorsimulator.building.Building;
+import com.mattkula.se350.elevatorsimulator.building.BuildingStatsDTO;
+import com.mattkula.se350.elevatorsimulator.building.FloorManager;
+import com.mattkula.se350.elevatorsimulator.elevatorcontroller.ElevatorController;
+import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+import com.mattkula.se350.elevatorsimulator.statistics.ReportGenerator;
+
+public class SimulationContextTest {
+
+	static BuildingStatsDTO stats;
+
+	@BeforeClass
+	public static void setup() throws InvalidArgumentException{
+		stats = new BuildingStatsDTO(5, 1, 10, 2, 8, 1000, 2000, new int[]{1, 1}, 10, new int[]{30, 10, 10, 10, 10, 10, 5, 5, 5, 5});
+	}
+
+	/**
+	 * Creates a context that throws its console output away.
+	 */
+	private static SimulationContext quietContext(){
+		SimulationContext context = new SimulationContext();
+		context.setOut(SimulationContext.discardingStream());
+		return context;
+	}
+
+	//Tests that a simulation run on its own context leaves the thread's context alone
+	@Test
+	public void testDoesNotTouchCurrentContext() throws InvalidArgumentException{
+		SimulationContext current = SimulationContext.current();
+		FloorManager floorManager = current.getFloorManager();		// Whatever earlier tests on this thread left there
+		ElevatorController elevatorController = current.getElevatorController();
+		ReportGenerator reportGenerator = current.getReportGenerator();
+		
+		SimulationContext context = quietContext();
+		new Building(context, stats, ElevatorController.DEFAULT_DECISION_DELEGATE, Building.FAST_SIMULATION, 3);
+
+		assertNotNull(context.getReportGenerator());
+		assertTrue(context.getReportGenerator().getNumberOfReports() > 0);
+		assertSame(current, SimulationContext.current());
+		assertSame(floorManager, current.getFloorManager());
+		assertSame(elevatorController, current.getElevatorController());
+		assertSame(reportGenerator, current.getReportGenerator());
+	}
+
+	//Tests that simulations running at the same time on different threads don't affect each other
+	@Test
+	public void testConcurrentSimulations() throws InterruptedException, InvalidArgumentException{
+		final SimulationContext[] contexts = new SimulationContext[4];
+		Thread[] threads = new Thread[contexts.length];
+
+		for(int i = 0; i < contexts.length; i++){
+			final SimulationContext context = quietContext();
+			contexts[i] = context;
+			threads[i] = new Thread(new Runnable(){
+				public void run(){
+					try{
+						new Building(context, stats, ElevatorController.DEFAULT_DECISION_DELEGATE, Building.FAST_SIMULATION, 42);
+					}catch(InvalidArgumentException e){
+						e.printStackTrace();
+					}
+				}
+			});
+			threads[i].start();
+		}
+
+		for(Thread t : threads){
+			t.join();
+		}
+
+		SimulationContext alone = quietContext();
+		new Building(alone, stats, ElevatorController.DEFAULT_DECISION_DELEGATE, Building.FAST_SIMULATION, 42);
+
+		for(SimulationContext context : contexts){
+			assertEquals(alone.getReportGenerator().getNumberOfReports(), context.getReportGenerator().getNumberOfReports());
+			assertEquals(alone.getReportGenerator().getOverallAverageWaitTime(), context.getReportGenerator().getOverallAverageWaitTime(), 0.0);
+		}
+	}
+
+	//Tests that the settings of one simulation, such as its dispatch mode, are not picked up by another
+	@Test
+	public void testSettingsPerContext() throws InvalidArgumentException{
+		SimulationContext destination = quietContext();
+		destination.setDispatchMode(ElevatorController.DESTINATION_DISPATCH);
+		SimulationContext hallCall = quietContext();
+		assertEquals(ElevatorController.HALL_CALL_DISPATCH, hallCall.getDispatchMode());
+		assertEquals(ElevatorRuntime.VIRTUAL_THREADS, hallCall.getElevatorThreads());
+		assertNull(hallCall.getArrivalProfile());
+		assertNull(hallCall.getPassengerLog());
+
+		new Building(destination, stats, ElevatorController.DEFAULT_DECISION_DELEGATE, Building.FAST_SIMULATION, 3);
+		new Building(hallCall, stats, ElevatorController.DEFAULT_DECISION_DELEGATE, Building.FAST_SIMULATION, 3);
+
+		assertTrue(destination.getElevatorController().isDestinationDispatch());
+		assertFalse(hallCall.getElevatorController().isDestinationDispatch());
+	}
+
+	//Tests the time string of a context follows its own clock
+	@Test
+	public void testTimeString(){
+		SimulationContext context = new SimulationContext();
+		VirtualClock clock = new VirtualClock();
+		clock.advanceTo(3723000);
+		context.setClock(clock);
+
+		assertEquals("01:02:03", context.getTimeString());
+	}
+
+}
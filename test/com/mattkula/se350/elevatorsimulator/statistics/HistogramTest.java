@@ -0,0 +1,79 @@
+package com.mattkula.se350.elevatorsimulator.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class HistogramTest {
+
+	//Tests that small values and their percentiles are exact
+	@Test
+	public void testSmallValuesExact(){
+		Histogram h = new Histogram();
+		for(int i = 1; i <= 100; i++){
+			h.recordValue(i);
+		}
+
+		assertEquals(100, h.getCount());
+		assertEquals(5050, h.getSum());
+		assertEquals(1, h.getMin());
+		assertEquals(100, h.getMax());
+		assertEquals(50, h.getValueAtPercentile(50));
+		assertEquals(90, h.getValueAtPercentile(90));
+		assertEquals(99, h.getValueAtPercentile(99));
+		assertEquals(100, h.getValueAtPercentile(100));
+	}
+
+	//Tests that large values are within the histogram's precision
+	@Test
+	public void testLargeValuesWithinPrecision(){
+		Histogram h = new Histogram();
+		for(long i = 1; i <= 1000000; i++){
+			h.recordValue(i);
+		}
+
+		long p50 = h.getValueAtPercentile(50);
+		long p999 = h.getValueAtPercentile(99.9);
+		assertTrue(Math.abs(p50 - 500000) <= 500000 / 128);
+		assertTrue(Math.abs(p999 - 999000) <= 999000 / 128);
+		assertEquals(1000000, h.getMax());
+		assertEquals(500000.5, h.getMean(), 0.0);
+	}
+
+	//Tests that merging two histograms is the same as recording into one
+	@Test
+	public void testAdd(){
+		Histogram a = new Histogram();
+		Histogram b = new Histogram();
+		Histogram both = new Histogram();
+		for(int i = 0; i < 5000; i++){
+			long value = (i * 7919L) % 30000;
+			(i % 2 == 0 ? a : b).recordValue(value);
+			both.recordValue(value);
+		}
+
+		a.add(b);
+		assertEquals(both.getCount(), a.getCount());
+		assertEquals(both.getSum(), a.getSum());
+		assertEquals(both.getMin(), a.getMin());
+		assertEquals(both.getMax(), a.getMax());
+		assertEquals(both.getValueAtPercentile(99), a.getValueAtPercentile(99));
+	}
+
+	//Tests an empty histogram
+	@Test
+	public void testEmpty(){
+		Histogram h = new Histogram();
+		assertEquals(0, h.getCount());
+		assertEquals(0, h.getMin());
+		assertEquals(0, h.getValueAtPercentile(50));
+	}
+
+	//Tests recording a negative value, should throw exception
+	@Test(expected=IllegalStateException.class)
+	public void testNegativeFail(){
+		new Histogram().recordValue(-1);
+	}
+
+}
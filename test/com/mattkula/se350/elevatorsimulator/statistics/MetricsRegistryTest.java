@@ -0,0 +1,179 @@
+package com.mattkula.se350.elevatorsimulator.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+
+import org.junit.Test;
+
+import com.mattkula.se350.elevatorsimulator.building.Building;
+import com.mattkula.se350.elevatorsimulator.building.BuildingStatsDTO;
+import com.mattkula.se350.elevatorsimulator.elevatorcontroller.ElevatorController;
+import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+import com.mattkula.se350.elevatorsimulator.logging.EventLog;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
+
+public class MetricsRegistryTest {
+
+	//Reads every line of a file
+	private ArrayList<String> readLines(File file) throws IOException{
+		ArrayList<String> lines = new ArrayList<String>();
+		BufferedReader reader = new BufferedReader(new FileReader(file));
+		String line;
+		while((line = reader.readLine()) != null){
+			lines.add(line);
+		}
+		reader.close();
+		return lines;
+	}
+
+	//Tests that a snapshot reads every kind of metric in the order they were registered
+	@Test
+	public void testSnapshot(){
+		MetricsRegistry metrics = new MetricsRegistry();
+		StripedCounter counter = metrics.counter("trips");
+		counter.add(3);
+		metrics.gauge("load", new Gauge(){
+			public double getValue(){
+				return 0.5;
+			}
+		});
+		Histogram histogram = new Histogram();
+		histogram.recordValue(2);
+		histogram.recordValue(6);
+		metrics.histogram("people", histogram);
+
+		LinkedHashMap<String, Double> values = metrics.snapshot();
+		assertEquals("[trips, load, people.count, people.mean, people.p99, people.max]", values.keySet().toString());
+		assertEquals(3, values.get("trips"), 0);
+		assertEquals(0.5, values.get("load"), 0);
+		assertEquals(2, values.get("people.count"), 0);
+		assertEquals(4, values.get("people.mean"), 0);
+		assertEquals(6, values.get("people.max"), 0);
+
+		counter.increment();
+		assertEquals(4, metrics.snapshot().get("trips"), 0);
+	}
+
+	//Tests that a striped counter loses no increments made from many threads at once
+	@Test
+	public void testStripedCounterConcurrentAdds() throws InterruptedException{
+		final StripedCounter counter = new StripedCounter();
+		Thread[] threads = new Thread[8];
+		for(int t = 0; t < threads.length; t++){
+			threads[t] = new Thread(){
+				public void run(){
+					for(int i = 0; i < 100000; i++){
+						counter.increment();
+					}
+					counter.add(5);
+				}
+			};
+			threads[t].start();
+		}
+
+		for(Thread thread : threads){
+			thread.join();
+		}
+		assertEquals(8 * 100005L, counter.sum());
+	}
+
+	//Should throw exception because two metrics have the same name
+	@Test(expected=IllegalStateException.class)
+	public void testDuplicateNameFail(){
+		MetricsRegistry metrics = new MetricsRegistry();
+		metrics.counter("trips");
+		metrics.counter("trips");
+	}
+
+	//Tests that a CSV row is only written once the interval has passed, with the header first
+	@Test
+	public void testCsvRows() throws IOException, InvalidArgumentException{
+		File file = File.createTempFile("metrics", ".csv");
+		file.deleteOnExit();
+
+		MetricsRegistry metrics = new MetricsRegistry(file.getPath(), 10);
+		StripedCounter counter = metrics.counter("trips");
+		metrics.gauge("load", new Gauge(){
+			public double getValue(){
+				return 0.25;
+			}
+		});
+
+		for(int second = 1; second <= 25; second++){
+			counter.increment();
+			metrics.sample(second * 1000L);
+		}
+		metrics.writeRow(25000);
+		metrics.writeRow(25000);		// Already written, should be ignored
+		metrics.close();
+
+		ArrayList<String> lines = readLines(file);
+		assertEquals(4, lines.size());
+		assertEquals("time,trips,load", lines.get(0));
+		assertEquals("10,10,0.250", lines.get(1));
+		assertEquals("20,20,0.250", lines.get(2));
+		assertEquals("25,25,0.250", lines.get(3));
+	}
+
+	//Should throw exception because rows must be at least a second apart
+	@Test(expected=InvalidArgumentException.class)
+	public void testZeroIntervalFail() throws IOException, InvalidArgumentException{
+		File file = File.createTempFile("metrics", ".csv");
+		file.deleteOnExit();
+		new MetricsRegistry(file.getPath(), 0);
+	}
+
+	//Tests that the elevators, floors and controller register their metrics and keep them up to date during a simulation
+	@Test
+	public void testSimulationMetrics() throws IOException, InvalidArgumentException{
+		File file = File.createTempFile("metrics", ".csv");
+		file.deleteOnExit();
+
+		SimulationContext context = new SimulationContext();
+		context.setOut(SimulationContext.discardingStream());
+		context.setLog(EventLog.disabled());
+		MetricsRegistry metrics = new MetricsRegistry(file.getPath(), 60);
+		context.setMetrics(metrics);
+		BuildingStatsDTO stats = new BuildingStatsDTO(5, 1, 10, 2, 8, 1000, 2000, new int[]{1, 1}, 10, new int[]{30, 10, 10, 10, 10, 10, 5, 5, 5, 5});
+
+		new Building(context, stats, ElevatorController.DEFAULT_DECISION_DELEGATE, Building.FAST_SIMULATION, 11);
+		metrics.close();
+
+		LinkedHashMap<String, Double> values = metrics.snapshot();
+		double arrivals = 0;
+		for(int story = 1; story <= 10; story++){
+			arrivals += values.get("floor." + story + ".arrivals");
+			assertTrue(values.get("floor." + story + ".queueDepth") >= 0);
+		}
+		assertTrue(arrivals > 0);
+
+		long end = context.getClock().currentTimeMillis();
+		double doorCycles = 0;
+		for(int elevator = 1; elevator <= 2; elevator++){
+			String prefix = "elevator." + elevator + ".";
+			assertEquals(values.get(prefix + "doorCycles"), values.get(prefix + "loadAtDeparture.count"), 0);
+			assertTrue(values.get(prefix + "floorsTravelled") >= values.get(prefix + "trips"));
+			assertTrue(values.get(prefix + "idleMillis") <= end);
+			assertTrue(values.get(prefix + "loadFactor") >= 0 && values.get(prefix + "loadFactor") <= 1);
+			doorCycles += values.get(prefix + "doorCycles");
+		}
+		assertTrue(doorCycles > 0);
+		assertTrue(values.get("controller.commandsSent") > 0);
+
+		ArrayList<String> lines = readLines(file);
+		assertTrue(lines.size() >= 6);		// The header, a row every minute and the last one
+		int columns = lines.get(0).split(",").length;
+		assertEquals(values.size() + 1, columns);
+		for(String line : lines){
+			assertEquals(columns, line.split(",").length);
+		}
+	}
+
+}
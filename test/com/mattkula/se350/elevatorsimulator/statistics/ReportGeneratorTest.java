@@ -7,6 +7,7 @@ import org.junit.Test;
 
 import com.mattkula.se350.elevatorsimulator.building.SimpleFloorImpl;
 import com.mattkula.se350.elevatorsimulator.person.PersonResultDTO;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
 
 public class ReportGeneratorTest {
 
@@ -78,6 +79,50 @@ public class ReportGeneratorTest {
 		assertEquals(-1, ReportGenerator.getInstance().getRideTime(8, 9));
 	}
 	
+	@Test
+	public void testWaitTimePercentiles(){
+		assertEquals(3, ReportGenerator.getInstance().getFloorWaitTimes(1).getValueAtPercentile(50));
+		assertEquals(4, ReportGenerator.getInstance().getFloorWaitTimes(1).getValueAtPercentile(99.9));
+	}
+	
+	@Test
+	public void testRideTimesNoData(){
+		assertEquals(0, ReportGenerator.getInstance().getRideTimes(8, 9).getCount());
+	}
+	
+	@Test
+	public void testConcurrentReports() throws InterruptedException{
+		SimulationContext context = new SimulationContext();
+		ReportGenerator.initialize(context, 15);
+		final ReportGenerator generator = context.getReportGenerator();
+		
+		Thread[] threads = new Thread[8];
+		for(int t = 0; t < threads.length; t++){
+			final int offset = t * 10000;
+			threads[t] = new Thread(new Runnable(){
+				public void run(){
+					for(int i = 1; i <= 10000; i++){
+						PersonResultDTO data = new PersonResultDTO();
+						data.id = offset + i;
+						data.startingFloor = 1 + i % 15;
+						data.endingFloor = 1 + (i + 1) % 15;
+						data.waitTime = i % 60;
+						data.rideTime = 1 + i % 30;
+						generator.addReport(data);
+					}
+				}
+			});
+			threads[t].start();
+		}
+		
+		for(Thread t : threads){
+			t.join();
+		}
+		
+		assertEquals(80000, generator.getNumberOfReports());
+		assertEquals(8 * 294640, generator.getAllWaitTimes().getSum());
+	}
+	
 	@Test(expected=IllegalStateException.class)
 	public void testBadIdEntered(){
 		PersonResultDTO baddata1 = new PersonResultDTO();
@@ -0,0 +1,48 @@
+package com.mattkula.se350.elevatorsimulator.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class SampleStatisticsTest {
+
+	//Creates a sample of the given size alternating between 10 and 20
+	private SampleStatistics createSample(int count){
+		double[] observations = new double[count];
+		for(int i = 0; i < count; i++){
+			observations[i] = (i % 2 == 0 ? 10 : 20);
+		}
+		return new SampleStatistics(observations);
+	}
+
+	//Tests the confidence interval of a sample small enough to use the table
+	@Test
+	public void testConfidenceHalfWidth(){
+		SampleStatistics stats = createSample(10);
+		assertEquals(15, stats.getMean(), 1e-9);
+		assertEquals(2.262 * Math.sqrt(stats.getVariance() / 10), stats.getConfidenceHalfWidth(), 1e-9);
+	}
+
+	//Tests that samples just past the table are not given a smaller critical value than they should have
+	@Test
+	public void testTCriticalPastTable(){
+		assertEquals(2.042, SampleStatistics.getTCritical(31), 0);
+		assertTrue(SampleStatistics.getTCritical(31) >= 2.040);		// The value at 31 degrees of freedom
+		assertEquals(2.042, SampleStatistics.getTCritical(40), 0);
+		assertEquals(2.021, SampleStatistics.getTCritical(41), 0);
+		assertEquals(2.000, SampleStatistics.getTCritical(61), 0);
+		assertEquals(1.980, SampleStatistics.getTCritical(121), 0);
+		assertTrue(SampleStatistics.getTCritical(121) >= 1.979);	// The value at 121 degrees of freedom
+
+		SampleStatistics stats = createSample(32);
+		assertEquals(2.042 * Math.sqrt(stats.getVariance() / 32), stats.getConfidenceHalfWidth(), 1e-9);
+	}
+
+	//Tests that there is no interval for less than two observations
+	@Test
+	public void testTooFewObservations(){
+		assertTrue(Double.isNaN(createSample(1).getConfidenceHalfWidth()));
+	}
+
+}
@@ -0,0 +1,160 @@
+package com.mattkula.se350.elevatorsimulator.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.mattkula.se350.elevatorsimulator.building.Building;
+import com.mattkula.se350.elevatorsimulator.building.BuildingStatsDTO;
+import com.mattkula.se350.elevatorsimulator.elevatorcontroller.ElevatorController;
+import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+import com.mattkula.se350.elevatorsimulator.logging.EventLog;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
+
+public class PassengerLogReaderTest {
+
+	//Writes text to a temporary file
+	private File writeText(String text) throws IOException{
+		File file = File.createTempFile("passengers", ".csv");
+		file.deleteOnExit();
+		FileOutputStream out = new FileOutputStream(file);
+		out.write(text.getBytes("US-ASCII"));
+		out.close();
+		return file;
+	}
+
+	//Reads a text log until it fails, checking that the error names the line
+	private void assertLineFails(String text, int badLine) throws IOException{
+		PassengerLogReader reader = new PassengerLogReader(writeText(text).getPath());
+		try{
+			while(reader.next()){
+			}
+			fail("Line " + badLine + " should not have been read");
+		}catch(IOException e){
+			assertTrue(e.getMessage().startsWith("Passenger log line " + badLine + " "));
+		}finally{
+			reader.close();
+		}
+	}
+
+	//Tests that headers, comments and blank lines are skipped and a last line without a newline is read
+	@Test
+	public void testReadText() throws IOException{
+		File file = writeText("time,origin,destination\r\n# lobby\r\n1000, 1, 5\r\n\r\n2500,5,1");
+
+		PassengerLogReader reader = new PassengerLogReader(file.getPath());
+		assertTrue(reader.next());
+		assertEquals(1000, reader.getTime());
+		assertEquals(1, reader.getOrigin());
+		assertEquals(5, reader.getDestination());
+		assertTrue(reader.next());
+		assertEquals(2500, reader.getTime());
+		assertEquals(5, reader.getOrigin());
+		assertEquals(1, reader.getDestination());
+		assertFalse(reader.next());
+		reader.close();
+	}
+
+	//Tests that a text log much larger than the buffer is streamed in order
+	@Test
+	public void testReadLongText() throws IOException{
+		StringBuilder text = new StringBuilder();
+		for(int i = 0; i < 100000; i++){
+			text.append(i * 1000L).append(',').append(i % 16 + 1).append(',').append((i + 3) % 16 + 1).append('\n');
+		}
+		File file = writeText(text.toString());
+
+		PassengerLogReader reader = new PassengerLogReader(file.getPath());
+		int count = 0;
+		while(reader.next()){
+			assertEquals(count * 1000L, reader.getTime());
+			assertEquals(count % 16 + 1, reader.getOrigin());
+			assertEquals((count + 3) % 16 + 1, reader.getDestination());
+			count++;
+		}
+		reader.close();
+		assertEquals(100000, count);
+	}
+
+	//Tests that trips are read back from a binary log as they were written
+	@Test
+	public void testBinaryRoundTrip() throws IOException{
+		File file = File.createTempFile("passengers", ".bin");
+		file.deleteOnExit();
+
+		PassengerLogWriter writer = new PassengerLogWriter(file.getPath());
+		for(int i = 0; i < 10000; i++){
+			writer.record(i * 500L, i % 10 + 1, 10 - i % 10);
+		}
+		writer.close();
+
+		assertEquals(PassengerLogReader.HEADER_SIZE + 10000 * PassengerLogReader.RECORD_SIZE, file.length());
+
+		PassengerLogReader reader = new PassengerLogReader(file.getPath());
+		int count = 0;
+		while(reader.next()){
+			assertEquals(count * 500L, reader.getTime());
+			assertEquals(count % 10 + 1, reader.getOrigin());
+			assertEquals(10 - count % 10, reader.getDestination());
+			count++;
+		}
+		reader.close();
+		assertEquals(10000, count);
+	}
+
+	//Should throw exception because a line is missing its destination
+	@Test(expected=IOException.class)
+	public void testShortLineFail() throws IOException{
+		File file = writeText("1000,1,5\n2000,3\n");
+
+		PassengerLogReader reader = new PassengerLogReader(file.getPath());
+		try{
+			reader.next();
+			reader.next();
+		}finally{
+			reader.close();
+		}
+	}
+
+	//Should throw exception because a line has a date instead of a time in milliseconds
+	@Test
+	public void testDateLineFail() throws IOException{
+		assertLineFails("1000,1,5\n2024-01-08 08:00:01,1,5\n", 2);
+	}
+
+	//Should throw exception because a line has a negative time instead of being skipped like a header
+	@Test
+	public void testNegativeLineFail() throws IOException{
+		assertLineFails("time,origin,destination\n-100,3,1\n", 2);
+	}
+
+	//Should throw exception because a line has a fourth field
+	@Test
+	public void testLongLineFail() throws IOException{
+		assertLineFails("1000,1,5,7\n", 1);
+	}
+
+	//Tests that every recorded trip except those to the same floor is replayed into the simulation
+	@Test
+	public void testReplayIntoSimulation() throws IOException, InvalidArgumentException{
+		File file = writeText("5000,1,4\n5000,1,7\n9000,4,4\n30000,7,1\n61000,10,2\n");
+
+		SimulationContext context = new SimulationContext();
+		context.setOut(SimulationContext.discardingStream());
+		context.setLog(EventLog.disabled());
+		BuildingStatsDTO stats = new BuildingStatsDTO(2, 1, 10, 2, 8, 1000, 2000, new int[]{1, 1}, 10, new int[]{30, 10, 10, 10, 10, 10, 5, 5, 5, 5});
+
+		context.setPassengerLog(file.getPath());
+		new Building(context, stats, ElevatorController.DEFAULT_DECISION_DELEGATE, Building.FAST_SIMULATION, 5);
+
+		assertEquals(4, context.getReportGenerator().getNumberOfReports());
+	}
+
+}
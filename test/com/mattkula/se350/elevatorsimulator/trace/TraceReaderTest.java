@@ -0,0 +1,90 @@
+package com.mattkula.se350.elevatorsimulator.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.mattkula.se350.elevatorsimulator.building.Building;
+import com.mattkula.se350.elevatorsimulator.building.BuildingStatsDTO;
+import com.mattkula.se350.elevatorsimulator.elevatorcontroller.ElevatorController;
+import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
+import com.mattkula.se350.elevatorsimulator.logging.EventLog;
+import com.mattkula.se350.elevatorsimulator.simulation.SimulationContext;
+import com.mattkula.se350.elevatorsimulator.statistics.ReportGenerator;
+
+public class TraceReaderTest {
+
+	//Tests that replaying a trace gives the same statistics as the simulation that wrote it
+	@Test
+	public void testReplayMatchesSimulation() throws IOException, InvalidArgumentException{
+		File file = File.createTempFile("trace", ".bin");
+		file.deleteOnExit();
+		
+		SimulationContext context = new SimulationContext();
+		context.setOut(SimulationContext.discardingStream());
+		context.setLog(EventLog.disabled());
+		context.setTrace(new TraceWriter(file.getPath()));
+		BuildingStatsDTO stats = new BuildingStatsDTO(10, 1, 10, 2, 8, 1000, 2000, new int[]{1, 1}, 10, new int[]{30, 10, 10, 10, 10, 10, 5, 5, 5, 5});
+		new Building(context, stats, ElevatorController.DEFAULT_DECISION_DELEGATE, Building.FAST_SIMULATION, 5);
+		context.getTrace().close();
+		
+		SimulationContext replay = new SimulationContext();
+		replay.setOut(SimulationContext.discardingStream());
+		TraceReader reader = new TraceReader(file.getPath());
+		ReportGenerator report = reader.buildReport(replay);
+		reader.close();
+		
+		ReportGenerator original = context.getReportGenerator();
+		assertTrue(original.getNumberOfReports() > 0);
+		assertEquals(original.getNumberOfReports(), report.getNumberOfReports());
+		assertEquals(original.getOverallAverageWaitTime(), report.getOverallAverageWaitTime(), 0.0);
+		assertEquals(original.getOverallAverageRideTime(), report.getOverallAverageRideTime(), 0.0);
+		assertEquals(original.getAllRideTimes().getValueAtPercentile(99), report.getAllRideTimes().getValueAtPercentile(99));
+	}
+	
+	//Tests that records are read back as they were written
+	@Test
+	public void testRecordsRoundTrip() throws IOException{
+		File file = File.createTempFile("trace", ".bin");
+		file.deleteOnExit();
+		
+		TraceWriter writer = new TraceWriter(file.getPath());
+		for(int i = 0; i < 10000; i++){
+			writer.record(i * 1000L, TraceWriter.ELEVATOR_PASSED, i % 4, i % 16, i);
+		}
+		writer.close();
+		
+		assertEquals(TraceWriter.HEADER_SIZE + 10000 * TraceWriter.RECORD_SIZE, file.length());
+		
+		TraceReader reader = new TraceReader(file.getPath());
+		int count = 0;
+		while(reader.next()){
+			assertEquals(count * 1000L, reader.getTime());
+			assertEquals(TraceWriter.ELEVATOR_PASSED, reader.getType());
+			assertEquals(count % 4, reader.getElevator());
+			assertEquals(count % 16, reader.getFloor());
+			assertEquals(count, reader.getPerson());
+			count++;
+		}
+		reader.close();
+		assertEquals(10000, count);
+	}
+	
+	//Tests reading a file that is not a trace, should throw exception
+	@Test(expected=IOException.class)
+	public void testNotATraceFail() throws IOException{
+		File file = File.createTempFile("trace", ".bin");
+		file.deleteOnExit();
+		FileOutputStream out = new FileOutputStream(file);
+		out.write("not a trace file".getBytes());
+		out.close();
+		
+		new TraceReader(file.getPath());
+	}
+
+}
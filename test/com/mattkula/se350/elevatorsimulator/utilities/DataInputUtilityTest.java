@@ -6,6 +6,8 @@ import java.io.FileNotFoundException;
 
 import org.junit.Test;
 
+import com.mattkula.se350.elevatorsimulator.building.BuildingStatsDTO;
+import com.mattkula.se350.elevatorsimulator.building.OriginDestinationMatrix;
 import com.mattkula.se350.elevatorsimulator.exceptions.InvalidArgumentException;
 import com.mattkula.se350.elevatorsimulator.utilities.DataInputUtility;
 
@@ -48,7 +50,26 @@ public class DataInputUtilityTest {
 			fail("Should have found the file");
 		}
 	}
-
 	
+	//Tests that every window of the origin-destination matrix is read with its start
+	@Test
+	public void OriginDestinationMatrixTest() throws InvalidArgumentException, FileNotFoundException{
+		BuildingStatsDTO stats = DataInputUtility.getBuildingInfoFromFile("simulation_data.txt", "simulation_od_matrix.txt");
+		OriginDestinationMatrix matrix = stats.getOriginDestinationMatrix();
+		
+		assertEquals(3, matrix.size());
+		assertEquals(0, matrix.windowAt(0));
+		assertEquals(1, matrix.windowAt(4 * 60000));
+		assertEquals(2, matrix.windowAt(9 * 60000));
+		assertEquals(20, matrix.getTrips(0, 1, 16), 0);
+		assertEquals(10, matrix.getTrips(1, 3, 7), 0);
+		assertEquals(0, matrix.getTrips(1, 7, 7), 0);
+	}
+	
+	//Should throw exception because the matrix is for a building with a different number of floors
+	@Test(expected=InvalidArgumentException.class)
+	public void OriginDestinationMatrixWrongSizeTest() throws InvalidArgumentException, FileNotFoundException{
+		DataInputUtility.getOriginDestinationMatrixFromFile("simulation_od_matrix.txt", 15);
+	}
 
 }